@@ -0,0 +1,181 @@
+package bingbong;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+
+import bingbong.message.Message;
+import bingbong.util.DeferredStorage;
+import bingbong.util.StorageBackend;
+import bingbong.util.StorageException;
+import bingbong.util.StorageOptions;
+
+/**
+ * Runs the chatbot without its user interface, on the commands in a script file, or on
+ * standard input if no file is given, with one command per line. The output of the chatbot
+ * is written to standard output. Changes are saved once at the end of the script, or once
+ * every given number of commands, rather than after every command.
+ */
+public class BatchRunner {
+    private static final String DATA_FOLDER_PATH = "./data";
+    private static final String TASKS_FILENAME = "tasks.txt";
+    private static final String KEY_VALUE_FILENAME = "tasks.db";
+    private static final String SAVE_INTERVAL_FLAG = "--save-every";
+    private static final String KEY_VALUE_FLAG = "--key-value";
+    private static final String USAGE = "Usage: BatchRunner [SCRIPT_FILE] [" + SAVE_INTERVAL_FLAG + " N] ["
+            + KEY_VALUE_FLAG + "]";
+
+    private final BingBong bot;
+    private final StorageBackend storage;
+    private final int saveInterval;
+
+    /**
+     * Initialises a <code>BatchRunner</code>.
+     *
+     * @param bot          Chatbot which runs the commands.
+     * @param storage      Storage through which the chatbot saves tasks, which is flushed
+     *                     every <code>saveInterval</code> commands.
+     * @param saveInterval Number of commands after which changes are saved, or 0 if changes
+     *                     are only saved once the chatbot is shut down.
+     */
+    BatchRunner(BingBong bot, StorageBackend storage, int saveInterval) {
+        this.bot = bot;
+        this.storage = storage;
+        this.saveInterval = saveInterval;
+    }
+
+    /**
+     * Runs the commands in the script file given by the arguments, or on standard input.
+     *
+     * @param args Path to the script file, if any, optionally followed by
+     *             <code>--save-every N</code>, and by <code>--key-value</code> to save tasks
+     *             in the embedded key-value store instead of the task file.
+     */
+    public static void main(String[] args) {
+        String scriptPath = null;
+        int saveInterval = 0;
+        boolean isKeyValue = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals(SAVE_INTERVAL_FLAG) && i + 1 < args.length) {
+                    saveInterval = Integer.parseInt(args[++i]);
+                } else if (args[i].equals(KEY_VALUE_FLAG)) {
+                    isKeyValue = true;
+                } else if (scriptPath == null && !args[i].startsWith("--")) {
+                    scriptPath = args[i];
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                }
+            }
+            if (saveInterval < 0) {
+                throw new IllegalArgumentException("Number of commands between saves cannot be negative");
+            }
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage() + "\n" + USAGE);
+            System.exit(1);
+        }
+
+        // changes are held back by the deferred storage, so the storage itself need not write behind
+        String tasksFilename = isKeyValue ? KEY_VALUE_FILENAME : TASKS_FILENAME;
+        StorageOptions options = StorageOptions.DEFAULT.withJournal(true).withBackend(isKeyValue
+                ? StorageOptions.Backend.KEY_VALUE
+                : StorageOptions.Backend.TASK_FILE);
+        StorageBackend storage;
+        try {
+            storage = new DeferredStorage(StorageBackend.open(DATA_FOLDER_PATH, tasksFilename, options));
+        } catch (IOException ex) {
+            System.err.println("Something went wrong when initialising task storage: " + ex.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        BingBong bot = new BingBong(storage, DATA_FOLDER_PATH, tasksFilename);
+        Writer output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try (BufferedReader input = scriptPath == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(scriptPath), StandardCharsets.UTF_8)) {
+            new BatchRunner(bot, storage, saveInterval).run(input, output);
+            output.flush();
+        } catch (IOException ex) {
+            System.err.println("Something went wrong when running the commands: " + ex.getMessage());
+        } finally {
+            bot.shutdown();
+        }
+    }
+
+    /**
+     * Runs every command in the given input, writing the output of the chatbot to the given writer.
+     * Blank lines are skipped. Stops at the end of the input, or once the chatbot says goodbye.
+     *
+     * @param input  Commands to be run, one per line.
+     * @param output Writer to which the output of the chatbot is written.
+     * @return Number of commands run.
+     * @throws IOException If the input cannot be read, or the output cannot be written.
+     */
+    int run(BufferedReader input, Writer output) throws IOException {
+        Optional<Message> loadedMessage = this.bot.getLoadedMessage();
+        if (loadedMessage.isPresent()) {
+            writeMessage(loadedMessage.get(), output);
+        }
+
+        int numOfCommands = 0;
+        String inputLine;
+        while ((inputLine = input.readLine()) != null) {
+            if (inputLine.isBlank()) {
+                continue;
+            }
+
+            List<Message> responses = this.bot.getResponses(inputLine);
+            numOfCommands++;
+            boolean isTerminated = false;
+            for (Message response : responses) {
+                writeMessage(response, output);
+                isTerminated |= response.isTerminalMsg();
+            }
+            if (isTerminated) {
+                break;
+            }
+
+            if (this.saveInterval > 0 && numOfCommands % this.saveInterval == 0) {
+                this.saveChanges(output);
+            }
+        }
+        return numOfCommands;
+    }
+
+    /**
+     * Saves the changes made by the commands run so far. If they cannot be saved,
+     * a warning is written instead, and they are saved again later.
+     *
+     * @param output Writer to which any warning is written.
+     * @throws IOException If the warning cannot be written.
+     */
+    private void saveChanges(Writer output) throws IOException {
+        try {
+            this.storage.flush();
+        } catch (StorageException ex) {
+            output.write(ex.getMessage());
+            output.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Writes the text of the given message to the given writer, followed by a line separator.
+     *
+     * @param message Message to be written.
+     * @param output  Writer to which the message is written.
+     * @throws IOException If the message cannot be written.
+     */
+    private static void writeMessage(Message message, Writer output) throws IOException {
+        output.write(message.getMsg());
+        output.write(System.lineSeparator());
+    }
+}
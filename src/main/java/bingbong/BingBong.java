@@ -2,6 +2,8 @@ package bingbong;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,22 +14,38 @@ import bingbong.message.WarningMessage;
 import bingbong.task.TaskTracker;
 import bingbong.util.BingBongException;
 import bingbong.util.MessageFormatter;
+import bingbong.util.ParseResult;
 import bingbong.util.Parser;
-import bingbong.util.Storage;
+import bingbong.util.StorageBackend;
 import bingbong.util.StorageException;
+import bingbong.util.StorageOptions;
+import bingbong.util.TaskFileWatcher;
 
 /**
  * Initialises the task list storage, current task
  * list and user interface, before running the chatbot application.
  */
 public class BingBong {
+    // how the chatbot saves tasks, unless told otherwise
+    static final StorageOptions STORAGE_OPTIONS = StorageOptions.DEFAULT
+            .withJournal(true)
+            .withWriteBehind(true)
+            .withSyncPolicy(StorageOptions.SyncPolicy.EVERY_WRITE);
+
     // describe loading status
     private Optional<Message> loadedMessage;
 
     // tools for the bot
-    private Storage storage;
+    private StorageBackend storage;
     private TaskTracker taskTracker;
 
+    // reloads the task list when the task file is edited by other programs
+    private TaskFileWatcher watcher;
+
+    // warning about an edit to the task file which could not be reloaded, or about the task file
+    // not being watched at all, shown with the next response
+    private WarningMessage reloadWarning;
+
     /**
      * Initialises the <code>BingBong</code> class for the running of the chatbot.
      *
@@ -36,10 +54,68 @@ public class BingBong {
      *                       file is stored in <code>dataFolderPath</code>.
      */
     public BingBong(String dataFolderPath, String tasksFilename) {
+        this(dataFolderPath, tasksFilename, STORAGE_OPTIONS);
+    }
+
+    /**
+     * Initialises the <code>BingBong</code> class for the running of the chatbot, with tasks
+     * saved by the kind of storage chosen by the given options.
+     *
+     * @param dataFolderPath Path to the folder in which tasks are saved.
+     * @param tasksFilename  Name of the file in which tasks are saved. The
+     *                       file is stored in <code>dataFolderPath</code>.
+     * @param options        Options choosing the kind of storage, and how it saves tasks.
+     */
+    public BingBong(String dataFolderPath, String tasksFilename, StorageOptions options) {
+        try {
+            this.storage = StorageBackend.open(dataFolderPath, tasksFilename, options);
+        } catch (IOException ex) {
+            // cannot even initialise storage correctly
+            ErrorMessage storageInitErrorMsg = new ErrorMessage(MessageFormatter
+                    .getExceptionMessage("Something went wrong when "
+                            + "initialising task storage: "
+                            + ex.getMessage()
+                            + "\nPlease fix the problem and try again."));
+            this.loadedMessage = Optional.of(storageInitErrorMsg);
+            return;
+        }
+
+        this.loadTasks(dataFolderPath, tasksFilename);
+
+        // only a task file is edited by other programs
+        if (options.getBackend() == StorageOptions.Backend.TASK_FILE) {
+            this.watchTaskFile(dataFolderPath, tasksFilename);
+        }
+    }
+
+    /**
+     * Initialises the <code>BingBong</code> class to save tasks through the given storage,
+     * such as for a batch of commands. The task file is not reloaded when it is edited by
+     * other programs.
+     *
+     * @param storage        Storage through which tasks are loaded and saved.
+     * @param dataFolderPath Path to the folder in which tasks are saved.
+     * @param tasksFilename  Name of the file in which tasks are saved.
+     */
+    BingBong(StorageBackend storage, String dataFolderPath, String tasksFilename) {
+        this.storage = storage;
+        this.loadTasks(dataFolderPath, tasksFilename);
+    }
+
+    /**
+     * Loads the saved tasks from the storage. If there are no saved tasks, or they cannot
+     * be loaded, an empty task list is initialised, with a warning as the loaded message.
+     *
+     * @param dataFolderPath Path to the folder in which tasks are saved.
+     * @param tasksFilename  Name of the file in which tasks are saved.
+     */
+    private void loadTasks(String dataFolderPath, String tasksFilename) {
         try {
             this.loadedMessage = Optional.empty();
-            this.storage = new Storage(dataFolderPath, tasksFilename);
             this.taskTracker = storage.loadSavedTasks();
+
+            // if only parts of the existing file are damaged
+            this.loadedMessage = storage.getLoadWarning().<Message>map(WarningMessage::new);
         } catch (FileNotFoundException ex) {
             WarningMessage noFileWarningMsg = new WarningMessage("There is no "
                     + "task file named "
@@ -54,14 +130,37 @@ public class BingBong {
             WarningMessage fileCorruptedWarningMsg = new WarningMessage(ex.getMessage());
             this.loadedMessage = Optional.of(fileCorruptedWarningMsg);
             this.taskTracker = new TaskTracker();
+        }
+    }
+
+    /**
+     * Starts reloading the task list whenever the task file is edited by other programs.
+     * If the task file cannot be watched, the chatbot runs without reloading it,
+     * and the user is warned with the next response.
+     *
+     * @param dataFolderPath Path to the folder in which tasks are saved.
+     * @param tasksFilename  Name of the file in which tasks are saved.
+     */
+    private void watchTaskFile(String dataFolderPath, String tasksFilename) {
+        try {
+            this.watcher = new TaskFileWatcher(Paths.get(dataFolderPath, tasksFilename), this::reloadTasks);
         } catch (IOException ex) {
-            // cannot even initialise storage correctly
-            ErrorMessage storageInitErrorMsg = new ErrorMessage(MessageFormatter
-                    .getExceptionMessage("Something went wrong when "
-                            + "initialising task storage: "
-                            + ex.getMessage()
-                            + "\nPlease fix the problem and try again."));
-            this.loadedMessage = Optional.of(storageInitErrorMsg);
+            this.reloadWarning = new WarningMessage("The task file cannot be watched for edits: "
+                    + ex.getMessage()
+                    + "\nHence, edits made to it by other programs will not be reloaded.");
+        }
+    }
+
+    /**
+     * Applies the edits made to the task file by other programs to the task list.
+     * Runs on the watcher thread, so it never runs at the same time as a command.
+     */
+    private synchronized void reloadTasks() {
+        try {
+            this.taskTracker = this.storage.reloadChangedTasks(this.taskTracker);
+            this.reloadWarning = null;
+        } catch (StorageException ex) {
+            this.reloadWarning = new WarningMessage(ex.getMessage());
         }
     }
 
@@ -77,22 +176,64 @@ public class BingBong {
         return this.loadedMessage;
     }
 
+    /**
+     * Saves any changes which are still pending and closes the storage, before the application is closed.
+     * Any failure is printed, as the user interface might no longer be available.
+     */
+    public synchronized void shutdown() {
+        if (this.storage == null) {
+            return;
+        }
+
+        try {
+            if (this.watcher != null) {
+                this.watcher.close();
+            }
+        } catch (IOException ex) {
+            // the watcher thread is a daemon, so it stops with the app regardless
+        }
+
+        try {
+            this.storage.close();
+        } catch (StorageException ex) {
+            System.err.println(ex.getMessage());
+        }
+    }
+
     /**
      * Processes the given user input and subsequently returns a list of
      * messages from the chatbot's output.
      *
      * @return The list of messages from the chatbot's output.
      */
-    public List<Message> getResponses(String inputLine) {
+    public synchronized List<Message> getResponses(String inputLine) {
+        List<Message> responses = new ArrayList<>();
+        if (this.reloadWarning != null) {
+            responses.add(this.reloadWarning);
+            this.reloadWarning = null;
+        }
+
+        assert this.storage != null : "Storage has not been initialised";
+        assert this.taskTracker != null : "Task list has not been initialised";
+
+        // invalid input is rejected without exceptions, which only remain for failures during execution
+        ParseResult result = Parser.tryParse(inputLine);
+        if (result.isSuccessful()) {
+            result = result.getCommand().validate(this.taskTracker);
+        }
+        if (!result.isSuccessful()) {
+            responses.add(new ErrorMessage(MessageFormatter.getExceptionMessage(result.getErrorMessage())));
+            return responses;
+        }
+
         try {
-            assert this.storage != null : "Storage has not been initialised";
-            assert this.taskTracker != null : "Task list has not been initialised";
-            Command commandParsed = Parser.parse(inputLine);
+            Command commandParsed = result.getCommand();
             this.taskTracker = commandParsed.execute(this.taskTracker, storage);
-            return commandParsed.getOutputMessages();
+            responses.addAll(commandParsed.getOutputMessages());
         } catch (BingBongException ex) {
             ErrorMessage errorMsg = new ErrorMessage(MessageFormatter.getExceptionMessage(ex.getMessage()));
-            return List.of(errorMsg);
+            responses.add(errorMsg);
         }
+        return responses;
     }
 }
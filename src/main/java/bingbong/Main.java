@@ -46,4 +46,12 @@ public class Main extends Application {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Stops the JavaFX application, after saving any pending changes.
+     */
+    @Override
+    public void stop() {
+        bot.shutdown();
+    }
 }
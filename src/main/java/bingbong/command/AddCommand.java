@@ -3,9 +3,10 @@ package bingbong.command;
 import bingbong.message.SuccessMessage;
 import bingbong.message.WarningMessage;
 import bingbong.task.Task;
+import bingbong.task.TaskMutation;
 import bingbong.task.TaskTracker;
 import bingbong.util.MessageFormatter;
-import bingbong.util.Storage;
+import bingbong.util.StorageBackend;
 import bingbong.util.StorageException;
 
 /**
@@ -34,7 +35,7 @@ public class AddCommand extends Command {
      *                    at the end of the command's execution.
      * @return New task list.
      */
-    public TaskTracker execute(TaskTracker taskTracker, Storage storage) {
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
         taskTracker = taskTracker.addTask(task);
         int newNumOfTasks = taskTracker.getNumOfTasks();
 
@@ -45,7 +46,7 @@ public class AddCommand extends Command {
 
         // update storage
         try {
-            storage.saveTasks(taskTracker.getCombinedSavableTasks());
+            storage.saveMutation(TaskMutation.ofAddition(this.task), taskTracker);
         } catch (StorageException ex) {
             WarningMessage warningMessage = new WarningMessage(ex.getMessage());
             super.addToOutputMessages(warningMessage);
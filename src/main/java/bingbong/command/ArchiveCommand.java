@@ -0,0 +1,80 @@
+package bingbong.command;
+
+import java.time.LocalDateTime;
+
+import bingbong.message.SuccessMessage;
+import bingbong.message.WarningMessage;
+import bingbong.task.TaskTracker;
+import bingbong.util.MessageFormatter;
+import bingbong.util.StorageBackend;
+import bingbong.util.StorageException;
+
+/**
+ * Represents a command where completed tasks, which took place more than a given
+ * number of days ago, are to be moved out of the task list and into the archive.
+ * Archived tasks are no longer loaded at startup, but can still be searched.
+ */
+public class ArchiveCommand extends Command {
+    private final int daysAgo;
+
+    /**
+     * Initialises an <code>ArchiveCommand</code>.
+     *
+     * @param daysAgo Number of days before the current date, before which
+     *                completed tasks should be archived.
+     */
+    public ArchiveCommand(int daysAgo) {
+        super();
+        this.daysAgo = daysAgo;
+    }
+
+    /**
+     * Executes this <code>ArchiveCommand</code> and returns the new task list, upon
+     * completion of the command.
+     *
+     * @param taskTracker Task list before the command's execution.
+     * @param storage     Storage which updates the task file with the new
+     *                    task list (if modifications have been made),
+     *                    at the end of the command's execution.
+     * @return New task list.
+     */
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(this.daysAgo);
+        TaskTracker archivedTasks = taskTracker.getDoneTasksBefore(cutoff);
+
+        // tasks are only removed from the list once they are in the archive
+        if (archivedTasks.getNumOfTasks() > 0) {
+            try {
+                storage.archiveTasks(archivedTasks);
+            } catch (StorageException ex) {
+                WarningMessage warningMessage = new WarningMessage(ex.getMessage());
+                super.addToOutputMessages(warningMessage);
+                return taskTracker;
+            }
+            taskTracker = taskTracker.deleteDoneTasksBefore(cutoff);
+        }
+
+        // add message to output
+        SuccessMessage successMessage = new SuccessMessage(MessageFormatter
+                .getArchivedTasksMessage(archivedTasks.getNumOfTasks(), this.daysAgo,
+                        taskTracker.getNumOfTasks()));
+        super.addToOutputMessages(successMessage);
+
+        // update storage
+        if (archivedTasks.getNumOfTasks() > 0) {
+            try {
+                storage.saveTasks(taskTracker);
+            } catch (StorageException ex) {
+                WarningMessage warningMessage = new WarningMessage(ex.getMessage());
+                super.addToOutputMessages(warningMessage);
+            }
+        }
+
+        return taskTracker;
+    }
+
+    @Override
+    public String toString() {
+        return "archive command: " + this.daysAgo;
+    }
+}
@@ -0,0 +1,53 @@
+package bingbong.command;
+
+import java.time.LocalDateTime;
+
+import bingbong.message.SuccessMessage;
+import bingbong.task.NumberedTaskList;
+import bingbong.task.TaskTracker;
+import bingbong.util.MessageFormatter;
+import bingbong.util.StorageBackend;
+
+/**
+ * Represents a command where all tasks taking place within
+ * a chosen time window are to be listed out.
+ */
+public class BetweenCommand extends Command {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    /**
+     * Initialises a <code>BetweenCommand</code>.
+     *
+     * @param from Start of the time window.
+     * @param to   End of the time window.
+     */
+    public BetweenCommand(LocalDateTime from, LocalDateTime to) {
+        super();
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Executes this <code>BetweenCommand</code> and returns the new task list, upon
+     * completion of the command.
+     *
+     * @param taskTracker Task list before the command's execution.
+     * @param storage     Storage which updates the task file with the new
+     *                    task list (if modifications have been made),
+     *                    at the end of the command's execution.
+     * @return New task list.
+     */
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
+        NumberedTaskList listOfTasks = taskTracker.getTasksBetween(this.from, this.to);
+        SuccessMessage successMessage = new SuccessMessage(MessageFormatter
+                .getTasksBetweenMessage(listOfTasks));
+        super.addToOutputMessages(successMessage);
+        return taskTracker;
+    }
+
+    @Override
+    public String toString() {
+        return "between command: " + this.from + " to " + this.to;
+    }
+}
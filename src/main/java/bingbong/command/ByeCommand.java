@@ -1,9 +1,11 @@
 package bingbong.command;
 
 import bingbong.message.ByeMessage;
+import bingbong.message.WarningMessage;
 import bingbong.task.TaskTracker;
 import bingbong.util.MessageFormatter;
-import bingbong.util.Storage;
+import bingbong.util.StorageBackend;
+import bingbong.util.StorageException;
 
 /**
  * Represents a command where the application is to be terminated.
@@ -14,12 +16,19 @@ public class ByeCommand extends Command {
      * completion of the command.
      *
      * @param taskTracker Task list before the command's execution.
-     * @param storage     Storage which updates the task file with the new
-     *                    task list (if modifications have been made),
-     *                    at the end of the command's execution.
+     * @param storage     Storage which finishes saving any pending changes
+     *                    before the application is terminated.
      * @return New task list.
      */
-    public TaskTracker execute(TaskTracker taskTracker, Storage storage) {
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
+        // make sure every change reaches the disk before terminating
+        try {
+            storage.flush();
+        } catch (StorageException ex) {
+            WarningMessage warningMessage = new WarningMessage(ex.getMessage());
+            super.addToOutputMessages(warningMessage);
+        }
+
         ByeMessage goodbyeMessage = new ByeMessage(MessageFormatter.getGoodbyeMessage());
         super.addToOutputMessages(goodbyeMessage);
         return taskTracker;
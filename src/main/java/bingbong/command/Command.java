@@ -4,7 +4,8 @@ import java.util.ArrayList;
 
 import bingbong.message.Message;
 import bingbong.task.TaskTracker;
-import bingbong.util.Storage;
+import bingbong.util.ParseResult;
+import bingbong.util.StorageBackend;
 import bingbong.util.TaskTrackerException;
 
 // used GPT-5.0 to improve existing JavaDoc comments, as well as
@@ -18,9 +19,10 @@ public abstract class Command {
     private final ArrayList<Message> outputMessages;
 
     /**
-     * Initialises a command.
+     * Initialises a command. Commands outside of this package can be added
+     * to the chatbot through a <code>CommandFactory</code>.
      */
-    Command() {
+    protected Command() {
         this.outputMessages = new ArrayList<>();
     }
 
@@ -46,9 +48,21 @@ public abstract class Command {
      * @return New task list.
      * @throws TaskTrackerException If the command was not executed successfully.
      */
-    public abstract TaskTracker execute(TaskTracker taskTracker, Storage storage)
+    public abstract TaskTracker execute(TaskTracker taskTracker, StorageBackend storage)
             throws TaskTrackerException;
 
+    /**
+     * Returns the result of checking this command against the task list it is to be executed on,
+     * so that invalid commands can be rejected without an exception being thrown.
+     * Commands are valid by default.
+     *
+     * @param taskTracker Task list before the command's execution.
+     * @return Result holding this command, or an error if it cannot be executed on the task list.
+     */
+    public ParseResult validate(TaskTracker taskTracker) {
+        return ParseResult.ofCommand(this);
+    }
+
     /**
      * Returns the output messages after the command has been executed.
      *
@@ -14,5 +14,10 @@ public enum CommandType {
     EVENT,
     LIST,
     REMIND,
+    BETWEEN,
+    ARCHIVE,
+    FINDARCHIVED,
+    IMPORT,
+    EXPORT,
     BYE
 }
@@ -0,0 +1,58 @@
+package bingbong.command;
+
+import bingbong.message.SuccessMessage;
+import bingbong.message.WarningMessage;
+import bingbong.task.TaskTracker;
+import bingbong.util.MessageFormatter;
+import bingbong.util.StorageBackend;
+import bingbong.util.StorageException;
+import bingbong.util.TaskExchange;
+
+/**
+ * Represents a command where every task in the task list is to be written to a file,
+ * which can be opened by another app. The task list itself is left unchanged.
+ */
+public class ExportCommand extends Command {
+    private final String path;
+    private final TaskExchange.Format format;
+
+    /**
+     * Initialises an <code>ExportCommand</code>.
+     *
+     * @param path   Path to the file to be written.
+     * @param format Format of the file.
+     */
+    public ExportCommand(String path, TaskExchange.Format format) {
+        super();
+        this.path = path;
+        this.format = format;
+    }
+
+    /**
+     * Executes this <code>ExportCommand</code> and returns the new task list, upon
+     * completion of the command.
+     *
+     * @param taskTracker Task list before the command's execution.
+     * @param storage     Storage which updates the task file with the new
+     *                    task list (if modifications have been made),
+     *                    at the end of the command's execution.
+     * @return New task list.
+     */
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
+        try {
+            TaskExchange.exportTasks(taskTracker, this.path, this.format);
+            SuccessMessage successMessage = new SuccessMessage(MessageFormatter
+                    .getExportedTasksMessage(taskTracker.getNumOfTasks(), this.path));
+            super.addToOutputMessages(successMessage);
+        } catch (StorageException ex) {
+            WarningMessage warningMessage = new WarningMessage(ex.getMessage());
+            super.addToOutputMessages(warningMessage);
+        }
+        return taskTracker;
+    }
+
+    @Override
+    public String toString() {
+        return "export command: " + this.path;
+    }
+}
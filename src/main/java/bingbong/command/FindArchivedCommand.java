@@ -0,0 +1,56 @@
+package bingbong.command;
+
+import bingbong.message.SuccessMessage;
+import bingbong.message.WarningMessage;
+import bingbong.task.NumberedTaskList;
+import bingbong.task.TaskTracker;
+import bingbong.util.MessageFormatter;
+import bingbong.util.StorageBackend;
+import bingbong.util.StorageException;
+
+/**
+ * Represents a command where all archived tasks whose names match a given substring
+ * are to be listed out. The archive is scanned upon every search, as it is not loaded.
+ */
+public class FindArchivedCommand extends Command {
+    private final String substring;
+
+    /**
+     * Initialises a <code>FindArchivedCommand</code>.
+     *
+     * @param substring The substring to search for.
+     */
+    public FindArchivedCommand(String substring) {
+        super();
+        this.substring = substring;
+    }
+
+    /**
+     * Executes this <code>FindArchivedCommand</code> and returns the new task list, upon
+     * completion of the command.
+     *
+     * @param taskTracker Task list before the command's execution.
+     * @param storage     Storage which updates the task file with the new
+     *                    task list (if modifications have been made),
+     *                    at the end of the command's execution.
+     * @return New task list.
+     */
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
+        try {
+            NumberedTaskList listOfTasks = storage.loadArchivedTasks(this.substring)
+                    .getMatchingTasks(this.substring);
+            SuccessMessage successMessage = new SuccessMessage(MessageFormatter
+                    .getMatchingArchivedTasksMessage(listOfTasks));
+            super.addToOutputMessages(successMessage);
+        } catch (StorageException ex) {
+            WarningMessage warningMessage = new WarningMessage(ex.getMessage());
+            super.addToOutputMessages(warningMessage);
+        }
+        return taskTracker;
+    }
+
+    @Override
+    public String toString() {
+        return "findarchived command: " + this.substring;
+    }
+}
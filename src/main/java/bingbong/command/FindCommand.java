@@ -1,9 +1,10 @@
 package bingbong.command;
 
 import bingbong.message.SuccessMessage;
+import bingbong.task.NumberedTaskList;
 import bingbong.task.TaskTracker;
 import bingbong.util.MessageFormatter;
-import bingbong.util.Storage;
+import bingbong.util.StorageBackend;
 
 /**
  * Represents a command where all tasks whose names match a given substring
@@ -30,8 +31,8 @@ public class FindCommand extends Command {
      *                    at the end of the command's execution.
      * @return New task list.
      */
-    public TaskTracker execute(TaskTracker taskTracker, Storage storage) {
-        String listOfTasks = taskTracker.findTasks(this.substring);
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
+        NumberedTaskList listOfTasks = taskTracker.getMatchingTasks(this.substring);
         SuccessMessage successMessage = new SuccessMessage(MessageFormatter
                 .getMatchingTasksMessage(listOfTasks));
         super.addToOutputMessages(successMessage);
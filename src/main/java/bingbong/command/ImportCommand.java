@@ -0,0 +1,78 @@
+package bingbong.command;
+
+import java.util.ArrayList;
+
+import bingbong.message.SuccessMessage;
+import bingbong.message.WarningMessage;
+import bingbong.task.Task;
+import bingbong.task.TaskTracker;
+import bingbong.util.MessageFormatter;
+import bingbong.util.StorageBackend;
+import bingbong.util.StorageException;
+import bingbong.util.TaskExchange;
+
+/**
+ * Represents a command where the tasks in a file exported by another app are to be
+ * added to the end of the task list. Every task in the file is added at once, and the
+ * task file is only saved once, however many tasks are imported.
+ */
+public class ImportCommand extends Command {
+    private final String path;
+    private final TaskExchange.Format format;
+
+    /**
+     * Initialises an <code>ImportCommand</code>.
+     *
+     * @param path   Path to the file to be imported.
+     * @param format Format of the file.
+     */
+    public ImportCommand(String path, TaskExchange.Format format) {
+        super();
+        this.path = path;
+        this.format = format;
+    }
+
+    /**
+     * Executes this <code>ImportCommand</code> and returns the new task list, upon
+     * completion of the command.
+     *
+     * @param taskTracker Task list before the command's execution.
+     * @param storage     Storage which updates the task file with the new
+     *                    task list (if modifications have been made),
+     *                    at the end of the command's execution.
+     * @return New task list.
+     */
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
+        ArrayList<Task> importedTasks;
+        try {
+            importedTasks = TaskExchange.importTasks(this.path, this.format);
+        } catch (StorageException ex) {
+            WarningMessage warningMessage = new WarningMessage(ex.getMessage());
+            super.addToOutputMessages(warningMessage);
+            return taskTracker;
+        }
+        taskTracker = taskTracker.addTasks(importedTasks);
+
+        // add message to output
+        SuccessMessage successMessage = new SuccessMessage(MessageFormatter
+                .getImportedTasksMessage(importedTasks.size(), this.path, taskTracker.getNumOfTasks()));
+        super.addToOutputMessages(successMessage);
+
+        // update storage
+        if (!importedTasks.isEmpty()) {
+            try {
+                storage.saveTasks(taskTracker);
+            } catch (StorageException ex) {
+                WarningMessage warningMessage = new WarningMessage(ex.getMessage());
+                super.addToOutputMessages(warningMessage);
+            }
+        }
+
+        return taskTracker;
+    }
+
+    @Override
+    public String toString() {
+        return "import command: " + this.path;
+    }
+}
@@ -1,9 +1,10 @@
 package bingbong.command;
 
 import bingbong.message.SuccessMessage;
+import bingbong.task.NumberedTaskList;
 import bingbong.task.TaskTracker;
 import bingbong.util.MessageFormatter;
-import bingbong.util.Storage;
+import bingbong.util.StorageBackend;
 
 /**
  * Represents a command where all current tasks are to be listed out.
@@ -19,8 +20,8 @@ public class ListCommand extends Command {
      *                    at the end of the command's execution.
      * @return New task list.
      */
-    public TaskTracker execute(TaskTracker taskTracker, Storage storage) {
-        String listOfTasks = taskTracker.listTasks();
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
+        NumberedTaskList listOfTasks = taskTracker.getAllTasks();
         SuccessMessage successMessage = new SuccessMessage(MessageFormatter
                 .getListTasksMessage(listOfTasks));
         super.addToOutputMessages(successMessage);
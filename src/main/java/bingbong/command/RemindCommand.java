@@ -3,9 +3,10 @@ package bingbong.command;
 import java.time.LocalDateTime;
 
 import bingbong.message.SuccessMessage;
+import bingbong.task.NumberedTaskList;
 import bingbong.task.TaskTracker;
 import bingbong.util.MessageFormatter;
-import bingbong.util.Storage;
+import bingbong.util.StorageBackend;
 
 // used GPT-5.0 to improve existing JavaDoc comments, as well as
 // add JavaDoc for non-public methods
@@ -38,9 +39,9 @@ public class RemindCommand extends Command {
      *                    at the end of the command's execution.
      * @return New task list.
      */
-    public TaskTracker execute(TaskTracker taskTracker, Storage storage) {
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage) {
         // start checking for closest tasks from current time
-        String listOfTasks = taskTracker.remindImpendingTasks(LocalDateTime.now(),
+        NumberedTaskList listOfTasks = taskTracker.getImpendingTasks(LocalDateTime.now(),
                 this.daysFromNow);
 
         // add message to output
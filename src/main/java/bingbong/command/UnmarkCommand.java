@@ -3,9 +3,11 @@ package bingbong.command;
 import bingbong.message.SuccessMessage;
 import bingbong.message.WarningMessage;
 import bingbong.task.Task;
+import bingbong.task.TaskMutation;
 import bingbong.task.TaskTracker;
 import bingbong.util.MessageFormatter;
-import bingbong.util.Storage;
+import bingbong.util.ParseResult;
+import bingbong.util.StorageBackend;
 import bingbong.util.StorageException;
 import bingbong.util.TaskTrackerException;
 
@@ -36,7 +38,7 @@ public class UnmarkCommand extends Command {
      * @return New task list.
      * @throws TaskTrackerException If the command was not executed successfully.
      */
-    public TaskTracker execute(TaskTracker taskTracker, Storage storage)
+    public TaskTracker execute(TaskTracker taskTracker, StorageBackend storage)
             throws TaskTrackerException {
         Task unmarkedTask = taskTracker.changeTaskStatusAtIndex(this.index, false);
         taskTracker = taskTracker.editTask(this.index, unmarkedTask);
@@ -48,7 +50,7 @@ public class UnmarkCommand extends Command {
 
         // update storage
         try {
-            storage.saveTasks(taskTracker.getCombinedSavableTasks());
+            storage.saveMutation(TaskMutation.ofStatusChange(this.index, false), taskTracker);
         } catch (StorageException ex) {
             WarningMessage warningMessage = new WarningMessage(ex.getMessage());
             super.addToOutputMessages(warningMessage);
@@ -57,6 +59,14 @@ public class UnmarkCommand extends Command {
         return taskTracker;
     }
 
+    @Override
+    public ParseResult validate(TaskTracker taskTracker) {
+        if (!taskTracker.hasTaskAt(this.index)) {
+            return ParseResult.ofError(() -> taskTracker.getWrongIndexExceptionMsg(this.index));
+        }
+        return ParseResult.ofCommand(this);
+    }
+
     @Override
     public String toString() {
         return "unmark command: " + this.index;
@@ -0,0 +1,257 @@
+package bingbong.task;
+
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Converts dates to and from the two formats used by the chatbot. Dates are saved, and
+ * entered by the user, as <code>d/M/yyyy HH:mm</code>, which is parsed and formatted by hand,
+ * as it is used for every deadline and event that is loaded or saved. Dates are shown to the
+ * user as <code>d MMM yyyy, h:mm a</code>, which is formatted by a shared formatter, with the
+ * most recently shown dates cached. Dates in an unusual form, such as those with years
+ * beyond 9999, are handed to a shared formatter, so that every date is treated as
+ * <code>LocalDateTime.parse</code> and <code>LocalDateTime.format</code> would.
+ */
+public final class DateCodec {
+    /** Format in which dates are saved, and entered by the user. */
+    public static final String SAVE_FORMAT = "d/M/yyyy HH:mm";
+    private static final String OUTPUT_FORMAT = "d MMM yyyy, h:mm a";
+
+    // formatters are immutable, so they can be shared between threads
+    private static final DateTimeFormatter SAVE_FORMATTER = DateTimeFormatter.ofPattern(SAVE_FORMAT);
+    private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern(OUTPUT_FORMAT);
+
+    // fields of a date, in the order in which the formatter checks that they are in range
+    private static final ChronoField[] RESOLVED_FIELDS = {ChronoField.YEAR_OF_ERA, ChronoField.MONTH_OF_YEAR,
+        ChronoField.DAY_OF_MONTH, ChronoField.MINUTE_OF_HOUR, ChronoField.HOUR_OF_DAY};
+
+    // length beyond which text is cut short in the reason for which it cannot be parsed
+    private static final int MAX_QUOTED_LENGTH = 64;
+
+    // number of shown dates cached, which covers the dates of a typical task list
+    private static final int OUTPUT_CACHE_SIZE = 256;
+    private static final Map<LocalDateTime, String> OUTPUT_CACHE =
+            new LinkedHashMap<>(OUTPUT_CACHE_SIZE * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<LocalDateTime, String> eldest) {
+                    return this.size() > OUTPUT_CACHE_SIZE;
+                }
+            };
+
+    private DateCodec() {
+    }
+
+    /**
+     * Returns the given date in the save format.
+     *
+     * @param datetime Date to be formatted.
+     * @return Date in the format <code>d/M/yyyy HH:mm</code>.
+     */
+    public static String format(LocalDateTime datetime) {
+        int year = datetime.getYear();
+        if (year < 1 || year > 9999) {
+            return datetime.format(SAVE_FORMATTER);
+        }
+
+        char[] chars = new char[16];
+        int length = appendNumber(chars, 0, datetime.getDayOfMonth(), 1);
+        chars[length++] = '/';
+        length = appendNumber(chars, length, datetime.getMonthValue(), 1);
+        chars[length++] = '/';
+        length = appendNumber(chars, length, year, 4);
+        chars[length++] = ' ';
+        length = appendNumber(chars, length, datetime.getHour(), 2);
+        chars[length++] = ':';
+        length = appendNumber(chars, length, datetime.getMinute(), 2);
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * Writes the given number into the given characters, padded with zeros to the given width.
+     *
+     * @param chars    Characters to write to.
+     * @param start    Position at which the number is to be written.
+     * @param value    Non-negative number below 10000.
+     * @param minWidth Minimum number of digits.
+     * @return Position after the number.
+     */
+    private static int appendNumber(char[] chars, int start, int value, int minWidth) {
+        int width = Math.max(minWidth, value >= 1000 ? 4 : value >= 100 ? 3 : value >= 10 ? 2 : 1);
+        for (int i = start + width - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return start + width;
+    }
+
+    /**
+     * Returns the date in the given text, which is in the save format.
+     *
+     * @param text Date in the format <code>d/M/yyyy HH:mm</code>.
+     * @return Date parsed.
+     * @throws java.time.format.DateTimeParseException If the date cannot be parsed.
+     */
+    public static LocalDateTime parse(String text) {
+        LocalDateTime datetime = tryParse(text);
+        return datetime != null ? datetime : LocalDateTime.parse(text, SAVE_FORMATTER);
+    }
+
+    /**
+     * Returns the date in the given text, which is in the save format, or null if it cannot
+     * be parsed, without throwing an exception. A day past the end of the month is moved back
+     * to its last day, and <code>24:00</code> is taken to be the start of the next day.
+     *
+     * @param text Date in the format <code>d/M/yyyy HH:mm</code>.
+     * @return Date parsed, or null if it is invalid.
+     */
+    public static LocalDateTime tryParse(String text) {
+        // the usual form, with a day and month of up to 2 digits and a year of 4 digits
+        int firstSlash = text.indexOf('/');
+        int secondSlash = firstSlash < 0 ? -1 : text.indexOf('/', firstSlash + 1);
+        int yearStart = secondSlash + 1;
+        if (firstSlash >= 1 && firstSlash <= 2 && secondSlash - firstSlash >= 2 && secondSlash - firstSlash <= 3
+                && text.length() == yearStart + 10
+                && text.charAt(yearStart + 4) == ' ' && text.charAt(yearStart + 7) == ':') {
+            int day = readNumber(text, 0, firstSlash);
+            int month = readNumber(text, firstSlash + 1, secondSlash);
+            int year = readNumber(text, yearStart, yearStart + 4);
+            int hour = readNumber(text, yearStart + 5, yearStart + 7);
+            int minute = readNumber(text, yearStart + 8, yearStart + 10);
+            if (day >= 0 && month >= 0 && year >= 0 && hour >= 0 && minute >= 0) {
+                return resolve(year, month, day, hour, minute);
+            }
+        }
+
+        // any other form is left to the formatter, which reports failures without throwing
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor fields = SAVE_FORMATTER.parseUnresolved(text, position);
+        if (fields == null || position.getIndex() < text.length()) {
+            return null;
+        }
+        return resolve(fields.getLong(ChronoField.YEAR_OF_ERA), fields.getLong(ChronoField.MONTH_OF_YEAR),
+                fields.getLong(ChronoField.DAY_OF_MONTH), fields.getLong(ChronoField.HOUR_OF_DAY),
+                fields.getLong(ChronoField.MINUTE_OF_HOUR));
+    }
+
+    /**
+     * Returns the reason for which the given text cannot be parsed as a date in the save format,
+     * worded as the message of the exception thrown by <code>parse</code>, including the position
+     * at which the text goes wrong. No exception is thrown, so that rejecting a date stays cheap.
+     *
+     * @param text Date in the format <code>d/M/yyyy HH:mm</code>.
+     * @return Reason for which the date cannot be parsed, or null if it can be parsed.
+     */
+    public static String getParseError(String text) {
+        if (tryParse(text) != null) {
+            return null;
+        }
+
+        // long text is cut short, as in the messages of the formatter
+        String quotedText = "Text '" + (text.length() > MAX_QUOTED_LENGTH
+                ? text.substring(0, MAX_QUOTED_LENGTH) + "..."
+                : text) + "' could not be parsed";
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor fields = SAVE_FORMATTER.parseUnresolved(text, position);
+        if (fields == null) {
+            return quotedText + " at index " + position.getErrorIndex();
+        } else if (position.getIndex() < text.length()) {
+            return quotedText + ", unparsed text found at index " + position.getIndex();
+        }
+        return quotedText + ": " + getInvalidFieldError(fields);
+    }
+
+    /**
+     * Returns the reason for which the given fields do not form a date, naming the first field
+     * which is out of range, in the order in which the formatter checks them.
+     *
+     * @param fields Fields of a date, which cannot be resolved.
+     * @return Reason for which the date cannot be resolved.
+     */
+    private static String getInvalidFieldError(TemporalAccessor fields) {
+        boolean isEndOfDay = fields.getLong(ChronoField.HOUR_OF_DAY) == 24
+                && fields.getLong(ChronoField.MINUTE_OF_HOUR) == 0;
+        for (ChronoField field : RESOLVED_FIELDS) {
+            long value = fields.getLong(field);
+            if (!field.range().isValidValue(value) && !(field == ChronoField.HOUR_OF_DAY && isEndOfDay)) {
+                return "Invalid value for " + field + " (valid values " + field.range() + "): " + value;
+            }
+        }
+        return "Unable to obtain a date from the fields given";
+    }
+
+    /**
+     * Returns the number formed by the given range of the text.
+     *
+     * @param text  Text holding the number.
+     * @param start Start of the number.
+     * @param end   End of the number (exclusive).
+     * @return Number formed by the digits, or -1 if the range holds anything other than digits.
+     */
+    private static int readNumber(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Returns the date with the given fields, resolved as <code>LocalDateTime.parse</code> does.
+     *
+     * @param year   Year of the date.
+     * @param month  Month of the year.
+     * @param day    Day of the month.
+     * @param hour   Hour of the day.
+     * @param minute Minute of the hour.
+     * @return Resolved date, or null if a field is out of range.
+     */
+    private static LocalDateTime resolve(long year, long month, long day, long hour, long minute) {
+        boolean isEndOfDay = hour == 24 && minute == 0;
+        if (!ChronoField.YEAR_OF_ERA.range().isValidValue(year)
+                || !ChronoField.MONTH_OF_YEAR.range().isValidValue(month)
+                || !ChronoField.DAY_OF_MONTH.range().isValidValue(day)
+                || !(ChronoField.HOUR_OF_DAY.range().isValidValue(hour) || isEndOfDay)
+                || !ChronoField.MINUTE_OF_HOUR.range().isValidValue(minute)) {
+            return null;
+        }
+
+        YearMonth yearMonth = YearMonth.of((int) year, (int) month);
+        LocalDate date = yearMonth.atDay((int) Math.min(day, yearMonth.lengthOfMonth()));
+        return isEndOfDay
+                ? date.plusDays(1).atStartOfDay()
+                : date.atTime((int) hour, (int) minute);
+    }
+
+    /**
+     * Returns the given date in the output format, which can be viewed by the user.
+     *
+     * @param datetime Date to be formatted.
+     * @return Date in the format <code>d MMM yyyy, h:mm a</code>.
+     */
+    public static String formatForOutput(LocalDateTime datetime) {
+        synchronized (OUTPUT_CACHE) {
+            String output = OUTPUT_CACHE.get(datetime);
+            if (output != null) {
+                return output;
+            }
+        }
+
+        // formatted outside of the lock, as formatters can be shared
+        String output = datetime.format(OUTPUT_FORMATTER);
+        synchronized (OUTPUT_CACHE) {
+            OUTPUT_CACHE.put(datetime, output);
+        }
+        return output;
+    }
+}
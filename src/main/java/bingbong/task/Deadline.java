@@ -1,6 +1,9 @@
 package bingbong.task;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 /**
  * Represents a deadline that can be recorded in the chatbot. Contains
@@ -9,6 +12,7 @@ import java.time.LocalDateTime;
  */
 public class Deadline extends Task {
     public static final String TASK_ICON = "D";
+    public static final int BINARY_TYPE = 1;
     private final LocalDateTime byWhen;
 
     /**
@@ -44,18 +48,34 @@ public class Deadline extends Task {
     }
 
     /**
-     * Returns whether the deadline will be due within the
-     * selected number of days from the specified date.
+     * Returns the date by which the deadline must be completed.
      *
-     * @param windowStartDate The start of the time window to check.
-     * @param daysFromWindowStartDate Number of days from <code>windowStartDate</code>,
-     *                                defining the future time window for which deadlines
-     *                                should be flagged.
-     * @return Whether the deadline will be occurring soon.
+     * @return Date by which the deadline must be completed.
      */
-    boolean isHappeningSoon(LocalDateTime windowStartDate, int daysFromWindowStartDate) {
-        LocalDateTime windowEndDate = windowStartDate.plusDays(daysFromWindowStartDate);
-        return this.byWhen.isAfter(windowStartDate) && this.byWhen.isBefore(windowEndDate);
+    Optional<LocalDateTime> getOccurrenceTime() {
+        return Optional.of(this.byWhen);
+    }
+
+    /**
+     * Returns the result of the given operation on this deadline.
+     *
+     * @param visitor Operation on the task.
+     * @param <R>     Type of the result of the operation.
+     * @return Result of the operation.
+     */
+    @Override
+    public <R> R accept(TaskVisitor<R> visitor) {
+        return visitor.visitDeadline(super.getTaskName(), super.isDone(), this.byWhen);
+    }
+
+    /**
+     * Returns the type byte that represents deadlines in the binary save format.
+     *
+     * @return Type byte of this deadline.
+     */
+    @Override
+    int getBinaryType() {
+        return BINARY_TYPE;
     }
 
     /**
@@ -71,6 +91,18 @@ public class Deadline extends Task {
                 + DIVIDER + super.getSavableDate(this.byWhen);
     }
 
+    /**
+     * Writes this deadline in the binary save format, followed by its due date.
+     *
+     * @param output Output to write this deadline to.
+     * @throws IOException If the output cannot be written to.
+     */
+    @Override
+    public void writeBinary(DataOutput output) throws IOException {
+        super.writeBinary(output);
+        super.writeBinaryDate(output, this.byWhen);
+    }
+
     @Override
     public String toString() {
         return super.toString()
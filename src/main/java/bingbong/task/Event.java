@@ -1,6 +1,9 @@
 package bingbong.task;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 /**
  * Represents an event that can be recorded in the chatbot. Contains
@@ -9,6 +12,7 @@ import java.time.LocalDateTime;
  */
 public class Event extends Task {
     public static final String TASK_ICON = "E";
+    public static final int BINARY_TYPE = 2;
     private final LocalDateTime startTime;
     private final LocalDateTime endTime;
 
@@ -48,18 +52,34 @@ public class Event extends Task {
     }
 
     /**
-     * Returns whether the event will start within the
-     * selected number of days from the specified date.
+     * Returns the time at which the event starts.
      *
-     * @param windowStartDate The start of the time window to check.
-     * @param daysFromWindowStartDate Number of days from <code>windowStartDate</code>,
-     *                                defining the future time window for which
-     *                                events should be flagged.
-     * @return Whether the event will start soon.
+     * @return Start time of the event.
      */
-    boolean isHappeningSoon(LocalDateTime windowStartDate, int daysFromWindowStartDate) {
-        LocalDateTime windowEndDate = windowStartDate.plusDays(daysFromWindowStartDate);
-        return this.startTime.isAfter(windowStartDate) && this.startTime.isBefore(windowEndDate);
+    Optional<LocalDateTime> getOccurrenceTime() {
+        return Optional.of(this.startTime);
+    }
+
+    /**
+     * Returns the result of the given operation on this event.
+     *
+     * @param visitor Operation on the task.
+     * @param <R>     Type of the result of the operation.
+     * @return Result of the operation.
+     */
+    @Override
+    public <R> R accept(TaskVisitor<R> visitor) {
+        return visitor.visitEvent(super.getTaskName(), super.isDone(), this.startTime, this.endTime);
+    }
+
+    /**
+     * Returns the type byte that represents events in the binary save format.
+     *
+     * @return Type byte of this event.
+     */
+    @Override
+    int getBinaryType() {
+        return BINARY_TYPE;
     }
 
     /**
@@ -76,6 +96,19 @@ public class Event extends Task {
                 + DIVIDER + super.getSavableDate(this.endTime);
     }
 
+    /**
+     * Writes this event in the binary save format, followed by its start and end times.
+     *
+     * @param output Output to write this event to.
+     * @throws IOException If the output cannot be written to.
+     */
+    @Override
+    public void writeBinary(DataOutput output) throws IOException {
+        super.writeBinary(output);
+        super.writeBinaryDate(output, this.startTime);
+        super.writeBinaryDate(output, this.endTime);
+    }
+
     @Override
     public String toString() {
         return super.toString()
@@ -0,0 +1,62 @@
+package bingbong.task;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents the tasks of a task list that was loaded lazily from a <code>TaskSource</code>.
+ * The task with ID i is the task at position i of the source. Each task is decoded the
+ * first time it is accessed, after which it is kept, and shared by every task list
+ * derived from the loaded one.
+ */
+final class LazyTasks {
+    private final TaskSource source;
+
+    // tasks decoded so far, which may be filled in by any thread
+    private final AtomicReferenceArray<Task> decodedTasks;
+
+    /**
+     * Initialises the tasks of the given source, none of which have been decoded yet.
+     *
+     * @param source Source of the tasks.
+     */
+    LazyTasks(TaskSource source) {
+        this.source = source;
+        this.decodedTasks = new AtomicReferenceArray<>(source.size());
+    }
+
+    int size() {
+        return this.decodedTasks.length();
+    }
+
+    /**
+     * Returns the task with the given ID, decoding and keeping it if it
+     * has not been accessed before.
+     *
+     * @param taskId ID of the task.
+     * @return Task with the chosen ID.
+     */
+    Task get(long taskId) {
+        int position = Math.toIntExact(taskId);
+        Task task = this.decodedTasks.get(position);
+        if (task == null) {
+            // tasks are immutable, so a task decoded twice by racing threads is equivalent
+            task = this.source.readTask(position);
+            this.decodedTasks.set(position, task);
+        }
+        return task;
+    }
+
+    /**
+     * Returns the task with the given ID, without keeping it if it has to be decoded.
+     * Used when every task is read once, such as when saving, so that reading the
+     * whole list does not keep every task in memory.
+     *
+     * @param taskId ID of the task.
+     * @return Task with the chosen ID.
+     */
+    Task read(long taskId) {
+        int position = Math.toIntExact(taskId);
+        Task task = this.decodedTasks.get(position);
+        return task != null ? task : this.source.readTask(position);
+    }
+}
@@ -0,0 +1,48 @@
+package bingbong.task;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hashes the contents of a line of a saved text file, with the 64-bit FNV-1a hash.
+ * Lines with the same contents always have the same hash, so that the lines of a task
+ * file can be compared with the tasks of a list without decoding either of them.
+ */
+public final class LineHash {
+    // parameters of the 64-bit FNV-1a hash
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private LineHash() {
+    }
+
+    /**
+     * Returns the hash of the bytes in the given range of the buffer, which holds
+     * the contents of a single line.
+     *
+     * @param buffer Buffer holding the line.
+     * @param start  Start of the line.
+     * @param end    End of the line, excluding its line terminator.
+     * @return Hash of the line.
+     */
+    public static long of(ByteBuffer buffer, int start, int end) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            hash = (hash ^ (buffer.get(i) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the hash of the given bytes, which are the contents of a single line.
+     *
+     * @param bytes Contents of the line, excluding its line terminator.
+     * @return Hash of the line.
+     */
+    static long of(byte[] bytes) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
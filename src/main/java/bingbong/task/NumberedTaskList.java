@@ -0,0 +1,80 @@
+package bingbong.task;
+
+import java.io.IOException;
+
+/**
+ * Represents a read-only view of some tasks, to be shown to the user as a
+ * numbered list. The list is rendered directly into a sink provided by the caller,
+ * one task at a time, so that rendering takes time linear in the size of the output.
+ * The numbering uses 1-indexing to align with user-facing output.
+ */
+public final class NumberedTaskList {
+    // rough length of a rendered task, used to pre-size buffers
+    private static final int ESTIMATED_ITEM_LENGTH = 64;
+
+    // largest estimate, well within the largest array size, so that callers can add a header to it
+    private static final int MAX_ESTIMATED_LENGTH = 1 << 30;
+
+    private final Iterable<Task> tasks;
+    private final int numOfTasks;
+
+    /**
+     * Initialises a view of the given tasks.
+     *
+     * @param tasks      Tasks to be listed, in order.
+     * @param numOfTasks Number of tasks in <code>tasks</code>.
+     */
+    NumberedTaskList(Iterable<Task> tasks, int numOfTasks) {
+        this.tasks = tasks;
+        this.numOfTasks = numOfTasks;
+    }
+
+    /**
+     * Returns the approximate number of characters in the rendered list,
+     * which can be used to pre-size the buffer that the list is rendered into.
+     * The estimate is capped for huge lists, whose buffers then grow as needed.
+     *
+     * @return Estimated length of the rendered list.
+     */
+    public int getEstimatedLength() {
+        return (int) Math.min((long) this.numOfTasks * ESTIMATED_ITEM_LENGTH, MAX_ESTIMATED_LENGTH);
+    }
+
+    /**
+     * Appends the numbered list to the given sink, with one task per line.
+     *
+     * @param sink Sink to render the list into.
+     * @throws IOException If the sink cannot be written to.
+     */
+    public void appendTo(Appendable sink) throws IOException {
+        int num = 1;
+        for (Task task : this.tasks) {
+            if (num > 1) {
+                sink.append('\n');
+            }
+            sink.append(Integer.toString(num)).append(". ").append(task.toString());
+            num++;
+        }
+    }
+
+    /**
+     * Appends the numbered list to the given <code>StringBuilder</code>,
+     * with one task per line.
+     *
+     * @param sink <code>StringBuilder</code> to render the list into.
+     */
+    public void appendTo(StringBuilder sink) {
+        try {
+            this.appendTo((Appendable) sink);
+        } catch (IOException ex) {
+            throw new AssertionError("StringBuilder should never throw an IOException", ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(this.getEstimatedLength());
+        this.appendTo(sb);
+        return sb.toString();
+    }
+}
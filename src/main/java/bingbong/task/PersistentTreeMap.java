@@ -0,0 +1,423 @@
+package bingbong.task;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Represents an immutable sorted map, implemented as a persistent AVL tree.
+ * Every node also records the size of its subtree, so that entries can be
+ * retrieved by their position (rank) in the key order.
+ * Updates never modify an existing map. Instead, only the nodes along the path
+ * to the updated entry are copied, while every other node is shared with the
+ * previous version. Hence, insertion, replacement, removal and positional
+ * lookups all take O(log n) time and allocation.
+ *
+ * @param <K> Type of the keys, which determine the order of the entries.
+ * @param <V> Type of the values.
+ */
+final class PersistentTreeMap<K extends Comparable<K>, V> {
+    private static final PersistentTreeMap<?, ?> EMPTY = new PersistentTreeMap<>(null);
+
+    private final Node<K, V> root;
+
+    /**
+     * Represents a single, immutable node of the tree.
+     */
+    private static final class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int height;
+        private final int size;
+
+        /**
+         * Initialises a node with the given entry and children.
+         *
+         * @param key   Key of the entry.
+         * @param value Value of the entry.
+         * @param left  Left subtree, containing only smaller keys.
+         * @param right Right subtree, containing only larger keys.
+         */
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private PersistentTreeMap(Node<K, V> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns an empty map.
+     *
+     * @return Empty map.
+     */
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<K>, V> PersistentTreeMap<K, V> empty() {
+        return (PersistentTreeMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Returns a map containing the given entries, built in O(n) time.
+     *
+     * @param keys   Keys of the entries, which must be sorted in ascending order
+     *               and contain no duplicates.
+     * @param values Values of the entries, in the same order as <code>keys</code>.
+     * @return Map containing the given entries.
+     */
+    static <K extends Comparable<K>, V> PersistentTreeMap<K, V> ofSorted(List<K> keys, List<V> values) {
+        assert keys.size() == values.size() : "Number of keys and values provided must match";
+        return new PersistentTreeMap<>(build(keys, values, 0, keys.size()));
+    }
+
+    /**
+     * Builds a perfectly balanced subtree out of the sorted entries in the chosen range.
+     *
+     * @param keys   Sorted keys.
+     * @param values Values corresponding to <code>keys</code>.
+     * @param from   Start of the range (inclusive).
+     * @param to     End of the range (exclusive).
+     * @return Root of the subtree.
+     */
+    private static <K, V> Node<K, V> build(List<K> keys, List<V> values, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+
+        int mid = (from + to) >>> 1;
+        return new Node<>(keys.get(mid), values.get(mid),
+                build(keys, values, from, mid), build(keys, values, mid + 1, to));
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns a copy of the given node, but with the specified children instead.
+     * Rebalances the result if the children differ in height by more than 1.
+     *
+     * @param node  Node to be copied.
+     * @param left  New left subtree.
+     * @param right New right subtree.
+     * @return Root of the balanced subtree.
+     */
+    private static <K, V> Node<K, V> rebalance(Node<K, V> node, Node<K, V> left, Node<K, V> right) {
+        int balance = height(left) - height(right);
+
+        if (balance > 1) {
+            if (height(left.left) < height(left.right)) {
+                // left-right case
+                Node<K, V> pivot = left.right;
+                return new Node<>(pivot.key, pivot.value,
+                        new Node<>(left.key, left.value, left.left, pivot.left),
+                        new Node<>(node.key, node.value, pivot.right, right));
+            }
+            // left-left case
+            return new Node<>(left.key, left.value, left.left,
+                    new Node<>(node.key, node.value, left.right, right));
+        }
+
+        if (balance < -1) {
+            if (height(right.right) < height(right.left)) {
+                // right-left case
+                Node<K, V> pivot = right.left;
+                return new Node<>(pivot.key, pivot.value,
+                        new Node<>(node.key, node.value, left, pivot.left),
+                        new Node<>(right.key, right.value, pivot.right, right.right));
+            }
+            // right-right case
+            return new Node<>(right.key, right.value,
+                    new Node<>(node.key, node.value, left, right.left), right.right);
+        }
+
+        return new Node<>(node.key, node.value, left, right);
+    }
+
+    /**
+     * Returns the subtree obtained after putting the given entry into the chosen subtree.
+     *
+     * @param node  Root of the subtree.
+     * @param key   Key of the entry.
+     * @param value Value of the entry.
+     * @return Root of the new subtree.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+
+        int comparison = key.compareTo(node.key);
+        if (comparison < 0) {
+            return rebalance(node, put(node.left, key, value), node.right);
+        } else if (comparison > 0) {
+            return rebalance(node, node.left, put(node.right, key, value));
+        } else {
+            // replace value, keeping the shape of the tree
+            return new Node<>(key, value, node.left, node.right);
+        }
+    }
+
+    /**
+     * Returns the subtree obtained after removing the smallest entry from the chosen subtree.
+     *
+     * @param node Root of the subtree, which must not be empty.
+     * @return Root of the new subtree.
+     */
+    private static <K, V> Node<K, V> removeMin(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return rebalance(node, removeMin(node.left), node.right);
+    }
+
+    /**
+     * Returns the subtree obtained after removing the entry with the given key
+     * from the chosen subtree, if it exists.
+     *
+     * @param node Root of the subtree.
+     * @param key  Key of the entry to be removed.
+     * @return Root of the new subtree.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> remove(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = key.compareTo(node.key);
+        if (comparison < 0) {
+            return rebalance(node, remove(node.left, key), node.right);
+        } else if (comparison > 0) {
+            return rebalance(node, node.left, remove(node.right, key));
+        }
+
+        if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        }
+
+        // replace the removed node with its in-order successor
+        Node<K, V> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        return rebalance(successor, node.left, removeMin(node.right));
+    }
+
+    /**
+     * Returns the node at the given position of the key order.
+     *
+     * @param index Zero-based position of the node.
+     * @return Node at the chosen position.
+     * @throws IndexOutOfBoundsException If <code>index</code> is out of bounds of the map.
+     */
+    private Node<K, V> getNodeAt(int index) {
+        if (index < 0 || index >= this.size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + this.size());
+        }
+
+        Node<K, V> node = this.root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries in this map.
+     *
+     * @return Number of entries.
+     */
+    int size() {
+        return size(this.root);
+    }
+
+    /**
+     * Returns the value associated with the given key, or <code>null</code>
+     * if there is no such key.
+     *
+     * @param key Key to look up.
+     * @return Value associated with <code>key</code>, if any.
+     */
+    V get(K key) {
+        Node<K, V> node = this.root;
+        while (node != null) {
+            int comparison = key.compareTo(node.key);
+            if (comparison == 0) {
+                return node.value;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the key at the given position of the key order.
+     *
+     * @param index Zero-based position of the entry.
+     * @return Key at the chosen position.
+     * @throws IndexOutOfBoundsException If <code>index</code> is out of bounds of the map.
+     */
+    K getKeyAt(int index) {
+        return this.getNodeAt(index).key;
+    }
+
+    /**
+     * Returns the value at the given position of the key order.
+     *
+     * @param index Zero-based position of the entry.
+     * @return Value at the chosen position.
+     * @throws IndexOutOfBoundsException If <code>index</code> is out of bounds of the map.
+     */
+    V getValueAt(int index) {
+        return this.getNodeAt(index).value;
+    }
+
+    /**
+     * Returns a new map which also contains the given entry. If the key
+     * already exists, its value is replaced.
+     *
+     * @param key   Key of the entry.
+     * @param value Value of the entry.
+     * @return New map containing the entry.
+     */
+    PersistentTreeMap<K, V> put(K key, V value) {
+        return new PersistentTreeMap<>(put(this.root, key, value));
+    }
+
+    /**
+     * Returns a new map without the entry with the given key.
+     *
+     * @param key Key of the entry to be removed.
+     * @return New map without the entry.
+     */
+    PersistentTreeMap<K, V> remove(K key) {
+        return new PersistentTreeMap<>(remove(this.root, key));
+    }
+
+    /**
+     * Returns an iterator over the nodes in this map, in key order, starting
+     * from the smallest key that is greater than or equal to the given lower bound.
+     * Only the nodes visited are read, so iterating over k nodes takes
+     * O(log n + k) time.
+     *
+     * @param lowerBound Smallest key to start from, or <code>null</code>
+     *                   to start from the smallest key in the map.
+     * @return Iterator over the nodes.
+     */
+    private Iterator<Node<K, V>> iterateFrom(K lowerBound) {
+        ArrayDeque<Node<K, V>> path = new ArrayDeque<>();
+
+        // record the path to the first node within the bound
+        Node<K, V> node = this.root;
+        while (node != null) {
+            if (lowerBound == null || lowerBound.compareTo(node.key) <= 0) {
+                path.push(node);
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            @Override
+            public Node<K, V> next() {
+                if (path.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+
+                // the next node is the leftmost node of the right subtree, if any
+                Node<K, V> current = path.pop();
+                for (Node<K, V> next = current.right; next != null; next = next.left) {
+                    path.push(next);
+                }
+                return current;
+            }
+        };
+    }
+
+    /**
+     * Returns a sequential stream of the nodes in this map, in key order.
+     *
+     * @return Stream of nodes.
+     */
+    private Stream<Node<K, V>> nodes() {
+        return StreamSupport.stream(Spliterators.spliterator(this.iterateFrom(null), this.size(),
+                Spliterator.ORDERED | Spliterator.SIZED | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * Returns a sequential stream of the keys in this map, in ascending order.
+     *
+     * @return Stream of keys.
+     */
+    Stream<K> keys() {
+        return this.nodes().map(node -> node.key);
+    }
+
+    /**
+     * Returns a sequential stream of the keys in this map that lie within the given
+     * range, in ascending order.
+     *
+     * @param from Smallest key in the range (inclusive).
+     * @param to   Largest key in the range (inclusive).
+     * @return Stream of keys within the range.
+     */
+    Stream<K> keysBetween(K from, K to) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this.iterateFrom(from),
+                        Spliterator.ORDERED | Spliterator.IMMUTABLE), false)
+                .map(node -> node.key)
+                .takeWhile(key -> key.compareTo(to) <= 0);
+    }
+
+    /**
+     * Returns a sequential stream of the values in this map, in key order.
+     *
+     * @return Stream of values.
+     */
+    Stream<V> values() {
+        return this.nodes().map(node -> node.value);
+    }
+
+    /**
+     * Returns a sequential stream of the results of applying the given function
+     * to every entry in this map, in key order.
+     *
+     * @param mapper Function applied to the key and value of each entry.
+     * @param <R>    Type of the results.
+     * @return Stream of results.
+     */
+    <R> Stream<R> mapEntries(BiFunction<? super K, ? super V, ? extends R> mapper) {
+        return this.nodes().map(node -> mapper.apply(node.key, node.value));
+    }
+}
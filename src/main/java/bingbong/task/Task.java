@@ -1,7 +1,11 @@
 package bingbong.task;
 
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
+import java.util.Optional;
 
 // used GPT-5.0 to improve existing JavaDoc comments, as well as
 // add JavaDoc for non-public methods
@@ -14,14 +18,20 @@ import java.time.format.DateTimeFormatter;
 public abstract class Task {
     public static final String DONE_ICON = "X";
     public static final String NOT_DONE_ICON = " ";
+    public static final int BINARY_DONE_FLAG = 0x80;
     protected static final String DIVIDER = " | ";
-    private static final String DATE_OUTPUT_FORMAT = "d MMM yyyy, h:mm a";
-    private static final String DATE_SAVE_FORMAT = "d/M/yyyy HH:mm";
 
     private final String taskName;
     private final String taskIcon;
     private final boolean isDone;
 
+    // UTF-8 bytes of the savable string, encoded upon the first save, as tasks never change
+    private volatile byte[] savableBytes;
+
+    // hash of the savable bytes, worked out upon the first reload of an edited task file
+    private volatile long savableHash;
+    private volatile boolean hasSavableHash;
+
     /**
      * Initialises an incomplete task with the specified name.
      *
@@ -64,18 +74,31 @@ public abstract class Task {
     abstract Task changeTaskStatus(boolean isDoneNew);
 
     /**
-     * Returns whether the task will be occurring within the
-     * selected number of days from the specified date. In the case of deadlines,
-     * we check whether the deadline is due soon. In the case of
-     * events, we check whether the event is starting soon.
+     * Returns the time at which the task takes place, if any. In the case of
+     * deadlines, this is the date by which the deadline is due. In the case of
+     * events, this is the start time of the event.
+     *
+     * @return Time at which the task takes place, or <code>Optional.empty</code>
+     *         if the task does not take place at a certain time.
+     */
+    abstract Optional<LocalDateTime> getOccurrenceTime();
+
+    /**
+     * Returns the result of the given operation on this task, by handing the
+     * details of this task to the method of the visitor matching its type.
      *
-     * @param windowStartDate The start of the time window to check.
-     * @param daysFromWindowStartDate Number of days from <code>windowStartDate</code>,
-     *                                defining the future time window for which tasks
-     *                                should be flagged.
-     * @return Whether the task will be occurring soon.
+     * @param visitor Operation on the task.
+     * @param <R>     Type of the result of the operation.
+     * @return Result of the operation.
      */
-    abstract boolean isHappeningSoon(LocalDateTime windowStartDate, int daysFromWindowStartDate);
+    public abstract <R> R accept(TaskVisitor<R> visitor);
+
+    /**
+     * Returns the type byte that represents the type of task in the binary save format.
+     *
+     * @return Type byte of this task.
+     */
+    abstract int getBinaryType();
 
     /**
      * Returns a <code>String</code> corresponding to the input
@@ -86,8 +109,7 @@ public abstract class Task {
      * @return The chosen date in <code>String</code> type.
      */
     protected String getOutputDate(LocalDateTime datetime) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_OUTPUT_FORMAT);
-        return datetime.format(formatter);
+        return DateCodec.formatForOutput(datetime);
     }
 
     /**
@@ -99,7 +121,7 @@ public abstract class Task {
      * @return The chosen date in <code>String</code> type.
      */
     protected String getSavableDate(LocalDateTime datetime) {
-        return datetime.format(DateTimeFormatter.ofPattern(DATE_SAVE_FORMAT));
+        return DateCodec.format(datetime);
     }
 
     /**
@@ -108,10 +130,96 @@ public abstract class Task {
      *
      * @return <code>String</code> representation of this task.
      */
-    String getSavableString() {
+    public String getSavableString() {
         return this.getStatusIcon() + DIVIDER + this.taskName;
     }
 
+    /**
+     * Returns the UTF-8 bytes of the savable <code>String</code> of this task.
+     * The bytes are only encoded upon the first call, after which they are reused.
+     * As changing a task creates a new task, only tasks which changed since the
+     * previous save have to be encoded again. The returned array must not be modified.
+     *
+     * @return UTF-8 bytes of the savable <code>String</code>.
+     */
+    byte[] getSavableBytes() {
+        byte[] bytes = this.savableBytes;
+        if (bytes == null) {
+            bytes = this.getSavableString().getBytes(StandardCharsets.UTF_8);
+            this.savableBytes = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the hash of the line holding this task in a saved text file, as given by
+     * <code>LineHash</code>. The hash is only worked out upon the first call, after which
+     * it is reused, so that only tasks which changed since then have to be hashed again.
+     *
+     * @return Hash of the savable bytes of this task.
+     */
+    long getSavableHash() {
+        if (!this.hasSavableHash) {
+            // the hash is written before the flag, so that it is never read before it is set
+            this.savableHash = LineHash.of(this.getSavableBytes());
+            this.hasSavableHash = true;
+        }
+        return this.savableHash;
+    }
+
+    /**
+     * Writes this task in the binary save format. The task starts with its type byte,
+     * whose highest bit is set if the task has been completed, followed by the length of
+     * its name as a varint and the UTF-8 bytes of its name. Subclasses write their dates after that.
+     *
+     * @param output Output to write this task to.
+     * @throws IOException If the output cannot be written to.
+     */
+    public void writeBinary(DataOutput output) throws IOException {
+        output.writeByte(this.getBinaryType() | (this.isDone ? BINARY_DONE_FLAG : 0));
+        byte[] nameBytes = this.taskName.getBytes(StandardCharsets.UTF_8);
+        writeVarint(output, nameBytes.length);
+        output.write(nameBytes);
+    }
+
+    /**
+     * Writes the input <code>LocalDateTime</code> object in the binary save format,
+     * as a <code>long</code> holding the number of seconds since the epoch.
+     *
+     * @param output   Output to write the date to.
+     * @param datetime <code>LocalDateTime</code> object.
+     * @throws IOException If the output cannot be written to.
+     */
+    protected void writeBinaryDate(DataOutput output, LocalDateTime datetime) throws IOException {
+        output.writeLong(datetime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * Writes the given non-negative number as a varint, with 7 bits in each byte,
+     * starting from the lowest bits. The highest bit of each byte is set if more bytes follow.
+     *
+     * @param output Output to write the number to.
+     * @param value  Non-negative number.
+     * @throws IOException If the output cannot be written to.
+     */
+    static void writeVarint(DataOutput output, int value) throws IOException {
+        assert value >= 0 : "Varints can only hold non-negative numbers";
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    /**
+     * Returns the name of this task.
+     *
+     * @return Name of this task.
+     */
+    String getTaskName() {
+        return this.taskName;
+    }
+
     /**
      * Returns whether the name of this task
      * contains the substring provided.
@@ -132,6 +240,19 @@ public abstract class Task {
         return this.isDone;
     }
 
+    /**
+     * Returns whether this task has been completed, and took place before the given time.
+     * As todos do not take place at a certain time, a completed todo is always included.
+     *
+     * @param cutoff Time before which the task must have taken place.
+     * @return Whether this task is completed and took place before <code>cutoff</code>.
+     */
+    boolean isDoneBefore(LocalDateTime cutoff) {
+        return this.isDone && this.getOccurrenceTime()
+                .map(occurrenceTime -> occurrenceTime.isBefore(cutoff))
+                .orElse(true);
+    }
+
     @Override
     public String toString() {
         return "[" + this.taskIcon + "]"
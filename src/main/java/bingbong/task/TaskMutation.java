@@ -0,0 +1,111 @@
+package bingbong.task;
+
+import bingbong.util.TaskTrackerException;
+
+/**
+ * Represents a single change made to a task list by a command, such as the
+ * addition of a task or the deletion of the task at some index. Applying the
+ * same sequence of mutations to the same task list always produces the same result,
+ * so mutations can be recorded and replayed later on.
+ */
+public final class TaskMutation {
+    /**
+     * Consists of the kinds of changes that can be made to a task list.
+     */
+    public enum Type {
+        ADD,
+        MARK,
+        UNMARK,
+        DELETE
+    }
+
+    private final Type type;
+    private final int index;
+    private final Task task;
+
+    private TaskMutation(Type type, int index, Task task) {
+        this.type = type;
+        this.index = index;
+        this.task = task;
+    }
+
+    /**
+     * Returns a mutation which adds the given task to the back of the list.
+     *
+     * @param task Task to be added.
+     * @return Mutation adding the task.
+     */
+    public static TaskMutation ofAddition(Task task) {
+        return new TaskMutation(Type.ADD, -1, task);
+    }
+
+    /**
+     * Returns a mutation which changes the status of the task at the given index.
+     *
+     * @param index     List index of the task whose status is to be changed.
+     * @param isDoneNew New completion status of the task.
+     * @return Mutation changing the status of the task.
+     */
+    public static TaskMutation ofStatusChange(int index, boolean isDoneNew) {
+        return new TaskMutation(isDoneNew ? Type.MARK : Type.UNMARK, index, null);
+    }
+
+    /**
+     * Returns a mutation which deletes the task at the given index.
+     *
+     * @param index List index of the task to be deleted.
+     * @return Mutation deleting the task.
+     */
+    public static TaskMutation ofDeletion(int index) {
+        return new TaskMutation(Type.DELETE, index, null);
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the list index of the task changed by this mutation.
+     * Only applicable to mutations which do not add a task.
+     *
+     * @return List index of the task changed.
+     */
+    public int getIndex() {
+        assert this.type != Type.ADD : "Additions do not have a list index";
+        return this.index;
+    }
+
+    /**
+     * Returns the task added by this mutation.
+     * Only applicable to mutations which add a task.
+     *
+     * @return Task added.
+     */
+    public Task getTask() {
+        assert this.type == Type.ADD : "Only additions contain a task";
+        return this.task;
+    }
+
+    /**
+     * Returns the task list obtained after applying this mutation to the given task list.
+     *
+     * @param taskTracker Task list before the mutation.
+     * @return Task list after the mutation.
+     * @throws TaskTrackerException If the list index of this mutation is out of bounds
+     *                              of the task list.
+     */
+    public TaskTracker applyTo(TaskTracker taskTracker) throws TaskTrackerException {
+        switch (this.type) {
+        case ADD:
+            return taskTracker.addTask(this.task);
+        case MARK:
+            return taskTracker.editTask(this.index, taskTracker.changeTaskStatusAtIndex(this.index, true));
+        case UNMARK:
+            return taskTracker.editTask(this.index, taskTracker.changeTaskStatusAtIndex(this.index, false));
+        case DELETE:
+            return taskTracker.deleteTask(this.index);
+        default:
+            throw new AssertionError("Unknown type of mutation: " + this.type);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package bingbong.task;
+
+/**
+ * Represents a fixed sequence of saved tasks, such as the tasks in a task file,
+ * which are only decoded when they are read. A task list can be loaded from
+ * a source without creating every task upfront.
+ */
+public interface TaskSource {
+    /**
+     * Returns the number of tasks in this source.
+     *
+     * @return Number of tasks.
+     */
+    int size();
+
+    /**
+     * Decodes and returns the task at the given position. Every call decodes
+     * the task again, so callers should keep the tasks that they need.
+     *
+     * @param position Zero-based position of the task.
+     * @return Task at the chosen position.
+     * @throws IllegalArgumentException If the saved task is incorrectly formatted.
+     */
+    Task readTask(int position);
+}
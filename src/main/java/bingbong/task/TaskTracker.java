@@ -1,10 +1,15 @@
 package bingbong.task;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import bingbong.util.TaskTrackerException;
 
@@ -15,15 +20,32 @@ import bingbong.util.TaskTrackerException;
  * Manages the current list of tasks recorded, during the running of the
  * chatbot. Supports numerous operation on the task list, such as the
  * addition, removal, retrieval, editing and listing of tasks.
+ * Each task is stored against a task ID, which is assigned in increasing order
+ * as tasks are added. As new tasks are always added to the back of the list,
+ * the order of the task IDs matches the order of the list. The tasks are kept in
+ * a persistent tree, so that every modified task list shares most of its
+ * structure with the previous task list, instead of copying all of its tasks.
  */
 public class TaskTracker {
-    private final ArrayList<Task> tasks;
+    private final PersistentTreeMap<Long, Task> tasks;
+    private final long nextTaskId;
+
+    // tasks loaded lazily from a source, which are stored as null in the tree until they are replaced
+    private final LazyTasks lazyTasks;
+
+    // indexes over the task names and times, kept up to date by every new task list
+    private final TrigramIndex nameIndex;
+    private final TimeIndex timeIndex;
 
     /**
      * Initialises an empty task list.
      */
     public TaskTracker() {
-        this.tasks = new ArrayList<>();
+        this.tasks = PersistentTreeMap.empty();
+        this.nextTaskId = 0;
+        this.lazyTasks = null;
+        this.nameIndex = TrigramIndex.of(List.of(), List.of());
+        this.timeIndex = TimeIndex.of(List.of(), List.of());
     }
 
     /**
@@ -34,7 +56,33 @@ public class TaskTracker {
      *              upon initialisation.
      */
     public TaskTracker(ArrayList<Task> tasks) {
-        this.tasks = tasks;
+        List<Long> taskIds = LongStream.range(0, tasks.size()).boxed().toList();
+        this.tasks = PersistentTreeMap.ofSorted(taskIds, tasks);
+        this.nextTaskId = tasks.size();
+        this.lazyTasks = null;
+        this.nameIndex = TrigramIndex.of(taskIds, tasks);
+        this.timeIndex = TimeIndex.of(taskIds, tasks);
+    }
+
+    /**
+     * Initialises a task list populated by the tasks in the given source.
+     * No task is kept upfront. Instead, each task is decoded once to build the indexes
+     * without being kept, and is only kept the first time it is accessed.
+     *
+     * @param source Source of the tasks that the list will contain
+     *               upon initialisation.
+     */
+    public TaskTracker(TaskSource source) {
+        this.lazyTasks = new LazyTasks(source);
+        int numOfTasks = this.lazyTasks.size();
+        List<Long> taskIds = LongStream.range(0, numOfTasks).boxed().toList();
+        this.tasks = PersistentTreeMap.ofSorted(taskIds, Collections.nCopies(numOfTasks, null));
+        this.nextTaskId = numOfTasks;
+
+        // the decoded tasks are only held while the indexes are built
+        List<Task> decodedTasks = this.streamTasks().toList();
+        this.nameIndex = TrigramIndex.of(taskIds, decodedTasks);
+        this.timeIndex = TimeIndex.of(taskIds, decodedTasks);
     }
 
     /**
@@ -46,8 +94,11 @@ public class TaskTracker {
      * @param newTask     New task to be added.
      */
     private TaskTracker(TaskTracker taskTracker, Task newTask) {
-        this.tasks = new ArrayList<>(taskTracker.tasks);
-        this.tasks.add(newTask);
+        this.tasks = taskTracker.tasks.put(taskTracker.nextTaskId, newTask);
+        this.nextTaskId = taskTracker.nextTaskId + 1;
+        this.lazyTasks = taskTracker.lazyTasks;
+        this.nameIndex = taskTracker.nameIndex.add(taskTracker.nextTaskId, newTask.getTaskName());
+        this.timeIndex = taskTracker.timeIndex.add(taskTracker.nextTaskId, newTask);
         assert this.getNumOfTasks() > 0 : "Number of tasks in list is less than or equal "
                 + "to 0, even though a new task has been added";
     }
@@ -63,8 +114,19 @@ public class TaskTracker {
      * @param taskIndex   Index at which the replacement should occur.
      */
     private TaskTracker(TaskTracker taskTracker, Task task, int taskIndex) {
-        this.tasks = new ArrayList<>(taskTracker.tasks);
-        this.tasks.set(taskIndex, task);
+        long taskId = taskTracker.tasks.getKeyAt(taskIndex);
+        Task oldTask = taskTracker.getTaskWithId(taskId);
+        this.tasks = taskTracker.tasks.put(taskId, task);
+        this.nextTaskId = taskTracker.nextTaskId;
+        this.lazyTasks = taskTracker.lazyTasks;
+
+        // changing the status of a task does not change its name or time
+        this.nameIndex = oldTask.getTaskName().equals(task.getTaskName())
+                ? taskTracker.nameIndex
+                : taskTracker.nameIndex.remove(taskId, oldTask.getTaskName()).add(taskId, task.getTaskName());
+        this.timeIndex = oldTask.getOccurrenceTime().equals(task.getOccurrenceTime())
+                ? taskTracker.timeIndex
+                : taskTracker.timeIndex.remove(taskId, oldTask).add(taskId, task);
     }
 
     /**
@@ -78,11 +140,104 @@ public class TaskTracker {
      *                    respect to the previous task list.
      */
     private TaskTracker(TaskTracker taskTracker, int taskIndex) {
-        this.tasks = new ArrayList<>(taskTracker.tasks);
-        this.tasks.remove(taskIndex);
+        long taskId = taskTracker.tasks.getKeyAt(taskIndex);
+        Task oldTask = taskTracker.getTaskWithId(taskId);
+        this.tasks = taskTracker.tasks.remove(taskId);
+        this.nextTaskId = taskTracker.nextTaskId;
+        this.lazyTasks = taskTracker.lazyTasks;
+        this.nameIndex = taskTracker.nameIndex.remove(taskId, oldTask.getTaskName());
+        this.timeIndex = taskTracker.timeIndex.remove(taskId, oldTask);
         assert this.getNumOfTasks() >= 0 : "After deletion of task, number of tasks in list is now negative";
     }
 
+    /**
+     * Initialises a new task list containing all the tasks from
+     * a previous task list, except those satisfying the given predicate.
+     * Effectively deletes every such task at once. Tasks loaded lazily are
+     * only decoded to be checked, and are kept undecoded otherwise. The indexes
+     * drop the deleted tasks one at a time, unless most of the tasks are deleted,
+     * in which case they are built again over the remaining tasks.
+     *
+     * @param taskTracker    Previous task list.
+     * @param isTaskToDelete Condition satisfied by the tasks to be deleted.
+     */
+    private TaskTracker(TaskTracker taskTracker, Predicate<Task> isTaskToDelete) {
+        List<Long> taskIds = taskTracker.tasks.keys().toList();
+        List<Task> storedTasks = taskTracker.tasks.values().toList();
+        List<Long> keptTaskIds = new ArrayList<>();
+        List<Task> keptTasks = new ArrayList<>();
+        List<Task> decodedKeptTasks = new ArrayList<>();
+        TrigramIndex nameIndex = taskTracker.nameIndex;
+        TimeIndex timeIndex = taskTracker.timeIndex;
+        for (int i = 0; i < taskIds.size(); i++) {
+            Task storedTask = storedTasks.get(i);
+            Task task = storedTask != null ? storedTask : taskTracker.lazyTasks.read(taskIds.get(i));
+            if (!isTaskToDelete.test(task)) {
+                keptTaskIds.add(taskIds.get(i));
+                keptTasks.add(storedTask);
+                decodedKeptTasks.add(task);
+            } else if (nameIndex != null) {
+                nameIndex = nameIndex.remove(taskIds.get(i), task.getTaskName());
+                timeIndex = timeIndex.remove(taskIds.get(i), task);
+
+                // once most tasks are deleted, building the indexes again is cheaper
+                if (i + 1 - decodedKeptTasks.size() > taskIds.size() / 2) {
+                    nameIndex = null;
+                    timeIndex = null;
+                }
+            }
+        }
+
+        this.tasks = PersistentTreeMap.ofSorted(keptTaskIds, keptTasks);
+        this.nextTaskId = taskTracker.nextTaskId;
+        this.lazyTasks = taskTracker.lazyTasks;
+        this.nameIndex = nameIndex != null ? nameIndex : TrigramIndex.of(keptTaskIds, decodedKeptTasks);
+        this.timeIndex = timeIndex != null ? timeIndex : TimeIndex.of(keptTaskIds, decodedKeptTasks);
+    }
+
+    /**
+     * Initialises a new task list containing all the tasks from
+     * a previous task list, with the given tasks inserted at the specified index.
+     * As task IDs must follow the order of the list, every task from the index onwards
+     * is given a new ID. Hence, tasks loaded lazily from the index onwards are decoded to be kept,
+     * and are moved to their new IDs in the indexes.
+     *
+     * @param taskTracker   Previous task list.
+     * @param taskIndex     Index at which the tasks should be inserted, with
+     *                      respect to the previous task list.
+     * @param insertedTasks Tasks to be inserted, in list order.
+     */
+    private TaskTracker(TaskTracker taskTracker, int taskIndex, List<Task> insertedTasks) {
+        List<Long> oldTaskIds = taskTracker.tasks.keys().toList();
+        List<Task> oldStoredTasks = taskTracker.tasks.values().toList();
+        List<Long> taskIds = new ArrayList<>(oldTaskIds.subList(0, taskIndex));
+        List<Task> storedTasks = new ArrayList<>(oldStoredTasks.subList(0, taskIndex));
+
+        long nextTaskId = taskTracker.nextTaskId;
+        TrigramIndex nameIndex = taskTracker.nameIndex;
+        TimeIndex timeIndex = taskTracker.timeIndex;
+        for (Task insertedTask : insertedTasks) {
+            nameIndex = nameIndex.add(nextTaskId, insertedTask.getTaskName());
+            timeIndex = timeIndex.add(nextTaskId, insertedTask);
+            taskIds.add(nextTaskId++);
+            storedTasks.add(insertedTask);
+        }
+        for (int i = taskIndex; i < oldTaskIds.size(); i++) {
+            Task storedTask = oldStoredTasks.get(i);
+            Task task = storedTask != null ? storedTask : taskTracker.lazyTasks.read(oldTaskIds.get(i));
+            nameIndex = nameIndex.remove(oldTaskIds.get(i), task.getTaskName()).add(nextTaskId, task.getTaskName());
+            timeIndex = timeIndex.remove(oldTaskIds.get(i), task).add(nextTaskId, task);
+            taskIds.add(nextTaskId++);
+            storedTasks.add(task);
+        }
+
+        this.tasks = PersistentTreeMap.ofSorted(taskIds, storedTasks);
+        this.nextTaskId = nextTaskId;
+        this.lazyTasks = taskTracker.lazyTasks;
+        this.nameIndex = nameIndex;
+        this.timeIndex = timeIndex;
+    }
+
     /**
      * Returns a detailed exception message in <code>String</code>,
      * describing an invalid task index. The index is converted to 1-indexing,
@@ -91,7 +246,7 @@ public class TaskTracker {
      * @param index Zero-based task index provided internally.
      * @return Error message describing why the index is invalid.
      */
-    private String getWrongIndexExceptionMsg(int index) {
+    public String getWrongIndexExceptionMsg(int index) {
         // user uses 1-indexing
         int indexInInput = index + 1;
 
@@ -102,6 +257,29 @@ public class TaskTracker {
                 + " task(s) in the list.";
     }
 
+    /**
+     * Returns the task with the given ID, which must be in this list.
+     * A task loaded lazily is decoded and kept, if it has not been accessed before.
+     *
+     * @param taskId ID of the task.
+     * @return Task with the chosen ID.
+     */
+    private Task getTaskWithId(long taskId) {
+        Task task = this.tasks.get(taskId);
+        return task != null ? task : this.lazyTasks.get(taskId);
+    }
+
+    /**
+     * Returns a sequential stream of the tasks in this list, in list order.
+     * Tasks loaded lazily which have not been accessed before are decoded, but
+     * not kept, so that reading the whole list does not keep every task in memory.
+     *
+     * @return Stream of the tasks.
+     */
+    public Stream<Task> streamTasks() {
+        return this.tasks.mapEntries((taskId, task) -> task != null ? task : this.lazyTasks.read(taskId));
+    }
+
     /**
      * Returns a list of tasks that satisfy the given predicate.
      * This method centralises task filtering logic to avoid
@@ -111,26 +289,69 @@ public class TaskTracker {
      * @return List of tasks matching the predicate.
      */
     private List<Task> getFilteredTasks(Predicate<Task> predicate) {
-        return this.tasks.stream()
+        return this.streamTasks()
                 .filter(predicate)
                 .toList();
     }
 
     /**
-     * Returns a numbered string representation of the given task list.
-     * The numbering uses 1-indexing to align with user-facing output.
+     * Returns a numbered list view of the given tasks.
      *
      * @param tasks List of tasks to be formatted.
-     * @return Numbered list of tasks as a single concatenated string.
+     * @return Numbered list of the tasks.
      */
-    private String getNumberedTaskList(List<Task> tasks) {
-        // use 1-indexing for printed list
-        return IntStream.rangeClosed(1, tasks.size())
-                // create list item in String
-                .mapToObj(num -> num + ". " + tasks.get(num - 1))
-                // combine list items
-                .reduce((x, y) -> x + "\n" + y)
-                .orElse("");
+    private NumberedTaskList getNumberedTaskList(List<Task> tasks) {
+        return new NumberedTaskList(tasks, tasks.size());
+    }
+
+    /**
+     * Appends all the tasks currently being recorded to the given sink, in a
+     * format that can be saved to the task storage. Each task is written on its own line.
+     *
+     * @param sink Sink to write the tasks into.
+     * @throws IOException If the sink cannot be written to.
+     */
+    public void appendSavableTasks(Appendable sink) throws IOException {
+        boolean isFirstTask = true;
+        for (Task task : (Iterable<Task>) () -> this.streamTasks().iterator()) {
+            if (!isFirstTask) {
+                sink.append(System.lineSeparator());
+            }
+            sink.append(task.getSavableString());
+            isFirstTask = false;
+        }
+    }
+
+    /**
+     * Writes all the tasks currently being recorded to the given output as UTF-8 text,
+     * in a format that can be saved to the task storage. Each task is written on its own line.
+     * The encoded bytes of each task are reused across saves, so only the tasks which
+     * changed since the previous save are encoded.
+     *
+     * @param output Output to write the tasks to.
+     * @throws IOException If the output cannot be written to.
+     */
+    public void writeSavableTasks(OutputStream output) throws IOException {
+        byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+        boolean isFirstTask = true;
+        for (Task task : (Iterable<Task>) () -> this.streamTasks().iterator()) {
+            if (!isFirstTask) {
+                output.write(lineSeparator);
+            }
+            output.write(task.getSavableBytes());
+            isFirstTask = false;
+        }
+    }
+
+    /**
+     * Returns the hash of the line holding each task in a saved text file, in list order,
+     * as given by <code>LineHash</code>. The hash of each task is reused across calls,
+     * so that only the tasks which changed since the previous call are hashed again.
+     *
+     * @return Hash of the savable bytes of each task.
+     */
+    public long[] getSavableLineHashes() {
+        return this.streamTasks().mapToLong(Task::getSavableHash).toArray();
     }
 
     /**
@@ -141,11 +362,13 @@ public class TaskTracker {
      */
     public String getCombinedSavableTasks() {
         // get combined string to write to saved file
-        return this.getFilteredTasks(task -> true) // get all tasks
-                .stream()
-                .map(task -> task.getSavableString())
-                .reduce((x, y) -> x + System.lineSeparator() + y)
-                .orElse("");
+        StringBuilder sb = new StringBuilder(this.getAllTasks().getEstimatedLength());
+        try {
+            this.appendSavableTasks(sb);
+        } catch (IOException ex) {
+            throw new AssertionError("StringBuilder should never throw an IOException", ex);
+        }
+        return sb.toString();
     }
 
     /**
@@ -166,12 +389,23 @@ public class TaskTracker {
      */
     public Task getTask(int index) throws TaskTrackerException {
         try {
-            return this.tasks.get(index);
+            return this.getTaskWithId(this.tasks.getKeyAt(index));
         } catch (IndexOutOfBoundsException ex) {
             throw new TaskTrackerException(this.getWrongIndexExceptionMsg(index));
         }
     }
 
+    /**
+     * Returns whether there is a task at the chosen index, so that an index
+     * can be checked without a <code>TaskTrackerException</code> being thrown.
+     *
+     * @param index List index to be checked.
+     * @return Whether <code>index</code> is within the bounds of the task list.
+     */
+    public boolean hasTaskAt(int index) {
+        return index >= 0 && index < this.getNumOfTasks();
+    }
+
     /**
      * Returns a new task list, where the task at the chosen
      * index has now been replaced with the new task specified.
@@ -199,6 +433,18 @@ public class TaskTracker {
         return new TaskTracker(this, newTask);
     }
 
+    /**
+     * Returns a new task list, which also contains the new tasks specified at its back,
+     * in addition to all previous tasks. The new task list is built in one go, instead
+     * of adding the new tasks one at a time.
+     *
+     * @param newTasks New tasks to be added, in list order.
+     * @return Task list with the new tasks added.
+     */
+    public TaskTracker addTasks(List<Task> newTasks) {
+        return new TaskTracker(this, this.getNumOfTasks(), newTasks);
+    }
+
     /**
      * Returns a new task list, where the task at the chosen
      * index has now been deleted.
@@ -215,6 +461,78 @@ public class TaskTracker {
         }
     }
 
+    /**
+     * Returns a new task list, where the tasks from index <code>start</code> up to
+     * (but excluding) index <code>end</code> have been replaced by the given tasks.
+     * Tasks are replaced and deleted one at a time, so that the cost depends only
+     * on the number of tasks changed. New tasks are only inserted in one go, as
+     * inserting before the end of the list gives every later task a new ID.
+     *
+     * @param start    List index of the first task to be replaced.
+     * @param end      List index after the last task to be replaced.
+     * @param newTasks New tasks to replace the previous tasks with, in list order.
+     * @return Task list with the tasks replaced.
+     * @throws TaskTrackerException If the range of indexes is out of bounds of the task list.
+     */
+    public TaskTracker replaceTasks(int start, int end, List<Task> newTasks) throws TaskTrackerException {
+        if (start < 0 || end < start || end > this.getNumOfTasks()) {
+            throw new TaskTrackerException(this.getWrongIndexExceptionMsg(start < 0 || end < start ? start : end));
+        }
+
+        TaskTracker taskTracker = this;
+        int numOfReplacedTasks = Math.min(end - start, newTasks.size());
+        for (int i = 0; i < numOfReplacedTasks; i++) {
+            taskTracker = taskTracker.editTask(start + i, newTasks.get(i));
+        }
+        for (int i = numOfReplacedTasks; i < end - start; i++) {
+            taskTracker = taskTracker.deleteTask(start + numOfReplacedTasks);
+        }
+
+        List<Task> insertedTasks = newTasks.subList(numOfReplacedTasks, newTasks.size());
+        if (insertedTasks.isEmpty()) {
+            return taskTracker;
+        } else if (end == this.getNumOfTasks()) {
+            // tasks inserted at the back of the list are simply added
+            for (Task insertedTask : insertedTasks) {
+                taskTracker = taskTracker.addTask(insertedTask);
+            }
+            return taskTracker;
+        }
+        return new TaskTracker(taskTracker, start + numOfReplacedTasks, insertedTasks);
+    }
+
+    /**
+     * Returns a new task list containing only the tasks which have been completed,
+     * and took place before the given time. Completed todos are always included.
+     *
+     * @param cutoff Time before which the tasks must have taken place.
+     * @return Task list of the completed tasks.
+     */
+    public TaskTracker getDoneTasksBefore(LocalDateTime cutoff) {
+        return new TaskTracker(new ArrayList<>(this.getFilteredTasks(task -> task.isDoneBefore(cutoff))));
+    }
+
+    /**
+     * Returns a new task list, where every task which has been completed,
+     * and took place before the given time, has now been deleted.
+     *
+     * @param cutoff Time before which the tasks must have taken place.
+     * @return Task list without the completed tasks.
+     */
+    public TaskTracker deleteDoneTasksBefore(LocalDateTime cutoff) {
+        return new TaskTracker(this, task -> task.isDoneBefore(cutoff));
+    }
+
+    /**
+     * Returns the current tasks in a numbered list. The tasks are
+     * read straight from this task list when the list is rendered.
+     *
+     * @return Numbered list of all the tasks currently being recorded.
+     */
+    public NumberedTaskList getAllTasks() {
+        return new NumberedTaskList(() -> this.streamTasks().iterator(), this.getNumOfTasks());
+    }
+
     /**
      * Returns a <code>String</code> showing the current tasks
      * in a numbered list.
@@ -222,8 +540,28 @@ public class TaskTracker {
      * @return Numbered list of all the tasks currently being recorded.
      */
     public String listTasks() {
-        // get all tasks
-        List<Task> tasks = this.getFilteredTasks(task -> true);
+        return this.getAllTasks().toString();
+    }
+
+    /**
+     * Returns all the tasks whose names match the given substring, in a
+     * numbered list. Only the tasks found in the name index are checked
+     * against the substring, unless the substring is too short to be
+     * looked up in the index.
+     *
+     * @param substring The substring queried.
+     * @return Numbered list of all the matching tasks.
+     */
+    public NumberedTaskList getMatchingTasks(String substring) {
+        // get tasks containing the given substring
+        List<Task> tasks = this.nameIndex
+                .getCandidateIds(substring)
+                .map(candidateIds -> candidateIds
+                        .map(this::getTaskWithId)
+                        .filter(task -> task.hasSubstringInName(substring))
+                        .toList())
+                .orElseGet(() -> this.getFilteredTasks(task ->
+                        task.hasSubstringInName(substring)));
 
         return this.getNumberedTaskList(tasks);
     }
@@ -232,14 +570,11 @@ public class TaskTracker {
      * Returns a <code>String</code> showing all the tasks whose names
      * match the given substring, in a numbered list.
      *
-     * @return Numbered list of all the tasks currently being recorded.
+     * @param substring The substring queried.
+     * @return Numbered list of all the matching tasks.
      */
     public String findTasks(String substring) {
-        // get tasks containing the given substring
-        List<Task> tasks = this.getFilteredTasks(task ->
-                task.hasSubstringInName(substring));
-
-        return this.getNumberedTaskList(tasks);
+        return this.getMatchingTasks(substring).toString();
     }
 
     /**
@@ -258,11 +593,34 @@ public class TaskTracker {
         return oldTask.changeTaskStatus(isDoneNew);
     }
 
+    /**
+     * Returns all the outstanding tasks that will be occurring within the
+     * selected number of days from the specified date, in a numbered list.
+     * In the case of deadlines, we check whether the deadline is due soon. In the case of
+     * events, we check whether the event is starting soon. The tasks are listed
+     * in the order in which they take place.
+     *
+     * @param windowStartDate The start of the time window to check.
+     * @param daysFromWindowStartDate Number of days from <code>windowStartDate</code>,
+     *                                defining the future time window for which tasks
+     *                                should be flagged.
+     * @return Numbered list of all the tasks that will be occurring soon, to be used
+     *         in the reminder.
+     */
+    public NumberedTaskList getImpendingTasks(LocalDateTime windowStartDate, int daysFromWindowStartDate) {
+        LocalDateTime windowEndDate = windowStartDate.plusDays(daysFromWindowStartDate);
+        List<Task> impendingTasks = this.timeIndex
+                .getTaskIdsBetween(windowStartDate, windowEndDate, false)
+                .map(this::getTaskWithId)
+                .filter(task -> !task.isDone())
+                .toList();
+
+        return this.getNumberedTaskList(impendingTasks);
+    }
+
     /**
      * Returns a <code>String</code> showing all the outstanding tasks that will be occurring
      * within the selected number of days from the specified date, in a numbered list.
-     * In the case of deadlines, we check whether the deadline is due soon. In the case of
-     * events, we check whether the event is starting soon.
      *
      * @param windowStartDate The start of the time window to check.
      * @param daysFromWindowStartDate Number of days from <code>windowStartDate</code>,
@@ -272,18 +630,49 @@ public class TaskTracker {
      *         in the reminder.
      */
     public String remindImpendingTasks(LocalDateTime windowStartDate, int daysFromWindowStartDate) {
-        List<Task> impendingTasks = this.getFilteredTasks(task ->
-                task.isHappeningSoon(windowStartDate, daysFromWindowStartDate) && !task.isDone());
+        return this.getImpendingTasks(windowStartDate, daysFromWindowStartDate).toString();
+    }
 
-        return this.getNumberedTaskList(impendingTasks);
+    /**
+     * Returns all the tasks that take place within the given time
+     * window (inclusive), in a numbered list. In the case of deadlines,
+     * we check the date by which the deadline is due. In the case of events, we check
+     * the start time of the event. The tasks are listed in the order in which they take place.
+     *
+     * @param from The start of the time window.
+     * @param to   The end of the time window.
+     * @return Numbered list of all the tasks taking place within the time window.
+     */
+    public NumberedTaskList getTasksBetween(LocalDateTime from, LocalDateTime to) {
+        List<Task> tasksInWindow = this.timeIndex
+                .getTaskIdsBetween(from, to, true)
+                .map(this::getTaskWithId)
+                .toList();
+
+        return this.getNumberedTaskList(tasksInWindow);
+    }
+
+    /**
+     * Returns a <code>String</code> showing all the tasks that take place within
+     * the given time window (inclusive), in a numbered list.
+     *
+     * @param from The start of the time window.
+     * @param to   The end of the time window.
+     * @return Numbered list of all the tasks taking place within the time window.
+     */
+    public String listTasksBetween(LocalDateTime from, LocalDateTime to) {
+        return this.getTasksBetween(from, to).toString();
     }
 
     @Override
     public String toString() {
-        return this.getFilteredTasks(task -> true) // get all tasks
-                .stream()
-                .map(task -> task.toString())
-                .reduce((x, y) -> x + "\n" + y)
-                .orElse("");
+        StringBuilder sb = new StringBuilder(this.getAllTasks().getEstimatedLength());
+        this.streamTasks().forEach(task -> {
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(task);
+        });
+        return sb.toString();
     }
 }
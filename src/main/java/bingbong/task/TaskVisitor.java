@@ -0,0 +1,43 @@
+package bingbong.task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Represents an operation on tasks which depends on the type of task, such as
+ * writing a task in a format understood by other programs. Each type of task
+ * hands its details to the matching method, so that the operation does not
+ * need to check the type of the task itself.
+ *
+ * @param <R> Type of the result of the operation.
+ */
+public interface TaskVisitor<R> {
+    /**
+     * Returns the result of the operation on a todo.
+     *
+     * @param taskName Name of the todo.
+     * @param isDone   Whether the todo has been completed.
+     * @return Result of the operation.
+     */
+    R visitTodo(String taskName, boolean isDone);
+
+    /**
+     * Returns the result of the operation on a deadline.
+     *
+     * @param taskName Name of the deadline.
+     * @param isDone   Whether the deadline has been completed.
+     * @param byWhen   Date by which the deadline must be completed.
+     * @return Result of the operation.
+     */
+    R visitDeadline(String taskName, boolean isDone, LocalDateTime byWhen);
+
+    /**
+     * Returns the result of the operation on an event.
+     *
+     * @param taskName  Name of the event.
+     * @param isDone    Whether the event has been completed.
+     * @param startTime Time at which the event starts.
+     * @param endTime   Time at which the event ends.
+     * @return Result of the operation.
+     */
+    R visitEvent(String taskName, boolean isDone, LocalDateTime startTime, LocalDateTime endTime);
+}
@@ -0,0 +1,113 @@
+package bingbong.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Represents an immutable index of the tasks that take place at a certain time,
+ * sorted by that time. Deadlines are indexed by the date by which they are due,
+ * while events are indexed by their start time. Todos are not indexed.
+ * The tasks within any time window can then be found with a single range scan.
+ */
+final class TimeIndex {
+    private static final TimeIndex EMPTY = new TimeIndex(PersistentTreeMap.empty());
+
+    private final PersistentTreeMap<TimeKey, Boolean> taskTimes;
+
+    /**
+     * Represents the key of a task in the index. Ties between tasks taking
+     * place at the same time are broken by their task IDs.
+     */
+    private static final class TimeKey implements Comparable<TimeKey> {
+        private final LocalDateTime time;
+        private final long taskId;
+
+        private TimeKey(LocalDateTime time, long taskId) {
+            this.time = time;
+            this.taskId = taskId;
+        }
+
+        @Override
+        public int compareTo(TimeKey other) {
+            int comparison = this.time.compareTo(other.time);
+            return comparison != 0 ? comparison : Long.compare(this.taskId, other.taskId);
+        }
+    }
+
+    private TimeIndex(PersistentTreeMap<TimeKey, Boolean> taskTimes) {
+        this.taskTimes = taskTimes;
+    }
+
+    /**
+     * Returns an index over the given tasks.
+     *
+     * @param taskIds IDs of the tasks.
+     * @param tasks   Tasks corresponding to <code>taskIds</code>.
+     * @return Index over the given tasks.
+     */
+    static TimeIndex of(List<Long> taskIds, List<Task> tasks) {
+        ArrayList<TimeKey> keys = new ArrayList<>();
+        for (int i = 0; i < taskIds.size(); i++) {
+            long taskId = taskIds.get(i);
+            tasks.get(i).getOccurrenceTime().ifPresent(time -> keys.add(new TimeKey(time, taskId)));
+        }
+
+        if (keys.isEmpty()) {
+            return EMPTY;
+        }
+
+        keys.sort(null);
+        return new TimeIndex(PersistentTreeMap.ofSorted(keys, Collections.nCopies(keys.size(), Boolean.TRUE)));
+    }
+
+    /**
+     * Returns a new index which also records the given task, if it takes place at a certain time.
+     *
+     * @param taskId ID of the task.
+     * @param task   Task to be recorded.
+     * @return New index.
+     */
+    TimeIndex add(long taskId, Task task) {
+        return task.getOccurrenceTime()
+                .map(time -> new TimeIndex(this.taskTimes.put(new TimeKey(time, taskId), Boolean.TRUE)))
+                .orElse(this);
+    }
+
+    /**
+     * Returns a new index which no longer records the given task.
+     *
+     * @param taskId ID of the task.
+     * @param task   Task, as it was recorded in this index.
+     * @return New index.
+     */
+    TimeIndex remove(long taskId, Task task) {
+        return task.getOccurrenceTime()
+                .map(time -> new TimeIndex(this.taskTimes.remove(new TimeKey(time, taskId))))
+                .orElse(this);
+    }
+
+    /**
+     * Returns the IDs of the tasks taking place within the given time window,
+     * sorted by the time at which they take place.
+     *
+     * @param from        Start of the time window.
+     * @param to          End of the time window.
+     * @param isInclusive Whether tasks taking place exactly at the start or end
+     *                    of the window should be included.
+     * @return IDs of the tasks within the time window.
+     */
+    Stream<Long> getTaskIdsBetween(LocalDateTime from, LocalDateTime to, boolean isInclusive) {
+        // task IDs are never negative, so these bounds include or exclude every task at that time
+        TimeKey lowerBound = new TimeKey(from, isInclusive ? Long.MIN_VALUE : Long.MAX_VALUE);
+        TimeKey upperBound = new TimeKey(to, isInclusive ? Long.MAX_VALUE : Long.MIN_VALUE);
+        if (lowerBound.compareTo(upperBound) > 0) {
+            return Stream.empty();
+        }
+
+        return this.taskTimes.keysBetween(lowerBound, upperBound)
+                .map(key -> key.taskId);
+    }
+}
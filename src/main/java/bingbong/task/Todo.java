@@ -1,6 +1,7 @@
 package bingbong.task;
 
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 /**
  * Represents a todo that can be recorded in the chatbot. Contains
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
  */
 public class Todo extends Task {
     public static final String TASK_ICON = "T";
+    public static final int BINARY_TYPE = 0;
 
     /**
      * Initialises an incomplete todo with the specified name.
@@ -40,18 +42,36 @@ public class Todo extends Task {
     }
 
     /**
-     * Returns whether the todo will be occurring within the
-     * selected number of days from the specified date.
+     * Returns the time at which the todo takes place, which is always
+     * <code>Optional.empty</code>.
      *
-     * @param windowStartDate The start of the time window to check.
-     * @param daysFromWindowStartDate Number of days from<code>windowStartDate</code>,
-     *                                defining the future time window for which todos
-     *                                should be flagged.
-     * @return Whether the todo will be occurring soon.
+     * @return <code>Optional.empty</code>, as todos never have a due date.
      */
-    boolean isHappeningSoon(LocalDateTime windowStartDate, int daysFromWindowStartDate) {
+    Optional<LocalDateTime> getOccurrenceTime() {
         // todos will never have a due date
-        return false;
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the result of the given operation on this todo.
+     *
+     * @param visitor Operation on the task.
+     * @param <R>     Type of the result of the operation.
+     * @return Result of the operation.
+     */
+    @Override
+    public <R> R accept(TaskVisitor<R> visitor) {
+        return visitor.visitTodo(super.getTaskName(), super.isDone());
+    }
+
+    /**
+     * Returns the type byte that represents todos in the binary save format.
+     *
+     * @return Type byte of this todo.
+     */
+    @Override
+    int getBinaryType() {
+        return BINARY_TYPE;
     }
 
     /**
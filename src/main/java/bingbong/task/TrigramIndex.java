@@ -0,0 +1,150 @@
+package bingbong.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Represents an immutable inverted index from every trigram (substring of
+ * length 3) in the task names, to the IDs of the tasks whose names contain it.
+ * A task whose name contains a query must contain every trigram of that query,
+ * so the index narrows down the tasks that need to be checked
+ * to those found in all the matching postings.
+ */
+final class TrigramIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private static final TrigramIndex EMPTY = new TrigramIndex(PersistentTreeMap.empty());
+
+    // maps each trigram to the set of task IDs whose names contain it
+    private final PersistentTreeMap<String, PersistentTreeMap<Long, Boolean>> postings;
+
+    private TrigramIndex(PersistentTreeMap<String, PersistentTreeMap<Long, Boolean>> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * Returns an index over the given tasks, built in a single pass.
+     *
+     * @param taskIds IDs of the tasks, in ascending order.
+     * @param tasks   Tasks corresponding to <code>taskIds</code>.
+     * @return Index over the given tasks.
+     */
+    static TrigramIndex of(List<Long> taskIds, List<Task> tasks) {
+        if (taskIds.isEmpty()) {
+            return EMPTY;
+        }
+
+        // group task IDs by trigram (IDs are visited in ascending order)
+        HashMap<String, List<Long>> groupedIds = new HashMap<>();
+        for (int i = 0; i < taskIds.size(); i++) {
+            Long taskId = taskIds.get(i);
+            getTrigrams(tasks.get(i).getTaskName()).forEach(trigram ->
+                    groupedIds.computeIfAbsent(trigram, key -> new ArrayList<>()).add(taskId));
+        }
+
+        TreeMap<String, PersistentTreeMap<Long, Boolean>> sortedPostings = new TreeMap<>();
+        groupedIds.forEach((trigram, ids) -> sortedPostings.put(trigram,
+                PersistentTreeMap.ofSorted(ids, Collections.nCopies(ids.size(), Boolean.TRUE))));
+
+        return new TrigramIndex(PersistentTreeMap.ofSorted(new ArrayList<>(sortedPostings.keySet()),
+                new ArrayList<>(sortedPostings.values())));
+    }
+
+    /**
+     * Returns the distinct trigrams found in the given text.
+     *
+     * @param text Text to be split into trigrams.
+     * @return Distinct trigrams of <code>text</code>, in order of first appearance.
+     */
+    private static Set<String> getTrigrams(String text) {
+        LinkedHashSet<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Returns a new index which also records the task with the given ID and name.
+     *
+     * @param taskId   ID of the task.
+     * @param taskName Name of the task.
+     * @return New index.
+     */
+    TrigramIndex add(long taskId, String taskName) {
+        PersistentTreeMap<String, PersistentTreeMap<Long, Boolean>> newPostings = this.postings;
+        for (String trigram : getTrigrams(taskName)) {
+            PersistentTreeMap<Long, Boolean> ids = newPostings.get(trigram);
+            if (ids == null) {
+                ids = PersistentTreeMap.empty();
+            }
+            newPostings = newPostings.put(trigram, ids.put(taskId, Boolean.TRUE));
+        }
+        return new TrigramIndex(newPostings);
+    }
+
+    /**
+     * Returns a new index which no longer records the task with the given ID and name.
+     *
+     * @param taskId   ID of the task.
+     * @param taskName Name of the task, as it was recorded in this index.
+     * @return New index.
+     */
+    TrigramIndex remove(long taskId, String taskName) {
+        PersistentTreeMap<String, PersistentTreeMap<Long, Boolean>> newPostings = this.postings;
+        for (String trigram : getTrigrams(taskName)) {
+            PersistentTreeMap<Long, Boolean> ids = newPostings.get(trigram);
+            if (ids == null) {
+                continue;
+            }
+
+            PersistentTreeMap<Long, Boolean> remainingIds = ids.remove(taskId);
+            newPostings = remainingIds.size() == 0
+                    ? newPostings.remove(trigram)
+                    : newPostings.put(trigram, remainingIds);
+        }
+        return new TrigramIndex(newPostings);
+    }
+
+    /**
+     * Returns the IDs of the tasks whose names could contain the given substring,
+     * in ascending order. Every task whose name contains the substring is included,
+     * but the names of the tasks returned still have to be checked.
+     * If the substring is too short to contain a trigram, the index cannot
+     * narrow down the tasks, so <code>Optional.empty</code> is returned.
+     *
+     * @param substring The substring queried.
+     * @return IDs of the candidate tasks, if the index can be used.
+     */
+    Optional<Stream<Long>> getCandidateIds(String substring) {
+        if (substring.length() < GRAM_LENGTH) {
+            return Optional.empty();
+        }
+
+        // look up the postings of every trigram in the query
+        List<PersistentTreeMap<Long, Boolean>> matchingPostings = new ArrayList<>();
+        for (String trigram : getTrigrams(substring)) {
+            PersistentTreeMap<Long, Boolean> ids = this.postings.get(trigram);
+            if (ids == null) {
+                // no task contains this trigram
+                return Optional.of(Stream.empty());
+            }
+            matchingPostings.add(ids);
+        }
+
+        // walk the smallest posting, keeping IDs that appear in all the other postings
+        PersistentTreeMap<Long, Boolean> smallest = matchingPostings.stream()
+                .min((x, y) -> Integer.compare(x.size(), y.size()))
+                .orElseThrow();
+        return Optional.of(smallest.keys()
+                .filter(taskId -> matchingPostings.stream()
+                        .allMatch(ids -> ids == smallest || ids.get(taskId) != null)));
+    }
+}
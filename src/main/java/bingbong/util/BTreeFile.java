@@ -0,0 +1,763 @@
+package bingbong.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Stores values against <code>long</code> keys in a single file, as a B+ tree of
+ * fixed-size pages. The first page is a header, holding the root of the tree and the
+ * next unused key. Every other page is a leaf holding some entries in key order,
+ * an internal node routing keys to its children, or part of a value which is too long
+ * to be held within a leaf. Leaves are linked in key order, so that every entry can be
+ * read with a single pass over the leaves.
+ * Adding, replacing or removing an entry only writes the pages along the path to its leaf.
+ * As keys are mostly added in increasing order, a full leaf or node which receives a new
+ * largest key is split at the end instead of in the middle, so that pages are kept full.
+ * Removing entries does not merge pages, as the tree is rebuilt compactly whenever
+ * every entry is written at once.
+ */
+final class BTreeFile implements Closeable {
+    // "BBKV", marking the file as a key-value task file
+    private static final int MAGIC = 0x42424B56;
+    private static final int VERSION = 1;
+    static final int PAGE_SIZE = 1 << 12;
+
+    // layout of the header page
+    private static final int ROOT_PAGE_OFFSET = 8;
+    private static final int NUM_OF_PAGES_OFFSET = 12;
+    private static final int FREE_PAGE_OFFSET = 16;
+    private static final int NEXT_KEY_OFFSET = 20;
+    private static final int HEADER_LENGTH = 28;
+
+    // layout of a node page, which starts with its type, its number of keys and the next leaf
+    private static final byte LEAF_TYPE = 1;
+    private static final byte INTERNAL_TYPE = 2;
+    private static final int NUM_OF_KEYS_OFFSET = 4;
+    private static final int NEXT_LEAF_OFFSET = 8;
+    private static final int NODE_HEADER_LENGTH = 12;
+
+    // layout of an overflow page, holding the next overflow page and the length of its part of a value
+    private static final int OVERFLOW_HEADER_LENGTH = 8;
+    private static final int OVERFLOW_CAPACITY = PAGE_SIZE - OVERFLOW_HEADER_LENGTH;
+
+    // longer values are moved to overflow pages, so that a leaf always holds at least four entries
+    private static final int MAX_INLINE_VALUE_LENGTH = (PAGE_SIZE - NODE_HEADER_LENGTH) / 4 - Long.BYTES
+            - Integer.BYTES;
+
+    // marks a value held in overflow pages, in place of its length within a leaf
+    private static final int OVERFLOW_MARKER = -1;
+
+    // the header page is never part of the tree, so its number marks the absence of a page
+    private static final int NO_PAGE = 0;
+
+    private final FileChannel channel;
+    private int rootPage;
+    private int numOfPages;
+    private int freePage;
+    private long nextKey;
+
+    /**
+     * Represents a page of the tree, read into memory to be changed and written back.
+     * The entries of a leaf are held as cells, each holding a value or a reference to
+     * its overflow pages, prefixed by its length or the overflow marker.
+     */
+    private static final class Node {
+        private final int page;
+        private final boolean isLeaf;
+        private final List<Long> keys = new ArrayList<>();
+        private final List<byte[]> cells = new ArrayList<>();
+        private final List<Integer> children = new ArrayList<>();
+        private int nextLeaf = NO_PAGE;
+
+        private Node(int page, boolean isLeaf) {
+            this.page = page;
+            this.isLeaf = isLeaf;
+        }
+
+        /**
+         * Returns the number of bytes taken up by this node, when written to its page.
+         *
+         * @return Length of this node.
+         */
+        private int getLength() {
+            if (!this.isLeaf) {
+                return NODE_HEADER_LENGTH + Integer.BYTES + this.keys.size() * (Long.BYTES + Integer.BYTES);
+            }
+
+            int length = NODE_HEADER_LENGTH;
+            for (byte[] cell : this.cells) {
+                length += Long.BYTES + cell.length;
+            }
+            return length;
+        }
+
+        /**
+         * Returns the index of the child of this internal node which holds the given key.
+         *
+         * @param key Key to look for.
+         * @return Index of the child.
+         */
+        private int getChildIndex(long key) {
+            int index = findKey(this.keys, key);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+    }
+
+    /**
+     * Represents the new page created by splitting a node, which must be added to its parent.
+     */
+    private static final class Split {
+        private final long key;
+        private final int page;
+
+        private Split(long key, int page) {
+            this.key = key;
+            this.page = page;
+        }
+    }
+
+    private BTreeFile(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Returns the tree in the file at the given path, which is created with an empty tree
+     * if it does not exist.
+     *
+     * @param path Path to the file.
+     * @return Tree in the file.
+     * @throws IOException If the file cannot be opened.
+     * @throws IllegalArgumentException If the file is not a key-value task file.
+     */
+    static BTreeFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        BTreeFile tree = new BTreeFile(channel);
+        try {
+            if (channel.size() == 0) {
+                tree.initialise();
+            } else {
+                tree.readHeader();
+            }
+            return tree;
+        } catch (IOException | IllegalArgumentException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns true if the file at the given path starts with the marker of a key-value task file.
+     *
+     * @param path Path to the file.
+     * @return Whether the file is a key-value task file.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean isKeyValueFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            return channel.read(magic, 0) == Integer.BYTES && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Writes a new tree to the file at the given path, replacing any existing file.
+     * The tree holds the given values against increasing keys, starting from 0.
+     * Every page is filled in order, so that the new tree takes up as few pages as possible.
+     *
+     * @param path   Path to the file.
+     * @param values Values to be held, in key order.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(Path path, Iterator<byte[]> values) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            BTreeFile tree = new BTreeFile(channel);
+            tree.numOfPages = 1;
+
+            // the first key and page of each node on the level being built
+            List<Long> levelKeys = new ArrayList<>();
+            List<Integer> levelPages = new ArrayList<>();
+            Node leaf = new Node(tree.numOfPages++, true);
+            while (values.hasNext()) {
+                byte[] cell = tree.toCell(values.next());
+                if (leaf.getLength() + Long.BYTES + cell.length > PAGE_SIZE) {
+                    leaf.nextLeaf = tree.numOfPages++;
+                    tree.writeNode(leaf);
+                    levelKeys.add(leaf.keys.get(0));
+                    levelPages.add(leaf.page);
+                    leaf = new Node(leaf.nextLeaf, true);
+                }
+                leaf.keys.add(tree.nextKey++);
+                leaf.cells.add(cell);
+            }
+            tree.writeNode(leaf);
+            levelKeys.add(leaf.keys.isEmpty() ? 0 : leaf.keys.get(0));
+            levelPages.add(leaf.page);
+
+            // each level of internal nodes routes keys to the nodes on the level below
+            while (levelPages.size() > 1) {
+                List<Long> parentKeys = new ArrayList<>();
+                List<Integer> parentPages = new ArrayList<>();
+                Node node = null;
+                for (int i = 0; i < levelPages.size(); i++) {
+                    if (node == null || node.getLength() + Long.BYTES + Integer.BYTES > PAGE_SIZE) {
+                        if (node != null) {
+                            tree.writeNode(node);
+                        }
+                        node = new Node(tree.numOfPages++, false);
+                        node.children.add(levelPages.get(i));
+                        parentKeys.add(levelKeys.get(i));
+                        parentPages.add(node.page);
+                    } else {
+                        node.keys.add(levelKeys.get(i));
+                        node.children.add(levelPages.get(i));
+                    }
+                }
+                tree.writeNode(node);
+                levelKeys = parentKeys;
+                levelPages = parentPages;
+            }
+
+            tree.rootPage = levelPages.get(0);
+            tree.writeHeader();
+        }
+    }
+
+    /**
+     * Returns the key which will be given to the next value added.
+     *
+     * @return Next unused key.
+     */
+    long getNextKey() {
+        return this.nextKey;
+    }
+
+    /**
+     * Adds the given value against the next unused key, and returns the key.
+     *
+     * @param value Value to be added.
+     * @return Key of the value.
+     * @throws IOException If the file cannot be written.
+     */
+    long add(byte[] value) throws IOException {
+        long key = this.nextKey++;
+        this.put(key, value);
+        return key;
+    }
+
+    /**
+     * Holds the given value against the given key, replacing any value held before.
+     *
+     * @param key   Key of the value.
+     * @param value Value to be held.
+     * @throws IOException If the file cannot be written.
+     */
+    void put(long key, byte[] value) throws IOException {
+        // overflow pages and new pages are written before the pages which refer to them
+        byte[] cell = this.toCell(value);
+        Split split = this.insert(this.rootPage, key, cell);
+        if (split != null) {
+            Node root = new Node(this.allocatePage(), false);
+            root.children.add(this.rootPage);
+            root.keys.add(split.key);
+            root.children.add(split.page);
+            this.writeNode(root);
+            this.rootPage = root.page;
+        }
+        this.nextKey = Math.max(this.nextKey, key + 1);
+        this.writeHeader();
+    }
+
+    /**
+     * Returns the value held against the given key, or null if there is no such value.
+     *
+     * @param key Key of the value.
+     * @return Value held, or null if there is none.
+     * @throws IOException If the file cannot be read.
+     */
+    byte[] get(long key) throws IOException {
+        Node leaf = this.findLeaf(key);
+        int index = findKey(leaf.keys, key);
+        return index >= 0 ? this.fromCell(leaf.cells.get(index)) : null;
+    }
+
+    /**
+     * Removes the value held against the given key, if any.
+     *
+     * @param key Key of the value.
+     * @return Whether a value was removed.
+     * @throws IOException If the file cannot be written.
+     */
+    boolean remove(long key) throws IOException {
+        Node leaf = this.findLeaf(key);
+        int index = findKey(leaf.keys, key);
+        if (index < 0) {
+            return false;
+        }
+
+        leaf.keys.remove(index);
+        byte[] cell = leaf.cells.remove(index);
+        this.writeNode(leaf);
+        this.freeOverflowPages(cell);
+        this.writeHeader();
+        return true;
+    }
+
+    /**
+     * Adds every key and value in the tree to the given lists, in key order.
+     *
+     * @param keys   List to add the keys to.
+     * @param values List to add the values to.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the pages of the tree are invalid.
+     */
+    void readAll(List<Long> keys, List<byte[]> values) throws IOException {
+        Node node = this.readNode(this.rootPage);
+        while (!node.isLeaf) {
+            node = this.readNode(node.children.get(0));
+        }
+
+        while (true) {
+            keys.addAll(node.keys);
+            for (byte[] cell : node.cells) {
+                values.add(this.fromCell(cell));
+            }
+            if (node.nextLeaf == NO_PAGE) {
+                return;
+            }
+            node = this.readNode(node.nextLeaf);
+        }
+    }
+
+    /**
+     * Forces every page written so far onto the disk.
+     *
+     * @throws IOException If the file cannot be forced onto the disk.
+     */
+    void sync() throws IOException {
+        this.channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Writes an empty tree to the empty file, made up of the header and a single empty leaf.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    private void initialise() throws IOException {
+        this.numOfPages = 1;
+        Node root = new Node(this.allocatePage(), true);
+        this.writeNode(root);
+        this.rootPage = root.page;
+        this.writeHeader();
+    }
+
+    /**
+     * Reads the state of the tree from the header page.
+     *
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a key-value task file.
+     */
+    private void readHeader() throws IOException {
+        ByteBuffer header = this.readPage(0);
+        if (header.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("The saved task file is not a key-value task file");
+        }
+        if (header.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Unsupported version of the key-value format: "
+                    + header.getInt(Integer.BYTES));
+        }
+
+        this.rootPage = header.getInt(ROOT_PAGE_OFFSET);
+        this.numOfPages = header.getInt(NUM_OF_PAGES_OFFSET);
+        this.freePage = header.getInt(FREE_PAGE_OFFSET);
+        this.nextKey = header.getLong(NEXT_KEY_OFFSET);
+        if (this.numOfPages < 2 || (long) this.numOfPages * PAGE_SIZE > this.channel.size()) {
+            throw new IllegalArgumentException("The saved task file ends unexpectedly");
+        }
+    }
+
+    /**
+     * Writes the state of the tree to the header page.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(this.rootPage)
+                .putInt(this.numOfPages)
+                .putInt(this.freePage)
+                .putLong(this.nextKey)
+                .flip();
+        this.writeFully(header, 0);
+    }
+
+    /**
+     * Inserts the given cell against the given key, into the subtree rooted at the given page.
+     * Returns the new page created if the root of the subtree had to be split.
+     *
+     * @param page Root of the subtree.
+     * @param key  Key of the cell.
+     * @param cell Cell to be inserted.
+     * @return New page to be added to the parent of the subtree, or null if there is none.
+     * @throws IOException If the file cannot be written.
+     */
+    private Split insert(int page, long key, byte[] cell) throws IOException {
+        Node node = this.readNode(page);
+        int index;
+        if (node.isLeaf) {
+            index = findKey(node.keys, key);
+            if (index >= 0) {
+                byte[] oldCell = node.cells.set(index, cell);
+                this.writeNode(node);
+                this.freeOverflowPages(oldCell);
+                return null;
+            }
+            index = -index - 1;
+            node.keys.add(index, key);
+            node.cells.add(index, cell);
+        } else {
+            int childIndex = node.getChildIndex(key);
+            Split childSplit = this.insert(node.children.get(childIndex), key, cell);
+            if (childSplit == null) {
+                return null;
+            }
+            index = childIndex;
+            node.keys.add(index, childSplit.key);
+            node.children.add(index + 1, childSplit.page);
+        }
+
+        if (node.getLength() <= PAGE_SIZE) {
+            this.writeNode(node);
+            return null;
+        }
+        return this.split(node, index == node.keys.size() - 1);
+    }
+
+    /**
+     * Moves the upper part of the given node, which is too long for its page, to a new page.
+     * If the node has just received a new largest key, only that key is moved.
+     *
+     * @param node     Node to be split.
+     * @param isAppend Whether the last key of the node has just been added.
+     * @return New page to be added to the parent of the node.
+     * @throws IOException If the file cannot be written.
+     */
+    private Split split(Node node, boolean isAppend) throws IOException {
+        Node right = new Node(this.allocatePage(), node.isLeaf);
+        int splitIndex = isAppend ? node.keys.size() - 1 : this.getMiddleIndex(node);
+        long splitKey = node.keys.get(splitIndex);
+
+        if (node.isLeaf) {
+            right.keys.addAll(node.keys.subList(splitIndex, node.keys.size()));
+            right.cells.addAll(node.cells.subList(splitIndex, node.cells.size()));
+            right.nextLeaf = node.nextLeaf;
+            node.nextLeaf = right.page;
+        } else {
+            // the middle key moves up to the parent, instead of staying in either node
+            right.keys.addAll(node.keys.subList(splitIndex + 1, node.keys.size()));
+            right.children.addAll(node.children.subList(splitIndex + 1, node.children.size()));
+            node.children.subList(splitIndex + 1, node.children.size()).clear();
+        }
+        node.keys.subList(splitIndex, node.keys.size()).clear();
+        if (node.isLeaf) {
+            node.cells.subList(splitIndex, node.cells.size()).clear();
+        }
+
+        this.writeNode(right);
+        this.writeNode(node);
+        return new Split(splitKey, right.page);
+    }
+
+    /**
+     * Returns the index at which the given node should be split, so that both halves
+     * take up about the same number of bytes.
+     *
+     * @param node Node to be split.
+     * @return Index of the first key of the upper half.
+     */
+    private int getMiddleIndex(Node node) {
+        if (!node.isLeaf) {
+            return node.keys.size() / 2;
+        }
+
+        int length = 0;
+        int halfLength = node.getLength() / 2;
+        for (int i = 0; i < node.cells.size(); i++) {
+            length += Long.BYTES + node.cells.get(i).length;
+            if (length >= halfLength) {
+                return Math.max(1, i);
+            }
+        }
+        return node.keys.size() - 1;
+    }
+
+    /**
+     * Returns the leaf which holds the given key, if the key is in the tree.
+     *
+     * @param key Key to look for.
+     * @return Leaf which would hold the key.
+     * @throws IOException If the file cannot be read.
+     */
+    private Node findLeaf(long key) throws IOException {
+        Node node = this.readNode(this.rootPage);
+        while (!node.isLeaf) {
+            node = this.readNode(node.children.get(node.getChildIndex(key)));
+        }
+        return node;
+    }
+
+    /**
+     * Returns the index of the given key within the given sorted keys, or
+     * <code>-(insertion point) - 1</code> if the key is absent.
+     *
+     * @param keys Sorted keys.
+     * @param key  Key to look for.
+     * @return Index of the key.
+     */
+    private static int findKey(List<Long> keys, long key) {
+        int low = 0;
+        int high = keys.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = keys.get(mid);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Returns the cell holding the given value within a leaf. A long value is written to
+     * overflow pages, and the cell only refers to the first of them.
+     *
+     * @param value Value to be held.
+     * @return Cell holding the value.
+     * @throws IOException If the overflow pages cannot be written.
+     */
+    private byte[] toCell(byte[] value) throws IOException {
+        if (value.length <= MAX_INLINE_VALUE_LENGTH) {
+            return ByteBuffer.allocate(Integer.BYTES + value.length)
+                    .putInt(value.length)
+                    .put(value)
+                    .array();
+        }
+
+        // the parts are written from the back, so that each page knows the page after it
+        int nextPage = NO_PAGE;
+        int numOfParts = (value.length + OVERFLOW_CAPACITY - 1) / OVERFLOW_CAPACITY;
+        for (int i = numOfParts - 1; i >= 0; i--) {
+            int start = i * OVERFLOW_CAPACITY;
+            int partLength = Math.min(value.length - start, OVERFLOW_CAPACITY);
+            int page = this.allocatePage();
+            ByteBuffer buffer = ByteBuffer.allocate(OVERFLOW_HEADER_LENGTH + partLength)
+                    .putInt(nextPage)
+                    .putInt(partLength)
+                    .put(value, start, partLength)
+                    .flip();
+            this.writeFully(buffer, (long) page * PAGE_SIZE);
+            nextPage = page;
+        }
+        return ByteBuffer.allocate(2 * Integer.BYTES)
+                .putInt(OVERFLOW_MARKER)
+                .putInt(nextPage)
+                .array();
+    }
+
+    /**
+     * Returns the value held by the given cell, reading its overflow pages if needed.
+     *
+     * @param cell Cell within a leaf.
+     * @return Value held.
+     * @throws IOException If the overflow pages cannot be read.
+     * @throws IllegalArgumentException If the overflow pages are invalid.
+     */
+    private byte[] fromCell(byte[] cell) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(cell);
+        int length = buffer.getInt();
+        if (length != OVERFLOW_MARKER) {
+            return Arrays.copyOfRange(cell, Integer.BYTES, cell.length);
+        }
+
+        ByteArrayOutputStream value = new ByteArrayOutputStream();
+        int page = buffer.getInt();
+        while (page != NO_PAGE) {
+            ByteBuffer overflowPage = this.readPage(page);
+            page = overflowPage.getInt();
+            int partLength = overflowPage.getInt();
+            if (partLength < 0 || partLength > OVERFLOW_CAPACITY) {
+                throw new IllegalArgumentException("Invalid pages in saved task file");
+            }
+            value.write(overflowPage.array(), OVERFLOW_HEADER_LENGTH, partLength);
+        }
+        return value.toByteArray();
+    }
+
+    /**
+     * Adds the overflow pages of the given cell, if any, to the free pages.
+     *
+     * @param cell Cell which is no longer held by any leaf.
+     * @throws IOException If the overflow pages cannot be read or written.
+     */
+    private void freeOverflowPages(byte[] cell) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(cell);
+        if (buffer.getInt() != OVERFLOW_MARKER) {
+            return;
+        }
+
+        int page = buffer.getInt();
+        while (page != NO_PAGE) {
+            int nextPage = this.readPage(page).getInt();
+            ByteBuffer freePage = ByteBuffer.allocate(Integer.BYTES).putInt(this.freePage).flip();
+            this.writeFully(freePage, (long) page * PAGE_SIZE);
+            this.freePage = page;
+            page = nextPage;
+        }
+    }
+
+    /**
+     * Returns an unused page, reusing a free page if there is any.
+     *
+     * @return Number of the page.
+     * @throws IOException If the free page cannot be read.
+     */
+    private int allocatePage() throws IOException {
+        if (this.freePage == NO_PAGE) {
+            return this.numOfPages++;
+        }
+
+        int page = this.freePage;
+        this.freePage = this.readPage(page).getInt();
+        return page;
+    }
+
+    /**
+     * Returns the node held by the given page.
+     *
+     * @param page Number of the page.
+     * @return Node read.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the page does not hold a valid node.
+     */
+    private Node readNode(int page) throws IOException {
+        ByteBuffer buffer = this.readPage(page);
+        byte type = buffer.get(0);
+        if (type != LEAF_TYPE && type != INTERNAL_TYPE) {
+            throw new IllegalArgumentException("Invalid pages in saved task file");
+        }
+
+        Node node = new Node(page, type == LEAF_TYPE);
+        int numOfKeys = buffer.getInt(NUM_OF_KEYS_OFFSET);
+        node.nextLeaf = buffer.getInt(NEXT_LEAF_OFFSET);
+        buffer.position(NODE_HEADER_LENGTH);
+        try {
+            if (!node.isLeaf) {
+                node.children.add(buffer.getInt());
+            }
+            for (int i = 0; i < numOfKeys; i++) {
+                node.keys.add(buffer.getLong());
+                if (!node.isLeaf) {
+                    node.children.add(buffer.getInt());
+                    continue;
+                }
+
+                int length = buffer.getInt();
+                int cellLength = Integer.BYTES + (length == OVERFLOW_MARKER ? Integer.BYTES : length);
+                if (length < OVERFLOW_MARKER || cellLength > buffer.remaining() + Integer.BYTES) {
+                    throw new IllegalArgumentException("Invalid pages in saved task file");
+                }
+                byte[] cell = new byte[cellLength];
+                buffer.get(buffer.position() - Integer.BYTES, cell);
+                buffer.position(buffer.position() - Integer.BYTES + cellLength);
+                node.cells.add(cell);
+            }
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid pages in saved task file");
+        }
+        return node;
+    }
+
+    /**
+     * Writes the given node to its page.
+     *
+     * @param node Node to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeNode(Node node) throws IOException {
+        assert node.getLength() <= PAGE_SIZE : "Node must fit within its page";
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE)
+                .put(node.isLeaf ? LEAF_TYPE : INTERNAL_TYPE)
+                .position(NUM_OF_KEYS_OFFSET)
+                .putInt(node.keys.size())
+                .putInt(node.nextLeaf);
+        if (!node.isLeaf) {
+            buffer.putInt(node.children.get(0));
+        }
+        for (int i = 0; i < node.keys.size(); i++) {
+            buffer.putLong(node.keys.get(i));
+            if (node.isLeaf) {
+                buffer.put(node.cells.get(i));
+            } else {
+                buffer.putInt(node.children.get(i + 1));
+            }
+        }
+        this.writeFully(buffer.clear(), (long) node.page * PAGE_SIZE);
+    }
+
+    /**
+     * Returns the contents of the given page.
+     *
+     * @param page Number of the page.
+     * @return Contents of the page.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the page is outside the tree.
+     */
+    private ByteBuffer readPage(int page) throws IOException {
+        if (page < 0 || page >= this.numOfPages && page != 0) {
+            throw new IllegalArgumentException("Invalid pages in saved task file");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        long position = (long) page * PAGE_SIZE;
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalArgumentException("The saved task file ends unexpectedly");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Writes all of the given bytes to the file, starting from the given position.
+     *
+     * @param buffer   Bytes to be written.
+     * @param position Position in the file to write the bytes to.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += this.channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,561 @@
+package bingbong.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import bingbong.task.Deadline;
+import bingbong.task.Event;
+import bingbong.task.Task;
+import bingbong.task.TaskTracker;
+import bingbong.task.Todo;
+
+/**
+ * Reads and writes task files in the binary save format. The file starts with a
+ * magic number and a version byte, followed by the number of tasks, then blocks of
+ * tasks as written by <code>Task.writeBinary</code>. As task names are
+ * prefixed by their lengths, they may contain any characters, including the divider
+ * used by the text format.
+ * Each block starts with a marker, its number of tasks, its length and the CRC32C
+ * checksum of its tasks. Hence, a damaged file can be recovered block by block,
+ * losing only the blocks which fail their checksums. Files of the first version,
+ * which hold the tasks without blocks, can still be read.
+ */
+final class BinaryTaskFile {
+    // "BBTK", marking the file as a binary task file
+    private static final int MAGIC = 0x4242544B;
+    private static final int VERSION = 2;
+    private static final int UNBLOCKED_VERSION = 1;
+
+    // "BBLK", marking the start of a block, so that blocks can be found again past a damaged one
+    private static final int BLOCK_MARKER = 0x42424C4B;
+    private static final int BLOCK_HEADER_LENGTH = 4 * Integer.BYTES;
+
+    // a block is closed once its tasks take up this many bytes
+    private static final int BLOCK_LENGTH = 1 << 16;
+
+    // a task takes up at least its type byte and the length of its name
+    private static final int MIN_TASK_LENGTH = 2;
+
+    /**
+     * Represents a block of tasks in a file, or a damaged part of the file between blocks.
+     */
+    private static final class Block {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private final int numOfTasks;
+        private final int checksum;
+
+        // results of decoding the block
+        private final List<Task> tasks = new ArrayList<>();
+        private String error;
+
+        /**
+         * Initialises a block spanning the given range of the buffer.
+         *
+         * @param buffer     Contents of the task file.
+         * @param start      Start of the block header.
+         * @param end        End of the block (exclusive).
+         * @param numOfTasks Number of tasks recorded in the header.
+         * @param checksum   Checksum recorded in the header.
+         */
+        private Block(ByteBuffer buffer, int start, int end, int numOfTasks, int checksum) {
+            // each block has its own view of the buffer, as buffers are not thread-safe
+            this.buffer = buffer.duplicate();
+            this.start = start;
+            this.end = end;
+            this.numOfTasks = numOfTasks;
+            this.checksum = checksum;
+        }
+
+        /**
+         * Returns a damaged part of the file, between the given positions, which is not a valid block.
+         *
+         * @param buffer Contents of the task file.
+         * @param start  Start of the damaged part.
+         * @param end    End of the damaged part (exclusive).
+         * @param reason Description of why the part is damaged.
+         * @return Damaged part.
+         */
+        private static Block ofDamage(ByteBuffer buffer, int start, int end, String reason) {
+            Block block = new Block(buffer, start, end, 0, 0);
+            block.error = reason;
+            return block;
+        }
+
+        /**
+         * Verifies the checksum of the block, then decodes every task in it.
+         * If the block is damaged, the reason is recorded as the error of the block.
+         */
+        private void readTasks() {
+            if (this.error != null) {
+                return;
+            }
+
+            this.buffer.limit(this.end).position(this.start + BLOCK_HEADER_LENGTH);
+            CRC32C blockChecksum = new CRC32C();
+            blockChecksum.update(this.buffer.duplicate());
+            if ((int) blockChecksum.getValue() != this.checksum) {
+                this.error = "Block fails its checksum";
+                return;
+            }
+
+            try {
+                for (int i = 0; i < this.numOfTasks; i++) {
+                    this.tasks.add(readTask(this.buffer));
+                }
+                if (this.buffer.hasRemaining()) {
+                    this.error = "Unexpected data at the end of a block";
+                }
+            } catch (BufferUnderflowException ex) {
+                this.error = "Block ends unexpectedly";
+            } catch (IllegalArgumentException ex) {
+                this.error = ex.getMessage();
+            }
+
+            if (this.error != null) {
+                this.tasks.clear();
+            }
+        }
+    }
+
+    /**
+     * Collects encoded tasks into a block, before the block is written with its header.
+     */
+    private static final class BlockOutputStream extends ByteArrayOutputStream {
+        private BlockOutputStream() {
+            super(BLOCK_LENGTH);
+        }
+
+        /**
+         * Returns the CRC32C checksum of the bytes in the block.
+         *
+         * @return Checksum of the block.
+         */
+        private int getChecksum() {
+            CRC32C checksum = new CRC32C();
+            checksum.update(this.buf, 0, this.count);
+            return (int) checksum.getValue();
+        }
+    }
+
+    private BinaryTaskFile() {
+        // holds static methods only
+    }
+
+    /**
+     * Writes every task in the given task list to the output, in the binary save format.
+     * Only a single block is held in memory at a time.
+     *
+     * @param taskTracker Task list to be written.
+     * @param output      Output to write the tasks to.
+     * @throws IOException If the output cannot be written to.
+     */
+    static void write(TaskTracker taskTracker, DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeInt(taskTracker.getNumOfTasks());
+
+        BlockOutputStream block = new BlockOutputStream();
+        DataOutputStream blockOutput = new DataOutputStream(block);
+        int numOfBlockTasks = 0;
+        Iterator<Task> tasks = taskTracker.streamTasks().iterator();
+        while (tasks.hasNext()) {
+            tasks.next().writeBinary(blockOutput);
+            numOfBlockTasks++;
+            if (block.size() >= BLOCK_LENGTH || !tasks.hasNext()) {
+                output.writeInt(BLOCK_MARKER);
+                output.writeInt(numOfBlockTasks);
+                output.writeInt(block.size());
+                output.writeInt(block.getChecksum());
+                block.writeTo(output);
+                block.reset();
+                numOfBlockTasks = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes of the given task in the binary save format.
+     *
+     * @param task Task to be encoded.
+     * @return Encoded task.
+     */
+    static byte[] encodeTask(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            task.writeBinary(new DataOutputStream(bytes));
+        } catch (IOException ex) {
+            throw new AssertionError("ByteArrayOutputStream should never throw an IOException", ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Returns the tasks in the given buffer, which holds a whole file in the binary save format.
+     *
+     * @param buffer Contents of the task file.
+     * @return Tasks saved in the file, in order.
+     * @throws IllegalArgumentException If the file is incorrectly formatted or damaged.
+     */
+    static ArrayList<Task> read(ByteBuffer buffer) {
+        List<DamagedRegion> damage = new ArrayList<>();
+        ArrayList<Task> tasks = recover(buffer, damage);
+        if (!damage.isEmpty()) {
+            DamagedRegion region = damage.get(0);
+            throw new IllegalArgumentException(region.getReason() + " (" + region.getLocation() + ")");
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the tasks in the given buffer, which holds a whole file in the binary save format,
+     * skipping every damaged block. Each skipped block is added to the given list.
+     * The blocks are verified and decoded in parallel.
+     *
+     * @param buffer Contents of the task file.
+     * @param damage List to add the skipped blocks to.
+     * @return Tasks saved in the intact blocks of the file, in order.
+     * @throws IllegalArgumentException If the file is not a binary task file, or is of the
+     *                                  first version and incorrectly formatted.
+     */
+    static ArrayList<Task> recover(ByteBuffer buffer, List<DamagedRegion> damage) {
+        try {
+            if (readVersion(buffer) == UNBLOCKED_VERSION) {
+                return readUnblockedTasks(buffer);
+            }
+
+            // the number of tasks cannot be trusted before the file is read in full
+            int numOfTasks = buffer.getInt();
+            List<Block> blocks = findBlocks(buffer);
+            blocks.parallelStream().forEach(Block::readTasks);
+
+            ArrayList<Task> tasks = new ArrayList<>(Math.min(numOfTasks, buffer.remaining() / MIN_TASK_LENGTH));
+            for (int i = 0; i < blocks.size(); i++) {
+                Block block = blocks.get(i);
+                if (block.error != null) {
+                    damage.add(new DamagedRegion("block " + (i + 1) + ", bytes " + block.start + " to " + block.end,
+                            block.error, block.start, block.end));
+                }
+                tasks.addAll(block.tasks);
+            }
+
+            // whole blocks may be missing from the end of the file
+            if (damage.isEmpty() && tasks.size() != numOfTasks) {
+                damage.add(new DamagedRegion("end of file", "The saved task file ends unexpectedly",
+                        buffer.limit(), buffer.limit()));
+            }
+            return tasks;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("The saved task file ends unexpectedly");
+        }
+    }
+
+    /**
+     * Returns the blocks in the rest of the buffer, without verifying them. Whenever a
+     * block header is invalid, the buffer is searched for the next block marker, and the
+     * part of the buffer skipped is returned as a damaged block.
+     *
+     * @param buffer Buffer positioned at the start of the first block.
+     * @return Blocks in the buffer, in file order.
+     */
+    private static List<Block> findBlocks(ByteBuffer buffer) {
+        List<Block> blocks = new ArrayList<>();
+        int position = buffer.position();
+        while (position < buffer.limit()) {
+            int blockEnd = getBlockEnd(buffer, position);
+            if (blockEnd >= 0) {
+                blocks.add(new Block(buffer, position, blockEnd, buffer.getInt(position + Integer.BYTES),
+                        buffer.getInt(position + 3 * Integer.BYTES)));
+                position = blockEnd;
+                continue;
+            }
+
+            int damageEnd = position + 1;
+            while (damageEnd < buffer.limit() && getBlockEnd(buffer, damageEnd) < 0) {
+                damageEnd++;
+            }
+
+            // a block which runs past the end of the buffer has been cut off
+            boolean isTruncated = damageEnd == buffer.limit() && buffer.limit() - position >= BLOCK_HEADER_LENGTH
+                    && buffer.getInt(position) == BLOCK_MARKER;
+            blocks.add(Block.ofDamage(buffer, position, damageEnd, isTruncated
+                    ? "The saved task file ends unexpectedly"
+                    : "Invalid block headers in saved task file"));
+            position = damageEnd;
+        }
+        return blocks;
+    }
+
+    /**
+     * Returns the end of the block starting at the given position, or -1 if there is
+     * no valid block header at the position.
+     *
+     * @param buffer   Contents of the task file.
+     * @param position Position of the block header.
+     * @return End of the block (exclusive), or -1 if there is no block.
+     */
+    private static int getBlockEnd(ByteBuffer buffer, int position) {
+        if (buffer.limit() - position < BLOCK_HEADER_LENGTH || buffer.getInt(position) != BLOCK_MARKER) {
+            return -1;
+        }
+
+        int numOfTasks = buffer.getInt(position + Integer.BYTES);
+        int length = buffer.getInt(position + 2 * Integer.BYTES);
+        int maxLength = buffer.limit() - position - BLOCK_HEADER_LENGTH;
+        if (numOfTasks < 0 || length < 0 || length > maxLength) {
+            return -1;
+        }
+        return position + BLOCK_HEADER_LENGTH + length;
+    }
+
+    /**
+     * Returns the tasks in the rest of the buffer, which holds a file of the first version.
+     *
+     * @param buffer Buffer positioned directly after the version.
+     * @return Tasks saved in the file, in order.
+     * @throws IllegalArgumentException If the file is incorrectly formatted.
+     * @throws BufferUnderflowException If the file ends unexpectedly.
+     */
+    private static ArrayList<Task> readUnblockedTasks(ByteBuffer buffer) {
+        int numOfTasks = readVarint(buffer);
+        ArrayList<Task> tasks = new ArrayList<>(Math.min(numOfTasks, buffer.remaining() / MIN_TASK_LENGTH));
+        for (int i = 0; i < numOfTasks; i++) {
+            tasks.add(readTask(buffer));
+        }
+
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected data at the end of the saved task file");
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the position of every task in the given buffer, which holds a whole file
+     * in the binary save format. Only the types and lengths of the tasks are read,
+     * so that the tasks can be decoded later on with <code>readTask</code>.
+     * The checksums of the blocks are not verified.
+     *
+     * @param buffer Contents of the task file.
+     * @return Position of each task, in file order.
+     * @throws IllegalArgumentException If the file is incorrectly formatted.
+     */
+    static int[] indexTasks(ByteBuffer buffer) {
+        try {
+            boolean isBlocked = readVersion(buffer) != UNBLOCKED_VERSION;
+            int numOfTasks = isBlocked ? buffer.getInt() : readVarint(buffer);
+            int[] positions = new int[Math.max(0, Math.min(numOfTasks, buffer.remaining() / MIN_TASK_LENGTH))];
+            int numOfIndexedTasks = 0;
+            while (isBlocked ? buffer.hasRemaining() : numOfIndexedTasks < numOfTasks) {
+                int numOfBlockTasks = numOfTasks;
+                int blockEnd = buffer.limit();
+                if (isBlocked) {
+                    blockEnd = getBlockEnd(buffer, buffer.position());
+                    if (blockEnd < 0) {
+                        throw new IllegalArgumentException("Invalid block headers in saved task file");
+                    }
+                    numOfBlockTasks = buffer.getInt(buffer.position() + Integer.BYTES);
+                    buffer.position(buffer.position() + BLOCK_HEADER_LENGTH);
+                }
+
+                ByteBuffer block = buffer.duplicate().limit(blockEnd);
+                for (int i = 0; i < numOfBlockTasks; i++) {
+                    if (numOfIndexedTasks == positions.length) {
+                        throw new BufferUnderflowException();
+                    }
+                    positions[numOfIndexedTasks++] = block.position();
+                    skipTask(block);
+                }
+                if (isBlocked && block.hasRemaining()) {
+                    throw new IllegalArgumentException("Unexpected data at the end of a block");
+                }
+                buffer.position(block.position());
+            }
+
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected data at the end of the saved task file");
+            }
+            if (numOfIndexedTasks != numOfTasks) {
+                throw new BufferUnderflowException();
+            }
+            return positions;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("The saved task file ends unexpectedly");
+        }
+    }
+
+    /**
+     * Reads the magic number and version at the start of the buffer, and returns the version.
+     *
+     * @param buffer Buffer positioned at the start of the file.
+     * @return Version of the binary format.
+     * @throws IllegalArgumentException If the file is not a supported binary task file.
+     */
+    private static int readVersion(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("The saved task file is not in the binary format");
+        }
+
+        int version = buffer.get();
+        if (version != VERSION && version != UNBLOCKED_VERSION) {
+            throw new IllegalArgumentException("Unsupported version of the binary format: " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Moves the buffer past the next task, without decoding it.
+     *
+     * @param buffer Buffer positioned at the start of a task.
+     * @throws IllegalArgumentException If the task type is invalid.
+     * @throws BufferUnderflowException If the buffer ends before the task does.
+     */
+    private static void skipTask(ByteBuffer buffer) {
+        int typeByte = buffer.get() & 0xFF;
+        int nameLength = readVarint(buffer);
+
+        // dates are saved as longs
+        int numOfDates;
+        switch (typeByte & ~Task.BINARY_DONE_FLAG) {
+        case Todo.BINARY_TYPE:
+            numOfDates = 0;
+            break;
+        case Deadline.BINARY_TYPE:
+            numOfDates = 1;
+            break;
+        case Event.BINARY_TYPE:
+            numOfDates = 2;
+            break;
+        default:
+            throw new IllegalArgumentException("Invalid task types in saved task file");
+        }
+
+        long taskLength = (long) nameLength + (long) numOfDates * Long.BYTES;
+        if (taskLength > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        buffer.position(buffer.position() + (int) taskLength);
+    }
+
+    /**
+     * Returns the next task in the buffer.
+     *
+     * @param buffer Buffer positioned at the start of a task.
+     * @return Task read.
+     * @throws IllegalArgumentException If the task is incorrectly formatted.
+     * @throws BufferUnderflowException If the buffer ends before the task does.
+     */
+    static Task readTask(ByteBuffer buffer) {
+        if (!buffer.hasRemaining()) {
+            throw new BufferUnderflowException();
+        }
+        int typeByte = buffer.get(buffer.position()) & 0xFF;
+        return readTask(buffer, (typeByte & Task.BINARY_DONE_FLAG) != 0);
+    }
+
+    /**
+     * Returns the next task in the buffer, with the given completion status
+     * instead of the status saved with the task.
+     *
+     * @param buffer Buffer positioned at the start of a task.
+     * @param isDone Completion status of the task.
+     * @return Task read.
+     * @throws IllegalArgumentException If the task is incorrectly formatted.
+     * @throws BufferUnderflowException If the buffer ends before the task does.
+     */
+    static Task readTask(ByteBuffer buffer, boolean isDone) {
+        int typeByte = buffer.get() & 0xFF;
+        String taskName = readString(buffer);
+
+        switch (typeByte & ~Task.BINARY_DONE_FLAG) {
+        case Todo.BINARY_TYPE:
+            return new Todo(new Todo(taskName), isDone);
+        case Deadline.BINARY_TYPE:
+            LocalDateTime byWhen = readDate(buffer);
+            return new Deadline(new Deadline(taskName, byWhen), isDone);
+        case Event.BINARY_TYPE:
+            LocalDateTime startTime = readDate(buffer);
+            LocalDateTime endTime = readDate(buffer);
+            return new Event(new Event(taskName, startTime, endTime), isDone);
+        default:
+            throw new IllegalArgumentException("Invalid task types in saved task file");
+        }
+    }
+
+    /**
+     * Returns the next non-negative varint in the buffer.
+     *
+     * @param buffer Buffer positioned at the start of a varint.
+     * @return Number read.
+     * @throws IllegalArgumentException If the varint does not fit in an <code>int</code>.
+     */
+    private static int readVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte nextByte = buffer.get();
+
+            // only 3 more bits fit in the last byte, with no more bytes after it
+            if (shift == 28 && (nextByte & 0xF8) != 0) {
+                break;
+            }
+
+            value |= (nextByte & 0x7F) << shift;
+            if (nextByte >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid lengths in saved task file");
+    }
+
+    /**
+     * Returns the next string in the buffer, which is prefixed by its length in bytes.
+     *
+     * @param buffer Buffer positioned at the start of a string.
+     * @return String read.
+     * @throws BufferUnderflowException If the buffer ends before the string does.
+     */
+    private static String readString(ByteBuffer buffer) {
+        int length = readVarint(buffer);
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        String string;
+        if (buffer.hasArray()) {
+            string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return string;
+    }
+
+    /**
+     * Returns the next date in the buffer, saved as the number of seconds since the epoch.
+     *
+     * @param buffer Buffer positioned at the start of a date.
+     * @return Date read.
+     * @throws IllegalArgumentException If the date is out of range.
+     */
+    private static LocalDateTime readDate(ByteBuffer buffer) {
+        try {
+            return LocalDateTime.ofEpochSecond(buffer.getLong(), 0, ZoneOffset.UTC);
+        } catch (DateTimeException ex) {
+            throw new IllegalArgumentException("Invalid dates in saved task file");
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package bingbong.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Writes bytes and UTF-8 text to a file channel through a single fixed-size buffer,
+ * which is written to the channel whenever it fills up. Text is encoded straight into
+ * the buffer, so the memory used by a write does not grow with the amount written.
+ * Also computes the checksum of every byte written. The channel is not closed by this writer.
+ */
+final class ChannelWriter extends OutputStream implements Appendable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * Initialises a writer which writes to the given channel, from its current position.
+     *
+     * @param channel Channel to write to.
+     */
+    ChannelWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!this.buffer.hasRemaining()) {
+            this.drain();
+        }
+        this.buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!this.buffer.hasRemaining()) {
+                this.drain();
+            }
+            int chunkLength = Math.min(length, this.buffer.remaining());
+            this.buffer.put(bytes, offset, chunkLength);
+            offset += chunkLength;
+            length -= chunkLength;
+        }
+    }
+
+    /**
+     * Encodes the given characters as UTF-8 into the buffer. The characters must not end
+     * midway through a surrogate pair, as each call is encoded on its own.
+     *
+     * @param csq Characters to be written.
+     * @return This writer.
+     * @throws IOException If the channel cannot be written to, or the characters cannot be encoded.
+     */
+    @Override
+    public ChannelWriter append(CharSequence csq) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(csq);
+        this.encoder.reset();
+        CoderResult result;
+        do {
+            result = this.encoder.encode(chars, this.buffer, true);
+            if (result.isOverflow()) {
+                this.drain();
+            } else if (result.isError()) {
+                throw new CharacterCodingException();
+            }
+        } while (!result.isUnderflow());
+        return this;
+    }
+
+    @Override
+    public ChannelWriter append(CharSequence csq, int start, int end) throws IOException {
+        return this.append(csq.subSequence(start, end));
+    }
+
+    @Override
+    public ChannelWriter append(char c) throws IOException {
+        if (c < 0x80) {
+            this.write(c);
+            return this;
+        }
+        return this.append(String.valueOf(c));
+    }
+
+    /**
+     * Writes everything in the buffer to the channel.
+     *
+     * @throws IOException If the channel cannot be written to.
+     */
+    @Override
+    public void flush() throws IOException {
+        this.drain();
+    }
+
+    /**
+     * Writes everything in the buffer to the channel, without closing the channel.
+     *
+     * @throws IOException If the channel cannot be written to.
+     */
+    @Override
+    public void close() throws IOException {
+        this.drain();
+    }
+
+    /**
+     * Returns the checksum of every byte written to the channel so far.
+     * Bytes still in the buffer are only included after a flush.
+     *
+     * @return Checksum of the bytes written.
+     */
+    long getChecksum() {
+        return this.checksum.getValue();
+    }
+
+    /**
+     * Writes everything in the buffer to the channel, then empties the buffer.
+     *
+     * @throws IOException If the channel cannot be written to.
+     */
+    private void drain() throws IOException {
+        this.buffer.flip();
+        this.checksum.update(this.buffer.duplicate());
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
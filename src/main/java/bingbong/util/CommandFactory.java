@@ -0,0 +1,30 @@
+package bingbong.util;
+
+import bingbong.command.Command;
+
+/**
+ * Represents a command which can be added to the chatbot without changing the
+ * <code>Parser</code>. Implementations are found with a <code>ServiceLoader</code>,
+ * by listing them in <code>META-INF/services/bingbong.util.CommandFactory</code>,
+ * and are registered once, when the <code>Parser</code> is first used.
+ * A factory whose command word is already taken by another command is ignored.
+ */
+public interface CommandFactory {
+    /**
+     * Returns the word which starts the command, such as <code>todo</code>.
+     * Command words are matched regardless of case.
+     *
+     * @return Command word, without whitespace.
+     */
+    String getCommandWord();
+
+    /**
+     * Returns the command represented by the given user input, which starts with
+     * the command word of this factory.
+     *
+     * @param input Tokens of the input from the user.
+     * @return Command to be executed.
+     * @throws ParserException If the arguments are invalid for this command.
+     */
+    Command createCommand(CommandInput input) throws ParserException;
+}
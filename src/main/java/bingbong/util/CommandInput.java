@@ -0,0 +1,195 @@
+package bingbong.util;
+
+import java.util.Arrays;
+
+/**
+ * Represents a line of user input, split into whitespace-separated tokens in a single
+ * scan over the line. The first token is the command word, while the rest of the line
+ * holds the arguments of the command, which may be divided into segments by flags such
+ * as <code>/by</code>. A flag only divides the arguments if it stands alone as a token,
+ * with other tokens on both sides of it.
+ * Commands registered through a <code>CommandFactory</code> read their arguments from here.
+ */
+public final class CommandInput {
+    private final String inputLine;
+
+    // start and end (exclusive) of each token, in input order
+    private int[] tokenStarts = new int[8];
+    private int[] tokenEnds = new int[8];
+    private int numOfTokens;
+
+    /**
+     * Initialises a <code>CommandInput</code> by scanning the given line once for its tokens.
+     *
+     * @param inputLine Line of user input, without leading or trailing whitespace.
+     */
+    CommandInput(String inputLine) {
+        this.inputLine = inputLine;
+
+        int tokenStart = -1;
+        for (int i = 0; i < inputLine.length(); i++) {
+            boolean isWhitespace = isWhitespace(inputLine.charAt(i));
+            if (tokenStart < 0 && !isWhitespace) {
+                tokenStart = i;
+            } else if (tokenStart >= 0 && isWhitespace) {
+                this.addToken(tokenStart, i);
+                tokenStart = -1;
+            }
+        }
+        if (tokenStart >= 0) {
+            this.addToken(tokenStart, inputLine.length());
+        }
+    }
+
+    /**
+     * Returns whether the given character separates tokens. These are the same characters
+     * matched by <code>\s</code> in regular expressions.
+     *
+     * @param c Character to be checked.
+     * @return Whether the character is whitespace.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Records a token, growing the arrays of token positions if they are full.
+     *
+     * @param start Start of the token.
+     * @param end   End of the token (exclusive).
+     */
+    private void addToken(int start, int end) {
+        if (this.numOfTokens == this.tokenStarts.length) {
+            this.tokenStarts = Arrays.copyOf(this.tokenStarts, this.numOfTokens * 2);
+            this.tokenEnds = Arrays.copyOf(this.tokenEnds, this.numOfTokens * 2);
+        }
+        this.tokenStarts[this.numOfTokens] = start;
+        this.tokenEnds[this.numOfTokens] = end;
+        this.numOfTokens++;
+    }
+
+    /**
+     * Returns the command word, which is the first token of the line.
+     *
+     * @return Command word, or an empty string if the line is empty.
+     */
+    public String getCommandWord() {
+        return this.numOfTokens == 0 ? "" : this.getTokens(0, 1);
+    }
+
+    /**
+     * Returns the length of the command word.
+     *
+     * @return Number of characters in the command word.
+     */
+    int getCommandWordLength() {
+        return this.numOfTokens == 0 ? 0 : this.tokenEnds[0] - this.tokenStarts[0];
+    }
+
+    /**
+     * Returns the character at the given position of the command word, without
+     * copying the command word out of the line.
+     *
+     * @param index Position within the command word.
+     * @return Character at the position.
+     */
+    char getCommandWordChar(int index) {
+        return this.inputLine.charAt(this.tokenStarts[0] + index);
+    }
+
+    /**
+     * Returns whether any arguments follow the command word.
+     *
+     * @return Whether the line has more than one token.
+     */
+    public boolean hasArguments() {
+        return this.numOfTokens > 1;
+    }
+
+    /**
+     * Returns the first argument, which is the token following the command word.
+     *
+     * @return First argument.
+     * @throws ArrayIndexOutOfBoundsException If there are no arguments.
+     */
+    public String getFirstArgument() {
+        if (!this.hasArguments()) {
+            throw new ArrayIndexOutOfBoundsException("No arguments follow the command word");
+        }
+        return this.getTokens(1, 2);
+    }
+
+    /**
+     * Returns the arguments, which are the rest of the line after the command word
+     * and the whitespace following it.
+     *
+     * @return Arguments of the command.
+     * @throws ArrayIndexOutOfBoundsException If there are no arguments.
+     */
+    public String getArguments() {
+        if (!this.hasArguments()) {
+            throw new ArrayIndexOutOfBoundsException("No arguments follow the command word");
+        }
+        return this.getTokens(1, this.numOfTokens);
+    }
+
+    /**
+     * Returns the arguments, divided into segments by the given flags, which must appear
+     * in the given order. Each flag is searched for after the previous flag, and the search
+     * stops at the first flag that is missing, so the number of segments returned is one
+     * more than the number of flags found. Whitespace around each flag is left out.
+     *
+     * @param flags Flags dividing the arguments, such as <code>/from</code> and <code>/to</code>.
+     * @return Segments of the arguments, in input order.
+     * @throws ArrayIndexOutOfBoundsException If there are no arguments.
+     */
+    public String[] getArgumentsSplitBy(String... flags) {
+        if (!this.hasArguments()) {
+            throw new ArrayIndexOutOfBoundsException("No arguments follow the command word");
+        }
+
+        String[] segments = new String[flags.length + 1];
+        int numOfSegments = 0;
+        int segmentStart = 1;
+        for (String flag : flags) {
+            int flagIndex = this.findFlag(flag, segmentStart + 1);
+            if (flagIndex < 0) {
+                break;
+            }
+            segments[numOfSegments++] = this.getTokens(segmentStart, flagIndex);
+            segmentStart = flagIndex + 1;
+        }
+        segments[numOfSegments++] = this.getTokens(segmentStart, this.numOfTokens);
+        return Arrays.copyOf(segments, numOfSegments);
+    }
+
+    /**
+     * Returns the index of the first token from the given index which is the given flag,
+     * and which is followed by another token.
+     *
+     * @param flag      Flag to search for.
+     * @param fromIndex Index of the first token to be checked.
+     * @return Index of the flag, or -1 if it is missing.
+     */
+    private int findFlag(String flag, int fromIndex) {
+        for (int i = fromIndex; i < this.numOfTokens - 1; i++) {
+            int start = this.tokenStarts[i];
+            if (this.tokenEnds[i] - start == flag.length() && this.inputLine.startsWith(flag, start)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the part of the line from the start of the first given token to the end of
+     * the last given token, including the whitespace in between.
+     *
+     * @param fromIndex Index of the first token.
+     * @param toIndex   Index after the last token (exclusive).
+     * @return Part of the line spanning the tokens.
+     */
+    private String getTokens(int fromIndex, int toIndex) {
+        return this.inputLine.substring(this.tokenStarts[fromIndex], this.tokenEnds[toIndex - 1]);
+    }
+}
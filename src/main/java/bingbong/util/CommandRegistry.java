@@ -0,0 +1,118 @@
+package bingbong.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Represents the immutable set of commands understood by the chatbot, which maps each
+ * command word to the function creating its command. Command words are held in a trie,
+ * built once, so that the command word of an input is looked up in a single walk over
+ * its characters, without copying it out of the input or throwing for unknown words.
+ */
+final class CommandRegistry {
+    private final Node root;
+    private final String commandWords;
+
+    /**
+     * Represents a node of the trie, reached by a prefix of one or more command words.
+     * The characters leading to the children of a node are kept in ascending order.
+     */
+    private static final class Node {
+        private char[] childChars = new char[0];
+        private Node[] children = new Node[0];
+        private Function<CommandInput, ParseResult> factory;
+
+        /**
+         * Returns the child reached by the given character, or null if there is none.
+         *
+         * @param c Lower-case character following the prefix of this node.
+         * @return Child node, or null.
+         */
+        private Node getChild(char c) {
+            for (int i = 0; i < this.childChars.length; i++) {
+                if (this.childChars[i] == c) {
+                    return this.children[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the child reached by the given character, adding it if there is none.
+         *
+         * @param c Lower-case character following the prefix of this node.
+         * @return Child node.
+         */
+        private Node getOrAddChild(char c) {
+            Node child = this.getChild(c);
+            if (child != null) {
+                return child;
+            }
+
+            int index = 0;
+            while (index < this.childChars.length && this.childChars[index] < c) {
+                index++;
+            }
+            char[] childChars = new char[this.childChars.length + 1];
+            Node[] children = new Node[this.children.length + 1];
+            System.arraycopy(this.childChars, 0, childChars, 0, index);
+            System.arraycopy(this.children, 0, children, 0, index);
+            System.arraycopy(this.childChars, index, childChars, index + 1, this.childChars.length - index);
+            System.arraycopy(this.children, index, children, index + 1, this.children.length - index);
+            child = new Node();
+            childChars[index] = c;
+            children[index] = child;
+            this.childChars = childChars;
+            this.children = children;
+            return child;
+        }
+    }
+
+    /**
+     * Initialises a <code>CommandRegistry</code> holding the given commands.
+     *
+     * @param factories Function creating each command, by command word, in the order
+     *                  in which the commands are to be suggested to the user.
+     */
+    CommandRegistry(Map<String, Function<CommandInput, ParseResult>> factories) {
+        this.root = new Node();
+        List<String> upperCaseWords = new ArrayList<>(factories.size());
+        for (Map.Entry<String, Function<CommandInput, ParseResult>> entry : factories.entrySet()) {
+            Node node = this.root;
+            for (char c : entry.getKey().toCharArray()) {
+                node = node.getOrAddChild(Character.toLowerCase(c));
+            }
+            node.factory = entry.getValue();
+            upperCaseWords.add(entry.getKey().toUpperCase(Locale.ROOT));
+        }
+        this.commandWords = upperCaseWords.toString();
+    }
+
+    /**
+     * Returns the function creating the command which starts with the command word
+     * of the given input, regardless of case.
+     *
+     * @param input Tokens of the input from the user.
+     * @return Function creating the command, or null if the command word is unknown.
+     */
+    Function<CommandInput, ParseResult> getFactory(CommandInput input) {
+        Node node = this.root;
+        int length = input.getCommandWordLength();
+        for (int i = 0; i < length && node != null; i++) {
+            node = node.getChild(Character.toLowerCase(input.getCommandWordChar(i)));
+        }
+        return node == null ? null : node.factory;
+    }
+
+    /**
+     * Returns the command words of every registered command, to be suggested to the user.
+     *
+     * @return Upper-case command words, in registration order, eg. <code>[LIST, BYE]</code>.
+     */
+    String getCommandWords() {
+        return this.commandWords;
+    }
+}
@@ -0,0 +1,308 @@
+package bingbong.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import bingbong.task.Deadline;
+import bingbong.task.Event;
+import bingbong.task.Task;
+import bingbong.task.TaskTracker;
+import bingbong.task.TaskVisitor;
+import bingbong.task.Todo;
+
+/**
+ * Reads and writes tasks as comma-separated values, which can be exchanged with
+ * spreadsheets and other task managers. The first row names the columns, which are
+ * <code>type,name,done,by,from,to</code> when written. When read, the columns may be in
+ * any order, and unknown columns are ignored. Fields containing commas, quotes or line
+ * breaks are quoted, as described in RFC 4180. Dates are in the ISO-8601 format
+ * (<code>yyyy-MM-ddTHH:mm</code>).
+ * Files are read and written one row at a time, so the memory used does not grow
+ * with the size of the file, apart from the tasks read.
+ */
+final class CsvTaskFile {
+    private static final String TYPE_COLUMN = "type";
+    private static final String NAME_COLUMN = "name";
+    private static final String DONE_COLUMN = "done";
+    private static final String BY_COLUMN = "by";
+    private static final String FROM_COLUMN = "from";
+    private static final String TO_COLUMN = "to";
+    private static final String HEADER = String.join(",", TYPE_COLUMN, NAME_COLUMN, DONE_COLUMN, BY_COLUMN,
+            FROM_COLUMN, TO_COLUMN);
+
+    private static final String TODO_TYPE = "todo";
+    private static final String DEADLINE_TYPE = "deadline";
+    private static final String EVENT_TYPE = "event";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    // writes each task as a row, without its line break
+    private static final TaskVisitor<String> ROW_WRITER = new TaskVisitor<>() {
+        @Override
+        public String visitTodo(String taskName, boolean isDone) {
+            return getRow(TODO_TYPE, taskName, isDone, "", "", "");
+        }
+
+        @Override
+        public String visitDeadline(String taskName, boolean isDone, LocalDateTime byWhen) {
+            return getRow(DEADLINE_TYPE, taskName, isDone, byWhen.format(DATE_FORMATTER), "", "");
+        }
+
+        @Override
+        public String visitEvent(String taskName, boolean isDone, LocalDateTime startTime, LocalDateTime endTime) {
+            return getRow(EVENT_TYPE, taskName, isDone, "", startTime.format(DATE_FORMATTER),
+                    endTime.format(DATE_FORMATTER));
+        }
+    };
+
+    // marks the absence of a character read ahead, as -1 marks the end of the reader
+    private static final int NO_CHAR = -2;
+
+    private final Reader reader;
+
+    // character read ahead of the current field, if any
+    private int nextChar = NO_CHAR;
+    private int rowNumber;
+
+    private CsvTaskFile(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Writes every task in the given list to the given writer, one row at a time.
+     *
+     * @param taskTracker List of tasks to be written.
+     * @param writer      Writer to write the rows to.
+     * @throws IOException If the writer cannot be written to.
+     */
+    static void write(TaskTracker taskTracker, Writer writer) throws IOException {
+        writer.write(HEADER);
+        writer.write("\r\n");
+        for (Task task : (Iterable<Task>) () -> taskTracker.streamTasks().iterator()) {
+            writer.write(task.accept(ROW_WRITER));
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * Returns the row holding the given task details, with each field quoted if needed.
+     *
+     * @param type     Type of the task.
+     * @param taskName Name of the task.
+     * @param isDone   Whether the task has been completed.
+     * @param by       Date by which the task is due, if it is a deadline.
+     * @param from     Start time of the task, if it is an event.
+     * @param to       End time of the task, if it is an event.
+     * @return Row of comma-separated fields.
+     */
+    private static String getRow(String type, String taskName, boolean isDone, String by, String from, String to) {
+        return String.join(",", type, quote(taskName), String.valueOf(isDone), by, from, to);
+    }
+
+    /**
+     * Returns the given field, quoted if it contains a comma, a quote or a line break.
+     * Quotes within a quoted field are doubled.
+     *
+     * @param field Field to be written.
+     * @return Field as written in a row.
+     */
+    private static String quote(String field) {
+        boolean isQuoted = false;
+        for (int i = 0; i < field.length() && !isQuoted; i++) {
+            char c = field.charAt(i);
+            isQuoted = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        return isQuoted ? '"' + field.replace("\"", "\"\"") + '"' : field;
+    }
+
+    /**
+     * Reads every row from the given reader, and passes the task in each row to the given consumer.
+     *
+     * @param reader Reader holding the rows, starting with the header.
+     * @param tasks  Consumer of the tasks read, in row order.
+     * @throws IOException If the reader cannot be read.
+     * @throws IllegalArgumentException If a row is incorrectly formatted, naming the row.
+     */
+    static void read(Reader reader, Consumer<Task> tasks) throws IOException {
+        CsvTaskFile file = new CsvTaskFile(reader);
+        List<String> header = file.readRow();
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file is empty, without even a header row");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey(TYPE_COLUMN) || !columns.containsKey(NAME_COLUMN)) {
+            throw new IllegalArgumentException("The header row of the CSV file must name the \""
+                    + TYPE_COLUMN + "\" and \"" + NAME_COLUMN + "\" columns");
+        }
+
+        for (List<String> row = file.readRow(); row != null; row = file.readRow()) {
+            // blank lines between rows are skipped
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+
+            try {
+                tasks.accept(readTask(row, columns));
+            } catch (IllegalArgumentException | DateTimeParseException ex) {
+                throw new IllegalArgumentException(ex.getMessage() + " (row " + file.rowNumber + ")", ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the task held by the given row.
+     *
+     * @param row     Fields of the row.
+     * @param columns Index of each named column.
+     * @return Task held by the row.
+     * @throws IllegalArgumentException If the row is incorrectly formatted.
+     * @throws DateTimeParseException If a date cannot be parsed.
+     */
+    private static Task readTask(List<String> row, Map<String, Integer> columns) {
+        String type = getField(row, columns, TYPE_COLUMN).strip().toLowerCase(Locale.ROOT);
+        String taskName = getField(row, columns, NAME_COLUMN);
+        if (taskName.isBlank()) {
+            throw new IllegalArgumentException("The name of a task cannot be empty");
+        }
+
+        // tasks are saved one per line, so line breaks within names are flattened
+        taskName = taskName.replaceAll("\\R", " ");
+        boolean isDone = Boolean.parseBoolean(getField(row, columns, DONE_COLUMN).strip());
+        switch (type) {
+        case TODO_TYPE:
+            return new Todo(new Todo(taskName), isDone);
+        case DEADLINE_TYPE:
+            LocalDateTime byWhen = readDate(row, columns, BY_COLUMN);
+            return new Deadline(new Deadline(taskName, byWhen), isDone);
+        case EVENT_TYPE:
+            LocalDateTime startTime = readDate(row, columns, FROM_COLUMN);
+            LocalDateTime endTime = readDate(row, columns, TO_COLUMN);
+            return new Event(new Event(taskName, startTime, endTime), isDone);
+        default:
+            throw new IllegalArgumentException("Unknown task type \"" + type + "\", which should be one of "
+                    + TODO_TYPE + ", " + DEADLINE_TYPE + " or " + EVENT_TYPE);
+        }
+    }
+
+    /**
+     * Returns the field of the given row in the given column, or an empty field
+     * if the column or the field is missing.
+     *
+     * @param row     Fields of the row.
+     * @param columns Index of each named column.
+     * @param column  Name of the column.
+     * @return Field in the column.
+     */
+    private static String getField(List<String> row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        return index != null && index < row.size() ? row.get(index) : "";
+    }
+
+    /**
+     * Returns the date in the given column of the given row.
+     *
+     * @param row     Fields of the row.
+     * @param columns Index of each named column.
+     * @param column  Name of the column.
+     * @return Date in the column.
+     * @throws IllegalArgumentException If the date is missing.
+     * @throws DateTimeParseException If the date cannot be parsed.
+     */
+    private static LocalDateTime readDate(List<String> row, Map<String, Integer> columns, String column) {
+        String date = getField(row, columns, column).strip();
+        if (date.isEmpty()) {
+            throw new IllegalArgumentException("Missing \"" + column + "\" date");
+        }
+        return LocalDateTime.parse(date, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    /**
+     * Returns the fields of the next row, or null if there are no more rows.
+     * A quoted field may span several lines.
+     *
+     * @return Fields of the next row, or null if the reader has ended.
+     * @throws IOException If the reader cannot be read.
+     * @throws IllegalArgumentException If a quoted field is never closed.
+     */
+    private List<String> readRow() throws IOException {
+        int c = this.read();
+        if (c < 0) {
+            return null;
+        }
+
+        this.rowNumber++;
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+        while (true) {
+            if (isQuoted) {
+                if (c < 0) {
+                    throw new IllegalArgumentException("A quoted field is never closed (row " + this.rowNumber + ")");
+                } else if (c != '"') {
+                    field.append((char) c);
+                } else if (this.peek() == '"') {
+                    // a doubled quote stands for a single quote
+                    field.append('"');
+                    this.read();
+                } else {
+                    isQuoted = false;
+                }
+            } else if (c == '"' && field.length() == 0) {
+                isQuoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r' && this.peek() == '\n') {
+                    this.read();
+                }
+                row.add(field.toString());
+                return row;
+            } else {
+                field.append((char) c);
+            }
+            c = this.read();
+        }
+    }
+
+    /**
+     * Returns the next character, or -1 if the reader has ended.
+     *
+     * @return Next character.
+     * @throws IOException If the reader cannot be read.
+     */
+    private int read() throws IOException {
+        if (this.nextChar != NO_CHAR) {
+            int c = this.nextChar;
+            this.nextChar = NO_CHAR;
+            return c;
+        }
+        return this.reader.read();
+    }
+
+    /**
+     * Returns the next character without consuming it, or -1 if the reader has ended.
+     *
+     * @return Next character.
+     * @throws IOException If the reader cannot be read.
+     */
+    private int peek() throws IOException {
+        if (this.nextChar == NO_CHAR) {
+            this.nextChar = this.reader.read();
+        }
+        return this.nextChar;
+    }
+}
@@ -0,0 +1,44 @@
+package bingbong.util;
+
+/**
+ * Represents a damaged part of a task file, which could not be loaded and is
+ * left out of the loaded task list, such as a corrupted line of a text file or a
+ * block of a binary file which fails its checksum.
+ */
+final class DamagedRegion {
+    private final String location;
+    private final String reason;
+    private final int start;
+    private final int end;
+
+    /**
+     * Initialises a damaged region of a task file.
+     *
+     * @param location Description of where the region is, such as <code>line 2</code>.
+     * @param reason   Description of why the region could not be loaded.
+     * @param start    Start of the region within the file.
+     * @param end      End of the region within the file (exclusive).
+     */
+    DamagedRegion(String location, String reason, int start, int end) {
+        this.location = location;
+        this.reason = reason;
+        this.start = start;
+        this.end = end;
+    }
+
+    String getLocation() {
+        return this.location;
+    }
+
+    String getReason() {
+        return this.reason;
+    }
+
+    int getStart() {
+        return this.start;
+    }
+
+    int getEnd() {
+        return this.end;
+    }
+}
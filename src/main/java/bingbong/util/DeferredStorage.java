@@ -0,0 +1,104 @@
+package bingbong.util;
+
+import java.io.FileNotFoundException;
+import java.util.Optional;
+
+import bingbong.task.TaskMutation;
+import bingbong.task.TaskTracker;
+
+/**
+ * Wraps another storage, holding back the changes saved through it until it is flushed.
+ * Only the latest task list is kept in the meantime, and it is saved as a whole upon
+ * flushing, so that any number of changes in between costs a single save.
+ * Changes which have not been flushed are lost if the app stops before it is closed.
+ */
+public class DeferredStorage implements StorageBackend {
+    private final StorageBackend storage;
+
+    // latest task list which has not been saved, if any
+    private TaskTracker pendingTaskTracker;
+
+    /**
+     * Initialises a <code>DeferredStorage</code> that saves changes to the given storage.
+     *
+     * @param storage Storage to which changes are saved upon flushing.
+     */
+    public DeferredStorage(StorageBackend storage) {
+        this.storage = storage;
+    }
+
+    @Override
+    public TaskTracker loadSavedTasks() throws FileNotFoundException, StorageException {
+        return this.storage.loadSavedTasks();
+    }
+
+    @Override
+    public Optional<String> getLoadWarning() {
+        return this.storage.getLoadWarning();
+    }
+
+    /**
+     * Holds back the given task list, which is saved upon the next flush.
+     *
+     * @param taskTracker Current list of tasks recorded.
+     */
+    @Override
+    public void saveTasks(TaskTracker taskTracker) {
+        this.pendingTaskTracker = taskTracker;
+    }
+
+    /**
+     * Holds back the task list after the given change, which is saved as a whole upon the next flush.
+     *
+     * @param mutation           Change made to the task list.
+     * @param updatedTaskTracker Task list after the change.
+     */
+    @Override
+    public void saveMutation(TaskMutation mutation, TaskTracker updatedTaskTracker) {
+        this.pendingTaskTracker = updatedTaskTracker;
+    }
+
+    @Override
+    public TaskTracker reloadChangedTasks(TaskTracker taskTracker) throws StorageException {
+        return this.storage.reloadChangedTasks(taskTracker);
+    }
+
+    @Override
+    public void archiveTasks(TaskTracker archivedTasks) throws StorageException {
+        this.storage.archiveTasks(archivedTasks);
+    }
+
+    @Override
+    public TaskTracker loadArchivedTasks(String substring) throws StorageException {
+        return this.storage.loadArchivedTasks(substring);
+    }
+
+    /**
+     * Saves the latest task list held back, if any, then waits until it has been written to the disk.
+     *
+     * @throws StorageException If the tasks could not be saved.
+     */
+    @Override
+    public void flush() throws StorageException {
+        if (this.pendingTaskTracker != null) {
+            // only dropped once saved, so that a failed save is retried upon the next flush
+            this.storage.saveTasks(this.pendingTaskTracker);
+            this.pendingTaskTracker = null;
+        }
+        this.storage.flush();
+    }
+
+    /**
+     * Saves the latest task list held back, if any, then closes the wrapped storage.
+     *
+     * @throws StorageException If the tasks could not be saved.
+     */
+    @Override
+    public void close() throws StorageException {
+        try {
+            this.flush();
+        } finally {
+            this.storage.close();
+        }
+    }
+}
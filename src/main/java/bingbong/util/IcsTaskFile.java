@@ -0,0 +1,386 @@
+package bingbong.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import bingbong.task.Deadline;
+import bingbong.task.Event;
+import bingbong.task.Task;
+import bingbong.task.TaskTracker;
+import bingbong.task.TaskVisitor;
+import bingbong.task.Todo;
+
+/**
+ * Reads and writes tasks in the iCalendar format (RFC 5545), which can be exchanged with
+ * calendar apps. Todos and deadlines are written as <code>VTODO</code> components, where
+ * deadlines are due at their date, while events are written as <code>VEVENT</code> components.
+ * When read, any other component, such as a time zone or an alarm, is skipped. Times in UTC
+ * are converted to the local time zone, while every other time is taken to be in local time.
+ * Files are read and written one line at a time, so the memory used does not grow
+ * with the size of the file, apart from the tasks read.
+ */
+final class IcsTaskFile {
+    private static final String TODO_COMPONENT = "VTODO";
+    private static final String EVENT_COMPONENT = "VEVENT";
+
+    // VEVENT has no completed status, so completed events are marked by an extension property
+    private static final String EVENT_COMPLETED_PROPERTY = "X-BINGBONG-COMPLETED";
+    private static final String COMPLETED_STATUS = "COMPLETED";
+
+    // lines longer than this many bytes are folded onto continuation lines
+    private static final int MAX_LINE_LENGTH = 75;
+    private static final String LINE_BREAK = "\r\n";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+
+    /**
+     * Represents a component being read, holding the value of each property by name.
+     */
+    private static final class Component {
+        private final String name;
+        private final Map<String, String> properties = new HashMap<>();
+        private final Map<String, String> parameters = new HashMap<>();
+
+        private Component(String name) {
+            this.name = name;
+        }
+    }
+
+    private IcsTaskFile() {
+    }
+
+    /**
+     * Writes every task in the given list to the given writer, as a single calendar.
+     * Each component is given an identifier based on its position in the list.
+     *
+     * @param taskTracker List of tasks to be written.
+     * @param writer      Writer to write the calendar to.
+     * @throws IOException If the writer cannot be written to.
+     */
+    static void write(TaskTracker taskTracker, Writer writer) throws IOException {
+        // every component records when it was written, in UTC
+        String timestamp = LocalDateTime.now(ZoneOffset.UTC).format(DATE_TIME_FORMATTER) + "Z";
+        writeLine(writer, "BEGIN:VCALENDAR");
+        writeLine(writer, "VERSION:2.0");
+        writeLine(writer, "PRODID:-//BingBong//BingBong//EN");
+
+        int index = 0;
+        for (Task task : (Iterable<Task>) () -> taskTracker.streamTasks().iterator()) {
+            String header = "UID:bingbong-" + index + "-" + timestamp + LINE_BREAK
+                    + "DTSTAMP:" + timestamp + LINE_BREAK;
+            for (String line : task.accept(getComponentWriter(header)).split(LINE_BREAK)) {
+                writeLine(writer, line);
+            }
+            index++;
+        }
+        writeLine(writer, "END:VCALENDAR");
+    }
+
+    /**
+     * Returns the operation writing a task as a component, with its lines separated
+     * by line breaks. The given header lines are placed at the start of the component.
+     *
+     * @param header Lines identifying the component, each ending with a line break.
+     * @return Operation writing a task as a component.
+     */
+    private static TaskVisitor<String> getComponentWriter(String header) {
+        return new TaskVisitor<>() {
+            @Override
+            public String visitTodo(String taskName, boolean isDone) {
+                return getComponent(TODO_COMPONENT, header + getTodoLines(taskName, isDone));
+            }
+
+            @Override
+            public String visitDeadline(String taskName, boolean isDone, LocalDateTime byWhen) {
+                return getComponent(TODO_COMPONENT, header + getTodoLines(taskName, isDone)
+                        + "DUE:" + byWhen.format(DATE_TIME_FORMATTER) + LINE_BREAK);
+            }
+
+            @Override
+            public String visitEvent(String taskName, boolean isDone, LocalDateTime startTime,
+                    LocalDateTime endTime) {
+                return getComponent(EVENT_COMPONENT, header
+                        + "SUMMARY:" + escape(taskName) + LINE_BREAK
+                        + "DTSTART:" + startTime.format(DATE_TIME_FORMATTER) + LINE_BREAK
+                        + "DTEND:" + endTime.format(DATE_TIME_FORMATTER) + LINE_BREAK
+                        + (isDone ? EVENT_COMPLETED_PROPERTY + ":TRUE" + LINE_BREAK : ""));
+            }
+        };
+    }
+
+    /**
+     * Returns the lines holding the name and the status of a todo or deadline.
+     *
+     * @param taskName Name of the task.
+     * @param isDone   Whether the task has been completed.
+     * @return Lines of the task, each ending with a line break.
+     */
+    private static String getTodoLines(String taskName, boolean isDone) {
+        return "SUMMARY:" + escape(taskName) + LINE_BREAK
+                + "STATUS:" + (isDone ? COMPLETED_STATUS : "NEEDS-ACTION") + LINE_BREAK;
+    }
+
+    /**
+     * Returns the component of the given name, holding the given lines.
+     *
+     * @param name  Name of the component.
+     * @param lines Lines of the component, each ending with a line break.
+     * @return Lines of the component, including its start and end.
+     */
+    private static String getComponent(String name, String lines) {
+        return "BEGIN:" + name + LINE_BREAK + lines + "END:" + name;
+    }
+
+    /**
+     * Returns the given text, with the characters which have special meanings in
+     * property values escaped by backslashes.
+     *
+     * @param text Text to be escaped.
+     * @return Escaped text.
+     */
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\n", "\\n");
+    }
+
+    /**
+     * Writes the given line, folding it onto continuation lines which start with a space
+     * if it is too long. Lines are only folded in between characters, so that no
+     * character is split across lines.
+     *
+     * @param writer Writer to write the line to.
+     * @param line   Line to be written, without its line break.
+     * @throws IOException If the writer cannot be written to.
+     */
+    private static void writeLine(Writer writer, String line) throws IOException {
+        int lineLength = 0;
+        for (int i = 0; i < line.length(); i += Character.charCount(line.codePointAt(i))) {
+            int codePoint = line.codePointAt(i);
+            int charLength = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8).length;
+            if (lineLength + charLength > MAX_LINE_LENGTH) {
+                writer.write(LINE_BREAK);
+                writer.write(' ');
+                lineLength = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            lineLength += charLength;
+        }
+        writer.write(LINE_BREAK);
+    }
+
+    /**
+     * Reads every todo and event from the given reader, and passes the task read from each
+     * to the given consumer. Todos which are due at a certain time are read as deadlines.
+     *
+     * @param reader Reader holding the calendar.
+     * @param tasks  Consumer of the tasks read, in file order.
+     * @throws IOException If the reader cannot be read.
+     * @throws IllegalArgumentException If a todo or event is incorrectly formatted, naming its line.
+     */
+    static void read(BufferedReader reader, Consumer<Task> tasks) throws IOException {
+        Component component = null;
+        int nestedDepth = 0;
+        int lineNumber = 0;
+        int componentLineNumber = 0;
+
+        // one-based number of the physical line starting the current line
+        int lineStart = 0;
+
+        // a line is only complete once the next line is not a continuation of it
+        StringBuilder line = null;
+        for (String nextLine = reader.readLine(); line != null || nextLine != null; nextLine = reader.readLine()) {
+            lineNumber++;
+            if (nextLine != null && line != null && !nextLine.isEmpty()
+                    && (nextLine.charAt(0) == ' ' || nextLine.charAt(0) == '\t')) {
+                line.append(nextLine, 1, nextLine.length());
+                continue;
+            }
+
+            if (line != null) {
+                String name = getPropertyName(line);
+                String value = getPropertyValue(line);
+                if (name.equals("BEGIN")) {
+                    if (component != null) {
+                        nestedDepth++;
+                    } else if (value.equalsIgnoreCase(TODO_COMPONENT) || value.equalsIgnoreCase(EVENT_COMPONENT)) {
+                        component = new Component(value.toUpperCase(Locale.ROOT));
+                        componentLineNumber = lineStart;
+                    }
+                } else if (name.equals("END") && component != null) {
+                    if (nestedDepth > 0) {
+                        nestedDepth--;
+                    } else {
+                        tasks.accept(readTask(component, componentLineNumber));
+                        component = null;
+                    }
+                } else if (component != null && nestedDepth == 0) {
+                    component.properties.putIfAbsent(name, value);
+                    component.parameters.putIfAbsent(name, getPropertyParameters(line));
+                }
+            }
+
+            lineStart = lineNumber;
+            line = nextLine == null ? null : new StringBuilder(nextLine);
+        }
+    }
+
+    /**
+     * Returns the name of the property in the given line, in upper case.
+     *
+     * @param line Unfolded line.
+     * @return Name of the property.
+     */
+    private static String getPropertyName(CharSequence line) {
+        int end = 0;
+        while (end < line.length() && line.charAt(end) != ':' && line.charAt(end) != ';') {
+            end++;
+        }
+        return line.subSequence(0, end).toString().strip().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the parameters of the property in the given line, in upper case, or an
+     * empty string if there are none.
+     *
+     * @param line Unfolded line.
+     * @return Parameters of the property, separated by semicolons.
+     */
+    private static String getPropertyParameters(CharSequence line) {
+        int start = getPropertyName(line).length();
+        int end = getValueStart(line) - 1;
+        return start < end ? line.subSequence(start + 1, end).toString().toUpperCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Returns the value of the property in the given line, which follows the first colon
+     * outside of quoted parameter values.
+     *
+     * @param line Unfolded line.
+     * @return Value of the property.
+     */
+    private static String getPropertyValue(CharSequence line) {
+        return line.subSequence(Math.min(getValueStart(line), line.length()), line.length()).toString();
+    }
+
+    /**
+     * Returns the start of the value of the property in the given line.
+     *
+     * @param line Unfolded line.
+     * @return Position after the colon which starts the value, or the length of the line plus one
+     *         if there is no such colon.
+     */
+    private static int getValueStart(CharSequence line) {
+        boolean isQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                isQuoted = !isQuoted;
+            } else if (c == ':' && !isQuoted) {
+                return i + 1;
+            }
+        }
+        return line.length() + 1;
+    }
+
+    /**
+     * Returns the task held by the given component.
+     *
+     * @param component  Todo or event read.
+     * @param lineNumber One-based number of the line starting the component, which is reported
+     *                   if the component is incorrectly formatted.
+     * @return Task held by the component.
+     * @throws IllegalArgumentException If the component is incorrectly formatted.
+     */
+    private static Task readTask(Component component, int lineNumber) {
+        try {
+            String taskName = unescape(component.properties.getOrDefault("SUMMARY", ""));
+            if (taskName.isBlank()) {
+                throw new IllegalArgumentException("The name of a task cannot be empty");
+            }
+
+            if (component.name.equals(EVENT_COMPONENT)) {
+                LocalDateTime startTime = readDate(component, "DTSTART");
+                LocalDateTime endTime = component.properties.containsKey("DTEND")
+                        ? readDate(component, "DTEND")
+                        : startTime.plus(Duration.parse(component.properties.getOrDefault("DURATION", "PT0S")));
+                boolean isDone = component.properties.getOrDefault(EVENT_COMPLETED_PROPERTY, "")
+                        .equalsIgnoreCase("TRUE");
+                return new Event(new Event(taskName, startTime, endTime), isDone);
+            }
+
+            boolean isDone = component.properties.containsKey("COMPLETED")
+                    || component.properties.getOrDefault("STATUS", "").equalsIgnoreCase(COMPLETED_STATUS);
+            if (component.properties.containsKey("DUE")) {
+                return new Deadline(new Deadline(taskName, readDate(component, "DUE")), isDone);
+            }
+            return new Todo(new Todo(taskName), isDone);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new IllegalArgumentException(ex.getMessage() + " (line " + lineNumber + ")", ex);
+        }
+    }
+
+    /**
+     * Returns the date held by the given property of the given component. A date without
+     * a time is taken to be at the start of the day.
+     *
+     * @param component Component holding the property.
+     * @param property  Name of the property.
+     * @return Date held by the property.
+     * @throws IllegalArgumentException If the property is missing.
+     * @throws DateTimeParseException If the date cannot be parsed.
+     */
+    private static LocalDateTime readDate(Component component, String property) {
+        String value = component.properties.get(property);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + property + " date in " + component.name);
+        }
+
+        value = value.strip();
+        if (value.length() == DATE_FORMATTER.format(LocalDate.EPOCH).length()
+                || component.parameters.get(property).contains("VALUE=DATE")) {
+            return LocalDate.parse(value, DATE_FORMATTER).atStartOfDay();
+        } else if (value.endsWith("Z")) {
+            LocalDateTime utcTime = LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME_FORMATTER);
+            return utcTime.atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+        return LocalDateTime.parse(value, DATE_TIME_FORMATTER);
+    }
+
+    /**
+     * Returns the given property value, with its escaped characters restored.
+     * As tasks are saved one per line, line breaks are replaced by spaces.
+     *
+     * @param value Escaped property value.
+     * @return Unescaped text.
+     */
+    private static String unescape(String value) {
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                text.append(c);
+                continue;
+            }
+
+            char escaped = value.charAt(++i);
+            text.append(escaped == 'n' || escaped == 'N' ? ' ' : escaped);
+        }
+        return text.toString().strip();
+    }
+}
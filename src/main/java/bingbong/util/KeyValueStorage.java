@@ -0,0 +1,324 @@
+package bingbong.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import bingbong.task.Task;
+import bingbong.task.TaskMutation;
+import bingbong.task.TaskTracker;
+import bingbong.util.StorageOptions.SyncPolicy;
+
+/**
+ * Saves the task list in an embedded key-value store, where each task is held against
+ * its own key in a B-tree file. Hence, a change to a single task only rewrites the few
+ * pages holding that task, regardless of the number of tasks in the list.
+ * The keys are given out in increasing order, so that the order of the keys is the
+ * order of the task list.
+ * Archiving is not supported, as the archive is kept next to the task file by <code>Storage</code>.
+ * A file under the same name which is not a key-value task file, such as one saved by
+ * <code>Storage</code>, is moved to a quarantine file next to it rather than replaced.
+ */
+public class KeyValueStorage implements StorageBackend {
+    // extension added to the name of the task file, to get the name of the file being rebuilt
+    private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+    // extension of the file holding a task file which is not a key-value task file
+    private static final String QUARANTINE_EXTENSION = ".quarantine";
+
+    private final Path filePath;
+    private final Path temporaryFilePath;
+    private final Path quarantinePath;
+    private final SyncPolicy syncPolicy;
+
+    // warning about the task file found upon loading, if it was moved to the quarantine file
+    private String loadWarning;
+
+    // key of the task at each list index, while the tree is open
+    private final List<Long> keys = new ArrayList<>();
+    private BTreeFile tree;
+
+    /**
+     * Initialises a <code>KeyValueStorage</code> that points to the pre-saved
+     * task file (if any), which is forced onto the disk according to the given policy.
+     * Under the interval policy, changes are only forced onto the disk upon flushing.
+     *
+     * @param dataFolderPath Path to the folder in which tasks are saved.
+     * @param filename       Name of the file in which tasks are saved. The
+     *                       file is stored in <code>dataFolderPath</code>.
+     * @param syncPolicy     When changes are forced onto the disk.
+     * @throws IOException   If there was a problem initialising the data folder.
+     */
+    public KeyValueStorage(String dataFolderPath, String filename, SyncPolicy syncPolicy) throws IOException {
+        this.filePath = Paths.get(dataFolderPath, filename);
+        this.temporaryFilePath = Paths.get(dataFolderPath, filename + TEMPORARY_FILE_EXTENSION);
+        this.quarantinePath = Paths.get(dataFolderPath, filename + QUARANTINE_EXTENSION);
+        this.syncPolicy = syncPolicy;
+
+        // create data folder if we have not done so
+        Path dataFolderPathObj = Paths.get(dataFolderPath);
+        if (!Files.exists(dataFolderPathObj)) {
+            Files.createDirectories(dataFolderPathObj);
+        }
+    }
+
+    /**
+     * Returns a <code>TaskTracker</code> object containing the list of tasks
+     * saved in previous runs, read from a single pass over the leaves of the tree.
+     * If the task file is not a key-value task file, it is moved to the quarantine file,
+     * an empty task list is returned, and a warning is returned by <code>getLoadWarning</code>.
+     *
+     * @return <code>TaskTracker</code> object with a list of existing tasks from previous runs.
+     * @throws FileNotFoundException If there is no existing file
+     *                               containing a list of pre-saved tasks.
+     * @throws StorageException      If the task file is incorrectly formatted
+     *                               or corrupted.
+     */
+    @Override
+    public TaskTracker loadSavedTasks() throws FileNotFoundException, StorageException {
+        if (!Files.exists(this.filePath)) {
+            throw new FileNotFoundException(this.filePath + " does not exist");
+        }
+
+        this.closeTree();
+        this.loadWarning = null;
+        try {
+            if (this.quarantineForeignFile()) {
+                return new TaskTracker();
+            }
+
+            this.tree = BTreeFile.open(this.filePath);
+            List<byte[]> values = new ArrayList<>();
+            this.tree.readAll(this.keys, values);
+
+            ArrayList<Task> tasks = new ArrayList<>(values.size());
+            for (byte[] value : values) {
+                ByteBuffer buffer = ByteBuffer.wrap(value);
+                tasks.add(BinaryTaskFile.readTask(buffer));
+                if (buffer.hasRemaining()) {
+                    throw new IllegalArgumentException("Invalid task in saved task file");
+                }
+            }
+            return new TaskTracker(tasks);
+        } catch (IllegalArgumentException | BufferUnderflowException ex) {
+            this.closeTree();
+            throw new StorageException("Something went wrong loading the saved task file: "
+                    + ex.getMessage()
+                    + "\nThe file might be corrupted (ie. wrongly formatted)."
+                    + "\nAn empty task list will be initialised.");
+        } catch (IOException ex) {
+            this.closeTree();
+            throw new StorageException("Something went wrong loading the saved tasks: "
+                    + ex.getMessage()
+                    + "\nAn empty task list will be initialised.");
+        }
+    }
+
+    /**
+     * Returns the warning about the task file found by the last load, if it was not a
+     * key-value task file, and was moved to the quarantine file.
+     *
+     * @return Warning about the task file, or an empty <code>Optional</code>
+     *         if the task file was loaded.
+     */
+    @Override
+    public Optional<String> getLoadWarning() {
+        return Optional.ofNullable(this.loadWarning);
+    }
+
+    /**
+     * Moves the task file to the quarantine file if it is not a key-value task file, so that
+     * it is never replaced by a new tree. Its bytes are appended to the quarantine file, which
+     * is forced onto the disk before the task file is deleted.
+     *
+     * @return Whether the task file was moved.
+     * @throws IOException If the task file cannot be read or deleted, or the quarantine file cannot be written.
+     */
+    private boolean quarantineForeignFile() throws IOException {
+        // an empty file is simply given an empty tree
+        if (!Files.exists(this.filePath) || Files.size(this.filePath) == 0
+                || BTreeFile.isKeyValueFile(this.filePath)) {
+            return false;
+        }
+
+        byte[] header = ("# " + this.filePath.getFileName() + ": not a key-value task file, "
+                + "so it was moved here instead of being replaced\n").getBytes(StandardCharsets.UTF_8);
+        byte[] contents = Files.readAllBytes(this.filePath);
+        try (FileChannel channel = FileChannel.open(this.quarantinePath, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(header.length + contents.length).put(header).put(contents);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.delete(this.filePath);
+
+        this.loadWarning = "The saved task file " + this.filePath + " is not a key-value task file, "
+                + "such as one saved by another kind of storage."
+                + "\nIt has been moved to " + this.quarantinePath + ", and an empty task list will be initialised.";
+        return true;
+    }
+
+    /**
+     * Writes the given list of tasks to a new tree, which then replaces the task file.
+     * As every page of the new tree is filled in order, this also reclaims the space
+     * left behind by deleted tasks. A task file which is not a key-value task file is
+     * moved to the quarantine file first.
+     *
+     * @param taskTracker Current list of tasks recorded.
+     * @throws StorageException If the task file cannot be saved due to an
+     *                          <code>IOException</code> being thrown.
+     */
+    @Override
+    public void saveTasks(TaskTracker taskTracker) throws StorageException {
+        this.closeTree();
+        try {
+            this.quarantineForeignFile();
+            BTreeFile.write(this.temporaryFilePath, taskTracker.streamTasks()
+                    .map(BinaryTaskFile::encodeTask)
+                    .iterator());
+            Files.move(this.temporaryFilePath, this.filePath, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+
+            this.tree = BTreeFile.open(this.filePath);
+            this.keys.addAll(LongStream.range(0, taskTracker.getNumOfTasks())
+                    .boxed()
+                    .collect(Collectors.toList()));
+        } catch (IOException ex) {
+            this.closeTree();
+            throw new StorageException("Something went wrong when saving the tasks: "
+                    + ex.getMessage()
+                    + "\nHence, the tasks are not being saved to disk.");
+        }
+    }
+
+    /**
+     * Saves a single change that has been made to the task list, by adding, replacing
+     * or removing the key of the changed task. If the task file has not been loaded or
+     * saved in this run, the whole task list is saved instead.
+     *
+     * @param mutation           Change made to the task list.
+     * @param updatedTaskTracker Task list after the change.
+     * @throws StorageException If the change cannot be saved due to an
+     *                          <code>IOException</code> being thrown.
+     */
+    @Override
+    public void saveMutation(TaskMutation mutation, TaskTracker updatedTaskTracker) throws StorageException {
+        // the keys must describe the task list before the change, else the whole list is saved
+        int expectedNumOfKeys = updatedTaskTracker.getNumOfTasks()
+                + (mutation.getType() == TaskMutation.Type.ADD ? -1 : 0)
+                + (mutation.getType() == TaskMutation.Type.DELETE ? 1 : 0);
+        if (this.tree == null || this.keys.size() != expectedNumOfKeys) {
+            this.saveTasks(updatedTaskTracker);
+            return;
+        }
+
+        try {
+            switch (mutation.getType()) {
+            case ADD:
+                this.keys.add(this.tree.add(BinaryTaskFile.encodeTask(mutation.getTask())));
+                break;
+            case MARK:
+                this.replaceTask(mutation.getIndex(), updatedTaskTracker);
+                break;
+            case UNMARK:
+                this.replaceTask(mutation.getIndex(), updatedTaskTracker);
+                break;
+            case DELETE:
+                this.tree.remove(this.keys.remove(mutation.getIndex()));
+                break;
+            default:
+                throw new AssertionError("Unknown mutation type: " + mutation.getType());
+            }
+
+            if (this.syncPolicy == SyncPolicy.EVERY_WRITE) {
+                this.tree.sync();
+            }
+        } catch (IOException | TaskTrackerException ex) {
+            // a half-written change is discarded by saving the whole list next time
+            this.closeTree();
+            throw new StorageException("Something went wrong when saving the tasks: "
+                    + ex.getMessage()
+                    + "\nHence, some recent changes might not be saved to disk.");
+        }
+    }
+
+    /**
+     * Replaces the value held against the key of the task at the given index,
+     * with the task at that index in the given task list.
+     *
+     * @param index              List index of the task.
+     * @param updatedTaskTracker Task list after the task has changed.
+     * @throws IOException          If the task file cannot be written.
+     * @throws TaskTrackerException If there is no task at the given index.
+     */
+    private void replaceTask(int index, TaskTracker updatedTaskTracker) throws IOException, TaskTrackerException {
+        this.tree.put(this.keys.get(index), BinaryTaskFile.encodeTask(updatedTaskTracker.getTask(index)));
+    }
+
+    /**
+     * Forces every change saved so far onto the disk, unless the sync policy never does so.
+     *
+     * @throws StorageException If the changes cannot be forced onto the disk.
+     */
+    @Override
+    public void flush() throws StorageException {
+        if (this.tree == null || this.syncPolicy == SyncPolicy.NEVER) {
+            return;
+        }
+
+        try {
+            this.tree.sync();
+        } catch (IOException ex) {
+            throw new StorageException("Something went wrong when saving the tasks: "
+                    + ex.getMessage()
+                    + "\nHence, some recent changes might not be saved to disk.");
+        }
+    }
+
+    /**
+     * Forces every change saved so far onto the disk, then closes the task file.
+     *
+     * @throws StorageException If the changes cannot be forced onto the disk.
+     */
+    @Override
+    public void close() throws StorageException {
+        try {
+            this.flush();
+        } finally {
+            this.closeTree();
+        }
+    }
+
+    /**
+     * Closes the task file, if it is open, so that the next change saves the whole task list.
+     */
+    private void closeTree() {
+        this.keys.clear();
+        if (this.tree == null) {
+            return;
+        }
+
+        try {
+            this.tree.close();
+        } catch (IOException ex) {
+            // every change has either been written or reported by now
+        }
+        this.tree = null;
+    }
+}
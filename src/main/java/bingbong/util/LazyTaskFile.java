@@ -0,0 +1,74 @@
+package bingbong.util;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import bingbong.task.Task;
+import bingbong.task.TaskSource;
+import bingbong.util.StorageOptions.Format;
+
+/**
+ * Represents the tasks in a task file, which are decoded straight from the contents
+ * of the file when they are read. Upon loading, only an index of the position of
+ * each task in the file is built, so that no task has to be decoded upfront.
+ * The contents are read into the heap rather than memory-mapped, as they are kept
+ * for the whole run, while the task file itself is replaced by later saves.
+ */
+final class LazyTaskFile implements TaskSource {
+    private final ByteBuffer buffer;
+    private final Format format;
+
+    // position of each task within the buffer, or the slot of its record in the record format
+    private final int[] positions;
+
+    private LazyTaskFile(ByteBuffer buffer, Format format, int[] positions) {
+        this.buffer = buffer;
+        this.format = format;
+        this.positions = positions;
+    }
+
+    /**
+     * Returns the tasks in the given buffer, which holds a whole task file in the given format.
+     * Only the structure of a binary or record file is checked upfront. Each line of a text
+     * file is checked upfront without being decoded, and incorrectly formatted lines are left
+     * out and added to the given list, as they would be when loading every task upfront.
+     *
+     * @param buffer Contents of the task file.
+     * @param format Format of the task file.
+     * @param damage List to add the skipped lines of a text file to.
+     * @return Tasks in the file.
+     * @throws IllegalArgumentException If the binary or record file is incorrectly formatted.
+     */
+    static LazyTaskFile of(ByteBuffer buffer, Format format, List<DamagedRegion> damage) {
+        switch (format) {
+        case TEXT:
+            return new LazyTaskFile(buffer, format, MappedTaskLoader.indexLines(buffer, damage));
+        case BINARY:
+            return new LazyTaskFile(buffer, format, BinaryTaskFile.indexTasks(buffer.duplicate()));
+        case RECORDS:
+            return new LazyTaskFile(buffer, format, RecordTaskFile.indexTasks(buffer));
+        default:
+            throw new AssertionError("Unknown format: " + format);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.positions.length;
+    }
+
+    @Override
+    public Task readTask(int position) {
+        switch (this.format) {
+        case TEXT:
+            return MappedTaskLoader.readLine(this.buffer, this.positions[position], position + 1);
+        case BINARY:
+            // each read has its own view of the buffer, as buffers are not thread-safe
+            return BinaryTaskFile.readTask(this.buffer.duplicate().position(this.positions[position]));
+        case RECORDS:
+            return RecordTaskFile.readTask(this.buffer, this.positions[position]);
+        default:
+            throw new AssertionError("Unknown format: " + this.format);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package bingbong.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a range of lines which differ between two versions of a task file, outside
+ * of which the lines around it are the same in both versions. The lines which differ are
+ * found with the Myers diff over the hashes of the lines, so that edits to lines far apart
+ * yield separate ranges, each covering only the lines it changed. The lines common to the
+ * start and the end of both versions are skipped first, so that the cost of the diff
+ * grows with the number of lines changed, rather than the number of lines in the file.
+ */
+final class LineChange {
+    // versions differing in more lines than this are taken to differ in a single range, to bound the cost
+    private static final int MAX_DIFF_LENGTH = 1 << 10;
+
+    private final int oldStart;
+    private final int oldEnd;
+    private final int newStart;
+    private final int newEnd;
+
+    private LineChange(int oldStart, int oldEnd, int newStart, int newEnd) {
+        this.oldStart = oldStart;
+        this.oldEnd = oldEnd;
+        this.newStart = newStart;
+        this.newEnd = newEnd;
+    }
+
+    /**
+     * Returns the ranges of lines which differ between the two versions, given the hash of each line.
+     *
+     * @param oldHashes Hash of each line of the old version, in file order.
+     * @param newHashes Hash of each line of the new version, in file order.
+     * @return Ranges of lines which differ, in file order.
+     */
+    static List<LineChange> of(long[] oldHashes, long[] newHashes) {
+        int maxCommonLength = Math.min(oldHashes.length, newHashes.length);
+        int prefixLength = 0;
+        while (prefixLength < maxCommonLength && oldHashes[prefixLength] == newHashes[prefixLength]) {
+            prefixLength++;
+        }
+
+        int suffixLength = 0;
+        while (suffixLength < maxCommonLength - prefixLength
+                && oldHashes[oldHashes.length - 1 - suffixLength] == newHashes[newHashes.length - 1 - suffixLength]) {
+            suffixLength++;
+        }
+
+        long[] oldLines = Arrays.copyOfRange(oldHashes, prefixLength, oldHashes.length - suffixLength);
+        long[] newLines = Arrays.copyOfRange(newHashes, prefixLength, newHashes.length - suffixLength);
+        List<LineChange> changes = new ArrayList<>();
+        if (oldLines.length == 0 && newLines.length == 0) {
+            return changes;
+        }
+
+        List<int[]> snakes = findCommonRuns(oldLines, newLines);
+        if (snakes == null) {
+            changes.add(new LineChange(prefixLength, prefixLength + oldLines.length,
+                    prefixLength, prefixLength + newLines.length));
+            return changes;
+        }
+
+        // every gap between the runs of common lines is a range which differs
+        int oldIndex = 0;
+        int newIndex = 0;
+        snakes.add(new int[] {oldLines.length, newLines.length, 0});
+        for (int[] snake : snakes) {
+            if (snake[0] > oldIndex || snake[1] > newIndex) {
+                changes.add(new LineChange(prefixLength + oldIndex, prefixLength + snake[0],
+                        prefixLength + newIndex, prefixLength + snake[1]));
+            }
+            oldIndex = snake[0] + snake[2];
+            newIndex = snake[1] + snake[2];
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the runs of lines common to both versions along a shortest edit script
+     * between them, found with the Myers diff. Each run is given as the index of its
+     * first line in the old version, then in the new version, then its number of lines.
+     *
+     * @param oldLines Hash of each line of the old version.
+     * @param newLines Hash of each line of the new version.
+     * @return Runs of common lines in file order, or null if the versions differ in too many lines.
+     */
+    private static List<int[]> findCommonRuns(long[] oldLines, long[] newLines) {
+        int n = oldLines.length;
+        int m = newLines.length;
+        int maxLength = Math.min(n + m, MAX_DIFF_LENGTH);
+
+        // furthest index reached in the old version along each diagonal k = x - y, offset by maxLength
+        int[] furthest = new int[2 * maxLength + 2];
+        List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= maxLength; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && furthest[maxLength + k - 1] < furthest[maxLength + k + 1])
+                        ? furthest[maxLength + k + 1]
+                        : furthest[maxLength + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && oldLines[x] == newLines[y]) {
+                    x++;
+                    y++;
+                }
+                furthest[maxLength + k] = x;
+
+                if (x >= n && y >= m) {
+                    trace.add(Arrays.copyOfRange(furthest, maxLength - d, maxLength + d + 1));
+                    return backtrack(trace, n, m);
+                }
+            }
+            trace.add(Arrays.copyOfRange(furthest, maxLength - d, maxLength + d + 1));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the runs of common lines along the edit script found by the Myers diff,
+     * by retracing its steps from the end of both versions.
+     *
+     * @param trace Furthest index reached along each diagonal after each step, from
+     *              diagonal <code>-d</code> to <code>d</code> after step <code>d</code>.
+     * @param n     Number of lines in the old version.
+     * @param m     Number of lines in the new version.
+     * @return Runs of common lines in file order.
+     */
+    private static List<int[]> backtrack(List<int[]> trace, int n, int m) {
+        List<int[]> snakes = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d > 0; d--) {
+            int[] previous = trace.get(d - 1);
+            int k = x - y;
+            boolean isInsertion = k == -d || (k != d && previous[k - 1 + d - 1] < previous[k + 1 + d - 1]);
+            int previousK = isInsertion ? k + 1 : k - 1;
+            int previousX = previous[previousK + d - 1];
+            int snakeStartX = isInsertion ? previousX : previousX + 1;
+            if (x > snakeStartX) {
+                snakes.add(new int[] {snakeStartX, snakeStartX - k, x - snakeStartX});
+            }
+            x = previousX;
+            y = previousX - previousK;
+        }
+        if (x > 0) {
+            snakes.add(new int[] {0, 0, x});
+        }
+
+        ArrayList<int[]> orderedSnakes = new ArrayList<>(snakes.size() + 1);
+        for (int i = snakes.size() - 1; i >= 0; i--) {
+            orderedSnakes.add(snakes.get(i));
+        }
+        return orderedSnakes;
+    }
+
+    /**
+     * Returns true if this range comes before the given range in the old version. Ranges are
+     * ordered by their first line, with a range of inserted lines coming before a range of
+     * changed lines starting at the same line.
+     *
+     * @param other Other range of lines.
+     * @return Whether this range comes first.
+     */
+    boolean comesBefore(LineChange other) {
+        return this.oldStart < other.oldStart
+                || (this.oldStart == other.oldStart && this.oldStart == this.oldEnd && other.oldStart != other.oldEnd);
+    }
+
+    /**
+     * Returns true if this range changes any of the lines within the given range of the
+     * old version, or inserts lines strictly within it.
+     *
+     * @param start Index of the first line of the range.
+     * @param end   Index after the last line of the range.
+     * @return Whether this range overlaps with the given range.
+     */
+    boolean overlaps(int start, int end) {
+        return this.oldStart < end && start < this.oldEnd;
+    }
+
+    /**
+     * Returns the index of the first line which differs, in the old version.
+     *
+     * @return Start of the lines changed in the old version.
+     */
+    int getOldStart() {
+        return this.oldStart;
+    }
+
+    /**
+     * Returns the index after the last line of the old version which differs.
+     *
+     * @return End of the lines changed in the old version (exclusive).
+     */
+    int getOldEnd() {
+        return this.oldEnd;
+    }
+
+    /**
+     * Returns the difference in the number of lines between the new and old versions of this range.
+     *
+     * @return Number of lines added, less the number of lines removed.
+     */
+    int getLengthChange() {
+        return (this.newEnd - this.newStart) - (this.oldEnd - this.oldStart);
+    }
+}
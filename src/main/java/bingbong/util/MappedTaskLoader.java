@@ -0,0 +1,682 @@
+package bingbong.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import bingbong.task.DateCodec;
+import bingbong.task.Deadline;
+import bingbong.task.Event;
+import bingbong.task.LineHash;
+import bingbong.task.Task;
+import bingbong.task.Todo;
+
+/**
+ * Loads the tasks saved in a task file by scanning the bytes of the file directly.
+ * Large files are memory-mapped, so that they are never copied into the heap as a whole.
+ * Each line is decoded in a single pass, without regular expressions or intermediate
+ * arrays, and dates in the fixed save format (<code>d/M/yyyy HH:mm</code>) are decoded by hand.
+ * Large files are split into chunks of whole lines, which are decoded in parallel and
+ * then stitched back together in file order. Each instance decodes or indexes a single chunk.
+ * When recovering a damaged file, incorrectly formatted lines are skipped and reported,
+ * instead of failing the whole file, as every line can be decoded on its own.
+ */
+final class MappedTaskLoader {
+    // smaller files are read directly, as mapping a file has a fixed setup cost
+    private static final long MAPPING_THRESHOLD = 1 << 20;
+
+    // smallest chunk worth handing to another thread
+    private static final int MIN_CHUNK_LENGTH = 1 << 18;
+
+    // number of chunks per thread, so that threads which finish early can take on more chunks
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // length of the " | " divider between task details
+    private static final int DIVIDER_LENGTH = 3;
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final int limit;
+    private final boolean isRecovering;
+
+    // results of decoding the chunk
+    private final ArrayList<Task> tasks = new ArrayList<>();
+    private final List<DamagedLine> damagedLines = new ArrayList<>();
+    private int numOfLines;
+    private RuntimeException error;
+
+    // results of indexing the chunk, holding the start of each line, without the damaged lines when recovering
+    private int[] lineStarts;
+    private int numOfIndexedLines;
+
+    // end of the line being decoded, excluding the line terminator
+    private int lineEnd;
+
+    // position within the date being decoded
+    private int cursor;
+
+    // holds the bytes of a task name, if the buffer is not backed by an array
+    private byte[] nameBytes = new byte[64];
+
+    /**
+     * Represents an incorrectly formatted line, skipped while recovering a damaged file.
+     */
+    private static final class DamagedLine {
+        // number of the line within its chunk
+        private final int lineNumber;
+        private final String reason;
+        private final int start;
+        private final int end;
+
+        private DamagedLine(int lineNumber, String reason, int start, int end) {
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Initialises a loader which decodes the chunk of the buffer within the given range.
+     *
+     * @param buffer       Contents of the task file.
+     * @param start        Start of the chunk, which must be the start of a line.
+     * @param limit        End of the chunk (exclusive), which must be the end of the file
+     *                     or directly after a newline.
+     * @param isRecovering Whether incorrectly formatted lines should be skipped,
+     *                     instead of stopping the decoding.
+     */
+    private MappedTaskLoader(ByteBuffer buffer, int start, int limit, boolean isRecovering) {
+        // each loader has its own view of the buffer, as buffers are not thread-safe
+        this.buffer = buffer.duplicate();
+        this.start = start;
+        this.limit = limit;
+        this.isRecovering = isRecovering;
+    }
+
+    /**
+     * Returns the contents of the file at the given path. Large files are memory-mapped.
+     *
+     * @param path Path to the file.
+     * @return Contents of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    static ByteBuffer readFile(Path path) throws IOException {
+        return readFile(path, true);
+    }
+
+    /**
+     * Returns the contents of the file at the given path. Large files are memory-mapped,
+     * unless mapping is ruled out. A mapping is only released once its buffer is garbage
+     * collected, and some platforms, such as Windows, do not allow a mapped file to be
+     * replaced. Hence, contents which are kept for a long time are read into the heap instead.
+     *
+     * @param path       Path to the file.
+     * @param isMappable Whether a large file may be memory-mapped.
+     * @return Contents of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    static ByteBuffer readFile(Path path, boolean isMappable) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("The task file is too large to be loaded");
+            }
+
+            if (isMappable && size >= MAPPING_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading until the whole file is in the buffer
+                }
+                buffer.flip();
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the tasks in the given buffer, which holds a whole file in the text save format.
+     *
+     * @param buffer Contents of the task file.
+     * @return Tasks saved in the file, in order.
+     * @throws IllegalArgumentException If the file is incorrectly formatted.
+     */
+    static ArrayList<Task> read(ByteBuffer buffer) {
+        // decode the chunks on the common fork-join pool, which parallel streams run on
+        List<MappedTaskLoader> chunks = split(buffer, false);
+        chunks.parallelStream().forEach(MappedTaskLoader::readTasks);
+        return stitch(chunks);
+    }
+
+    /**
+     * Returns the tasks in the given buffer, which holds a whole file in the text save format,
+     * skipping every incorrectly formatted line. Each skipped line is added to the given list.
+     *
+     * @param buffer Contents of the task file.
+     * @param damage List to add the skipped lines to.
+     * @return Tasks saved in the correctly formatted lines of the file, in order.
+     */
+    static ArrayList<Task> recover(ByteBuffer buffer, List<DamagedRegion> damage) {
+        List<MappedTaskLoader> chunks = split(buffer, true);
+        chunks.parallelStream().forEach(MappedTaskLoader::readTasks);
+        addDamagedLines(chunks, damage);
+
+        int numOfTasks = chunks.stream().mapToInt(chunk -> chunk.tasks.size()).sum();
+        ArrayList<Task> tasks = new ArrayList<>(numOfTasks);
+        for (MappedTaskLoader chunk : chunks) {
+            tasks.addAll(chunk.tasks);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the start of every line in the given buffer, which holds a whole file
+     * in the text save format, without decoding any task. As with decoding, the chunks
+     * of the file are scanned in parallel.
+     *
+     * @param buffer Contents of the task file.
+     * @return Start of each line, in file order.
+     */
+    static int[] indexLines(ByteBuffer buffer) {
+        List<MappedTaskLoader> chunks = split(buffer, false);
+        chunks.parallelStream().forEach(MappedTaskLoader::indexLines);
+        return stitchLineStarts(chunks);
+    }
+
+    /**
+     * Returns the start of every correctly formatted line in the given buffer, which holds
+     * a whole file in the text save format. Each line is checked as it would be decoded,
+     * but without creating its task, so that a line which is indexed can always be decoded
+     * later on. Each incorrectly formatted line is left out, and added to the given list.
+     *
+     * @param buffer Contents of the task file.
+     * @param damage List to add the skipped lines to.
+     * @return Start of each correctly formatted line, in file order.
+     */
+    static int[] indexLines(ByteBuffer buffer, List<DamagedRegion> damage) {
+        List<MappedTaskLoader> chunks = split(buffer, true);
+        chunks.parallelStream().forEach(MappedTaskLoader::indexLines);
+        addDamagedLines(chunks, damage);
+        return stitchLineStarts(chunks);
+    }
+
+    /**
+     * Adds the lines skipped by every chunk to the given list, numbered within the whole file.
+     *
+     * @param chunks Decoded or indexed chunks, in file order.
+     * @param damage List to add the skipped lines to.
+     */
+    private static void addDamagedLines(List<MappedTaskLoader> chunks, List<DamagedRegion> damage) {
+        int numOfLines = 0;
+        for (MappedTaskLoader chunk : chunks) {
+            for (DamagedLine line : chunk.damagedLines) {
+                damage.add(new DamagedRegion("line " + (numOfLines + line.lineNumber), line.reason,
+                        line.start, line.end));
+            }
+            numOfLines += chunk.numOfLines;
+        }
+    }
+
+    /**
+     * Returns the starts of the lines indexed by every chunk, in file order.
+     *
+     * @param chunks Indexed chunks, in file order.
+     * @return Start of each indexed line.
+     */
+    private static int[] stitchLineStarts(List<MappedTaskLoader> chunks) {
+        int[] lineStarts = new int[chunks.stream().mapToInt(chunk -> chunk.numOfIndexedLines).sum()];
+        int numOfLines = 0;
+        for (MappedTaskLoader chunk : chunks) {
+            System.arraycopy(chunk.lineStarts, 0, lineStarts, numOfLines, chunk.numOfIndexedLines);
+            numOfLines += chunk.numOfIndexedLines;
+        }
+        return lineStarts;
+    }
+
+    /**
+     * Returns the hash of the contents of each line in the given buffer, excluding
+     * its line terminator. Lines with the same contents always have the same hash,
+     * so that lines can be compared without being decoded.
+     *
+     * @param buffer     Contents of the task file.
+     * @param lineStarts Start of each line, in file order.
+     * @return Hash of each line, in file order.
+     */
+    static long[] hashLines(ByteBuffer buffer, int[] lineStarts) {
+        long[] hashes = new long[lineStarts.length];
+        for (int i = 0; i < lineStarts.length; i++) {
+            int end = i + 1 < lineStarts.length ? lineStarts[i + 1] - 1 : buffer.limit();
+            if (end == buffer.limit() && end > lineStarts[i] && buffer.get(end - 1) == '\n') {
+                end--;
+            }
+            if (end > lineStarts[i] && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            hashes[i] = LineHash.of(buffer, lineStarts[i], end);
+        }
+        return hashes;
+    }
+
+    /**
+     * Returns the task saved in the line starting at the given position of the buffer.
+     *
+     * @param buffer     Contents of the task file.
+     * @param lineStart  Start of the line.
+     * @param lineNumber One-based number of the line, which is reported if the line
+     *                   is incorrectly formatted.
+     * @return Task saved in the line.
+     * @throws IllegalArgumentException If the line is incorrectly formatted.
+     */
+    static Task readLine(ByteBuffer buffer, int lineStart, int lineNumber) {
+        MappedTaskLoader loader = new MappedTaskLoader(buffer, lineStart, buffer.limit(), false);
+        loader.findLineEnd(lineStart);
+        try {
+            return loader.readTask(lineStart);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new IllegalArgumentException(ex.getMessage() + " (line " + lineNumber + ")", ex);
+        }
+    }
+
+    /**
+     * Returns loaders for consecutive chunks of whole lines, which together cover the buffer.
+     * The number of chunks scales with the number of threads available.
+     *
+     * @param buffer       Contents of the task file.
+     * @param isRecovering Whether the loaders should skip incorrectly formatted lines.
+     * @return Loaders for the chunks, in file order.
+     */
+    private static List<MappedTaskLoader> split(ByteBuffer buffer, boolean isRecovering) {
+        int size = buffer.limit();
+        int numOfChunks = ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_THREAD;
+        int chunkLength = Math.max(MIN_CHUNK_LENGTH, size / numOfChunks + 1);
+
+        List<MappedTaskLoader> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        do {
+            // extend the chunk to the end of its last line
+            int chunkEnd = (int) Math.min((long) chunkStart + chunkLength, size);
+            while (chunkEnd < size && buffer.get(chunkEnd - 1) != '\n') {
+                chunkEnd++;
+            }
+            chunks.add(new MappedTaskLoader(buffer, chunkStart, chunkEnd, isRecovering));
+            chunkStart = chunkEnd;
+        } while (chunkStart < size);
+        return chunks;
+    }
+
+    /**
+     * Returns the tasks decoded from every chunk, in file order.
+     *
+     * @param chunks Decoded chunks, in file order.
+     * @return Tasks in the file.
+     * @throws IllegalArgumentException If a line is incorrectly formatted, naming the
+     *                                  first such line in the file.
+     */
+    private static ArrayList<Task> stitch(List<MappedTaskLoader> chunks) {
+        int numOfTasks = 0;
+        for (MappedTaskLoader chunk : chunks) {
+            if (chunk.error != null) {
+                // every earlier chunk was decoded in full, with one task per line
+                int lineNumber = numOfTasks + chunk.numOfLines;
+                throw new IllegalArgumentException(chunk.error.getMessage() + " (line " + lineNumber + ")",
+                        chunk.error);
+            }
+            numOfTasks += chunk.tasks.size();
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(numOfTasks);
+        for (MappedTaskLoader chunk : chunks) {
+            tasks.addAll(chunk.tasks);
+        }
+        return tasks;
+    }
+
+    /**
+     * Decodes every task in the chunk, with one task per line. Decoding stops at the
+     * first incorrectly formatted line, which is then recorded as the error of the chunk.
+     * When recovering, such lines are recorded and skipped instead.
+     */
+    private void readTasks() {
+        int lineStart = this.start;
+        while (lineStart < this.limit) {
+            this.numOfLines++;
+            int terminator = this.findLineEnd(lineStart);
+            try {
+                this.tasks.add(this.readTask(lineStart));
+            } catch (IllegalArgumentException | DateTimeException ex) {
+                if (!this.isRecovering) {
+                    this.error = ex;
+                    return;
+                }
+                this.damagedLines.add(new DamagedLine(this.numOfLines, ex.getMessage(), lineStart,
+                        Math.min(terminator + 1, this.limit)));
+            }
+            lineStart = terminator + 1;
+        }
+    }
+
+    /**
+     * Records the start of every line in the chunk, without decoding any task.
+     * When recovering, only the lines which are correctly formatted are recorded,
+     * while the rest are recorded as damaged.
+     */
+    private void indexLines() {
+        this.lineStarts = new int[64];
+        int lineStart = this.start;
+        while (lineStart < this.limit) {
+            this.numOfLines++;
+            int terminator = this.isRecovering ? this.findLineEnd(lineStart) : this.indexOfNewline(lineStart);
+            if (!this.isRecovering || this.isValidLine(lineStart, terminator)) {
+                if (this.numOfIndexedLines == this.lineStarts.length) {
+                    this.lineStarts = Arrays.copyOf(this.lineStarts, this.numOfIndexedLines * 2);
+                }
+                this.lineStarts[this.numOfIndexedLines++] = lineStart;
+            }
+            lineStart = terminator + 1;
+        }
+    }
+
+    /**
+     * Returns whether the current line is correctly formatted, recording it as damaged if it is not.
+     *
+     * @param lineStart  Start of the line.
+     * @param terminator Position of the newline ending the line, or the end of the chunk if there is none.
+     * @return Whether the line can be decoded.
+     */
+    private boolean isValidLine(int lineStart, int terminator) {
+        try {
+            this.checkTask(lineStart);
+            return true;
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            this.damagedLines.add(new DamagedLine(this.numOfLines, ex.getMessage(), lineStart,
+                    Math.min(terminator + 1, this.limit)));
+            return false;
+        }
+    }
+
+    /**
+     * Records the end of the line starting at the given position as the current line end,
+     * excluding its line terminator.
+     *
+     * @param lineStart Start of the line.
+     * @return Position of the newline ending the line, or the end of the chunk if there is none.
+     */
+    private int findLineEnd(int lineStart) {
+        int terminator = this.indexOfNewline(lineStart);
+
+        // lines saved on Windows end with "\r\n"
+        this.lineEnd = terminator > lineStart && this.buffer.get(terminator - 1) == '\r'
+                ? terminator - 1
+                : terminator;
+        return terminator;
+    }
+
+    /**
+     * Returns the position of the next newline at or after the given position,
+     * or the end of the chunk if there is none.
+     *
+     * @param from Position to start searching from.
+     * @return Position of the next newline.
+     */
+    private int indexOfNewline(int from) {
+        for (int i = from; i < this.limit; i++) {
+            if (this.buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return this.limit;
+    }
+
+    /**
+     * Returns the start of the next " | " divider within the current line,
+     * at or after the given position. If there is none, the end of the line is returned.
+     *
+     * @param from Position to start searching from.
+     * @return Position of the next divider.
+     */
+    private int indexOfDivider(int from) {
+        for (int i = from; i + DIVIDER_LENGTH <= this.lineEnd; i++) {
+            if (this.buffer.get(i) == ' ' && this.buffer.get(i + 1) == '|' && this.buffer.get(i + 2) == ' ') {
+                return i;
+            }
+        }
+        return this.lineEnd;
+    }
+
+    /**
+     * Returns the start of the task detail after the given divider.
+     *
+     * @param dividerStart Position of the divider.
+     * @return Position of the next task detail.
+     * @throws IllegalArgumentException If there is no next task detail in the current line.
+     */
+    private int getNextDetailStart(int dividerStart) {
+        int detailStart = dividerStart + DIVIDER_LENGTH;
+        if (detailStart >= this.lineEnd) {
+            throw new IllegalArgumentException("Missing task details in saved task file");
+        }
+        return detailStart;
+    }
+
+    /**
+     * Returns the task saved in the current line.
+     *
+     * @param lineStart Start of the current line.
+     * @return Task saved in the line.
+     * @throws IllegalArgumentException If the line is incorrectly formatted.
+     */
+    private Task readTask(int lineStart) {
+        // get separate info on the task
+        int typeEnd = this.indexOfDivider(lineStart);
+        int statusStart = this.getNextDetailStart(typeEnd);
+        int statusEnd = this.indexOfDivider(statusStart);
+        int nameStart = this.getNextDetailStart(statusEnd);
+        int nameEnd = this.indexOfDivider(nameStart);
+
+        boolean isDone = this.readIsDone(statusStart, statusEnd);
+        String taskName = this.readString(nameStart, nameEnd);
+        if (typeEnd - lineStart != 1) {
+            throw new IllegalArgumentException("Invalid task icons in saved task file");
+        }
+
+        // create and return new task object
+        switch (this.buffer.get(lineStart)) {
+        case 'T':
+            return new Todo(new Todo(taskName), isDone);
+        case 'D':
+            int byWhenStart = this.getNextDetailStart(nameEnd);
+            LocalDateTime byWhen = this.readDate(byWhenStart, this.indexOfDivider(byWhenStart));
+            return new Deadline(new Deadline(taskName, byWhen), isDone);
+        case 'E':
+            int startTimeStart = this.getNextDetailStart(nameEnd);
+            int startTimeEnd = this.indexOfDivider(startTimeStart);
+            int endTimeStart = this.getNextDetailStart(startTimeEnd);
+            LocalDateTime startTime = this.readDate(startTimeStart, startTimeEnd);
+            LocalDateTime endTime = this.readDate(endTimeStart, this.indexOfDivider(endTimeStart));
+            return new Event(new Event(taskName, startTime, endTime), isDone);
+        default:
+            throw new IllegalArgumentException("Invalid task icons in saved task file");
+        }
+    }
+
+    /**
+     * Checks that the task saved in the current line can be decoded, as <code>readTask</code> would,
+     * without decoding the name of the task or creating the task.
+     *
+     * @param lineStart Start of the line.
+     * @throws IllegalArgumentException If the line is incorrectly formatted.
+     */
+    private void checkTask(int lineStart) {
+        int typeEnd = this.indexOfDivider(lineStart);
+        int statusStart = this.getNextDetailStart(typeEnd);
+        int statusEnd = this.indexOfDivider(statusStart);
+        int nameStart = this.getNextDetailStart(statusEnd);
+        int nameEnd = this.indexOfDivider(nameStart);
+
+        this.readIsDone(statusStart, statusEnd);
+        if (typeEnd - lineStart != 1) {
+            throw new IllegalArgumentException("Invalid task icons in saved task file");
+        }
+
+        switch (this.buffer.get(lineStart)) {
+        case 'T':
+            return;
+        case 'D':
+            int byWhenStart = this.getNextDetailStart(nameEnd);
+            this.readDate(byWhenStart, this.indexOfDivider(byWhenStart));
+            return;
+        case 'E':
+            int startTimeStart = this.getNextDetailStart(nameEnd);
+            int startTimeEnd = this.indexOfDivider(startTimeStart);
+            int endTimeStart = this.getNextDetailStart(startTimeEnd);
+            this.readDate(startTimeStart, startTimeEnd);
+            this.readDate(endTimeStart, this.indexOfDivider(endTimeStart));
+            return;
+        default:
+            throw new IllegalArgumentException("Invalid task icons in saved task file");
+        }
+    }
+
+    /**
+     * Returns whether a task is marked as completed, based on its saved progress icon.
+     *
+     * @param start Start of the progress icon.
+     * @param end   End of the progress icon (exclusive).
+     * @return <code>true</code> if the task is completed, <code>false</code> otherwise.
+     * @throws IllegalArgumentException If the progress icon is invalid.
+     */
+    private boolean readIsDone(int start, int end) {
+        byte isDoneIcon = this.buffer.get(start);
+        if (end - start != 1 || (isDoneIcon != 'X' && isDoneIcon != ' ')) {
+            throw new IllegalArgumentException("Invalid progress icons in saved task file");
+        }
+        return isDoneIcon == 'X';
+    }
+
+    /**
+     * Returns the UTF-8 string in the given range of the buffer.
+     *
+     * @param start Start of the string.
+     * @param end   End of the string (exclusive).
+     * @return Decoded string.
+     */
+    private String readString(int start, int end) {
+        int length = end - start;
+        if (this.buffer.hasArray()) {
+            return new String(this.buffer.array(), this.buffer.arrayOffset() + start, length,
+                    StandardCharsets.UTF_8);
+        }
+
+        if (this.nameBytes.length < length) {
+            this.nameBytes = new byte[Math.max(length, this.nameBytes.length * 2)];
+        }
+        this.buffer.get(start, this.nameBytes, 0, length);
+        return new String(this.nameBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the date saved in the given range of the buffer, in the
+     * format <code>d/M/yyyy HH:mm</code>. Dates in the usual form are decoded straight from the
+     * buffer, while any other date saved by the app, such as one with a 5-digit year or a time
+     * of <code>24:00</code>, is decoded by <code>DateCodec</code>. As with the lenient parsing of
+     * dates, a day of the month beyond the end of the month is moved back to the last day of the month.
+     *
+     * @param start Start of the date.
+     * @param end   End of the date (exclusive).
+     * @return Decoded date.
+     * @throws IllegalArgumentException If the date is incorrectly formatted, or does not exist.
+     */
+    private LocalDateTime readDate(int start, int end) {
+        LocalDateTime datetime = this.readUsualDate(start, end);
+        if (datetime == null) {
+            datetime = DateCodec.tryParse(this.readString(start, end));
+        }
+        if (datetime == null) {
+            throw new IllegalArgumentException("Invalid dates in saved task file");
+        }
+        return datetime;
+    }
+
+    /**
+     * Returns the date saved in the given range of the buffer, if it is in the usual form,
+     * with a day and month of up to 2 digits, a year of 4 digits and a time from
+     * <code>00:00</code> to <code>23:59</code>.
+     *
+     * @param start Start of the date.
+     * @param end   End of the date (exclusive).
+     * @return Decoded date, or null if the date is not in the usual form.
+     */
+    private LocalDateTime readUsualDate(int start, int end) {
+        this.cursor = start;
+        int day = this.readDigits(1, 2, end);
+        boolean hasDaySeparator = this.skip('/', end);
+        int month = this.readDigits(1, 2, end);
+        boolean hasMonthSeparator = this.skip('/', end);
+        int year = this.readDigits(4, 4, end);
+        boolean hasYearSeparator = this.skip(' ', end);
+        int hour = this.readDigits(2, 2, end);
+        boolean hasHourSeparator = this.skip(':', end);
+        int minute = this.readDigits(2, 2, end);
+        if (!hasDaySeparator || !hasMonthSeparator || !hasYearSeparator || !hasHourSeparator
+                || this.cursor != end || day < 1 || day > 31 || month < 1 || month > 12 || year < 1
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+
+        LocalDate firstDayOfMonth = LocalDate.of(year, month, 1);
+        LocalDate date = firstDayOfMonth.withDayOfMonth(Math.min(day, firstDayOfMonth.lengthOfMonth()));
+        return LocalDateTime.of(date, LocalTime.of(hour, minute));
+    }
+
+    /**
+     * Returns the number formed by the digits at the cursor, then moves the cursor past them.
+     *
+     * @param minDigits Minimum number of digits.
+     * @param maxDigits Maximum number of digits.
+     * @param end       End of the date (exclusive).
+     * @return Number formed by the digits, or -1 if there are too few digits.
+     */
+    private int readDigits(int minDigits, int maxDigits, int end) {
+        int value = 0;
+        int numOfDigits = 0;
+        while (this.cursor < end && numOfDigits < maxDigits) {
+            byte digit = this.buffer.get(this.cursor);
+            if (digit < '0' || digit > '9') {
+                break;
+            }
+            value = value * 10 + (digit - '0');
+            numOfDigits++;
+            this.cursor++;
+        }
+        return numOfDigits < minDigits ? -1 : value;
+    }
+
+    /**
+     * Moves the cursor past the given separator, if it is at the cursor.
+     *
+     * @param separator Separator expected at the cursor.
+     * @param end       End of the date (exclusive).
+     * @return Whether the separator was at the cursor.
+     */
+    private boolean skip(char separator, int end) {
+        if (this.cursor >= end || this.buffer.get(this.cursor) != separator) {
+            return false;
+        }
+        this.cursor++;
+        return true;
+    }
+}
@@ -1,5 +1,6 @@
 package bingbong.util;
 
+import bingbong.task.NumberedTaskList;
 import bingbong.task.Task;
 
 /**
@@ -17,32 +18,108 @@ public class MessageFormatter {
         return "Yo, my name is BingBong. Hit me up if you need any help.";
     }
 
+    /**
+     * Returns a message made up of the given header, followed by the given list
+     * of tasks. The list is rendered straight into the buffer of the message,
+     * which is sized to fit the whole message upfront.
+     *
+     * @param header      Header of the message.
+     * @param listOfTasks List of tasks to be shown below the header.
+     * @return Output message.
+     */
+    private static String getTaskListMessage(String header, NumberedTaskList listOfTasks) {
+        StringBuilder sb = new StringBuilder(header.length() + 2 + listOfTasks.getEstimatedLength());
+        sb.append(header).append("\n\n");
+        listOfTasks.appendTo(sb);
+        return sb.toString();
+    }
+
     /**
      * Returns a message consisting of the current list of tasks
      * saved in the <code>TaskTracker</code>.
      *
-     * @param listOfTasks Concatenated <code>String</code> representing the current
-     *                    list of tasks recorded.
+     * @param listOfTasks Current list of tasks recorded.
      * @return Output message.
      */
-    public static String getListTasksMessage(String listOfTasks) {
-        return "Here are the tasks that you have added to the list:"
-                + "\n\n"
-                + listOfTasks;
+    public static String getListTasksMessage(NumberedTaskList listOfTasks) {
+        return getTaskListMessage("Here are the tasks that you have added to the list:", listOfTasks);
     }
 
     /**
      * Returns a message consisting of the list of tasks
      * whose names match the substring provided in the user's input.
      *
-     * @param listOfTasks Concatenated <code>String</code> representing the
-     *                    list of matching tasks.
+     * @param listOfTasks List of matching tasks.
      * @return Output message.
      */
-    public static String getMatchingTasksMessage(String listOfTasks) {
-        return "Here are the matching tasks that I've found:"
-                + "\n\n"
-                + listOfTasks;
+    public static String getMatchingTasksMessage(NumberedTaskList listOfTasks) {
+        return getTaskListMessage("Here are the matching tasks that I've found:", listOfTasks);
+    }
+
+    /**
+     * Returns a message consisting of the list of archived tasks
+     * whose names match the substring provided in the user's input.
+     *
+     * @param listOfTasks List of matching archived tasks.
+     * @return Output message.
+     */
+    public static String getMatchingArchivedTasksMessage(NumberedTaskList listOfTasks) {
+        return getTaskListMessage("Here are the matching archived tasks that I've found:", listOfTasks);
+    }
+
+    /**
+     * Returns a message notifying the user that the completed tasks
+     * which took place before the chosen number of days ago have been archived.
+     *
+     * @param numOfArchivedTasks Number of tasks archived.
+     * @param daysAgo            Number of days before the current date, before which
+     *                           the archived tasks took place.
+     * @param numOfTasks         Number of tasks saved, upon archival of the tasks.
+     * @return Output message.
+     */
+    public static String getArchivedTasksMessage(int numOfArchivedTasks, int daysAgo, int numOfTasks) {
+        return "Out of sight, out of mind. I've archived "
+                + numOfArchivedTasks
+                + " completed task(s) which took place more than "
+                + daysAgo
+                + " day(s) ago."
+                + "\n"
+                + "Now you have " + numOfTasks + " task(s) in the list.";
+    }
+
+    /**
+     * Returns a message notifying the user that the tasks in the chosen file
+     * have been added to the list.
+     *
+     * @param numOfImportedTasks Number of tasks imported.
+     * @param path               Path to the file imported.
+     * @param numOfTasks         Number of tasks saved, upon addition of the imported tasks.
+     * @return Output message.
+     */
+    public static String getImportedTasksMessage(int numOfImportedTasks, String path, int numOfTasks) {
+        return "Welcome aboard. I've imported "
+                + numOfImportedTasks
+                + " task(s) from "
+                + path
+                + "."
+                + "\n"
+                + "Now you have " + numOfTasks + " task(s) in the list.";
+    }
+
+    /**
+     * Returns a message notifying the user that the tasks in the list
+     * have been written to the chosen file.
+     *
+     * @param numOfExportedTasks Number of tasks exported.
+     * @param path               Path to the file written.
+     * @return Output message.
+     */
+    public static String getExportedTasksMessage(int numOfExportedTasks, String path) {
+        return "Bon voyage. I've exported "
+                + numOfExportedTasks
+                + " task(s) to "
+                + path
+                + ".";
     }
 
     /**
@@ -109,15 +186,24 @@ public class MessageFormatter {
      * will be happening, over the next few days.
      *
      * @param daysFromNow The selected number of days from the current date.
-     * @param listOfTasks Concatenated <code>String</code> representing the
-     *                    list of impending tasks.
+     * @param listOfTasks List of impending tasks.
+     * @return Output message.
+     */
+    public static String getReminderMessage(int daysFromNow, NumberedTaskList listOfTasks) {
+        return getTaskListMessage("Don't forget! Here are all the outstanding tasks that you should take note of, "
+                + "over the next " + daysFromNow + " day(s):", listOfTasks);
+    }
+
+    /**
+     * Returns a message consisting of all the tasks that take place
+     * within the time window provided in the user's input.
+     *
+     * @param listOfTasks List of tasks within the time window.
      * @return Output message.
      */
-    public static String getReminderMessage(int daysFromNow, String listOfTasks) {
-        return "Don't forget! Here are all the outstanding tasks that you should take note of, "
-                + "over the next " + daysFromNow + " day(s):"
-                + "\n\n"
-                + listOfTasks;
+    public static String getTasksBetweenMessage(NumberedTaskList listOfTasks) {
+        return getTaskListMessage("Here are all the tasks taking place within the time window "
+                + "that you have chosen:", listOfTasks);
     }
 
     /**
@@ -0,0 +1,84 @@
+package bingbong.util;
+
+import java.util.function.Supplier;
+
+import bingbong.command.Command;
+
+/**
+ * Represents the outcome of parsing and validating a line of user input, which is either
+ * a command to be executed, or an error. Unlike a <code>ParserException</code>, an error
+ * captures no stack trace, and its message is only built when it is first asked for, so
+ * that rejecting many invalid inputs stays cheap.
+ */
+public final class ParseResult {
+    private final Command command;
+    private Supplier<String> errorMessageSupplier;
+    private String errorMessage;
+
+    private ParseResult(Command command, Supplier<String> errorMessageSupplier) {
+        this.command = command;
+        this.errorMessageSupplier = errorMessageSupplier;
+    }
+
+    /**
+     * Returns a successful result, holding the given command.
+     *
+     * @param command Command to be executed.
+     * @return Successful result.
+     */
+    public static ParseResult ofCommand(Command command) {
+        assert command != null : "Command of a successful result cannot be null";
+        return new ParseResult(command, null);
+    }
+
+    /**
+     * Returns a failed result, whose error message is built by the given supplier
+     * when it is first asked for.
+     *
+     * @param errorMessageSupplier Supplier of the message describing the error.
+     * @return Failed result.
+     */
+    public static ParseResult ofError(Supplier<String> errorMessageSupplier) {
+        assert errorMessageSupplier != null : "Error message of a failed result cannot be null";
+        return new ParseResult(null, errorMessageSupplier);
+    }
+
+    /**
+     * Returns whether the input was parsed and validated successfully.
+     *
+     * @return Whether this result holds a command.
+     */
+    public boolean isSuccessful() {
+        return this.command != null;
+    }
+
+    /**
+     * Returns the command to be executed.
+     *
+     * @return Command parsed.
+     * @throws IllegalStateException If the input was invalid.
+     */
+    public Command getCommand() {
+        if (this.command == null) {
+            throw new IllegalStateException("Input was invalid: " + this.getErrorMessage());
+        }
+        return this.command;
+    }
+
+    /**
+     * Returns the message describing why the input was invalid, building it on the first call.
+     *
+     * @return Error message.
+     * @throws IllegalStateException If the input was valid.
+     */
+    public String getErrorMessage() {
+        if (this.command != null) {
+            throw new IllegalStateException("Input was valid, so there is no error message");
+        }
+        if (this.errorMessage == null) {
+            this.errorMessage = this.errorMessageSupplier.get();
+            this.errorMessageSupplier = null;
+        }
+        return this.errorMessage;
+    }
+}
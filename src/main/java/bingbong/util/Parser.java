@@ -1,21 +1,29 @@
 package bingbong.util;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.function.Function;
 
 import bingbong.command.AddCommand;
+import bingbong.command.ArchiveCommand;
+import bingbong.command.BetweenCommand;
 import bingbong.command.ByeCommand;
 import bingbong.command.Command;
 import bingbong.command.CommandType;
 import bingbong.command.DeleteCommand;
+import bingbong.command.ExportCommand;
+import bingbong.command.FindArchivedCommand;
 import bingbong.command.FindCommand;
+import bingbong.command.ImportCommand;
 import bingbong.command.ListCommand;
 import bingbong.command.MarkCommand;
 import bingbong.command.RemindCommand;
 import bingbong.command.UnmarkCommand;
+import bingbong.task.DateCodec;
 import bingbong.task.Deadline;
 import bingbong.task.Event;
 import bingbong.task.Todo;
@@ -30,9 +38,6 @@ import bingbong.task.Todo;
  * <code>LocalDateTime</code> objects.
  */
 public class Parser {
-    // for parsing of dates
-    private static final String DATE_FORMAT = "d/M/yyyy HH:mm";
-
     // examples to be shown in error messages
     private static final String MARK_EXAMPLE =
             "\"mark 1\" to mark the first task as completed";
@@ -50,310 +55,528 @@ public class Parser {
             "\"event go for a jog /from 2/1/2003 09:00 /to 2/1/2003 10:00\"";
     private static final String REMIND_EXAMPLE =
             "\"remind 3\" to be reminded of all the tasks taking place, within 3 days from now";
+    private static final String BETWEEN_EXAMPLE =
+            "\"between 1/3/2025 00:00 /and 7/3/2025 23:59\" to list all the tasks taking place "
+                    + "from 1 Mar 2025 to 7 Mar 2025";
+    private static final String ARCHIVE_EXAMPLE =
+            "\"archive 30\" to archive all the completed tasks which took place more than 30 days ago";
+    private static final String FIND_ARCHIVED_EXAMPLE =
+            "\"findarchived exercise\" to find all the archived tasks containing the substring \"exercise\"";
+    private static final String IMPORT_EXAMPLE =
+            "\"import tasks.csv\" to add all the tasks in the CSV file \"tasks.csv\" to the list";
+    private static final String EXPORT_EXAMPLE =
+            "\"export calendar.ics\" to write all the tasks in the list to the iCalendar file \"calendar.ics\"";
     private static final String DATE_FORMATTING_EXAMPLE =
             "\"2/1/2003 13:18\" which means 2 Jan 2003, 1:18 pm";
 
-    // maps different command types to a function that gives us the correct Command object
-    private static final HashMap<CommandType,
-            ThrowingFunction<String, Command>> typesToCommands = new HashMap<>();
+    // maps each command word to a function that gives us the correct Command object, built once
+    private static final CommandRegistry COMMANDS = createRegistry();
 
     /**
      * Parses and returns a <code>MarkCommand</code> from the user input.
      *
-     * @param inputLine Raw input string from the user.
-     * @return <code>MarkCommand</code> representing the operation to be executed.
-     * @throws ParserException If the task index is missing or invalid.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>MarkCommand</code> representing the operation to be
+     *         executed, or an error if the task index is missing or invalid.
      */
-    private static MarkCommand getMarkCommand(String inputLine) throws ParserException {
-        try {
-            String[] inputTokens = inputLine.split("\\s+");
-            int indexToMark = Integer.parseInt(inputTokens[1]) - 1;
-            return new MarkCommand(indexToMark);
-        } catch (ArrayIndexOutOfBoundsException ex) {
-            throw new ParserException("Task number is missing. Make sure you have added a "
+    private static ParseResult getMarkCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Task number is missing. Make sure you have added a "
                     + "task number after the \"mark\" command."
                     + "\nEg. "
                     + MARK_EXAMPLE);
-        } catch (NumberFormatException ex) {
-            throw new ParserException("Task number is invalid. Make sure you have added the "
+        } else if (!isInteger(input.getFirstArgument())) {
+            return ParseResult.ofError(() -> "Task number is invalid. Make sure you have added the "
                     + "correct task number after the \"mark\" command."
                     + "\nEg. "
                     + MARK_EXAMPLE);
         }
+
+        int indexToMark = Integer.parseInt(input.getFirstArgument()) - 1;
+        return ParseResult.ofCommand(new MarkCommand(indexToMark));
     }
 
     /**
      * Parses and returns a <code>UnmarkCommand</code> from the user input.
      *
-     * @param inputLine Raw input string from the user.
-     * @return <code>UnmarkCommand</code> representing the operation to be executed.
-     * @throws ParserException If the task index is missing or invalid.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>UnmarkCommand</code> representing the operation to be
+     *         executed, or an error if the task index is missing or invalid.
      */
-    private static UnmarkCommand getUnmarkCommand(String inputLine) throws ParserException {
-        try {
-            String[] inputTokens = inputLine.split("\\s+");
-            int indexToUnmark = Integer.parseInt(inputTokens[1]) - 1;
-            return new UnmarkCommand(indexToUnmark);
-        } catch (ArrayIndexOutOfBoundsException ex) {
-            throw new ParserException("Task number is missing. Make sure you have added a "
+    private static ParseResult getUnmarkCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Task number is missing. Make sure you have added a "
                     + "task number after the \"unmark\" command."
                     + "\nEg. "
                     + UNMARK_EXAMPLE);
-        } catch (NumberFormatException ex) {
-            throw new ParserException("Task number is invalid. Make sure you have added the "
+        } else if (!isInteger(input.getFirstArgument())) {
+            return ParseResult.ofError(() -> "Task number is invalid. Make sure you have added the "
                     + "correct task number after the \"unmark\" command."
                     + "\nEg. "
                     + UNMARK_EXAMPLE);
         }
+
+        int indexToUnmark = Integer.parseInt(input.getFirstArgument()) - 1;
+        return ParseResult.ofCommand(new UnmarkCommand(indexToUnmark));
     }
 
     /**
      * Parses and returns a <code>DeleteCommand</code> from the user input.
      *
-     * @param inputLine Raw input string from the user.
-     * @return <code>DeleteCommand</code> representing the operation to be executed.
-     * @throws ParserException If the task index is missing or invalid.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>DeleteCommand</code> representing the operation to be
+     *         executed, or an error if the task index is missing or invalid.
      */
-    private static DeleteCommand getDeleteCommand(String inputLine) throws ParserException {
-        try {
-            String[] inputTokens = inputLine.split("\\s+");
-            int indexToDelete = Integer.parseInt(inputTokens[1]) - 1;
-            return new DeleteCommand(indexToDelete);
-        } catch (ArrayIndexOutOfBoundsException ex) {
-            throw new ParserException("Task number is missing. Make sure you have added a "
+    private static ParseResult getDeleteCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Task number is missing. Make sure you have added a "
                     + "task number after the \"delete\" command."
                     + "\nEg. "
                     + DELETE_EXAMPLE);
-        } catch (NumberFormatException ex) {
-            throw new ParserException("Task number is invalid. Make sure you have added the "
+        } else if (!isInteger(input.getFirstArgument())) {
+            return ParseResult.ofError(() -> "Task number is invalid. Make sure you have added the "
                     + "correct task number after the \"delete\" command."
                     + "\nEg. "
                     + DELETE_EXAMPLE);
         }
+
+        int indexToDelete = Integer.parseInt(input.getFirstArgument()) - 1;
+        return ParseResult.ofCommand(new DeleteCommand(indexToDelete));
     }
 
     /**
      * Parses and returns a <code>FindCommand</code> from the user input.
      *
-     * @param inputLine Raw input string from the user.
-     * @return <code>FindCommand</code> containing the substring to search for.
-     * @throws ParserException If the search substring is missing.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>FindCommand</code> containing the substring to search for,
+     *         or an error if the search substring is missing.
      */
-    private static FindCommand getFindCommand(String inputLine) throws ParserException {
-        try {
-            String[] inputTokens = inputLine.split("\\s+", 2);
-            String substring = inputTokens[1];
-            return new FindCommand(substring);
-        } catch (ArrayIndexOutOfBoundsException ex) {
-            throw new ParserException("Substring is missing. After the \"find\" command, "
+    private static ParseResult getFindCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Substring is missing. After the \"find\" command, "
                     + "make sure you have added a substring to search for."
                     + "\nEg. "
                     + FIND_EXAMPLE);
         }
+
+        String substring = input.getArguments();
+        return ParseResult.ofCommand(new FindCommand(substring));
     }
 
     /**
      * Parses and returns an <code>AddCommand</code> from the user input,
      * where we wish to add a todo.
      *
-     * @param inputLine Raw input string from the user.
-     * @return <code>AddCommand</code> wrapping a newly created todo.
-     * @throws ParserException If the task description is missing.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>AddCommand</code> wrapping a newly created todo,
+     *         or an error if the task description is missing.
      */
-    private static AddCommand getTodoAddCommand(String inputLine) throws ParserException {
-        String[] detailsAfterSplit = inputLine.split("todo\\s+", 2);
-
-        if (detailsAfterSplit.length < 2) {
-            throw new ParserException("The description of a todo cannot be empty. "
+    private static ParseResult getTodoAddCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "The description of a todo cannot be empty. "
                     + "Add a task name after the \"todo\" command."
                     + "\nEg. "
                     + TODO_EXAMPLE);
         }
 
-        String todoName = detailsAfterSplit[1];
+        String todoName = input.getArguments();
         Todo newTodo = new Todo(todoName);
 
-        return new AddCommand(newTodo);
-
+        return ParseResult.ofCommand(new AddCommand(newTodo));
     }
 
     /**
      * Parses and returns an <code>AddCommand</code> from the user input,
      * where we wish to add a deadline.
      *
-     * @param inputLine Raw input string from the user.
-     * @return <code>AddCommand</code> wrapping a newly created deadline.
-     * @throws ParserException If the description or required delimiters are missing,
-     *                         or if the date cannot be parsed.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>AddCommand</code> wrapping a newly created deadline,
+     *         or an error if the description or required delimiters are missing,
+     *         or if the date cannot be parsed.
      */
-    private static AddCommand getDeadlineAddCommand(String inputLine) throws ParserException {
-        String[] detailsAfterSplittingCommand = inputLine.split("deadline\\s+", 2);
-        if (detailsAfterSplittingCommand.length < 2) {
-            throw new ParserException("The description of a deadline cannot be empty. "
+    private static ParseResult getDeadlineAddCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "The description of a deadline cannot be empty. "
                     + "Add a task name after the \"deadline\" command."
                     + "\nEg. "
                     + DEADLINE_EXAMPLE);
         }
 
-        String[] deadlineDetails = detailsAfterSplittingCommand[1]
-                .split("\\s+/by\\s+", 2);
+        String[] deadlineDetails = input.getArgumentsSplitBy("/by");
         if (deadlineDetails.length < 2) {
-            throw new ParserException("For deadlines, the \"/by\" delimiter "
+            return ParseResult.ofError(() -> "For deadlines, the \"/by\" delimiter "
                     + "must be placed between the task description and the chosen date."
                     + "\nEg. "
                     + DEADLINE_EXAMPLE);
         }
 
         String deadlineName = deadlineDetails[0];
-        LocalDateTime byWhen = parseDate(deadlineDetails[1]);
+        LocalDateTime byWhen = DateCodec.tryParse(deadlineDetails[1]);
+        if (byWhen == null) {
+            return getDateError(deadlineDetails[1]);
+        }
         Deadline newDeadline = new Deadline(deadlineName, byWhen);
 
-        return new AddCommand(newDeadline);
+        return ParseResult.ofCommand(new AddCommand(newDeadline));
     }
 
     /**
      * Parses and returns an <code>AddCommand</code> from the user input,
      * where we wish to add an event.
      *
-     * @param inputLine Raw input string from the user.
-     * @return <code>AddCommand</code> wrapping a newly created event.
-     * @throws ParserException If required delimiters are missing or
-     *                         if the start or end dates cannot be parsed.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>AddCommand</code> wrapping a newly created event,
+     *         or an error if required delimiters are missing or
+     *         if the start or end dates cannot be parsed.
      */
-    private static AddCommand getEventAddCommand(String inputLine) throws ParserException {
-        String[] detailsAfterSplittingCommand = inputLine.split("event\\s+", 2);
-        if (detailsAfterSplittingCommand.length < 2) {
-            throw new ParserException("The description of an event cannot be empty. "
+    private static ParseResult getEventAddCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "The description of an event cannot be empty. "
                     + "Add a task name after the \"event\" command."
                     + "\nEg. "
                     + EVENT_EXAMPLE);
         }
 
-        String[] detailsAfterSplittingFrom = detailsAfterSplittingCommand[1]
-                .split("\\s+/from\\s+", 2);
-        if (detailsAfterSplittingFrom.length < 2) {
-            throw new ParserException("For events, the \"/from\" delimiter "
+        String[] eventDetails = input.getArgumentsSplitBy("/from", "/to");
+        if (eventDetails.length < 2) {
+            return ParseResult.ofError(() -> "For events, the \"/from\" delimiter "
                     + "must be placed between the task description and the chosen start time."
                     + "\nEg. "
                     + EVENT_EXAMPLE);
         }
 
-        String eventName = detailsAfterSplittingFrom[0];
-        String[] detailsAfterSplittingTo = detailsAfterSplittingFrom[1]
-                .split("\\s+/to\\s+", 2);
-        if (detailsAfterSplittingTo.length < 2) {
-            throw new ParserException("For events, the \"/to\" delimiter "
+        if (eventDetails.length < 3) {
+            return ParseResult.ofError(() -> "For events, the \"/to\" delimiter "
                     + "must be placed between the chosen start time and the chosen end time."
                     + "\nEg. "
                     + EVENT_EXAMPLE);
         }
 
-        LocalDateTime startTime = parseDate(detailsAfterSplittingTo[0]);
-        LocalDateTime endTime = parseDate(detailsAfterSplittingTo[1]);
+        String eventName = eventDetails[0];
+        LocalDateTime startTime = DateCodec.tryParse(eventDetails[1]);
+        if (startTime == null) {
+            return getDateError(eventDetails[1]);
+        }
+        LocalDateTime endTime = DateCodec.tryParse(eventDetails[2]);
+        if (endTime == null) {
+            return getDateError(eventDetails[2]);
+        }
         Event newEvent = new Event(eventName, startTime, endTime);
 
-        return new AddCommand(newEvent);
+        return ParseResult.ofCommand(new AddCommand(newEvent));
     }
 
     /**
      * Creates and returns a <code>ListCommand</code>.
      *
-     * @return <code>ListCommand</code> representing a request to list all tasks.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>ListCommand</code> representing a request to list all tasks,
+     *         or an error if the command was given with arguments.
      */
-    private static ListCommand getListCommand() {
-        return new ListCommand();
+    private static ParseResult getListCommand(CommandInput input) {
+        if (input.hasArguments()) {
+            return ParseResult.ofError(() -> "LIST or BYE command was given with other arguments - invalid");
+        }
+        return ParseResult.ofCommand(new ListCommand());
     }
 
     /**
      * Parses and returns a <code>RemindCommand</code> from the user input.
      *
-     * @param inputLine Raw input string from the user.
-     * @return <code>RemindCommand</code> representing the reminder operation.
-     * @throws ParserException If the time window is missing or invalid.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>RemindCommand</code> representing the reminder operation,
+     *         or an error if the time window is missing or invalid.
      */
-    private static RemindCommand getRemindCommand(String inputLine) throws ParserException {
-        try {
-            String[] inputTokens = inputLine.split("\\s+");
-            int daysFromNow = Integer.parseInt(inputTokens[1]);
-
-            if (daysFromNow < 1) {
-                throw new ParserException("The time window that you have provided is non-positive. "
-                    + "Please make sure that the time window is greater than or equal to 1."
-                    + "\nEg. "
-                    + REMIND_EXAMPLE);
-            }
-
-            return new RemindCommand(daysFromNow);
-        } catch (ArrayIndexOutOfBoundsException ex) {
-            throw new ParserException("Time window to check for (in days) is missing. "
+    private static ParseResult getRemindCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Time window to check for (in days) is missing. "
                     + "Make sure you have added it after the \"remind\" command."
                     + "\nEg. "
                     + REMIND_EXAMPLE);
-        } catch (NumberFormatException ex) {
-            throw new ParserException("Time window is invalid. Make sure you have added a "
+        } else if (!isInteger(input.getFirstArgument())) {
+            return ParseResult.ofError(() -> "Time window is invalid. Make sure you have added a "
                     + "valid time window (in days) after the \"remind\" command."
                     + "\nEg. "
                     + REMIND_EXAMPLE);
         }
+
+        int daysFromNow = Integer.parseInt(input.getFirstArgument());
+        if (daysFromNow < 1) {
+            return ParseResult.ofError(() -> "The time window that you have provided is non-positive. "
+                + "Please make sure that the time window is greater than or equal to 1."
+                + "\nEg. "
+                + REMIND_EXAMPLE);
+        }
+
+        return ParseResult.ofCommand(new RemindCommand(daysFromNow));
+    }
+
+    /**
+     * Parses and returns a <code>BetweenCommand</code> from the user input.
+     *
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>BetweenCommand</code> representing the time window to list
+     *         tasks for, or an error if the time window is missing, or if its dates cannot
+     *         be parsed or are in the wrong order.
+     */
+    private static ParseResult getBetweenCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "The time window is missing. "
+                    + "Add a start time and an end time after the \"between\" command."
+                    + "\nEg. "
+                    + BETWEEN_EXAMPLE);
+        }
+
+        String[] windowDetails = input.getArgumentsSplitBy("/and");
+        if (windowDetails.length < 2) {
+            return ParseResult.ofError(() -> "For the \"between\" command, the \"/and\" delimiter "
+                    + "must be placed between the chosen start time and the chosen end time."
+                    + "\nEg. "
+                    + BETWEEN_EXAMPLE);
+        }
+
+        LocalDateTime from = DateCodec.tryParse(windowDetails[0]);
+        if (from == null) {
+            return getDateError(windowDetails[0]);
+        }
+        LocalDateTime to = DateCodec.tryParse(windowDetails[1]);
+        if (to == null) {
+            return getDateError(windowDetails[1]);
+        }
+        if (from.isAfter(to)) {
+            return ParseResult.ofError(() -> "The start of the time window cannot be after its end."
+                    + "\nEg. "
+                    + BETWEEN_EXAMPLE);
+        }
+
+        return ParseResult.ofCommand(new BetweenCommand(from, to));
+    }
+
+    /**
+     * Parses and returns an <code>ArchiveCommand</code> from the user input.
+     *
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>ArchiveCommand</code> representing the archival operation,
+     *         or an error if the number of days is missing or invalid.
+     */
+    private static ParseResult getArchiveCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Number of days is missing. "
+                    + "Make sure you have added it after the \"archive\" command."
+                    + "\nEg. "
+                    + ARCHIVE_EXAMPLE);
+        } else if (!isInteger(input.getFirstArgument())) {
+            return ParseResult.ofError(() -> "Number of days is invalid. Make sure you have added a "
+                    + "valid number of days after the \"archive\" command."
+                    + "\nEg. "
+                    + ARCHIVE_EXAMPLE);
+        }
+
+        int daysAgo = Integer.parseInt(input.getFirstArgument());
+        if (daysAgo < 0) {
+            return ParseResult.ofError(() -> "The number of days that you have provided is negative. "
+                + "Please make sure that the number of days is greater than or equal to 0."
+                + "\nEg. "
+                + ARCHIVE_EXAMPLE);
+        }
+
+        return ParseResult.ofCommand(new ArchiveCommand(daysAgo));
+    }
+
+    /**
+     * Parses and returns a <code>FindArchivedCommand</code> from the user input.
+     *
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>FindArchivedCommand</code> containing the substring to
+     *         search for, or an error if the search substring is missing.
+     */
+    private static ParseResult getFindArchivedCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Substring is missing. After the \"findarchived\" command, "
+                    + "make sure you have added a substring to search for."
+                    + "\nEg. "
+                    + FIND_ARCHIVED_EXAMPLE);
+        }
+
+        String substring = input.getArguments();
+        return ParseResult.ofCommand(new FindArchivedCommand(substring));
+    }
+
+    /**
+     * Returns the format of the exchange file at the given path, based on its extension.
+     *
+     * @param path Path to the exchange file.
+     * @return Format of the file, or null if the extension of the file is not supported.
+     */
+    private static TaskExchange.Format getExchangeFormat(String path) {
+        String lowerCasePath = path.toLowerCase();
+        if (lowerCasePath.endsWith(".csv")) {
+            return TaskExchange.Format.CSV;
+        } else if (lowerCasePath.endsWith(".ics")) {
+            return TaskExchange.Format.ICS;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the error for an exchange file in an unsupported format.
+     *
+     * @param example Example of the command, to be shown in the error message.
+     * @return Failed result.
+     */
+    private static ParseResult getExchangeFormatError(String example) {
+        return ParseResult.ofError(() -> "The file that you have provided is in an unsupported format. "
+                + "Make sure that the file ends with \".csv\" or \".ics\"."
+                + "\nEg. "
+                + example);
+    }
+
+    /**
+     * Parses and returns an <code>ImportCommand</code> from the user input.
+     *
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>ImportCommand</code> containing the file to be imported,
+     *         or an error if the path is missing, or if the file is in an unsupported format.
+     */
+    private static ParseResult getImportCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Path is missing. After the \"import\" command, "
+                    + "make sure you have added the path to the file to be imported."
+                    + "\nEg. "
+                    + IMPORT_EXAMPLE);
+        }
+
+        String path = input.getArguments();
+        TaskExchange.Format format = getExchangeFormat(path);
+        if (format == null) {
+            return getExchangeFormatError(IMPORT_EXAMPLE);
+        }
+        return ParseResult.ofCommand(new ImportCommand(path, format));
+    }
+
+    /**
+     * Parses and returns an <code>ExportCommand</code> from the user input.
+     *
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>ExportCommand</code> containing the file to be written,
+     *         or an error if the path is missing, or if the file is in an unsupported format.
+     */
+    private static ParseResult getExportCommand(CommandInput input) {
+        if (!input.hasArguments()) {
+            return ParseResult.ofError(() -> "Path is missing. After the \"export\" command, "
+                    + "make sure you have added the path to the file to be written."
+                    + "\nEg. "
+                    + EXPORT_EXAMPLE);
+        }
+
+        String path = input.getArguments();
+        TaskExchange.Format format = getExchangeFormat(path);
+        if (format == null) {
+            return getExchangeFormatError(EXPORT_EXAMPLE);
+        }
+        return ParseResult.ofCommand(new ExportCommand(path, format));
     }
 
     /**
      * Creates and returns a <code>ByeCommand</code>.
      *
-     * @return <code>ByeCommand</code> representing program termination.
+     * @param input Tokens of the input from the user.
+     * @return Result holding the <code>ByeCommand</code> representing program termination,
+     *         or an error if the command was given with arguments.
      */
-    private static ByeCommand getByeCommand() {
-        return new ByeCommand();
+    private static ParseResult getByeCommand(CommandInput input) {
+        if (input.hasArguments()) {
+            return ParseResult.ofError(() -> "LIST or BYE command was given with other arguments - invalid");
+        }
+        return ParseResult.ofCommand(new ByeCommand());
     }
 
     /**
-     * Populates the internal mapping from <code>CommandType</code> to the
-     * corresponding command-construction function. This method must be called
-     * before attempting to retrieve commands from the mapping.
+     * Returns the registry of every command understood by the chatbot. The built-in commands
+     * are registered in the order of <code>CommandType</code>, followed by any commands
+     * provided through <code>CommandFactory</code>, whose command words are not yet taken.
+     *
+     * @return Registry of commands.
      */
-    private static void setupMapping() {
-        typesToCommands.put(CommandType.MARK, inputLine -> getMarkCommand(inputLine));
-        typesToCommands.put(CommandType.UNMARK, inputLine -> getUnmarkCommand(inputLine));
-        typesToCommands.put(CommandType.DELETE, inputLine -> getDeleteCommand(inputLine));
-        typesToCommands.put(CommandType.FIND, inputLine -> getFindCommand(inputLine));
-        typesToCommands.put(CommandType.TODO, inputLine -> getTodoAddCommand(inputLine));
-        typesToCommands.put(CommandType.DEADLINE, inputLine -> getDeadlineAddCommand(inputLine));
-        typesToCommands.put(CommandType.EVENT, inputLine -> getEventAddCommand(inputLine));
-        typesToCommands.put(CommandType.LIST, inputLine -> getListCommand());
-        typesToCommands.put(CommandType.REMIND, inputLine -> getRemindCommand(inputLine));
-        typesToCommands.put(CommandType.BYE, inputLine -> getByeCommand());
+    private static CommandRegistry createRegistry() {
+        Map<String, Function<CommandInput, ParseResult>> factories = new LinkedHashMap<>();
+        factories.put(getCommandWord(CommandType.MARK), input -> getMarkCommand(input));
+        factories.put(getCommandWord(CommandType.UNMARK), input -> getUnmarkCommand(input));
+        factories.put(getCommandWord(CommandType.DELETE), input -> getDeleteCommand(input));
+        factories.put(getCommandWord(CommandType.FIND), input -> getFindCommand(input));
+        factories.put(getCommandWord(CommandType.TODO), input -> getTodoAddCommand(input));
+        factories.put(getCommandWord(CommandType.DEADLINE), input -> getDeadlineAddCommand(input));
+        factories.put(getCommandWord(CommandType.EVENT), input -> getEventAddCommand(input));
+        factories.put(getCommandWord(CommandType.LIST), input -> getListCommand(input));
+        factories.put(getCommandWord(CommandType.REMIND), input -> getRemindCommand(input));
+        factories.put(getCommandWord(CommandType.BETWEEN), input -> getBetweenCommand(input));
+        factories.put(getCommandWord(CommandType.ARCHIVE), input -> getArchiveCommand(input));
+        factories.put(getCommandWord(CommandType.FINDARCHIVED), input -> getFindArchivedCommand(input));
+        factories.put(getCommandWord(CommandType.IMPORT), input -> getImportCommand(input));
+        factories.put(getCommandWord(CommandType.EXPORT), input -> getExportCommand(input));
+        factories.put(getCommandWord(CommandType.BYE), input -> getByeCommand(input));
+        assert factories.size() == CommandType.values().length : "Every command type must be registered";
+
+        for (CommandFactory factory : ServiceLoader.load(CommandFactory.class)) {
+            factories.putIfAbsent(factory.getCommandWord().toLowerCase(Locale.ROOT),
+                    input -> getFactoryCommand(factory, input));
+        }
+        return new CommandRegistry(factories);
     }
 
     /**
-     * Determines and returns the <code>CommandType</code> represented by the user input.
+     * Returns the word which starts commands of the given type.
      *
-     * @param inputLine Raw input string from the user.
-     * @return Identified <code>CommandType</code>.
-     * @throws ParserException If the command type is unknown, or if the input is invalid.
+     * @param commandType Type of command.
+     * @return Lower-case command word.
      */
-    private static CommandType getCommandType(String inputLine) throws ParserException {
-        CommandType chosenCommand;
+    private static String getCommandWord(CommandType commandType) {
+        return commandType.name().toLowerCase(Locale.ROOT);
+    }
 
+    /**
+     * Returns the command created by the given <code>CommandFactory</code> from the user input.
+     * Factories report invalid input by throwing, which is turned into a failed result.
+     *
+     * @param factory Factory registered for the command word of the input.
+     * @param input   Tokens of the input from the user.
+     * @return Result holding the command, or an error if the input is invalid.
+     */
+    private static ParseResult getFactoryCommand(CommandFactory factory, CommandInput input) {
         try {
-            // attempt to convert the whole of the input to a command (i.e. LIST or BYE)
-            chosenCommand = CommandType.valueOf(inputLine.toUpperCase());
-        } catch (IllegalArgumentException notListOrByeEx) {
-            // not LIST or BYE - get the first token and try to convert to a valid command
-            try {
-                String[] inputTokens = inputLine.split("\\s+");
-                String inputCommand = inputTokens[0];
-                chosenCommand = CommandType.valueOf(inputCommand.toUpperCase());
-                if (chosenCommand.equals(CommandType.LIST) || chosenCommand.equals(CommandType.BYE)) {
-                    throw new ParserException("LIST or BYE command was given with other arguments - invalid");
-                }
-            } catch (IllegalArgumentException notValidCommandEx) {
-                throw new ParserException("I have no idea what that "
-                        + "means. You could try:\n"
-                        + Arrays.toString(CommandType.values()));
-            }
+            return ParseResult.ofCommand(factory.createCommand(input));
+        } catch (ParserException ex) {
+            return ParseResult.ofError(ex::getMessage);
         }
+    }
 
-        return chosenCommand;
+    /**
+     * Returns whether the given token holds a number which can be parsed by
+     * <code>Integer.parseInt</code>, so that it can be checked without an exception.
+     *
+     * @param token Token to be checked.
+     * @return Whether the token is an <code>int</code>.
+     */
+    private static boolean isInteger(String token) {
+        boolean isNegative = token.charAt(0) == '-';
+        int start = isNegative || token.charAt(0) == '+' ? 1 : 0;
+        if (start == token.length()) {
+            return false;
+        }
+
+        long value = 0;
+        for (int i = start; i < token.length(); i++) {
+            int digit = Character.digit(token.charAt(i), 10);
+            if (digit < 0) {
+                return false;
+            }
+
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return false;
+            }
+        }
+        return isNegative || value <= Integer.MAX_VALUE;
     }
 
     /**
@@ -366,14 +589,70 @@ public class Parser {
      */
     static LocalDateTime parseDate(String dateString) throws ParserException {
         try {
-            return LocalDateTime.parse(dateString, DateTimeFormatter.ofPattern(DATE_FORMAT));
+            return DateCodec.parse(dateString);
         } catch (DateTimeParseException ex) {
-            throw new ParserException("The date "
-                    + "that you have provided cannot be parsed: "
-                    + ex.getMessage()
-                    + "\nPlease use the correct format for dates. For example: "
-                    + DATE_FORMATTING_EXAMPLE);
+            throw new ParserException(getDateErrorMessage(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Returns the error for a date which cannot be parsed. Its message, which describes
+     * where the date is wrong, is only worked out if it is asked for, without throwing
+     * an exception.
+     *
+     * @param dateString Date provided in <code>String</code>.
+     * @return Failed result.
+     */
+    private static ParseResult getDateError(String dateString) {
+        return ParseResult.ofError(() -> {
+            String reason = DateCodec.getParseError(dateString);
+            assert reason != null : "Date was rejected, but can be parsed: " + dateString;
+            return getDateErrorMessage(reason);
+        });
+    }
+
+    /**
+     * Returns the message shown for a date which cannot be parsed.
+     *
+     * @param reason Reason for which the date cannot be parsed.
+     * @return Message shown to the user.
+     */
+    private static String getDateErrorMessage(String reason) {
+        return "The date "
+                + "that you have provided cannot be parsed: "
+                + reason
+                + "\nPlease use the correct format for dates. For example: "
+                + DATE_FORMATTING_EXAMPLE;
+    }
+
+    /**
+     * Returns the result of parsing and validating the user input, which holds either the
+     * command to be executed, or an error if the input is invalid. Invalid input is reported
+     * without throwing an exception, so many invalid inputs can be rejected cheaply.
+     *
+     * @param inputLine Input given by the user.
+     * @return Result holding the command to be executed, or an error if at least one of the
+     *         following occurs:
+     *         <ul>
+     *         <li> Type of command in user input is unknown.
+     *         <li> Input arguments are invalid for the command type identified.
+     *         <li> Dates in the input cannot be parsed.
+     *         </ul>
+     */
+    public static ParseResult tryParse(String inputLine) {
+        // split the input into tokens in a single pass, after removing the whitespace around it
+        CommandInput input = new CommandInput(inputLine.strip());
+
+        // identify the function creating the command, based on the command word
+        Function<CommandInput, ParseResult> getCommandFunction = COMMANDS.getFactory(input);
+        if (getCommandFunction == null) {
+            return ParseResult.ofError(() -> "I have no idea what that "
+                    + "means. You could try:\n"
+                    + COMMANDS.getCommandWords());
         }
+
+        // create a class that can be used to carry out the operation
+        return getCommandFunction.apply(input);
     }
 
     /**
@@ -390,18 +669,10 @@ public class Parser {
      *                         </ul>
      */
     public static Command parse(String inputLine) throws ParserException {
-        setupMapping();
-
-        // first remove the whitespace in the input
-        inputLine = inputLine.strip();
-
-        // identify what type of command is in the input
-        CommandType chosenCommandType = getCommandType(inputLine);
-
-        // create a class that can be used to carry out the operation,
-        // based on the command type
-        assert !typesToCommands.isEmpty() : "Mapping of command types to command functions cannot be empty";
-        ThrowingFunction<String, Command> getCommandFunction = typesToCommands.get(chosenCommandType);
-        return getCommandFunction.apply(inputLine);
+        ParseResult result = tryParse(inputLine);
+        if (!result.isSuccessful()) {
+            throw new ParserException(result.getErrorMessage());
+        }
+        return result.getCommand();
     }
 }
@@ -0,0 +1,339 @@
+package bingbong.util;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import bingbong.task.Task;
+import bingbong.task.TaskTracker;
+
+/**
+ * Reads, writes and updates task files in the record format. The file starts with a
+ * header, followed by a region of fixed-length records, one for each task, followed by
+ * a heap holding every task in the binary save format. Each record holds the status of
+ * its task, along with the position and length of the task in the heap.
+ * As the status of each task sits at a known position, changing the status of a task
+ * or deleting it only takes a single write of one byte. New tasks are appended to
+ * the heap, and their records are written into the spare room of the record region.
+ */
+final class RecordTaskFile {
+    // "BBTR", marking the file as a record task file
+    private static final int MAGIC = 0x42425452;
+    private static final int VERSION = 1;
+
+    // header holds the magic number, version, capacity of the record region and number of records
+    private static final int HEADER_LENGTH = 16;
+    private static final int CAPACITY_POSITION = 8;
+    private static final int NUM_OF_RECORDS_POSITION = 12;
+
+    // each record holds the status, then the position and length of its task in the heap
+    private static final int RECORD_LENGTH = 16;
+    private static final int TASK_POSITION_OFFSET = 4;
+    private static final int TASK_LENGTH_OFFSET = 8;
+
+    // statuses of the records
+    static final byte NOT_DONE_STATUS = 0;
+    static final byte DONE_STATUS = 1;
+    static final byte DELETED_STATUS = 2;
+
+    // smallest number of records that a new file has room for
+    private static final int MIN_CAPACITY = 64;
+
+    private RecordTaskFile() {
+        // holds static methods only
+    }
+
+    /**
+     * Returns the number of records that a new file holding the given number of
+     * tasks has room for, leaving spare room for new tasks.
+     *
+     * @param numOfTasks Number of tasks in the new file.
+     * @return Capacity of the record region.
+     */
+    static int getNewCapacity(int numOfTasks) {
+        return Math.max(MIN_CAPACITY, numOfTasks * 2);
+    }
+
+    /**
+     * Writes every task in the given task list to the channel, in the record format,
+     * leaving room for the given number of records. The heap is written first, while
+     * recording the length of each task, then the header and the records are written.
+     *
+     * @param taskTracker Task list to be written.
+     * @param channel     Empty channel to write the tasks to.
+     * @param capacity    Number of records that the file has room for, which must be
+     *                    at least the number of tasks.
+     * @throws IOException If the channel cannot be written to.
+     */
+    static void write(TaskTracker taskTracker, FileChannel channel, int capacity) throws IOException {
+        int numOfTasks = taskTracker.getNumOfTasks();
+        assert capacity >= numOfTasks : "Record region must have room for every task";
+        byte[] statuses = new byte[numOfTasks];
+        int[] taskLengths = new int[numOfTasks];
+
+        long heapStart = getRecordPosition(capacity);
+        channel.position(heapStart);
+        ChannelWriter heapWriter = new ChannelWriter(channel);
+        long heapLength = 0;
+        Iterator<Task> tasks = taskTracker.streamTasks().iterator();
+        for (int i = 0; i < numOfTasks; i++) {
+            byte[] taskBytes = BinaryTaskFile.encodeTask(tasks.next());
+            statuses[i] = getStatus(taskBytes);
+            taskLengths[i] = taskBytes.length;
+            heapWriter.write(taskBytes);
+            heapLength += taskBytes.length;
+        }
+        heapWriter.flush();
+        if (heapStart + heapLength > Integer.MAX_VALUE) {
+            throw new IOException("The task file is too large to be saved");
+        }
+
+        // header and records are written once the position of every task in the heap is known
+        channel.position(0);
+        ChannelWriter recordWriter = new ChannelWriter(channel);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(capacity)
+                .putInt(numOfTasks);
+        recordWriter.write(header.array());
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+        int taskPosition = (int) heapStart;
+        for (int i = 0; i < numOfTasks; i++) {
+            putRecord(record, statuses[i], taskPosition, taskLengths[i]);
+            recordWriter.write(record.array());
+            taskPosition += taskLengths[i];
+        }
+
+        // spare room for new records is left empty
+        byte[] emptyRecord = new byte[RECORD_LENGTH];
+        for (int i = numOfTasks; i < capacity; i++) {
+            recordWriter.write(emptyRecord);
+        }
+        recordWriter.flush();
+    }
+
+    /**
+     * Returns the record status of the given encoded task.
+     *
+     * @param taskBytes Task in the binary save format.
+     * @return Status of the task.
+     */
+    private static byte getStatus(byte[] taskBytes) {
+        // the status is kept in the highest bit of the type byte, which comes first
+        return (taskBytes[0] & Task.BINARY_DONE_FLAG) != 0 ? DONE_STATUS : NOT_DONE_STATUS;
+    }
+
+    /**
+     * Fills the given buffer with a record holding the given status, position and length.
+     *
+     * @param record       Buffer of the length of a record.
+     * @param status       Status of the task.
+     * @param taskPosition Position of the task in the file.
+     * @param taskLength   Length of the task in the heap.
+     */
+    private static void putRecord(ByteBuffer record, byte status, int taskPosition, int taskLength) {
+        record.put(0, status);
+        record.putInt(TASK_POSITION_OFFSET, taskPosition);
+        record.putInt(TASK_LENGTH_OFFSET, taskLength);
+    }
+
+    /**
+     * Returns the tasks in the given buffer, which holds a whole file in the record format.
+     * Deleted records are skipped.
+     *
+     * @param buffer Contents of the task file.
+     * @return Tasks saved in the file, in order.
+     * @throws IllegalArgumentException If the file is incorrectly formatted.
+     */
+    static ArrayList<Task> read(ByteBuffer buffer) {
+        int[] slots = indexTasks(buffer);
+        ArrayList<Task> tasks = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            tasks.add(readTask(buffer, slot));
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns the slots of the records in the given buffer which have not been deleted,
+     * in file order. Only the header and the records are read.
+     *
+     * @param buffer Contents of the task file.
+     * @return Slot of each task, in file order.
+     * @throws IllegalArgumentException If the file is incorrectly formatted.
+     */
+    static int[] indexTasks(ByteBuffer buffer) {
+        int numOfRecords = getNumOfRecords(buffer);
+        int numOfTasks = 0;
+        int[] slots = new int[numOfRecords];
+        for (int slot = 0; slot < numOfRecords; slot++) {
+            int recordPosition = (int) getRecordPosition(slot);
+            byte status = buffer.get(recordPosition);
+            if (status == DELETED_STATUS) {
+                continue;
+            } else if (status != NOT_DONE_STATUS && status != DONE_STATUS) {
+                throw new IllegalArgumentException("Invalid progress icons in saved task file");
+            }
+
+            int taskPosition = buffer.getInt(recordPosition + TASK_POSITION_OFFSET);
+            int taskLength = buffer.getInt(recordPosition + TASK_LENGTH_OFFSET);
+            if (taskPosition < 0 || taskLength < 0 || (long) taskPosition + taskLength > buffer.limit()) {
+                throw new IllegalArgumentException("The saved task file ends unexpectedly");
+            }
+            slots[numOfTasks++] = slot;
+        }
+        return Arrays.copyOf(slots, numOfTasks);
+    }
+
+    /**
+     * Returns the capacity of the record region of the file in the given buffer.
+     *
+     * @param buffer Contents of the task file.
+     * @return Number of records that the file has room for.
+     * @throws IllegalArgumentException If the file is not a supported record task file.
+     */
+    static int getCapacity(ByteBuffer buffer) {
+        checkHeader(buffer);
+        return buffer.getInt(CAPACITY_POSITION);
+    }
+
+    /**
+     * Returns the number of records in the file in the given buffer, including deleted records.
+     *
+     * @param buffer Contents of the task file.
+     * @return Number of records.
+     * @throws IllegalArgumentException If the file is not a supported record task file.
+     */
+    static int getNumOfRecords(ByteBuffer buffer) {
+        checkHeader(buffer);
+        return buffer.getInt(NUM_OF_RECORDS_POSITION);
+    }
+
+    /**
+     * Checks that the buffer starts with the header of a supported record task file,
+     * whose record region fits within the buffer.
+     *
+     * @param buffer Contents of the task file.
+     * @throws IllegalArgumentException If the file is not a supported record task file.
+     */
+    private static void checkHeader(ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("The saved task file is not in the record format");
+        }
+
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported version of the record format: " + version);
+        }
+
+        int capacity = buffer.getInt(CAPACITY_POSITION);
+        int numOfRecords = buffer.getInt(NUM_OF_RECORDS_POSITION);
+        if (numOfRecords < 0 || capacity < numOfRecords || getRecordPosition(capacity) > buffer.limit()) {
+            throw new IllegalArgumentException("The saved task file ends unexpectedly");
+        }
+    }
+
+    /**
+     * Returns the task saved in the record at the given slot of the buffer.
+     *
+     * @param buffer Contents of the task file.
+     * @param slot   Slot of the record, which must not have been deleted.
+     * @return Task saved in the record.
+     * @throws IllegalArgumentException If the task is incorrectly formatted.
+     */
+    static Task readTask(ByteBuffer buffer, int slot) {
+        int recordPosition = (int) getRecordPosition(slot);
+        int taskPosition = buffer.getInt(recordPosition + TASK_POSITION_OFFSET);
+        int taskLength = buffer.getInt(recordPosition + TASK_LENGTH_OFFSET);
+
+        // each read has its own view of the buffer, as buffers are not thread-safe
+        ByteBuffer taskBuffer = buffer.duplicate();
+        taskBuffer.limit(taskPosition + taskLength).position(taskPosition);
+        try {
+            Task task = BinaryTaskFile.readTask(taskBuffer, buffer.get(recordPosition) == DONE_STATUS);
+            if (taskBuffer.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected data in saved task file");
+            }
+            return task;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("The saved task file ends unexpectedly");
+        }
+    }
+
+    /**
+     * Writes the given status into the record at the given slot of the channel.
+     *
+     * @param channel Channel of the task file.
+     * @param slot    Slot of the record.
+     * @param status  New status of the record.
+     * @throws IOException If the channel cannot be written to.
+     */
+    static void writeStatus(FileChannel channel, int slot, byte status) throws IOException {
+        writeFully(channel, ByteBuffer.wrap(new byte[] {status}), getRecordPosition(slot));
+    }
+
+    /**
+     * Appends the given task to the heap of the channel, then writes its record into the given slot.
+     * The new record is only counted once <code>writeNumOfRecords</code> is called.
+     *
+     * @param channel Channel of the task file.
+     * @param slot    Slot of the new record, which must be within the capacity of the file.
+     * @param task    Task to be appended.
+     * @throws IOException If the channel cannot be written to.
+     */
+    static void appendTask(FileChannel channel, int slot, Task task) throws IOException {
+        byte[] taskBytes = BinaryTaskFile.encodeTask(task);
+        long taskPosition = channel.size();
+        if (taskPosition + taskBytes.length > Integer.MAX_VALUE) {
+            throw new IOException("The task file is too large to be saved");
+        }
+        writeFully(channel, ByteBuffer.wrap(taskBytes), taskPosition);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_LENGTH);
+        putRecord(record, getStatus(taskBytes), (int) taskPosition, taskBytes.length);
+        writeFully(channel, record, getRecordPosition(slot));
+    }
+
+    /**
+     * Writes the number of records, including deleted records, into the header of the channel.
+     *
+     * @param channel      Channel of the task file.
+     * @param numOfRecords Number of records.
+     * @throws IOException If the channel cannot be written to.
+     */
+    static void writeNumOfRecords(FileChannel channel, int numOfRecords) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(Integer.BYTES).putInt(numOfRecords);
+        bytes.flip();
+        writeFully(channel, bytes, NUM_OF_RECORDS_POSITION);
+    }
+
+    /**
+     * Returns the position of the record at the given slot within the file.
+     *
+     * @param slot Slot of the record.
+     * @return Position of the record.
+     */
+    private static long getRecordPosition(int slot) {
+        return HEADER_LENGTH + (long) slot * RECORD_LENGTH;
+    }
+
+    /**
+     * Writes all of the given bytes to the channel, starting at the given position.
+     *
+     * @param channel  Channel to write to.
+     * @param bytes    Bytes to be written.
+     * @param position Position within the channel to start writing at.
+     * @throws IOException If the channel cannot be written to.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+}
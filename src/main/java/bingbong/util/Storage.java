@@ -1,21 +1,46 @@
 package bingbong.util;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import bingbong.task.Deadline;
 import bingbong.task.Event;
 import bingbong.task.Task;
+import bingbong.task.TaskMutation;
 import bingbong.task.TaskTracker;
 import bingbong.task.Todo;
+import bingbong.util.StorageOptions.Format;
+import bingbong.util.StorageOptions.SyncPolicy;
 
 // used GPT-5.0 to improve existing JavaDoc comments, as well as
 // add JavaDoc for non-public methods
@@ -24,9 +49,114 @@ import bingbong.task.Todo;
  * Manages the storage of existing task lists in the disk.
  * Loads the task list that has been saved in previous runs, if any.
  * Saves task list to the disk, if updates have occurred.
+ * In journal mode, each change to the task list is appended as a small record
+ * to a journal file next to the task file (the snapshot), instead of rewriting
+ * the whole task file. The journal is replayed on top of the snapshot upon loading.
+ * Once the journal grows too long, it is compacted into a new snapshot on a
+ * background thread, so that saving a change never waits for the whole task list to be written.
+ * In write-behind mode, changes are handed to a background writer, so that commands
+ * never wait for the disk.
+ * If only parts of the task file are damaged, every intact task is still loaded, while
+ * the damaged parts are moved to a quarantine file next to the task file.
+ * Completed tasks can be moved into a compressed archive next to the task file, which
+ * is not loaded at startup, but can still be searched with a single streaming pass.
  */
-public class Storage {
+public class Storage implements StorageBackend {
+    // extension added to the name of the task file, to get the name of its journal
+    private static final String JOURNAL_EXTENSION = ".journal";
+
+    // extensions of the files written by a compaction, before they replace the current files
+    private static final String COMPACTED_JOURNAL_EXTENSION = ".journal.compacted";
+    private static final String COMPACTED_SNAPSHOT_EXTENSION = ".compacted";
+
+    // extension of the snapshot written by a full save, before it replaces the task file
+    private static final String TEMPORARY_SNAPSHOT_EXTENSION = ".tmp";
+
+    // extension of the file holding the damaged parts of the task file
+    private static final String QUARANTINE_EXTENSION = ".quarantine";
+
+    // extension of the compressed archive of completed tasks
+    private static final String ARCHIVE_EXTENSION = ".archive.gz";
+    private static final int ARCHIVE_BUFFER_SIZE = 1 << 16;
+
+    // number of damaged parts listed in the warning upon loading
+    private static final int MAX_LISTED_DAMAGED_REGIONS = 5;
+
+    // journal is also compacted once it exceeds this length, in bytes
+    private static final long COMPACTION_LENGTH_LIMIT = 1 << 20;
+
+    // record types in the journal
+    private static final String JOURNAL_HEADER_TYPE = "B";
+    private static final String ADD_RECORD_TYPE = "A";
+    private static final String BINARY_ADD_RECORD_TYPE = "P";
+    private static final String MARK_RECORD_TYPE = "M";
+    private static final String UNMARK_RECORD_TYPE = "U";
+    private static final String DELETE_RECORD_TYPE = "D";
+    private static final String DIVIDER = " | ";
+
     private final String filePath;
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final Path compactedSnapshotPath;
+    private final Path compactedJournalPath;
+    private final Path temporarySnapshotPath;
+    private final Path quarantinePath;
+    private final Path archivePath;
+    private final Path updatedPath;
+    private final Format format;
+    private final boolean isJournalled;
+    private final boolean isWriteBehind;
+    private final int compactionRecordLimit;
+    private final SyncPolicy syncPolicy;
+    private final long syncIntervalNanos;
+    private final boolean isLazy;
+    private final ExecutorService compactor;
+    private final ExecutorService writer;
+    private final ScheduledExecutorService syncer;
+
+    // guards the state below, which is shared with the compactor
+    private final Object journalLock = new Object();
+
+    // checksum of the snapshot that the journal applies to
+    private long snapshotChecksum;
+
+    // task list held by the snapshot, which shares most of its structure with the current task list
+    private TaskTracker snapshotTaskTracker;
+
+    // task list after every change saved so far, which the journal is folded into upon closing
+    private TaskTracker savedTaskTracker;
+    private boolean hasValidSnapshot;
+    private boolean hasStartedJournal;
+    private int numOfJournalRecords;
+    private long journalLength;
+
+    // warning about the damaged parts of the task file found upon loading, if any
+    private String loadWarning;
+
+    // group commit state of the journal, under the interval sync policy
+    private long lastJournalSyncNanos;
+    private boolean isJournalSyncScheduled;
+
+    // incremented whenever the snapshot is replaced, so that outdated compactions can be discarded
+    private long snapshotVersion;
+
+    // records appended while a compaction is in progress, or null if there is no such compaction
+    private List<String> recordsSinceCompaction;
+    private Future<?> compaction;
+
+    // state of the record file in the record format, where each task is saved in a numbered slot
+    private final List<Integer> recordSlots = new ArrayList<>();
+    private int recordCapacity;
+    private int numOfRecords;
+    private int numOfDeletedRecords;
+
+    // guards the changes waiting for the background writer, in write-behind mode
+    private final Object pendingLock = new Object();
+    private final List<TaskMutation> pendingMutations = new ArrayList<>();
+    private TaskTracker pendingTaskTracker;
+    private boolean isFullSavePending;
+    private boolean isWriteScheduled;
+    private StorageException pendingFailure;
 
     /**
      * Initialises a Storage class that points to the pre-saved
@@ -38,7 +168,43 @@ public class Storage {
      * @throws IOException   If there was a problem initialising the data folder.
      */
     public Storage(String dataFolderPath, String filename) throws IOException {
+        this(dataFolderPath, filename, StorageOptions.DEFAULT);
+    }
+
+    /**
+     * Initialises a Storage class that points to the pre-saved
+     * task file (if any), which saves tasks according to the given options.
+     *
+     * @param dataFolderPath Path to the folder in which tasks are saved.
+     * @param filename       Name of the file in which tasks are saved. The
+     *                       file is stored in <code>dataFolderPath</code>.
+     * @param options        Options determining how tasks are saved.
+     * @throws IOException   If there was a problem initialising the data folder.
+     */
+    public Storage(String dataFolderPath, String filename, StorageOptions options) throws IOException {
         this.filePath = dataFolderPath + "/" + filename;
+        this.snapshotPath = Paths.get(this.filePath);
+        this.journalPath = Paths.get(this.filePath + JOURNAL_EXTENSION);
+        this.compactedSnapshotPath = Paths.get(this.filePath + COMPACTED_SNAPSHOT_EXTENSION);
+        this.compactedJournalPath = Paths.get(this.filePath + COMPACTED_JOURNAL_EXTENSION);
+        this.temporarySnapshotPath = Paths.get(this.filePath + TEMPORARY_SNAPSHOT_EXTENSION);
+        this.quarantinePath = Paths.get(this.filePath + QUARANTINE_EXTENSION);
+        this.archivePath = Paths.get(this.filePath + ARCHIVE_EXTENSION);
+        this.format = options.getFormat();
+
+        // record files are updated in place, instead of through a journal
+        this.isJournalled = options.isJournalled() && this.format != Format.RECORDS;
+        this.updatedPath = this.format == Format.RECORDS ? this.snapshotPath : this.journalPath;
+        this.isWriteBehind = options.isWriteBehind();
+        this.compactionRecordLimit = options.getCompactionRecordLimit();
+        this.syncPolicy = options.getSyncPolicy();
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(options.getSyncIntervalMillis());
+        this.isLazy = options.isLazy();
+
+        // daemon threads, as an unfinished write leaves the saved files consistent
+        this.compactor = Executors.newSingleThreadExecutor(createDaemonThreadFactory("bingbong-compactor"));
+        this.writer = Executors.newSingleThreadExecutor(createDaemonThreadFactory("bingbong-writer"));
+        this.syncer = Executors.newSingleThreadScheduledExecutor(createDaemonThreadFactory("bingbong-syncer"));
 
         // create data folder if we have not done so
         Path dataFolderPathObj = Paths.get(dataFolderPath);
@@ -48,15 +214,27 @@ public class Storage {
     }
 
     /**
-     * Reads the next line from the saved task file and splits it
-     * into individual task details using the standard delimiter. Returns
-     * the resultant array.
+     * Returns a factory creating daemon threads of the given name.
      *
-     * @param fileScanner <code>Scanner</code> used to read from the saved task file.
+     * @param threadName Name of the threads.
+     * @return Factory creating the threads.
+     */
+    private static ThreadFactory createDaemonThreadFactory(String threadName) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Splits a saved task into individual task details using the standard
+     * delimiter. Returns the resultant array.
+     *
+     * @param taskString Line representing a saved task.
      * @return Array of task detail tokens extracted from the line.
      */
-    private String[] getTaskDetails(Scanner fileScanner) {
-        String taskString = fileScanner.nextLine();
+    private String[] getTaskDetails(String taskString) {
         return taskString.split(" \\| ");
     }
 
@@ -176,9 +354,392 @@ public class Storage {
         return newTask;
     }
 
+    /**
+     * Returns the header that starts a journal, which identifies the snapshot
+     * that the journal applies to.
+     *
+     * @param checksum Checksum of the snapshot.
+     * @return Header of the journal.
+     */
+    private static String getJournalHeader(long checksum) {
+        return JOURNAL_HEADER_TYPE + DIVIDER + Long.toHexString(checksum);
+    }
+
+    /**
+     * Returns the journal record representing the given mutation. For the binary format,
+     * added tasks are recorded in binary, encoded in Base64, so that their names are kept intact.
+     *
+     * @param mutation Mutation to be recorded.
+     * @return Journal record, without a line terminator.
+     */
+    private String encodeMutation(TaskMutation mutation) {
+        switch (mutation.getType()) {
+        case ADD:
+            if (this.format == Format.BINARY) {
+                return BINARY_ADD_RECORD_TYPE + DIVIDER + encodeBinaryTask(mutation.getTask());
+            }
+            return ADD_RECORD_TYPE + DIVIDER + mutation.getTask().getSavableString();
+        case MARK:
+            return MARK_RECORD_TYPE + DIVIDER + mutation.getIndex();
+        case UNMARK:
+            return UNMARK_RECORD_TYPE + DIVIDER + mutation.getIndex();
+        case DELETE:
+            return DELETE_RECORD_TYPE + DIVIDER + mutation.getIndex();
+        default:
+            throw new AssertionError("Unknown type of mutation: " + mutation.getType());
+        }
+    }
+
+    /**
+     * Returns the given task in the binary save format, encoded in Base64.
+     *
+     * @param task Task to be encoded.
+     * @return Encoded task.
+     */
+    private static String encodeBinaryTask(Task task) {
+        return Base64.getEncoder().encodeToString(BinaryTaskFile.encodeTask(task));
+    }
+
+    /**
+     * Returns the task encoded by <code>encodeBinaryTask</code>.
+     *
+     * @param encodedTask Encoded task.
+     * @return Task decoded.
+     * @throws IllegalArgumentException If the encoded task is invalid.
+     */
+    private static Task decodeBinaryTask(String encodedTask) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encodedTask));
+        try {
+            Task task = BinaryTaskFile.readTask(buffer);
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Invalid records in task journal");
+            }
+            return task;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Invalid records in task journal");
+        }
+    }
+
+    /**
+     * Returns the mutation represented by the given journal record.
+     *
+     * @param record Journal record, without a line terminator.
+     * @return Mutation recorded.
+     * @throws ParserException If the dates of an added task cannot be parsed.
+     * @throws IllegalArgumentException If the record is invalid.
+     */
+    private TaskMutation decodeMutation(String record) throws ParserException {
+        String[] recordDetails = record.split(" \\| ", 2);
+        switch (recordDetails[0]) {
+        case ADD_RECORD_TYPE:
+            return TaskMutation.ofAddition(this.createTask(this.getTaskDetails(recordDetails[1])));
+        case BINARY_ADD_RECORD_TYPE:
+            return TaskMutation.ofAddition(decodeBinaryTask(recordDetails[1]));
+        case MARK_RECORD_TYPE:
+            return TaskMutation.ofStatusChange(Integer.parseInt(recordDetails[1]), true);
+        case UNMARK_RECORD_TYPE:
+            return TaskMutation.ofStatusChange(Integer.parseInt(recordDetails[1]), false);
+        case DELETE_RECORD_TYPE:
+            return TaskMutation.ofDeletion(Integer.parseInt(recordDetails[1]));
+        default:
+            throw new IllegalArgumentException("Invalid records in task journal");
+        }
+    }
+
+    /**
+     * Returns the task list obtained by loading the tasks from the snapshot.
+     * Also records the checksum of the snapshot, or the slot of each task in the
+     * record format. With lazy loading, the tasks are only decoded from the snapshot
+     * when they are first accessed. Damaged lines, or damaged blocks when every task
+     * is loaded upfront, are skipped, then added to the given list and moved to the quarantine file.
+     *
+     * @param snapshotFile Task file to be loaded.
+     * @param damage       List to add the damaged parts of the snapshot to.
+     * @return Task list containing the tasks in the snapshot.
+     * @throws IOException If the snapshot cannot be read, or the quarantine file cannot be written.
+     * @throws IllegalArgumentException If the snapshot is incorrectly formatted beyond recovery.
+     */
+    private TaskTracker loadSnapshot(File snapshotFile, List<DamagedRegion> damage) throws IOException {
+        // lazily loaded tasks keep the contents for the whole run, while the task file is replaced by saves
+        ByteBuffer buffer = MappedTaskLoader.readFile(snapshotFile.toPath(), !this.isLazy);
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate());
+        this.snapshotChecksum = checksum.getValue();
+        if (this.format == Format.RECORDS) {
+            this.recordCapacity = RecordTaskFile.getCapacity(buffer);
+            this.numOfRecords = RecordTaskFile.getNumOfRecords(buffer);
+            this.recordSlots.clear();
+            for (int slot : RecordTaskFile.indexTasks(buffer)) {
+                this.recordSlots.add(slot);
+            }
+            this.numOfDeletedRecords = this.numOfRecords - this.recordSlots.size();
+        }
+
+        TaskTracker taskTracker = this.isLazy
+                ? new TaskTracker(LazyTaskFile.of(buffer, this.format, damage))
+                : new TaskTracker(recoverTasks(buffer, this.format, damage));
+        if (!damage.isEmpty()) {
+            this.quarantineSnapshot(buffer, damage);
+        }
+        return taskTracker;
+    }
+
+    /**
+     * Returns the tasks in the given buffer, which holds a whole task file in the given format.
+     *
+     * @param buffer Contents of the task file.
+     * @param format Format of the task file.
+     * @return Tasks saved in the file, in order.
+     * @throws IllegalArgumentException If the file is incorrectly formatted.
+     */
+    private static ArrayList<Task> readTasks(ByteBuffer buffer, Format format) {
+        switch (format) {
+        case TEXT:
+            return MappedTaskLoader.read(buffer);
+        case BINARY:
+            return BinaryTaskFile.read(buffer);
+        case RECORDS:
+            return RecordTaskFile.read(buffer);
+        default:
+            throw new AssertionError("Unknown format: " + format);
+        }
+    }
+
+    /**
+     * Returns the tasks in the given buffer, which holds a whole task file in the given format,
+     * skipping the damaged lines of a text file or the damaged blocks of a binary file.
+     * Each part skipped is added to the given list.
+     *
+     * @param buffer Contents of the task file.
+     * @param format Format of the task file.
+     * @param damage List to add the skipped parts to.
+     * @return Tasks saved in the intact parts of the file, in order.
+     * @throws IllegalArgumentException If the file is incorrectly formatted beyond recovery.
+     */
+    private static ArrayList<Task> recoverTasks(ByteBuffer buffer, Format format, List<DamagedRegion> damage) {
+        switch (format) {
+        case TEXT:
+            return MappedTaskLoader.recover(buffer, damage);
+        case BINARY:
+            return BinaryTaskFile.recover(buffer, damage);
+        case RECORDS:
+            // records are updated in place, so there are no blocks to recover from
+            return RecordTaskFile.read(buffer);
+        default:
+            throw new AssertionError("Unknown format: " + format);
+        }
+    }
+
+    /**
+     * Appends the given damaged parts of the snapshot to the quarantine file, each after
+     * a line describing it. Parts of a binary file are encoded in Base64.
+     *
+     * @param buffer Contents of the snapshot.
+     * @param damage Damaged parts of the snapshot.
+     * @throws IOException If the quarantine file cannot be written.
+     */
+    private void quarantineSnapshot(ByteBuffer buffer, List<DamagedRegion> damage) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (DamagedRegion region : damage) {
+            byte[] regionBytes = new byte[region.getEnd() - region.getStart()];
+            buffer.get(region.getStart(), regionBytes);
+            if (this.format == Format.BINARY) {
+                regionBytes = Base64.getEncoder().encode(regionBytes);
+            }
+
+            bytes.writeBytes(("# " + region.getLocation() + ": " + region.getReason() + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            bytes.writeBytes(regionBytes);
+            if (regionBytes.length == 0 || regionBytes[regionBytes.length - 1] != '\n') {
+                bytes.write('\n');
+            }
+        }
+        this.appendToQuarantine(bytes.toByteArray());
+    }
+
+    /**
+     * Appends the given bytes to the quarantine file.
+     *
+     * @param bytes Bytes to be appended.
+     * @throws IOException If the quarantine file cannot be written.
+     */
+    private void appendToQuarantine(byte[] bytes) throws IOException {
+        this.writeToChannel(this.quarantinePath, bytes, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        if (this.syncPolicy != SyncPolicy.NEVER) {
+            this.syncFile(this.quarantinePath);
+        }
+    }
+
+    /**
+     * Appends the journal to the quarantine file, instead of replaying it. The records in
+     * the journal refer to tasks by their positions, which cannot be relied upon once
+     * parts of the snapshot are lost, or once the snapshot has been replaced.
+     *
+     * @param reason Reason for which the journal is not replayed.
+     * @throws IOException If the journal cannot be read, or the quarantine file cannot be written.
+     */
+    private void quarantineJournal(String reason) throws IOException {
+        for (Path path : List.of(this.journalPath, this.compactedJournalPath)) {
+            if (Files.exists(path)) {
+                this.appendToQuarantine(("# " + path.getFileName() + ": not replayed, as " + reason + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+                this.appendToQuarantine(Files.readAllBytes(path));
+            }
+        }
+    }
+
+    /**
+     * Returns the warning shown upon loading a task file with the given damaged parts.
+     *
+     * @param damage     Damaged parts of the task file.
+     * @param hasJournal Whether the journal was moved to the quarantine file as well.
+     * @return Warning listing the damaged parts.
+     */
+    private String getLoadWarning(List<DamagedRegion> damage, boolean hasJournal) {
+        StringBuilder sb = new StringBuilder("Some parts of the saved task file are damaged, "
+                + "and could not be loaded:");
+        for (DamagedRegion region : damage.subList(0, Math.min(damage.size(), MAX_LISTED_DAMAGED_REGIONS))) {
+            sb.append("\n- ").append(region.getLocation()).append(": ").append(region.getReason());
+        }
+        if (damage.size() > MAX_LISTED_DAMAGED_REGIONS) {
+            sb.append("\n... and ").append(damage.size() - MAX_LISTED_DAMAGED_REGIONS).append(" more");
+        }
+
+        sb.append("\nThese parts have been moved to ").append(this.quarantinePath)
+                .append(", and every other task has been loaded.");
+        if (hasJournal) {
+            sb.append("\nThe changes saved since the last full save have been moved there as well, "
+                    + "as they cannot be applied to the damaged file.");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the warning about the damaged parts of the task file found by the
+     * last load, if any. The damaged parts are left out of the loaded task list.
+     *
+     * @return Warning about the damaged parts, or an empty <code>Optional</code>
+     *         if the whole task file was loaded.
+     */
+    @Override
+    public Optional<String> getLoadWarning() {
+        return Optional.ofNullable(this.loadWarning);
+    }
+
+    /**
+     * Returns true if the journal at the given path exists and starts with the given header.
+     *
+     * @param path   Path to the journal.
+     * @param header Expected header of the journal.
+     * @return Whether the journal has the expected header.
+     * @throws IOException If the journal cannot be read.
+     */
+    private static boolean hasJournalHeader(Path path, String header) throws IOException {
+        if (!Files.exists(path)) {
+            return false;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return header.equals(reader.readLine());
+        }
+    }
+
+    /**
+     * Returns the task list obtained by replaying every record in the journal
+     * on top of the given task list, which was loaded from the snapshot.
+     * If the journal was written for another snapshot, such as when the task file
+     * has been edited while the app was closed, its records cannot be applied. Hence,
+     * the journal is moved to the quarantine file instead, and a warning is returned
+     * by <code>getLoadWarning</code>.
+     *
+     * @param taskTracker Task list loaded from the snapshot.
+     * @return Task list after replaying the journal.
+     * @throws IOException If the journal cannot be read.
+     * @throws ParserException If the dates of an added task cannot be parsed.
+     * @throws TaskTrackerException If a record refers to a task index that does not exist.
+     */
+    private TaskTracker replayJournal(TaskTracker taskTracker)
+            throws IOException, ParserException, TaskTrackerException {
+        String header = getJournalHeader(this.snapshotChecksum);
+        if (!hasJournalHeader(this.journalPath, header)) {
+            if (!hasJournalHeader(this.compactedJournalPath, header)) {
+                this.discardOutdatedJournal();
+                return taskTracker;
+            }
+
+            // the app stopped midway through a compaction, right after replacing the snapshot
+            this.replaceFile(this.compactedJournalPath, this.journalPath);
+        }
+
+        byte[] journalBytes = Files.readAllBytes(this.journalPath);
+
+        // only replay complete records, as the app may have stopped midway through an append
+        int completeLength = journalBytes.length;
+        while (completeLength > 0 && journalBytes[completeLength - 1] != '\n') {
+            completeLength--;
+        }
+        String[] records = new String(journalBytes, 0, completeLength, StandardCharsets.UTF_8).split("\n");
+
+        if (!records[0].equals(header)) {
+            return taskTracker;
+        }
+
+        for (int i = 1; i < records.length; i++) {
+            taskTracker = this.decodeMutation(records[i]).applyTo(taskTracker);
+        }
+
+        // discard the incomplete record, so that new records are appended after the last complete one
+        if (completeLength < journalBytes.length) {
+            try (FileChannel journalChannel = FileChannel.open(this.journalPath, StandardOpenOption.WRITE)) {
+                journalChannel.truncate(completeLength);
+            }
+        }
+
+        this.hasStartedJournal = true;
+        this.numOfJournalRecords = records.length - 1;
+        this.journalLength = completeLength;
+        return taskTracker;
+    }
+
+    /**
+     * Moves a journal which does not apply to the current snapshot to the quarantine file,
+     * then deletes it, so that it is not found again upon the next load.
+     *
+     * @throws IOException If the journal cannot be read or deleted, or the quarantine file cannot be written.
+     */
+    private void discardOutdatedJournal() throws IOException {
+        if (getFileLength(this.journalPath) + getFileLength(this.compactedJournalPath) == 0) {
+            // the app stopped before anything was written to a new journal
+            return;
+        }
+
+        this.quarantineJournal("it was written for another version of the task file");
+        Files.deleteIfExists(this.journalPath);
+        Files.deleteIfExists(this.compactedJournalPath);
+        this.loadWarning = "The changes saved since the last full save could not be applied, "
+                + "as the task file has been replaced since, such as by an edit while the app was closed."
+                + "\nThese changes have been moved to " + this.quarantinePath
+                + ", and the task file has been loaded as it is.";
+    }
+
+    /**
+     * Returns the length of the file at the given path, or 0 if there is no such file.
+     *
+     * @param path Path to the file.
+     * @return Length of the file, in bytes.
+     * @throws IOException If the length of the file cannot be read.
+     */
+    private static long getFileLength(Path path) throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
     /**
      * Returns a <code>TaskTracker</code> object containing
-     * a list of loaded tasks from the disk.
+     * a list of loaded tasks from the disk. In journal mode, the records in
+     * the journal are replayed on top of the tasks loaded from the task file.
+     * If only parts of the task file are damaged, the rest of the tasks are loaded,
+     * and a warning about the damaged parts is returned by <code>getLoadWarning</code>.
      *
      * @return <code>TaskTracker</code> object with a list of existing tasks from previous runs.
      * @throws FileNotFoundException If there is no existing file
@@ -186,46 +747,970 @@ public class Storage {
      * @throws StorageException      If the task file is incorrectly formatted
      *                               or corrupted.
      */
+    @Override
     public TaskTracker loadSavedTasks() throws FileNotFoundException, StorageException {
+        File snapshotFile = new File(this.filePath);
+        boolean hasJournal = this.isJournalled
+                && (Files.exists(this.journalPath) || Files.exists(this.compactedJournalPath));
+        if (!snapshotFile.exists() && !hasJournal) {
+            throw new FileNotFoundException(this.filePath + " does not exist");
+        }
+
+        synchronized (this.journalLock) {
+            try {
+                List<DamagedRegion> damage = new ArrayList<>();
+                TaskTracker taskTracker = snapshotFile.exists()
+                        ? this.loadSnapshot(snapshotFile, damage)
+                        : new TaskTracker();
+
+                // a damaged snapshot is replaced by the next save, along with its journal
+                this.hasValidSnapshot = snapshotFile.exists() && damage.isEmpty();
+                this.snapshotTaskTracker = this.hasValidSnapshot ? taskTracker : null;
+                this.loadWarning = null;
+                if (!damage.isEmpty()) {
+                    if (hasJournal) {
+                        this.quarantineJournal("the task file is damaged");
+                    }
+                    this.loadWarning = this.getLoadWarning(damage, hasJournal);
+                } else if (hasJournal) {
+                    taskTracker = this.replayJournal(taskTracker);
+                }
+
+                this.savedTaskTracker = taskTracker;
+                return taskTracker;
+            } catch (ArrayIndexOutOfBoundsException | ParserException | IllegalArgumentException
+                     | TaskTrackerException ex) {
+                throw new StorageException("Something went wrong loading the saved task file: "
+                        + ex.getMessage()
+                        + "\nThe file might be corrupted (ie. wrongly formatted)."
+                        + "\nAn empty task list will be initialised.");
+            } catch (IOException ex) {
+                throw new StorageException("Something went wrong loading the saved tasks: "
+                        + ex.getMessage()
+                        + "\nAn empty task list will be initialised.");
+            }
+        }
+    }
+
+    /**
+     * Writes the given list of tasks to the given path in the given format, and returns
+     * the checksum of the written file. The tasks are written one at a time, straight into
+     * a fixed-size buffer which is written to the file whenever it fills up. Hence, the
+     * memory used by a save does not grow with the size of the file. In the text format,
+     * only the tasks which changed since the previous save are encoded again.
+     *
+     * @param taskTracker List of tasks to be written.
+     * @param path        Path to write the tasks to.
+     * @param format      Format to write the tasks in.
+     * @return Checksum of the written file.
+     * @throws IOException If the file cannot be written.
+     */
+    private long writeSnapshot(TaskTracker taskTracker, Path path, Format format) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            // each task is written straight into the buffer of the writer, one at a time
+            ChannelWriter writer = new ChannelWriter(channel);
+            switch (format) {
+            case TEXT:
+                taskTracker.writeSavableTasks(writer);
+                break;
+            case BINARY:
+                BinaryTaskFile.write(taskTracker, new DataOutputStream(writer));
+                break;
+            case RECORDS:
+                // records are written out of order, so they are left out of the checksum, as there is no journal
+                RecordTaskFile.write(taskTracker, channel, RecordTaskFile.getNewCapacity(taskTracker.getNumOfTasks()));
+                break;
+            default:
+                throw new AssertionError("Unknown format: " + format);
+            }
+            writer.flush();
+
+            // the snapshot must be on the disk before it replaces the current one
+            if (this.syncPolicy != SyncPolicy.NEVER) {
+                channel.force(false);
+            }
+            return writer.getChecksum();
+        }
+    }
+
+    /**
+     * Writes the given bytes to a new file at the given path, replacing any existing file.
+     *
+     * @param path  Path to write the bytes to.
+     * @param bytes Bytes to be written.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeFile(Path path, byte[] bytes) throws IOException {
+        this.writeToChannel(path, bytes, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        if (this.syncPolicy != SyncPolicy.NEVER) {
+            this.syncFile(path);
+        }
+    }
+
+    /**
+     * Writes all of the given bytes to the file at the given path, opened with the given options.
+     *
+     * @param path    Path to the file.
+     * @param bytes   Bytes to be written.
+     * @param options Options for opening the file.
+     * @throws IOException If the file cannot be written.
+     */
+    private void writeToChannel(Path path, byte[] bytes, OpenOption... options) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Forces the contents of the file at the given path onto the disk.
+     *
+     * @param path Path to the file.
+     * @throws IOException If the file cannot be forced onto the disk.
+     */
+    private void syncFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Moves the file at the given path onto the target path with an atomic rename,
+     * replacing the target. The rename itself is then forced onto the disk, if
+     * the sync policy requires it.
+     *
+     * @param source Path to the file to be moved.
+     * @param target Path to move the file to.
+     * @throws IOException If the file cannot be moved.
+     */
+    private void replaceFile(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        if (this.syncPolicy == SyncPolicy.NEVER) {
+            return;
+        }
+
+        try (FileChannel folderChannel = FileChannel.open(target.toAbsolutePath().getParent(),
+                StandardOpenOption.READ)) {
+            folderChannel.force(true);
+        } catch (IOException ex) {
+            // some platforms cannot open folders, in which case the rename is left to the operating system
+        }
+    }
+
+    /**
+     * Appends the given bytes to the journal, or starts a new journal with them, then
+     * forces the journal onto the disk according to the sync policy.
+     * Must be called while holding the journal lock.
+     *
+     * @param bytes        Bytes to be written.
+     * @param isNewJournal Whether the bytes start a new journal, replacing any existing one.
+     * @throws IOException If the journal cannot be written.
+     */
+    private void writeToJournal(byte[] bytes, boolean isNewJournal) throws IOException {
+        if (isNewJournal) {
+            this.writeToChannel(this.journalPath, bytes, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } else {
+            this.writeToChannel(this.journalPath, bytes, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        }
+        this.syncUpdatedFile();
+    }
+
+    /**
+     * Forces the file updated by each change onto the disk according to the sync policy. This is
+     * the journal, or the task file itself in the record format. Under the interval policy, writes
+     * made within the same interval are forced onto the disk together.
+     * Must be called while holding the journal lock.
+     *
+     * @throws IOException If the file cannot be forced onto the disk.
+     */
+    private void syncUpdatedFile() throws IOException {
+        switch (this.syncPolicy) {
+        case EVERY_WRITE:
+            this.syncFile(this.updatedPath);
+            break;
+        case INTERVAL:
+            long nanosSinceSync = System.nanoTime() - this.lastJournalSyncNanos;
+            if (nanosSinceSync >= this.syncIntervalNanos) {
+                this.syncJournal();
+            } else if (!this.isJournalSyncScheduled) {
+                // force this write onto the disk together with any others before the interval ends
+                this.isJournalSyncScheduled = true;
+                this.syncer.schedule(this::syncJournalLater, this.syncIntervalNanos - nanosSinceSync,
+                        TimeUnit.NANOSECONDS);
+            }
+            break;
+        case NEVER:
+            break;
+        default:
+            throw new AssertionError("Unknown sync policy: " + this.syncPolicy);
+        }
+    }
+
+    /**
+     * Forces the journal, or the task file in the record format, onto the disk, if it exists.
+     * Must be called while holding the journal lock.
+     *
+     * @throws IOException If the file cannot be forced onto the disk.
+     */
+    private void syncJournal() throws IOException {
+        this.lastJournalSyncNanos = System.nanoTime();
+        if (Files.exists(this.updatedPath)) {
+            this.syncFile(this.updatedPath);
+        }
+    }
+
+    /**
+     * Forces the journal, or the task file in the record format, onto the disk at the end
+     * of an interval, together with every write made within the interval. Runs on the background syncer.
+     */
+    private void syncJournalLater() {
+        synchronized (this.journalLock) {
+            this.isJournalSyncScheduled = false;
+            try {
+                this.syncJournal();
+            } catch (IOException ex) {
+                // the appends remain with the operating system, which writes them to the disk eventually
+            }
+        }
+    }
+
+    /**
+     * Returns the given task list, updated with the edits made to the task file by other
+     * programs since it was last loaded or saved. Only text files can be edited by other
+     * programs, so the task list is returned unchanged in any other format.
+     * The hash of each line of the edited file is compared against the tasks in the snapshot,
+     * so only the lines which were edited are decoded. Changes saved to the journal since the
+     * snapshot are kept, unless they changed the same tasks as the edit, in which case the edit wins.
+     * If the journal has been started, the updated task list is saved in full, as the journal
+     * no longer applies to the edited snapshot. Otherwise, nothing has to be written.
+     *
+     * @param taskTracker Current list of tasks recorded.
+     * @return Task list with the edits applied, or the given task list if the task file is unchanged.
+     * @throws StorageException If the task file cannot be read, is incorrectly formatted, or the
+     *                          updated task list cannot be saved.
+     */
+    @Override
+    public TaskTracker reloadChangedTasks(TaskTracker taskTracker) throws StorageException {
+        if (this.format != Format.TEXT) {
+            return taskTracker;
+        }
+        if (this.isWriteBehind) {
+            // pending changes apply to the task file as it was before the edit
+            this.awaitWriter();
+        }
+
+        synchronized (this.journalLock) {
+            try {
+                if (!Files.exists(this.snapshotPath)) {
+                    return taskTracker;
+                }
+                ByteBuffer buffer = MappedTaskLoader.readFile(this.snapshotPath);
+                CRC32 checksum = new CRC32();
+                checksum.update(buffer.duplicate());
+                if (checksum.getValue() == this.snapshotChecksum) {
+                    // the task file was last written by this storage
+                    return taskTracker;
+                }
+
+                // without a valid snapshot, the edit is compared against the current task list instead
+                TaskTracker snapshotTaskTracker = this.snapshotTaskTracker != null
+                        ? this.snapshotTaskTracker
+                        : taskTracker;
+                int[] lineStarts = MappedTaskLoader.indexLines(buffer);
+                long[] snapshotHashes = snapshotTaskTracker.getSavableLineHashes();
+                long[] editedHashes = MappedTaskLoader.hashLines(buffer, lineStarts);
+                List<LineChange> edits = LineChange.of(snapshotHashes, editedHashes);
+                List<LineChange> changes = snapshotTaskTracker == taskTracker
+                        ? List.of()
+                        : LineChange.of(snapshotHashes, taskTracker.getSavableLineHashes());
+                TaskTracker reloadedTaskTracker = applyEdits(taskTracker, edits, changes, buffer, lineStarts);
+
+                if (this.hasStartedJournal || !changes.isEmpty()) {
+                    this.writeTasks(reloadedTaskTracker);
+                } else {
+                    // the task file already holds the reloaded task list
+                    this.snapshotChecksum = checksum.getValue();
+                    this.snapshotTaskTracker = reloadedTaskTracker;
+                    this.snapshotVersion++;
+                    this.hasValidSnapshot = true;
+                }
+                return reloadedTaskTracker;
+            } catch (IllegalArgumentException | TaskTrackerException ex) {
+                throw new StorageException("Something went wrong reloading the edited task file: "
+                        + ex.getMessage()
+                        + "\nThe edit is not loaded, until the file is correctly formatted.");
+            } catch (IOException ex) {
+                throw new StorageException("Something went wrong reloading the edited task file: "
+                        + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the current task list, with the edits made to the snapshot by another program
+     * applied. Each range of lines changed by the edit is located within the current task list
+     * by skipping the ranges changed since the snapshot which come before it. Ranges changed by
+     * both are merged, and the lines of the edited file replace every task changed by either
+     * of them, while every other change made since the snapshot is kept.
+     *
+     * @param taskTracker Current list of tasks recorded.
+     * @param edits       Ranges of lines of the snapshot changed by the edit, in file order.
+     * @param changes     Ranges of lines of the snapshot changed since it was written, in file order.
+     * @param buffer      Contents of the edited file.
+     * @param lineStarts  Start of each line of the edited file.
+     * @return Task list with the edits applied.
+     * @throws TaskTrackerException If the edits do not fit within the current task list.
+     * @throws IllegalArgumentException If an edited line is incorrectly formatted.
+     */
+    private static TaskTracker applyEdits(TaskTracker taskTracker, List<LineChange> edits, List<LineChange> changes,
+            ByteBuffer buffer, int[] lineStarts) throws TaskTrackerException {
+        // each replacement holds its range in the current task list, then its range in the edited file
+        List<int[]> replacements = new ArrayList<>();
+        int editOffset = 0;
+        int changeOffset = 0;
+        int editIndex = 0;
+        int changeIndex = 0;
+        while (editIndex < edits.size() || changeIndex < changes.size()) {
+            boolean isEditFirst = changeIndex == changes.size()
+                    || (editIndex < edits.size() && edits.get(editIndex).comesBefore(changes.get(changeIndex)));
+            LineChange first = isEditFirst ? edits.get(editIndex) : changes.get(changeIndex);
+            int start = first.getOldStart();
+            int end = first.getOldEnd();
+            int startInTaskList = start + changeOffset;
+            int startInEdit = start + editOffset;
+
+            // gather every range overlapping the group, which may grow with each range gathered
+            boolean hasEdit = false;
+            boolean isGathering = true;
+            while (isGathering) {
+                isGathering = false;
+                if (editIndex < edits.size() && (edits.get(editIndex) == first
+                        || edits.get(editIndex).overlaps(start, end))) {
+                    LineChange edit = edits.get(editIndex++);
+                    end = Math.max(end, edit.getOldEnd());
+                    editOffset += edit.getLengthChange();
+                    hasEdit = true;
+                    isGathering = true;
+                }
+                if (changeIndex < changes.size() && (changes.get(changeIndex) == first
+                        || changes.get(changeIndex).overlaps(start, end))) {
+                    LineChange change = changes.get(changeIndex++);
+                    end = Math.max(end, change.getOldEnd());
+                    changeOffset += change.getLengthChange();
+                    isGathering = true;
+                }
+            }
+
+            // ranges changed only since the snapshot are already in the current task list
+            if (hasEdit) {
+                replacements.add(new int[] {startInTaskList, end + changeOffset, startInEdit, end + editOffset});
+            }
+        }
+
+        // replaced from the end, so that the ranges before each replacement stay in place
+        for (int i = replacements.size() - 1; i >= 0; i--) {
+            int[] replacement = replacements.get(i);
+            List<Task> editedTasks = new ArrayList<>(replacement[3] - replacement[2]);
+            for (int line = replacement[2]; line < replacement[3]; line++) {
+                editedTasks.add(MappedTaskLoader.readLine(buffer, lineStarts[line], line + 1));
+            }
+            taskTracker = taskTracker.replaceTasks(replacement[0], replacement[1], editedTasks);
+        }
+        return taskTracker;
+    }
+
+    /**
+     * Returns a <code>TaskTracker</code> object containing the tasks in the
+     * file at the given path, which is in the given task file format, which need not be the
+     * format of the task file. Tasks are imported from other apps by <code>TaskExchange</code> instead.
+     *
+     * @param path   Path to the file to be read.
+     * @param format Format of the file.
+     * @return <code>TaskTracker</code> object with the tasks in the file.
+     * @throws StorageException If the file cannot be read, or is incorrectly formatted.
+     */
+    TaskTracker readTaskFile(String path, Format format) throws StorageException {
+        try {
+            return new TaskTracker(readTasks(MappedTaskLoader.readFile(Paths.get(path)), format));
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new StorageException("Something went wrong reading the tasks from "
+                    + path + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given list of tasks to the file at the given path, in the given task file format,
+     * which need not be the format of the task file. Tasks are exported to other apps by
+     * <code>TaskExchange</code> instead.
+     *
+     * @param taskTracker List of tasks to be written.
+     * @param path        Path to the file to be written.
+     * @param format      Format of the file.
+     * @throws StorageException If the file cannot be written.
+     */
+    void writeTaskFile(TaskTracker taskTracker, String path, Format format) throws StorageException {
         try {
-            File f = new File(this.filePath);
-            Scanner fileScanner = new Scanner(f);
+            this.writeSnapshot(taskTracker, Paths.get(path), format);
+        } catch (IOException ex) {
+            throw new StorageException("Something went wrong writing the tasks to "
+                    + path + ": " + ex.getMessage());
+        }
+    }
 
-            ArrayList<Task> loadedTasks = new ArrayList<>();
-            while (fileScanner.hasNextLine()) {
-                String[] taskDetails = this.getTaskDetails(fileScanner);
-                Task newTask = this.createTask(taskDetails);
-                loadedTasks.add(newTask);
+    /**
+     * Appends the tasks in the given list to the archive, which is compressed with GZIP.
+     * Each task is saved as a journal record adding the task. The archive is written before
+     * the tasks are removed from the task file, so that a failure leaves the tasks in at least
+     * one of the two files.
+     *
+     * @param archivedTasks Tasks to be archived.
+     * @throws StorageException If the archive cannot be written.
+     */
+    @Override
+    public void archiveTasks(TaskTracker archivedTasks) throws StorageException {
+        try (FileChannel channel = FileChannel.open(this.archivePath, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            // each call appends a new GZIP member, which is read back as part of the same stream
+            try (GZIPOutputStream output = new GZIPOutputStream(new ChannelWriter(channel), ARCHIVE_BUFFER_SIZE)) {
+                for (Task task : (Iterable<Task>) () -> archivedTasks.streamTasks().iterator()) {
+                    output.write(this.encodeMutation(TaskMutation.ofAddition(task)).getBytes(StandardCharsets.UTF_8));
+                    output.write('\n');
+                }
             }
 
-            return new TaskTracker(loadedTasks);
-        } catch (ArrayIndexOutOfBoundsException | ParserException | IllegalArgumentException ex) {
-            throw new StorageException("Something went wrong loading the saved task file: "
-                    + ex.getMessage()
-                    + "\nThe file might be corrupted (ie. wrongly formatted)."
-                    + "\nAn empty task list will be initialised.");
+            if (this.syncPolicy != SyncPolicy.NEVER) {
+                channel.force(false);
+            }
+        } catch (IOException ex) {
+            throw new StorageException("Something went wrong archiving the tasks: " + ex.getMessage());
         }
     }
 
     /**
-     * Writes a list of tasks (provided in concatenated <code>String</code>
-     * format) to the disk.
+     * Returns a <code>TaskTracker</code> object containing the archived tasks whose
+     * records contain the given substring. The archive is decompressed and scanned in a
+     * single streaming pass, without holding the whole archive in memory. Records of the
+     * text format which do not contain the substring are skipped without being decoded.
+     * Records of the binary format are always decoded, so the caller should still match
+     * the task names against the substring.
      *
-     * @param textToWrite Concatenated <code>String</code> representing the current list
-     *                    of tasks recorded.
+     * @param substring Substring that the records must contain.
+     * @return <code>TaskTracker</code> object with the archived tasks found.
+     * @throws StorageException If the archive cannot be read, or is incorrectly formatted.
+     */
+    @Override
+    public TaskTracker loadArchivedTasks(String substring) throws StorageException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        if (!Files.exists(this.archivePath)) {
+            return new TaskTracker(tasks);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(
+                Files.newInputStream(this.archivePath), ARCHIVE_BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            String record;
+            while ((record = reader.readLine()) != null) {
+                if (record.startsWith(ADD_RECORD_TYPE + DIVIDER) && !record.contains(substring)) {
+                    continue;
+                }
+
+                TaskMutation mutation = this.decodeMutation(record);
+                if (mutation.getType() != TaskMutation.Type.ADD) {
+                    throw new IllegalArgumentException("Invalid records in task archive");
+                }
+                tasks.add(mutation.getTask());
+            }
+        } catch (IOException | ParserException | IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            throw new StorageException("Something went wrong searching the archived tasks: " + ex.getMessage());
+        }
+        return new TaskTracker(tasks);
+    }
+
+    /**
+     * Writes the given list of tasks to the disk. In journal mode, this starts
+     * a new, empty journal on top of the new snapshot. In write-behind mode,
+     * the tasks are written later by the background writer instead.
+     *
+     * @param taskTracker Current list of tasks recorded.
      * @throws StorageException If the task file cannot be saved due to an
-     *                          <code>IOException</code> being thrown.
+     *                          <code>IOException</code> being thrown, or if
+     *                          earlier changes could not be saved by the background writer.
+     */
+    @Override
+    public void saveTasks(TaskTracker taskTracker) throws StorageException {
+        if (this.isWriteBehind) {
+            this.enqueueWrite(null, taskTracker);
+        } else {
+            this.writeTasks(taskTracker);
+        }
+    }
+
+    /**
+     * Saves a single change that has been made to the task list. In journal mode,
+     * only a record of the change is appended to the journal, which takes constant
+     * time regardless of the number of tasks. Otherwise, the whole task list is saved.
+     * In write-behind mode, the change is saved later by the background writer instead.
+     *
+     * @param mutation           Change made to the task list.
+     * @param updatedTaskTracker Task list after the change.
+     * @throws StorageException If the change cannot be saved due to an
+     *                          <code>IOException</code> being thrown, or if
+     *                          earlier changes could not be saved by the background writer.
+     */
+    @Override
+    public void saveMutation(TaskMutation mutation, TaskTracker updatedTaskTracker) throws StorageException {
+        if (this.isWriteBehind) {
+            this.enqueueWrite(mutation, updatedTaskTracker);
+        } else {
+            this.writeMutations(List.of(mutation), updatedTaskTracker);
+        }
+    }
+
+    /**
+     * Waits for the background writer to save every pending change, in write-behind mode.
+     * Under the interval sync policy, the journal is also forced onto the disk immediately.
+     * Should be called before the app terminates.
+     *
+     * @throws StorageException If some changes could not be saved.
+     */
+    @Override
+    public void flush() throws StorageException {
+        if (this.isWriteBehind) {
+            this.awaitWriter();
+        }
+
+        if (this.syncPolicy == SyncPolicy.INTERVAL) {
+            synchronized (this.journalLock) {
+                try {
+                    this.syncJournal();
+                } catch (IOException ex) {
+                    throw new StorageException("Something went wrong when saving the tasks: "
+                            + ex.getMessage()
+                            + "\nHence, some recent changes might not be saved to disk.");
+                }
+            }
+        }
+    }
+
+    /**
+     * Saves every pending change, then stops the background threads of this storage.
+     * Waits for a compaction in progress to finish, so that it does not replace the
+     * task file and journal once they are used again. In journal mode, the journal is
+     * then folded into a full save, so that the task file holds every task while the
+     * app is closed, and can be edited or copied on its own. If the full save fails,
+     * the journal is kept instead.
+     *
+     * @throws StorageException If some changes could not be saved, or if interrupted
+     *                          while waiting for the compaction.
+     */
+    @Override
+    public void close() throws StorageException {
+        try {
+            this.flush();
+        } finally {
+            this.writer.shutdown();
+            this.syncer.shutdown();
+            this.compactor.shutdown();
+            this.awaitCompactor();
+        }
+
+        synchronized (this.journalLock) {
+            if (this.isJournalled && this.numOfJournalRecords > 0 && this.savedTaskTracker != null) {
+                try {
+                    this.writeTasks(this.savedTaskTracker);
+                } catch (StorageException ex) {
+                    // the journal still holds the changes, so they are replayed upon the next load
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the compactor to finish its compaction in progress, if any, once it has been shut down.
+     *
+     * @throws StorageException If interrupted while waiting.
      */
-    public void saveTasks(String textToWrite) throws StorageException {
+    private void awaitCompactor() throws StorageException {
         try {
-            // write to file
-            FileWriter fw = new FileWriter(this.filePath);
-            fw.write(textToWrite);
-            fw.close();
+            // the compaction writes the whole task list, which may take a while
+            this.compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while saving the tasks."
+                    + "\nHence, the task file might still be replaced after the app is closed.");
+        }
+    }
+
+    /**
+     * Waits for the background writer to save every pending change.
+     *
+     * @throws StorageException If some changes could not be saved by the background writer.
+     */
+    private void awaitWriter() throws StorageException {
+        try {
+            // the writer runs one task at a time, so this also waits for every earlier write
+            this.writer.submit(this::writePendingChanges).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while saving the tasks."
+                    + "\nHence, some recent changes might not be saved to disk.");
+        } catch (ExecutionException ex) {
+            throw new AssertionError("Background writer should not throw", ex);
+        }
+
+        synchronized (this.pendingLock) {
+            StorageException failure = this.pendingFailure;
+            this.pendingFailure = null;
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Hands a change to the background writer, which saves the latest task list.
+     * Changes handed over while the writer is busy are saved together in a single write.
+     * If an earlier write has failed, the failure is reported here, since it could not be
+     * reported to the command which made the change.
+     *
+     * @param mutation    Change made to the task list, or <code>null</code>
+     *                    if the whole task list is to be saved.
+     * @param taskTracker Task list after the change.
+     * @throws StorageException If earlier changes could not be saved by the background writer.
+     */
+    private void enqueueWrite(TaskMutation mutation, TaskTracker taskTracker) throws StorageException {
+        synchronized (this.pendingLock) {
+            if (mutation == null) {
+                this.isFullSavePending = true;
+                this.pendingMutations.clear();
+            } else if (!this.isFullSavePending) {
+                this.pendingMutations.add(mutation);
+            }
+            this.pendingTaskTracker = taskTracker;
+
+            if (!this.isWriteScheduled) {
+                this.isWriteScheduled = true;
+                this.writer.execute(this::writePendingChanges);
+            }
+
+            StorageException failure = this.pendingFailure;
+            this.pendingFailure = null;
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Saves every change that has been handed to the background writer so far.
+     * Runs on the background writer.
+     */
+    private void writePendingChanges() {
+        List<TaskMutation> mutations;
+        TaskTracker taskTracker;
+        boolean isFullSave;
+        synchronized (this.pendingLock) {
+            this.isWriteScheduled = false;
+            if (this.pendingTaskTracker == null) {
+                return;
+            }
+
+            mutations = new ArrayList<>(this.pendingMutations);
+            taskTracker = this.pendingTaskTracker;
+            isFullSave = this.isFullSavePending;
+            this.pendingMutations.clear();
+            this.pendingTaskTracker = null;
+            this.isFullSavePending = false;
+        }
+
+        try {
+            if (isFullSave) {
+                this.writeTasks(taskTracker);
+            } else {
+                this.writeMutations(mutations, taskTracker);
+            }
+        } catch (StorageException ex) {
+            synchronized (this.pendingLock) {
+                this.pendingFailure = new StorageException("Some recent changes could not be saved "
+                        + "in the background.\n" + ex.getMessage());
+
+                // the journal may have missed some changes, so the next write saves everything
+                this.isFullSavePending = true;
+                this.pendingMutations.clear();
+                if (this.pendingTaskTracker == null) {
+                    this.pendingTaskTracker = taskTracker;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the given list of tasks to the disk. In journal mode, this starts
+     * a new, empty journal on top of the new snapshot.
+     *
+     * @param taskTracker Current list of tasks recorded.
+     * @throws StorageException If the task file cannot be saved due to an
+     *                          <code>IOException</code> being thrown.
+     */
+    private void writeTasks(TaskTracker taskTracker) throws StorageException {
+        synchronized (this.journalLock) {
+            try {
+                // write to a temporary file first, so that the current snapshot survives a failed write
+                long checksum = this.writeSnapshot(taskTracker, this.temporarySnapshotPath, this.format);
+                this.replaceFile(this.temporarySnapshotPath, this.snapshotPath);
+                this.snapshotChecksum = checksum;
+                this.snapshotTaskTracker = taskTracker;
+                this.savedTaskTracker = taskTracker;
+                this.snapshotVersion++;
+                this.hasValidSnapshot = true;
+
+                if (this.format == Format.RECORDS) {
+                    // deleted records have been left out of the new file
+                    this.recordCapacity = RecordTaskFile.getNewCapacity(taskTracker.getNumOfTasks());
+                    this.numOfRecords = taskTracker.getNumOfTasks();
+                    this.numOfDeletedRecords = 0;
+                    this.recordSlots.clear();
+                    for (int slot = 0; slot < this.numOfRecords; slot++) {
+                        this.recordSlots.add(slot);
+                    }
+                }
+
+                // the previous journal has been folded into the new snapshot
+                if (this.isJournalled) {
+                    this.hasStartedJournal = false;
+                    this.numOfJournalRecords = 0;
+                    this.journalLength = 0;
+                    Files.deleteIfExists(this.journalPath);
+                }
+            } catch (IOException ex) {
+                throw new StorageException("Something went wrong when saving the tasks: "
+                        + ex.getMessage()
+                        + "\nHence, the tasks are not being saved to disk.");
+            }
+        }
+    }
+
+    /**
+     * Saves the given changes that have been made to the task list. In journal mode,
+     * the records of all the changes are appended to the journal in a single write.
+     * In the record format, the changes are written into the task file in place.
+     * Otherwise, the whole task list is saved.
+     *
+     * @param mutations          Changes made to the task list, in order.
+     * @param updatedTaskTracker Task list after the changes.
+     * @throws StorageException If the changes cannot be saved due to an
+     *                          <code>IOException</code> being thrown.
+     */
+    private void writeMutations(List<TaskMutation> mutations, TaskTracker updatedTaskTracker)
+            throws StorageException {
+        synchronized (this.journalLock) {
+            boolean isUpdatedInPlace = this.format == Format.RECORDS;
+            if (!(this.isJournalled || isUpdatedInPlace) || !this.hasValidSnapshot) {
+                // the journal and the records need a valid snapshot to be applied to
+                this.writeTasks(updatedTaskTracker);
+                return;
+            } else if (isUpdatedInPlace) {
+                this.updateRecords(mutations, updatedTaskTracker);
+                return;
+            }
+
+            List<String> records = new ArrayList<>();
+            StringBuilder journal = new StringBuilder();
+            if (!this.hasStartedJournal) {
+                // start a new journal for the current snapshot, replacing any outdated journal
+                journal.append(getJournalHeader(this.snapshotChecksum)).append('\n');
+            }
+            for (TaskMutation mutation : mutations) {
+                String record = this.encodeMutation(mutation) + "\n";
+                records.add(record);
+                journal.append(record);
+            }
+
+            byte[] journalBytes = journal.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                this.writeToJournal(journalBytes, !this.hasStartedJournal);
+                if (this.hasStartedJournal) {
+                    this.journalLength += journalBytes.length;
+                } else {
+                    this.hasStartedJournal = true;
+                    this.journalLength = journalBytes.length;
+                }
+            } catch (IOException ex) {
+                // the journal may have missed the changes, or end in a torn record, so the next change is saved in full
+                this.hasValidSnapshot = false;
+                throw new StorageException("Something went wrong when saving the tasks: "
+                        + ex.getMessage()
+                        + "\nHence, the latest change is not being saved to disk.");
+            }
+            this.numOfJournalRecords += records.size();
+            this.savedTaskTracker = updatedTaskTracker;
+
+            if (this.recordsSinceCompaction != null) {
+                this.recordsSinceCompaction.addAll(records);
+            } else if (this.numOfJournalRecords > this.compactionRecordLimit
+                    || this.journalLength > COMPACTION_LENGTH_LIMIT) {
+                this.startCompaction(updatedTaskTracker);
+            }
+        }
+    }
+
+    /**
+     * Writes the given changes into the task file in the record format, in place. A change
+     * in the status of a task, or its deletion, only rewrites the status of its record, while
+     * a new task is appended to the file. The whole file is only rewritten once there is no
+     * room for new records, or too many records have been deleted.
+     * Must be called while holding the journal lock.
+     *
+     * @param mutations          Changes made to the task list, in order.
+     * @param updatedTaskTracker Task list after the changes.
+     * @throws StorageException If the changes cannot be saved due to an
+     *                          <code>IOException</code> being thrown.
+     */
+    private void updateRecords(List<TaskMutation> mutations, TaskTracker updatedTaskTracker)
+            throws StorageException {
+        long numOfAdditions = mutations.stream()
+                .filter(mutation -> mutation.getType() == TaskMutation.Type.ADD)
+                .count();
+        long numOfDeletions = mutations.stream()
+                .filter(mutation -> mutation.getType() == TaskMutation.Type.DELETE)
+                .count();
+        if (this.numOfRecords + numOfAdditions > this.recordCapacity
+                || this.numOfDeletedRecords + numOfDeletions > this.compactionRecordLimit) {
+            this.writeTasks(updatedTaskTracker);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(this.snapshotPath, StandardOpenOption.WRITE)) {
+            int nextSlot = this.numOfRecords;
+            for (TaskMutation mutation : mutations) {
+                switch (mutation.getType()) {
+                case ADD:
+                    RecordTaskFile.appendTask(channel, nextSlot, mutation.getTask());
+                    this.recordSlots.add(nextSlot);
+                    nextSlot++;
+                    break;
+                case MARK:
+                    RecordTaskFile.writeStatus(channel, this.recordSlots.get(mutation.getIndex()),
+                            RecordTaskFile.DONE_STATUS);
+                    break;
+                case UNMARK:
+                    RecordTaskFile.writeStatus(channel, this.recordSlots.get(mutation.getIndex()),
+                            RecordTaskFile.NOT_DONE_STATUS);
+                    break;
+                case DELETE:
+                    RecordTaskFile.writeStatus(channel, this.recordSlots.remove(mutation.getIndex()),
+                            RecordTaskFile.DELETED_STATUS);
+                    this.numOfDeletedRecords++;
+                    break;
+                default:
+                    throw new AssertionError("Unknown type of mutation: " + mutation.getType());
+                }
+            }
+
+            if (nextSlot != this.numOfRecords) {
+                // new records must be on the disk before they are counted
+                if (this.syncPolicy == SyncPolicy.EVERY_WRITE) {
+                    channel.force(false);
+                }
+                RecordTaskFile.writeNumOfRecords(channel, nextSlot);
+                this.numOfRecords = nextSlot;
+            }
+            this.syncUpdatedFile();
         } catch (IOException ex) {
+            // the records may no longer match the task list, so the next change is saved in full
+            this.hasValidSnapshot = false;
             throw new StorageException("Something went wrong when saving the tasks: "
                     + ex.getMessage()
-                    + "\nHence, the tasks are not being saved to disk.");
+                    + "\nHence, the latest change is not being saved to disk.");
+        }
+    }
+
+    /**
+     * Starts compacting the journal into a new snapshot on the background thread.
+     * Must be called while holding the journal lock.
+     *
+     * @param taskTracker Task list after every change in the journal so far.
+     */
+    private void startCompaction(TaskTracker taskTracker) {
+        long version = this.snapshotVersion;
+        this.recordsSinceCompaction = new ArrayList<>();
+        this.compaction = this.compactor.submit(() -> {
+            try {
+                this.compact(taskTracker, version);
+            } catch (IOException ex) {
+                // the current journal is still valid, so compaction is simply retried after the next change
+            } finally {
+                synchronized (this.journalLock) {
+                    this.recordsSinceCompaction = null;
+                }
+            }
+        });
+    }
+
+    /**
+     * Writes the given task list as a new snapshot, then replaces the current snapshot
+     * and journal with the new snapshot and a journal containing only the changes made
+     * since the compaction started. The task list is immutable, so it can be written
+     * without holding the journal lock, while new changes continue to be appended.
+     * Files are replaced by atomic renames, so the saved tasks remain consistent even if
+     * the app stops midway through a compaction.
+     *
+     * @param taskTracker Task list after every change in the journal, when the compaction started.
+     * @param version     Version of the snapshot that the journal applied to, when the compaction started.
+     * @throws IOException If the new snapshot or journal cannot be written.
+     */
+    private void compact(TaskTracker taskTracker, long version) throws IOException {
+        long checksum = this.writeSnapshot(taskTracker, this.compactedSnapshotPath, this.format);
+
+        synchronized (this.journalLock) {
+            if (version != this.snapshotVersion) {
+                // snapshot has been replaced by a full save in the meantime
+                Files.deleteIfExists(this.compactedSnapshotPath);
+                return;
+            }
+
+            StringBuilder journal = new StringBuilder(getJournalHeader(checksum)).append('\n');
+            for (String record : this.recordsSinceCompaction) {
+                journal.append(record);
+            }
+            byte[] journalBytes = journal.toString().getBytes(StandardCharsets.UTF_8);
+            this.writeFile(this.compactedJournalPath, journalBytes);
+
+            // once the snapshot is replaced, only the compacted journal applies to it
+            this.replaceFile(this.compactedSnapshotPath, this.snapshotPath);
+            this.snapshotChecksum = checksum;
+            this.snapshotTaskTracker = taskTracker;
+            this.snapshotVersion++;
+
+            // if the compacted journal cannot be put in place, the next change is saved in full
+            this.hasValidSnapshot = false;
+            this.replaceFile(this.compactedJournalPath, this.journalPath);
+            this.hasValidSnapshot = true;
+            this.hasStartedJournal = true;
+            this.numOfJournalRecords = this.recordsSinceCompaction.size();
+            this.journalLength = journalBytes.length;
+        }
+    }
+
+    /**
+     * Waits for the ongoing compaction of the journal to finish, if any.
+     *
+     * @throws InterruptedException If the current thread is interrupted while waiting.
+     * @throws ExecutionException   If the compaction threw an unexpected exception.
+     */
+    void awaitCompaction() throws InterruptedException, ExecutionException {
+        Future<?> currentCompaction;
+        synchronized (this.journalLock) {
+            currentCompaction = this.compaction;
+        }
+
+        if (currentCompaction != null) {
+            currentCompaction.get();
         }
     }
 }
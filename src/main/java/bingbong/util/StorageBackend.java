@@ -0,0 +1,126 @@
+package bingbong.util;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Optional;
+
+import bingbong.task.TaskMutation;
+import bingbong.task.TaskTracker;
+
+/**
+ * Represents a place where the task list is saved in between runs of the chatbot.
+ * Commands only save their changes through this interface, so that the way in which
+ * tasks are saved can be swapped out without changing any command.
+ */
+public interface StorageBackend {
+    /**
+     * Returns the kind of storage chosen by the given options, which saves tasks in
+     * the file with the given name.
+     *
+     * @param dataFolderPath Path to the folder in which tasks are saved.
+     * @param filename       Name of the file in which tasks are saved. The
+     *                       file is stored in <code>dataFolderPath</code>.
+     * @param options        Options choosing the kind of storage, and how it saves tasks.
+     * @return Storage which saves tasks in the file.
+     * @throws IOException If there was a problem initialising the data folder.
+     */
+    static StorageBackend open(String dataFolderPath, String filename, StorageOptions options) throws IOException {
+        switch (options.getBackend()) {
+        case TASK_FILE:
+            return new Storage(dataFolderPath, filename, options);
+        case KEY_VALUE:
+            return new KeyValueStorage(dataFolderPath, filename, options.getSyncPolicy());
+        default:
+            throw new AssertionError("Unknown backend: " + options.getBackend());
+        }
+    }
+
+    /**
+     * Returns a <code>TaskTracker</code> object containing the list of tasks
+     * saved in previous runs.
+     *
+     * @return <code>TaskTracker</code> object with a list of existing tasks from previous runs.
+     * @throws FileNotFoundException If no tasks have been saved before.
+     * @throws StorageException      If the saved tasks are incorrectly formatted or corrupted.
+     */
+    TaskTracker loadSavedTasks() throws FileNotFoundException, StorageException;
+
+    /**
+     * Returns the warning about the parts of the saved tasks which could not be loaded
+     * by the last load, if any.
+     *
+     * @return Warning about the tasks not loaded, or an empty <code>Optional</code>
+     *         if every saved task was loaded.
+     */
+    default Optional<String> getLoadWarning() {
+        return Optional.empty();
+    }
+
+    /**
+     * Saves the whole of the given task list, replacing the tasks saved before.
+     *
+     * @param taskTracker Current list of tasks recorded.
+     * @throws StorageException If the tasks cannot be saved.
+     */
+    void saveTasks(TaskTracker taskTracker) throws StorageException;
+
+    /**
+     * Saves a single change that has been made to the task list.
+     *
+     * @param mutation           Change made to the task list.
+     * @param updatedTaskTracker Task list after the change.
+     * @throws StorageException If the change cannot be saved.
+     */
+    void saveMutation(TaskMutation mutation, TaskTracker updatedTaskTracker) throws StorageException;
+
+    /**
+     * Returns the given task list, updated with the changes made to the saved tasks
+     * by other programs since they were last loaded or saved. By default, the saved
+     * tasks cannot be changed by other programs, so the task list is returned unchanged.
+     *
+     * @param taskTracker Current list of tasks recorded.
+     * @return Task list with the changes applied.
+     * @throws StorageException If the changed tasks cannot be loaded.
+     */
+    default TaskTracker reloadChangedTasks(TaskTracker taskTracker) throws StorageException {
+        return taskTracker;
+    }
+
+    /**
+     * Moves the tasks in the given list into the archive, which is not loaded with the
+     * rest of the saved tasks. The tasks must still be removed from the task list afterwards.
+     *
+     * @param archivedTasks Tasks to be archived.
+     * @throws StorageException If the tasks cannot be archived.
+     */
+    default void archiveTasks(TaskTracker archivedTasks) throws StorageException {
+        throw new StorageException("Archiving tasks is not supported by this storage.");
+    }
+
+    /**
+     * Returns a <code>TaskTracker</code> object containing the archived tasks which
+     * might contain the given substring in their names.
+     *
+     * @param substring Substring to search for.
+     * @return <code>TaskTracker</code> object with the archived tasks found.
+     * @throws StorageException If the archive cannot be searched.
+     */
+    default TaskTracker loadArchivedTasks(String substring) throws StorageException {
+        throw new StorageException("Archiving tasks is not supported by this storage.");
+    }
+
+    /**
+     * Waits until every change saved so far has been written to the disk.
+     *
+     * @throws StorageException If some changes could not be written.
+     */
+    void flush() throws StorageException;
+
+    /**
+     * Writes every change saved so far to the disk, then releases the resources
+     * held by this storage. Nothing can be saved afterwards.
+     *
+     * @throws StorageException If some changes could not be written.
+     */
+    void close() throws StorageException;
+}
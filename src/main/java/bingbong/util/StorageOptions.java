@@ -0,0 +1,206 @@
+package bingbong.util;
+
+/**
+ * Represents the immutable set of options which determine how a <code>Storage</code>
+ * saves tasks to the disk, or whether tasks are saved by another kind of storage instead.
+ * Each <code>with</code> method returns a copy of the options, with a single option changed.
+ */
+public final class StorageOptions {
+    /** Options under which every change rewrites the whole task file, before the command completes. */
+    public static final StorageOptions DEFAULT = new StorageOptions(Format.TEXT, false, false, 1000,
+            SyncPolicy.NEVER, 1000, false, Backend.TASK_FILE);
+
+    private final Format format;
+    private final boolean isJournalled;
+    private final boolean isWriteBehind;
+    private final int compactionRecordLimit;
+    private final SyncPolicy syncPolicy;
+    private final long syncIntervalMillis;
+    private final boolean isLazy;
+    private final Backend backend;
+
+    /**
+     * Consists of the kinds of storage in which tasks can be saved.
+     */
+    public enum Backend {
+        /** A task file, to which every other option applies. */
+        TASK_FILE,
+        /**
+         * An embedded key-value store, where each task is held against its own key in a B-tree file,
+         * so that a change to a single task only rewrites a few pages. Only the sync policy applies to it.
+         */
+        KEY_VALUE
+    }
+
+    /**
+     * Consists of the formats in which the task file can be saved.
+     */
+    public enum Format {
+        /** One task per line, with its details separated by " | ". Can be read and edited by hand. */
+        TEXT,
+        /** Versioned, length-prefixed binary records, which are smaller and faster to read and write. */
+        BINARY,
+        /**
+         * Fixed-length records, which are updated in place, so that changing the status of
+         * a task only rewrites a single byte. No journal is kept in this format.
+         */
+        RECORDS
+    }
+
+    /**
+     * Consists of the policies determining when saved changes are forced onto
+     * the disk (fsync), trading durability against the number of commands per second.
+     */
+    public enum SyncPolicy {
+        /** Every write is forced onto the disk before it completes. */
+        EVERY_WRITE,
+        /** Writes within the same interval are forced onto the disk together (group commit). */
+        INTERVAL,
+        /** Writes are left to the operating system, which may lose them upon a crash. */
+        NEVER
+    }
+
+    private StorageOptions(Format format, boolean isJournalled, boolean isWriteBehind, int compactionRecordLimit,
+            SyncPolicy syncPolicy, long syncIntervalMillis, boolean isLazy, Backend backend) {
+        this.format = format;
+        this.isJournalled = isJournalled;
+        this.isWriteBehind = isWriteBehind;
+        this.compactionRecordLimit = compactionRecordLimit;
+        this.syncPolicy = syncPolicy;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.isLazy = isLazy;
+        this.backend = backend;
+    }
+
+    /**
+     * Returns a copy of these options, with the given format for the task file.
+     *
+     * @param format Format of the task file.
+     * @return New options.
+     */
+    public StorageOptions withFormat(Format format) {
+        return new StorageOptions(format, this.isJournalled, this.isWriteBehind, this.compactionRecordLimit,
+                this.syncPolicy, this.syncIntervalMillis, this.isLazy, this.backend);
+    }
+
+    /**
+     * Returns a copy of these options, with journal mode switched on or off.
+     * In journal mode, each change to the task list is appended to a journal,
+     * instead of rewriting the task file.
+     *
+     * @param isJournalled Whether journal mode should be switched on.
+     * @return New options.
+     */
+    public StorageOptions withJournal(boolean isJournalled) {
+        return new StorageOptions(this.format, isJournalled, this.isWriteBehind, this.compactionRecordLimit,
+                this.syncPolicy, this.syncIntervalMillis, this.isLazy, this.backend);
+    }
+
+    /**
+     * Returns a copy of these options, with write-behind mode switched on or off.
+     * In write-behind mode, changes are saved by a background writer, so that
+     * commands do not wait for the disk.
+     *
+     * @param isWriteBehind Whether write-behind mode should be switched on.
+     * @return New options.
+     */
+    public StorageOptions withWriteBehind(boolean isWriteBehind) {
+        return new StorageOptions(this.format, this.isJournalled, isWriteBehind, this.compactionRecordLimit,
+                this.syncPolicy, this.syncIntervalMillis, this.isLazy, this.backend);
+    }
+
+    /**
+     * Returns a copy of these options, with the given number of records in the
+     * journal, beyond which the journal is compacted into a new snapshot.
+     *
+     * @param compactionRecordLimit Number of records beyond which the journal is compacted.
+     * @return New options.
+     */
+    public StorageOptions withCompactionRecordLimit(int compactionRecordLimit) {
+        assert compactionRecordLimit > 0 : "Compaction record limit must be positive";
+        return new StorageOptions(this.format, this.isJournalled, this.isWriteBehind, compactionRecordLimit,
+                this.syncPolicy, this.syncIntervalMillis, this.isLazy, this.backend);
+    }
+
+    /**
+     * Returns a copy of these options, with the given policy for forcing writes onto the disk.
+     *
+     * @param syncPolicy Policy for forcing writes onto the disk.
+     * @return New options.
+     */
+    public StorageOptions withSyncPolicy(SyncPolicy syncPolicy) {
+        return new StorageOptions(this.format, this.isJournalled, this.isWriteBehind, this.compactionRecordLimit,
+                syncPolicy, this.syncIntervalMillis, this.isLazy, this.backend);
+    }
+
+    /**
+     * Returns a copy of these options, which force writes onto the disk together,
+     * at most once within each interval of the given length.
+     *
+     * @param syncIntervalMillis Length of the interval, in milliseconds.
+     * @return New options.
+     */
+    public StorageOptions withSyncInterval(long syncIntervalMillis) {
+        assert syncIntervalMillis > 0 : "Sync interval must be positive";
+        return new StorageOptions(this.format, this.isJournalled, this.isWriteBehind, this.compactionRecordLimit,
+                SyncPolicy.INTERVAL, syncIntervalMillis, this.isLazy, this.backend);
+    }
+
+    /**
+     * Returns a copy of these options, with lazy loading switched on or off.
+     * With lazy loading, only the position of each task in the task file is read
+     * upon loading, and each task is decoded from the file when it is first accessed.
+     * Each line of a text file is still checked upon loading, so that incorrectly
+     * formatted lines are quarantined as they are without lazy loading.
+     *
+     * @param isLazy Whether lazy loading should be switched on.
+     * @return New options.
+     */
+    public StorageOptions withLazyLoading(boolean isLazy) {
+        return new StorageOptions(this.format, this.isJournalled, this.isWriteBehind, this.compactionRecordLimit,
+                this.syncPolicy, this.syncIntervalMillis, isLazy, this.backend);
+    }
+
+    /**
+     * Returns a copy of these options, with the given kind of storage.
+     *
+     * @param backend Kind of storage in which tasks are saved.
+     * @return New options.
+     */
+    public StorageOptions withBackend(Backend backend) {
+        return new StorageOptions(this.format, this.isJournalled, this.isWriteBehind, this.compactionRecordLimit,
+                this.syncPolicy, this.syncIntervalMillis, this.isLazy, backend);
+    }
+
+    public Format getFormat() {
+        return this.format;
+    }
+
+    public boolean isJournalled() {
+        return this.isJournalled;
+    }
+
+    public boolean isWriteBehind() {
+        return this.isWriteBehind;
+    }
+
+    public int getCompactionRecordLimit() {
+        return this.compactionRecordLimit;
+    }
+
+    public SyncPolicy getSyncPolicy() {
+        return this.syncPolicy;
+    }
+
+    public long getSyncIntervalMillis() {
+        return this.syncIntervalMillis;
+    }
+
+    public boolean isLazy() {
+        return this.isLazy;
+    }
+
+    public Backend getBackend() {
+        return this.backend;
+    }
+}
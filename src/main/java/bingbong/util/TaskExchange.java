@@ -0,0 +1,90 @@
+package bingbong.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+
+import bingbong.task.Task;
+import bingbong.task.TaskTracker;
+
+/**
+ * Imports and exports tasks in formats which can be exchanged with other apps, unlike
+ * the formats of the task file. Files are streamed rather than read or written as a whole,
+ * so that large files can be exchanged without holding a copy of the file in memory.
+ */
+public final class TaskExchange {
+    /**
+     * Consists of the formats which tasks can be imported from and exported to.
+     */
+    public enum Format {
+        /** Comma-separated values, with one task per row, which can be opened by spreadsheets. */
+        CSV,
+        /** iCalendar, with one todo or event per task, which can be opened by calendar apps. */
+        ICS
+    }
+
+    private TaskExchange() {
+    }
+
+    /**
+     * Returns the tasks in the file at the given path, which is in the given format.
+     * Either every task in the file is returned, or none at all if the file is
+     * incorrectly formatted.
+     *
+     * @param path   Path to the file to be imported.
+     * @param format Format of the file.
+     * @return Tasks in the file, in file order.
+     * @throws StorageException If the file cannot be read, or is incorrectly formatted.
+     */
+    public static ArrayList<Task> importTasks(String path, Format format) throws StorageException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8)) {
+            switch (format) {
+            case CSV:
+                CsvTaskFile.read(reader, tasks::add);
+                break;
+            case ICS:
+                IcsTaskFile.read(reader, tasks::add);
+                break;
+            default:
+                throw new AssertionError("Unknown exchange format: " + format);
+            }
+        } catch (IOException | IllegalArgumentException | DateTimeParseException ex) {
+            throw new StorageException("Something went wrong importing the tasks from "
+                    + path + ": " + ex.getMessage());
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes every task in the given list to the file at the given path, in the given format.
+     * Any existing file at the path is replaced.
+     *
+     * @param taskTracker List of tasks to be exported.
+     * @param path        Path to the file to be written.
+     * @param format      Format of the file.
+     * @throws StorageException If the file cannot be written.
+     */
+    public static void exportTasks(TaskTracker taskTracker, String path, Format format) throws StorageException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+            switch (format) {
+            case CSV:
+                CsvTaskFile.write(taskTracker, writer);
+                break;
+            case ICS:
+                IcsTaskFile.write(taskTracker, writer);
+                break;
+            default:
+                throw new AssertionError("Unknown exchange format: " + format);
+            }
+        } catch (IOException ex) {
+            throw new StorageException("Something went wrong exporting the tasks to "
+                    + path + ": " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package bingbong.util;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a task file for changes made while the chatbot is running, such as edits made by
+ * other programs, and runs the given action after each change. The folder of the task file
+ * is watched on a background thread, and a burst of events, such as a program writing the
+ * file in several parts, is folded into a single run of the action.
+ * The action is also run after the task file is written by the chatbot itself, so it must
+ * be able to recognise and ignore such changes.
+ */
+public final class TaskFileWatcher implements Closeable {
+    // time without further events after which the task file is taken to be fully written
+    private static final long SETTLE_MILLIS = 100;
+
+    private final WatchService watchService;
+
+    /**
+     * Starts watching the task file at the given path.
+     *
+     * @param taskFilePath Path to the task file.
+     * @param onChange     Action to run after each change to the task file.
+     * @throws IOException If the folder of the task file cannot be watched.
+     */
+    public TaskFileWatcher(Path taskFilePath, Runnable onChange) throws IOException {
+        Path folderPath = taskFilePath.toAbsolutePath().getParent();
+        this.watchService = folderPath.getFileSystem().newWatchService();
+        try {
+            folderPath.register(this.watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException ex) {
+            this.watchService.close();
+            throw ex;
+        }
+
+        // daemon thread, as the watcher must not keep the app running
+        Thread thread = new Thread(() -> this.watch(taskFilePath.getFileName(), onChange), "bingbong-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Waits for changes to the task file with the given name, until the watcher is closed.
+     *
+     * @param filename Name of the task file.
+     * @param onChange Action to run after each change to the task file.
+     */
+    private void watch(Path filename, Runnable onChange) {
+        try {
+            while (true) {
+                boolean isChanged = hasChanged(this.watchService.take(), filename);
+                WatchKey key = this.watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                while (key != null) {
+                    isChanged |= hasChanged(key, filename);
+                    key = this.watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                if (isChanged) {
+                    onChange.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // the watcher has been closed
+        }
+    }
+
+    /**
+     * Returns whether the events of the given key include a change to the task file
+     * with the given name, then readies the key for further events. If some events
+     * were lost, the task file is taken to have changed.
+     *
+     * @param key      Key holding the events of the folder.
+     * @param filename Name of the task file.
+     * @return Whether the task file might have changed.
+     */
+    private static boolean hasChanged(WatchKey key, Path filename) {
+        boolean isChanged = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            isChanged |= event.kind() == OVERFLOW || filename.equals(event.context());
+        }
+        key.reset();
+        return isChanged;
+    }
+
+    /**
+     * Stops watching the task file. The background thread stops once it notices.
+     *
+     * @throws IOException If the watcher cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+    }
+}
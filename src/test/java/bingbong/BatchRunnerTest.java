@@ -0,0 +1,87 @@
+package bingbong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+import bingbong.task.TaskMutation;
+import bingbong.task.TaskTracker;
+import bingbong.util.DeferredStorage;
+import bingbong.util.StorageBackend;
+
+public class BatchRunnerTest {
+    /**
+     * Storage which keeps the saved task list in memory, counting the number of saves.
+     */
+    private static class CountingStorage implements StorageBackend {
+        private TaskTracker savedTaskTracker = new TaskTracker();
+        private int numOfSaves;
+
+        @Override
+        public TaskTracker loadSavedTasks() {
+            return this.savedTaskTracker;
+        }
+
+        @Override
+        public void saveTasks(TaskTracker taskTracker) {
+            this.savedTaskTracker = taskTracker;
+            this.numOfSaves++;
+        }
+
+        @Override
+        public void saveMutation(TaskMutation mutation, TaskTracker updatedTaskTracker) {
+            this.saveTasks(updatedTaskTracker);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static BufferedReader getScript(int numOfTodos, String lastLine) {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < numOfTodos; i++) {
+            script.append("todo task ").append(i).append("\n\n");
+        }
+        return new BufferedReader(new StringReader(script.append(lastLine).toString()));
+    }
+
+    @Test
+    public void run_manyCommands_savedOnceAtShutdown() throws Exception {
+        CountingStorage savedTasks = new CountingStorage();
+        StorageBackend storage = new DeferredStorage(savedTasks);
+        BingBong bot = new BingBong(storage, "./data", "tasks.txt");
+
+        StringWriter output = new StringWriter();
+        assertEquals(2001, new BatchRunner(bot, storage, 0).run(getScript(2000, "mark 2000"), output));
+        assertEquals(0, savedTasks.numOfSaves);
+        assertEquals(true, output.toString().contains("task 1999"));
+
+        bot.shutdown();
+        assertEquals(1, savedTasks.numOfSaves);
+        assertEquals(2000, savedTasks.savedTaskTracker.getNumOfTasks());
+        assertEquals(true, savedTasks.savedTaskTracker.getTask(1999).toString().startsWith("[T][X]"));
+    }
+
+    @Test
+    public void run_saveIntervalThenBye_savedEveryIntervalAndStopped() throws Exception {
+        CountingStorage savedTasks = new CountingStorage();
+        StorageBackend storage = new DeferredStorage(savedTasks);
+        BingBong bot = new BingBong(storage, "./data", "tasks.txt");
+
+        BufferedReader script = getScript(25, "bye\ntodo after bye");
+        assertEquals(26, new BatchRunner(bot, storage, 10).run(script, new StringWriter()));
+
+        // saved after the 10th and 20th commands, then by the bye command
+        assertEquals(3, savedTasks.numOfSaves);
+        assertEquals(25, savedTasks.savedTaskTracker.getNumOfTasks());
+    }
+}
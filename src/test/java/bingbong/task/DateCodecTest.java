@@ -0,0 +1,77 @@
+package bingbong.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class DateCodecTest {
+    private static final DateTimeFormatter SAVE_FORMATTER = DateTimeFormatter.ofPattern(DateCodec.SAVE_FORMAT);
+
+    @Test
+    public void format_anyYear_sameAsFormatter() {
+        for (LocalDateTime datetime : new LocalDateTime[] {
+            LocalDateTime.of(2026, 2, 4, 9, 5),
+            LocalDateTime.of(2026, 12, 31, 23, 59),
+            LocalDateTime.of(7, 1, 1, 0, 0),
+            LocalDateTime.of(12345, 6, 7, 8, 9),
+            LocalDateTime.of(0, 6, 7, 8, 9)}) {
+            assertEquals(datetime.format(SAVE_FORMATTER), DateCodec.format(datetime));
+        }
+    }
+
+    @Test
+    public void tryParse_validDate_sameAsLocalDateTime() {
+        for (String date : new String[] {"4/2/2026 09:05", "31/12/2026 23:59", "01/01/0007 00:00",
+            "31/2/2024 10:00", "31/12/2026 24:00"}) {
+            assertEquals(LocalDateTime.parse(date, SAVE_FORMATTER), DateCodec.tryParse(date));
+        }
+    }
+
+    @Test
+    public void tryParse_invalidDate_nullReturned() {
+        for (String date : new String[] {"", "32/1/2026 10:00", "1/13/2026 10:00", "1/1/0000 10:00",
+            "1/1/2026 24:01", "1/1/2026 10:60", "1/1/26 10:00", "1/1/2026 1:00", "1/1/2026 10:00 ",
+            "a/1/2026 10:00", "1/1/2026  10:00", "1/1/2026"}) {
+            assertEquals(null, DateCodec.tryParse(date));
+        }
+    }
+
+    @Test
+    public void parse_invalidDate_exceptionThrown() {
+        try {
+            DateCodec.parse("32/1/2026 10:00");
+            fail();
+        } catch (DateTimeParseException ex) {
+            assertEquals("Text '32/1/2026 10:00' could not be parsed: "
+                    + "Invalid value for DayOfMonth (valid values 1 - 28/31): 32", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void getParseError_invalidDate_sameAsExceptionMessage() {
+        for (String date : new String[] {"", "32/1/2026 10:00", "1/13/2026 10:00", "1/1/0000 10:00",
+            "1/1/2026 24:01", "1/1/2026 25:60", "3-3-2025 14:00", "1/1/2026 10:00 ", "1/1/2026",
+            "1/1/2026 10:00" + "0".repeat(80)}) {
+            try {
+                DateCodec.parse(date);
+                fail();
+            } catch (DateTimeParseException ex) {
+                assertEquals(ex.getMessage(), DateCodec.getParseError(date));
+            }
+        }
+        assertEquals(null, DateCodec.getParseError("31/12/2026 24:00"));
+    }
+
+    @Test
+    public void formatForOutput_repeatedDate_sameAsFormatter() {
+        LocalDateTime datetime = LocalDateTime.of(2026, 2, 14, 14, 0);
+        String expected = datetime.format(DateTimeFormatter.ofPattern("d MMM yyyy, h:mm a"));
+        assertEquals(expected, DateCodec.formatForOutput(datetime));
+        assertEquals(expected, DateCodec.formatForOutput(datetime));
+    }
+}
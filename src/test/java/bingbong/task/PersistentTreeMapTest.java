@@ -0,0 +1,90 @@
+package bingbong.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PersistentTreeMapTest {
+    @Test
+    public void put_newKeys_keptInKeyOrder() {
+        PersistentTreeMap<Integer, String> map = PersistentTreeMap.empty();
+        for (int key : new int[] {5, 1, 4, 2, 3}) {
+            map = map.put(key, "v" + key);
+        }
+
+        assertEquals(5, map.size());
+        assertEquals(List.of("v1", "v2", "v3", "v4", "v5"), map.values().toList());
+        assertEquals(3, (int) map.getKeyAt(2));
+        assertEquals("v5", map.getValueAt(4));
+    }
+
+    @Test
+    public void putAndRemove_previousVersion_unchanged() {
+        PersistentTreeMap<Integer, String> original = PersistentTreeMap.ofSorted(
+                List.of(1, 2, 3), List.of("a", "b", "c"));
+
+        // replace, add and remove entries from the original map
+        PersistentTreeMap<Integer, String> replaced = original.put(2, "x");
+        PersistentTreeMap<Integer, String> added = original.put(4, "d");
+        PersistentTreeMap<Integer, String> removed = original.remove(1);
+
+        assertEquals(List.of("a", "b", "c"), original.values().toList());
+        assertEquals(List.of("a", "x", "c"), replaced.values().toList());
+        assertEquals(List.of("a", "b", "c", "d"), added.values().toList());
+        assertEquals(List.of("b", "c"), removed.values().toList());
+    }
+
+    @Test
+    public void getValueAt_indexOutOfRange_exceptionThrown() {
+        PersistentTreeMap<Integer, String> map = PersistentTreeMap.ofSorted(
+                List.of(1, 2), List.of("a", "b"));
+
+        try {
+            map.getValueAt(2);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+
+        try {
+            map.getValueAt(-1);
+            fail();
+        } catch (IndexOutOfBoundsException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void randomOperations_matchArrayList() {
+        // compare against a plain list, under a fixed sequence of random operations
+        Random random = new Random(2103);
+        ArrayList<Integer> expected = new ArrayList<>();
+        PersistentTreeMap<Integer, Integer> map = PersistentTreeMap.empty();
+        int nextKey = 0;
+
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(3);
+            if (operation == 0 || expected.isEmpty()) {
+                expected.add(nextKey);
+                map = map.put(nextKey, nextKey);
+                nextKey++;
+            } else if (operation == 1) {
+                int index = random.nextInt(expected.size());
+                expected.set(index, -i);
+                map = map.put(map.getKeyAt(index), -i);
+            } else {
+                int index = random.nextInt(expected.size());
+                expected.remove(index);
+                map = map.remove(map.getKeyAt(index));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map.values().toList());
+    }
+}
@@ -3,6 +3,8 @@ package bingbong.task;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -62,6 +64,15 @@ public class TaskTrackerTest {
         }
     }
 
+    @Test
+    public void hasTaskAt_indexOutOfRange_falseReturned() {
+        TaskTracker taskTracker = new TaskTracker(TASKS);
+        assertEquals(true, taskTracker.hasTaskAt(0));
+        assertEquals(true, taskTracker.hasTaskAt(2));
+        assertEquals(false, taskTracker.hasTaskAt(3));
+        assertEquals(false, taskTracker.hasTaskAt(-1));
+    }
+
     @Test
     public void editTask_indexInRange_success() throws Exception {
         // edit first task
@@ -79,6 +90,24 @@ public class TaskTrackerTest {
                         .toString());
     }
 
+    @Test
+    public void editTask_previousTaskList_unchanged() throws Exception {
+        TaskTracker original = new TaskTracker(TASKS);
+        TaskTracker edited = original.editTask(0, new Todo("go jogging"))
+                .deleteTask(1)
+                .addTask(new Todo("go swimming"));
+
+        // previous task list still holds its own tasks
+        assertEquals("[T][ ] finish some stuff\n"
+                        + "[D][X] finish ip (by: 14 Feb 2026, 2:00 pm)\n"
+                        + "[E][ ] play basketball with friends (from: 17 Feb 2026, 3:00 pm to: 17 Feb 2026, 5:00 pm)",
+                original.toString());
+        assertEquals("[T][ ] go jogging\n"
+                        + "[E][ ] play basketball with friends (from: 17 Feb 2026, 3:00 pm to: 17 Feb 2026, 5:00 pm)\n"
+                        + "[T][ ] go swimming",
+                edited.toString());
+    }
+
     @Test
     public void editTask_indexOutOfRange_exceptionThrown() {
         // index exceeds length of list - 1
@@ -175,6 +204,18 @@ public class TaskTrackerTest {
                 new TaskTracker(TASKS).listTasks());
     }
 
+    @Test
+    public void getCombinedSavableTasks_success() {
+        // each task is saved on its own line
+        assertEquals("T |   | finish some stuff" + System.lineSeparator()
+                        + "D | X | finish ip | 14/2/2026 14:00" + System.lineSeparator()
+                        + "E |   | play basketball with friends | 17/2/2026 15:00 | 17/2/2026 17:00",
+                new TaskTracker(TASKS).getCombinedSavableTasks());
+
+        // empty list is saved as an empty file
+        assertEquals("", new TaskTracker().getCombinedSavableTasks());
+    }
+
     @Test
     public void findTasks_success() {
         // find tasks containing substring "finish" (first and second tasks)
@@ -188,6 +229,57 @@ public class TaskTrackerTest {
                 new TaskTracker(TASKS).findTasks("basket"));
     }
 
+    @Test
+    public void findTasks_afterModifications_success() throws Exception {
+        TaskTracker taskTracker = new TaskTracker(TASKS);
+
+        // name index is built along with the task list
+        assertEquals("1. [T][ ] finish some stuff\n"
+                        + "2. [D][X] finish ip (by: 14 Feb 2026, 2:00 pm)",
+                taskTracker.findTasks("finish"));
+
+        // later task lists keep the name index up to date
+        TaskTracker modifiedTaskTracker = taskTracker.deleteTask(0)
+                .editTask(0, new Todo("finish homework"))
+                .addTask(new Todo("go swimming"));
+        assertEquals("1. [T][ ] finish homework",
+                modifiedTaskTracker.findTasks("finish"));
+        assertEquals("1. [T][ ] go swimming",
+                modifiedTaskTracker.findTasks("swim"));
+        assertEquals("", modifiedTaskTracker.findTasks("stuff"));
+
+        // substrings shorter than a trigram are still found
+        assertEquals("1. [T][ ] go swimming",
+                modifiedTaskTracker.findTasks("go"));
+    }
+
+    @Test
+    public void findTasks_afterBulkModifications_success() throws Exception {
+        TaskTracker taskTracker = new TaskTracker(TASKS);
+
+        // inserting in the middle gives later tasks new IDs, which the indexes follow
+        TaskTracker insertedTaskTracker = taskTracker.replaceTasks(1, 1,
+                List.of(new Todo("finish reading"), new Deadline("pay rent", LocalDateTime.of(2026, 2, 16, 9, 0))));
+        assertEquals("1. [T][ ] finish some stuff\n"
+                        + "2. [T][ ] finish reading\n"
+                        + "3. [D][X] finish ip (by: 14 Feb 2026, 2:00 pm)",
+                insertedTaskTracker.findTasks("finish"));
+        assertEquals("1. [D][ ] pay rent (by: 16 Feb 2026, 9:00 am)\n"
+                        + "2. [E][ ] play basketball with friends "
+                        + "(from: 17 Feb 2026, 3:00 pm to: 17 Feb 2026, 5:00 pm)",
+                insertedTaskTracker.listTasksBetween(LocalDateTime.of(2026, 2, 15, 0, 0),
+                        LocalDateTime.of(2026, 2, 18, 0, 0)));
+
+        // deleting completed tasks drops them from the indexes
+        TaskTracker archivedTaskTracker = insertedTaskTracker.deleteDoneTasksBefore(
+                LocalDateTime.of(2026, 2, 15, 0, 0));
+        assertEquals("1. [T][ ] finish some stuff\n"
+                        + "2. [T][ ] finish reading",
+                archivedTaskTracker.findTasks("finish"));
+        assertEquals("", archivedTaskTracker.listTasksBetween(LocalDateTime.of(2026, 2, 14, 0, 0),
+                LocalDateTime.of(2026, 2, 15, 0, 0)));
+    }
+
     @Test
     public void changeTaskStatusAtIndex_indexInRange_success() throws Exception {
         // get the completed version of the third task
@@ -248,4 +340,60 @@ public class TaskTrackerTest {
                         + "(from: 17 Feb 2026, 3:00 pm to: 17 Feb 2026, 5:00 pm)",
                 new TaskTracker(TASKS).remindImpendingTasks(windowStartTime, 6));
     }
+
+    @Test
+    public void remindImpendingTasks_afterModifications_success() throws Exception {
+        LocalDateTime windowStartTime = LocalDateTime.of(2026, 2, 12, 15, 0);
+        TaskTracker taskTracker = new TaskTracker(TASKS);
+
+        // time index is built along with the task list
+        assertEquals("", taskTracker.remindImpendingTasks(windowStartTime, 4));
+
+        // unmarking the deadline and adding an earlier deadline are both picked up
+        TaskTracker modifiedTaskTracker = taskTracker
+                .editTask(1, taskTracker.changeTaskStatusAtIndex(1, false))
+                .addTask(new Deadline("submit report", LocalDateTime.of(2026, 2, 13, 9, 0)));
+        assertEquals("1. [D][ ] submit report (by: 13 Feb 2026, 9:00 am)\n"
+                        + "2. [D][ ] finish ip (by: 14 Feb 2026, 2:00 pm)",
+                modifiedTaskTracker.remindImpendingTasks(windowStartTime, 4));
+    }
+
+    @Test
+    public void listTasksBetween_success() {
+        // window includes tasks at its exact start and end, regardless of status
+        assertEquals("1. [D][X] finish ip (by: 14 Feb 2026, 2:00 pm)\n"
+                        + "2. [E][ ] play basketball with friends "
+                        + "(from: 17 Feb 2026, 3:00 pm to: 17 Feb 2026, 5:00 pm)",
+                new TaskTracker(TASKS).listTasksBetween(LocalDateTime.of(2026, 2, 14, 14, 0),
+                        LocalDateTime.of(2026, 2, 17, 15, 0)));
+
+        // window excludes both tasks
+        assertEquals("",
+                new TaskTracker(TASKS).listTasksBetween(LocalDateTime.of(2026, 2, 15, 0, 0),
+                        LocalDateTime.of(2026, 2, 16, 0, 0)));
+    }
+
+    @Test
+    public void writeSavableTasks_afterModification_onlyChangedTaskEncoded() throws Exception {
+        TaskTracker taskTracker = new TaskTracker(TASKS);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        taskTracker.writeSavableTasks(output);
+        assertEquals(taskTracker.getCombinedSavableTasks(), output.toString(StandardCharsets.UTF_8));
+
+        // unchanged tasks reuse the bytes encoded by the previous save
+        byte[] savedBytes = taskTracker.getTask(0).getSavableBytes();
+        TaskTracker modifiedTaskTracker = taskTracker.editTask(2, taskTracker.changeTaskStatusAtIndex(2, true));
+        output.reset();
+        modifiedTaskTracker.writeSavableTasks(output);
+        assertEquals(modifiedTaskTracker.getCombinedSavableTasks(), output.toString(StandardCharsets.UTF_8));
+        assertEquals(true, savedBytes == modifiedTaskTracker.getTask(0).getSavableBytes());
+    }
+
+    @Test
+    public void getEstimatedLength_hugeList_capped() {
+        // enough tasks for the estimate to overflow an int
+        NumberedTaskList listOfTasks = new NumberedTaskList(List.of(), 40_000_000);
+        assertEquals(1 << 30, listOfTasks.getEstimatedLength());
+        assertEquals(640, new NumberedTaskList(List.of(), 10).getEstimatedLength());
+    }
 }
@@ -0,0 +1,47 @@
+package bingbong.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import bingbong.command.ByeCommand;
+import bingbong.command.ListCommand;
+
+public class CommandRegistryTest {
+    private static CommandRegistry getRegistry() {
+        Map<String, Function<CommandInput, ParseResult>> factories = new LinkedHashMap<>();
+        factories.put("find", input -> ParseResult.ofCommand(new ListCommand()));
+        factories.put("findarchived", input -> ParseResult.ofCommand(new ByeCommand()));
+        return new CommandRegistry(factories);
+    }
+
+    @Test
+    public void getFactory_knownCommandWord_success() {
+        CommandRegistry registry = getRegistry();
+        assertEquals("list command",
+                registry.getFactory(new CommandInput("find x")).apply(null).getCommand().toString());
+
+        // command words which start with another command word, in any case
+        assertEquals("bye command",
+                registry.getFactory(new CommandInput("FindArchived x")).apply(null).getCommand().toString());
+    }
+
+    @Test
+    public void getFactory_unknownCommandWord_nullReturned() {
+        CommandRegistry registry = getRegistry();
+
+        // prefixes and extensions of command words are unknown
+        assertEquals(null, registry.getFactory(new CommandInput("fin x")));
+        assertEquals(null, registry.getFactory(new CommandInput("findarchivedx")));
+        assertEquals(null, registry.getFactory(new CommandInput("")));
+    }
+
+    @Test
+    public void getCommandWords_registrationOrder_success() {
+        assertEquals("[FIND, FINDARCHIVED]", getRegistry().getCommandWords());
+    }
+}
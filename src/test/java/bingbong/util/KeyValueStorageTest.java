@@ -0,0 +1,133 @@
+package bingbong.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bingbong.task.Deadline;
+import bingbong.task.Task;
+import bingbong.task.TaskMutation;
+import bingbong.task.TaskTracker;
+import bingbong.task.Todo;
+import bingbong.util.StorageOptions.SyncPolicy;
+
+public class KeyValueStorageTest {
+    private static final String FILENAME = "tasks.db";
+
+    private static TaskTracker applyAndSave(TaskTracker taskTracker, TaskMutation mutation,
+            StorageBackend storage) throws Exception {
+        TaskTracker updatedTaskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, updatedTaskTracker);
+        return updatedTaskTracker;
+    }
+
+    @Test
+    public void open_keyValueBackend_tasksSavedInKeyValueStore() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        StorageOptions options = StorageOptions.DEFAULT.withBackend(StorageOptions.Backend.KEY_VALUE);
+        StorageBackend storage = StorageBackend.open(dataFolder.toString(), FILENAME, options);
+        assertEquals(true, storage instanceof KeyValueStorage);
+
+        TaskTracker taskTracker = new TaskTracker(new ArrayList<>(List.of(new Todo("finish some stuff"))));
+        storage.saveTasks(taskTracker);
+        storage.close();
+
+        assertEquals(taskTracker.toString(),
+                StorageBackend.open(dataFolder.toString(), FILENAME, options).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void saveTasks_textTaskFile_textFileQuarantined() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        TaskTracker textTaskTracker = new TaskTracker(new ArrayList<>(List.of(new Todo("finish some stuff"))));
+        new Storage(dataFolder.toString(), "tasks.txt").saveTasks(textTaskTracker);
+
+        // the text file is moved aside upon loading, rather than replaced by the first save
+        StorageBackend storage = StorageBackend.open(dataFolder.toString(), "tasks.txt",
+                StorageOptions.DEFAULT.withBackend(StorageOptions.Backend.KEY_VALUE));
+        assertEquals(0, storage.loadSavedTasks().getNumOfTasks());
+        assertEquals(true, storage.getLoadWarning().orElseThrow().contains("not a key-value task file"));
+        TaskTracker taskTracker = new TaskTracker(new ArrayList<>(List.of(new Todo("read book"))));
+        storage.saveTasks(taskTracker);
+        storage.close();
+
+        assertEquals(true, Files.readString(dataFolder.resolve("tasks.txt.quarantine"))
+                .endsWith(textTaskTracker.getCombinedSavableTasks()));
+        assertEquals(taskTracker.toString(),
+                new KeyValueStorage(dataFolder.toString(), "tasks.txt", SyncPolicy.NEVER).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void loadSavedTasks_afterMutations_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        KeyValueStorage storage = new KeyValueStorage(dataFolder.toString(), FILENAME, SyncPolicy.NEVER);
+        TaskTracker taskTracker = new TaskTracker(new ArrayList<>(List.of(new Todo("finish some stuff"),
+                new Deadline("finish ip", LocalDateTime.of(2026, 2, 14, 14, 0)))));
+        storage.saveTasks(taskTracker);
+
+        taskTracker = applyAndSave(taskTracker, TaskMutation.ofAddition(new Todo("read book")), storage);
+        taskTracker = applyAndSave(taskTracker, TaskMutation.ofStatusChange(1, true), storage);
+        taskTracker = applyAndSave(taskTracker, TaskMutation.ofDeletion(0), storage);
+        storage.close();
+
+        assertEquals(taskTracker.toString(),
+                new KeyValueStorage(dataFolder.toString(), FILENAME, SyncPolicy.NEVER).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void saveMutation_manyTasksAdded_fileGrowsWithTasks() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        KeyValueStorage storage = new KeyValueStorage(dataFolder.toString(), FILENAME, SyncPolicy.NEVER);
+        TaskTracker taskTracker = new TaskTracker();
+        storage.saveTasks(taskTracker);
+
+        // enough tasks to split leaves and internal nodes
+        for (int i = 0; i < 20000; i++) {
+            taskTracker = applyAndSave(taskTracker, TaskMutation.ofAddition(new Todo("task " + i)), storage);
+        }
+        taskTracker = applyAndSave(taskTracker, TaskMutation.ofStatusChange(12345, true), storage);
+        taskTracker = applyAndSave(taskTracker, TaskMutation.ofDeletion(0), storage);
+        long fileLength = Files.size(dataFolder.resolve(FILENAME));
+
+        // appended tasks fill each page before the next page is started, like a rebuilt file
+        storage.saveTasks(taskTracker);
+        storage.close();
+        assertEquals(true, fileLength <= Files.size(dataFolder.resolve(FILENAME)) * 11 / 10);
+
+        TaskTracker loadedTaskTracker = new KeyValueStorage(dataFolder.toString(), FILENAME, SyncPolicy.NEVER)
+                .loadSavedTasks();
+        assertEquals(19999, loadedTaskTracker.getNumOfTasks());
+        assertEquals(taskTracker.toString(), loadedTaskTracker.toString());
+    }
+
+    @Test
+    public void saveMutation_longTaskNames_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        KeyValueStorage storage = new KeyValueStorage(dataFolder.toString(), FILENAME, SyncPolicy.EVERY_WRITE);
+        TaskTracker taskTracker = new TaskTracker();
+        storage.saveTasks(taskTracker);
+
+        // names too long to be held within a leaf, which are moved to overflow pages
+        for (int i = 0; i < 10; i++) {
+            Task task = new Todo(("long task " + i + " ").repeat(1000));
+            taskTracker = applyAndSave(taskTracker, TaskMutation.ofAddition(task), storage);
+        }
+        taskTracker = applyAndSave(taskTracker, TaskMutation.ofStatusChange(3, true), storage);
+        taskTracker = applyAndSave(taskTracker, TaskMutation.ofDeletion(5), storage);
+        long fileLength = Files.size(dataFolder.resolve(FILENAME));
+
+        // the pages freed by the replaced and deleted names are reused
+        taskTracker = applyAndSave(taskTracker, TaskMutation.ofAddition(new Todo("x".repeat(10000))), storage);
+        assertEquals(fileLength, Files.size(dataFolder.resolve(FILENAME)));
+        storage.close();
+
+        assertEquals(taskTracker.toString(), new KeyValueStorage(dataFolder.toString(), FILENAME,
+                SyncPolicy.EVERY_WRITE).loadSavedTasks().toString());
+    }
+}
@@ -29,6 +29,23 @@ public class ParserTest {
                         + "/to 1/3/2025 18:00").toString());
     }
 
+    @Test
+    public void parse_upperCaseCommandWithExtraWhitespace_success() throws Exception {
+        // command names are case-insensitive, including for tasks with names
+        assertEquals("add command: [T][ ] borrow book",
+                Parser.parse("TODO borrow book").toString());
+
+        // flags may be surrounded by any whitespace, which is kept within names and dates
+        assertEquals("add command: [E][ ] chess  training "
+                        + "(from: 1 Mar 2025, 3:00 pm to: 1 Mar 2025, 6:00 pm)",
+                Parser.parse("Event \tchess  training\t/from  1/3/2025 15:00 "
+                        + "/to\t1/3/2025 18:00").toString());
+
+        // flags joined to other words do not divide the arguments
+        assertEquals("add command: [D][ ] read a/by b (by: 1 Mar 2025, 11:00 am)",
+                Parser.parse("deadline read a/by b /by 1/3/2025 11:00").toString());
+    }
+
     @Test
     public void parse_markCorrectFormat_success() throws Exception {
         // mark provided in correct format
@@ -91,6 +108,82 @@ public class ParserTest {
                 Parser.parse("    remind  3 ").toString());
     }
 
+    @Test
+    public void parse_betweenCorrectFormat_success() throws Exception {
+        // between provided in correct format
+        assertEquals("between command: 2025-03-01T00:00 to 2025-03-07T23:59",
+                Parser.parse("between 1/3/2025 00:00 /and 7/3/2025 23:59").toString());
+    }
+
+    @Test
+    public void parse_betweenWrongOrder_exceptionThrown() {
+        // start of window is after its end
+        try {
+            assertEquals("", Parser.parse("between 7/3/2025 00:00 /and 1/3/2025 00:00").toString());
+            fail();
+        } catch (Exception ex) {
+            assertEquals("The start of the time window cannot be after its end."
+                    + "\nEg. "
+                    + "\"between 1/3/2025 00:00 /and 7/3/2025 23:59\" to list all the tasks taking place "
+                    + "from 1 Mar 2025 to 7 Mar 2025", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void parse_archiveCorrectFormat_success() throws Exception {
+        // archive provided in correct format
+        assertEquals("archive command: 30",
+                Parser.parse("archive 30").toString());
+
+        // findarchived provided in correct format
+        assertEquals("findarchived command: read book",
+                Parser.parse("findarchived read book").toString());
+    }
+
+    @Test
+    public void parse_importExportCorrectFormat_success() throws Exception {
+        // import provided in correct format
+        assertEquals("import command: my tasks.csv",
+                Parser.parse("import my tasks.csv").toString());
+
+        // export provided in correct format, with the extension in upper case
+        assertEquals("export command: calendar.ICS",
+                Parser.parse("export calendar.ICS").toString());
+    }
+
+    @Test
+    public void parse_importUnsupportedFormat_exceptionThrown() {
+        try {
+            Parser.parse("import tasks.txt");
+            fail();
+        } catch (ParserException ex) {
+            assertEquals("The file that you have provided is in an unsupported format. "
+                    + "Make sure that the file ends with \".csv\" or \".ics\"."
+                    + "\nEg. \"import tasks.csv\" to add all the tasks in the CSV file \"tasks.csv\" to the list",
+                    ex.getMessage());
+        }
+    }
+
+    @Test
+    public void tryParse_invalidInput_errorReturned() {
+        // errors are returned rather than thrown, with the same messages as parse
+        ParseResult result = Parser.tryParse("mark one");
+        assertEquals(false, result.isSuccessful());
+        assertEquals("Task number is invalid. Make sure you have added the "
+                + "correct task number after the \"mark\" command."
+                + "\nEg. \"mark 1\" to mark the first task as completed", result.getErrorMessage());
+
+        result = Parser.tryParse("deadline do laundry /by 31/2/2025 24:00");
+        assertEquals("add command: [D][ ] do laundry (by: 1 Mar 2025, 12:00 am)", result.getCommand().toString());
+
+        result = Parser.tryParse("deadline do laundry /by 32/1/2025 11:00");
+        assertEquals("The date that you have provided cannot be parsed: "
+                + "Text '32/1/2025 11:00' could not be parsed: Invalid value for DayOfMonth "
+                + "(valid values 1 - 28/31): 32"
+                + "\nPlease use the correct format for dates. For example: "
+                + "\"2/1/2003 13:18\" which means 2 Jan 2003, 1:18 pm", result.getErrorMessage());
+    }
+
     @Test
     public void parse_byeCorrectFormat_success() throws Exception {
         // bye provided in correct format
@@ -112,7 +205,8 @@ public class ParserTest {
         } catch (Exception ex) {
             assertEquals("I have no idea what that "
                             + "means. You could try:\n"
-                            + "[MARK, UNMARK, DELETE, FIND, TODO, DEADLINE, EVENT, LIST, REMIND, BYE]",
+                            + "[MARK, UNMARK, DELETE, FIND, TODO, DEADLINE, EVENT, LIST, REMIND, BETWEEN, "
+                            + "ARCHIVE, FINDARCHIVED, IMPORT, EXPORT, BYE]",
                     ex.getMessage());
         }
     }
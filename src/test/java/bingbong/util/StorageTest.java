@@ -0,0 +1,681 @@
+package bingbong.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bingbong.task.DateCodec;
+import bingbong.task.Deadline;
+import bingbong.task.Event;
+import bingbong.task.Task;
+import bingbong.task.TaskMutation;
+import bingbong.task.TaskTracker;
+import bingbong.task.Todo;
+
+public class StorageTest {
+    private static final String FILENAME = "tasks.txt";
+    private static final StorageOptions JOURNALLED = StorageOptions.DEFAULT.withJournal(true);
+
+    private static TaskTracker getInitialTaskTracker() {
+        return new TaskTracker(new ArrayList<>(List.of(new Todo("finish some stuff"),
+                new Deadline("finish ip", LocalDateTime.of(2026, 2, 14, 14, 0)))));
+    }
+
+    @Test
+    public void loadSavedTasks_afterJournalledMutations_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        // record some changes in the journal
+        List<TaskMutation> mutations = List.of(TaskMutation.ofAddition(new Todo("read book")),
+                TaskMutation.ofStatusChange(1, true),
+                TaskMutation.ofDeletion(0));
+        for (TaskMutation mutation : mutations) {
+            taskTracker = mutation.applyTo(taskTracker);
+            storage.saveMutation(mutation, taskTracker);
+        }
+
+        // snapshot is left untouched, while the journal is replayed upon loading
+        assertEquals(getInitialTaskTracker().getCombinedSavableTasks(),
+                Files.readString(dataFolder.resolve(FILENAME)));
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, JOURNALLED).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void loadSavedTasks_tornJournalRecord_recordIgnored() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        TaskMutation mutation = TaskMutation.ofDeletion(0);
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+
+        // simulate a crash midway through appending a record
+        appendToJournal(dataFolder, "A | T | 0 | read bo");
+        Storage reloadedStorage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        assertEquals(taskTracker.toString(), reloadedStorage.loadSavedTasks().toString());
+
+        // new records are appended after the last complete record
+        mutation = TaskMutation.ofAddition(new Todo("read book"));
+        taskTracker = mutation.applyTo(taskTracker);
+        reloadedStorage.saveMutation(mutation, taskTracker);
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, JOURNALLED).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void loadSavedTasks_journalForOtherSnapshot_journalQuarantined() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        TaskMutation mutation = TaskMutation.ofDeletion(0);
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+        String journal = Files.readString(getJournalPath(dataFolder));
+
+        // journal written for an older snapshot is left behind after saving
+        storage.saveTasks(taskTracker);
+        Files.writeString(getJournalPath(dataFolder), journal);
+        Storage reloadedStorage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        assertEquals(taskTracker.toString(), reloadedStorage.loadSavedTasks().toString());
+        assertEquals(true, reloadedStorage.getLoadWarning().orElseThrow().contains("could not be applied"));
+        assertEquals(true, Files.readString(dataFolder.resolve(FILENAME + ".quarantine")).contains("D | 0"));
+        assertEquals(false, Files.exists(getJournalPath(dataFolder)));
+    }
+
+    @Test
+    public void close_journalledChanges_foldedIntoTaskFile() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        List<TaskMutation> mutations = List.of(TaskMutation.ofAddition(new Todo("read book")),
+                TaskMutation.ofStatusChange(2, true));
+        for (TaskMutation mutation : mutations) {
+            taskTracker = mutation.applyTo(taskTracker);
+            storage.saveMutation(mutation, taskTracker);
+        }
+        storage.close();
+        assertEquals(taskTracker.getCombinedSavableTasks(), Files.readString(dataFolder.resolve(FILENAME)));
+        assertEquals(false, Files.exists(getJournalPath(dataFolder)));
+
+        // editing the task file while the app is closed keeps every change
+        String editedTasks = taskTracker.getCombinedSavableTasks().replace("finish some stuff", "finish all stuff");
+        Files.writeString(dataFolder.resolve(FILENAME), editedTasks);
+        Storage reloadedStorage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        assertEquals(editedTasks, reloadedStorage.loadSavedTasks().getCombinedSavableTasks());
+        assertEquals(true, reloadedStorage.getLoadWarning().isEmpty());
+    }
+
+    @Test
+    public void loadSavedTasks_invalidJournalRecord_exceptionThrown() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        TaskMutation mutation = TaskMutation.ofDeletion(0);
+        storage.saveMutation(mutation, mutation.applyTo(taskTracker));
+
+        // index is out of bounds of the task list
+        appendToJournal(dataFolder, "D | 5\n");
+        try {
+            new Storage(dataFolder.toString(), FILENAME, JOURNALLED).loadSavedTasks();
+            fail();
+        } catch (StorageException ex) {
+            assertEquals(true, ex.getMessage().contains("The file might be corrupted"));
+        }
+    }
+
+    @Test
+    public void saveMutation_journalPastLimit_journalCompacted() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED.withCompactionRecordLimit(2));
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        // third record exceeds the limit
+        List<TaskMutation> mutations = List.of(TaskMutation.ofAddition(new Todo("read book")),
+                TaskMutation.ofStatusChange(1, true),
+                TaskMutation.ofDeletion(0));
+        for (TaskMutation mutation : mutations) {
+            taskTracker = mutation.applyTo(taskTracker);
+            storage.saveMutation(mutation, taskTracker);
+        }
+        storage.awaitCompaction();
+        assertEquals(taskTracker.getCombinedSavableTasks(),
+                Files.readString(dataFolder.resolve(FILENAME)));
+
+        // later records are appended to the compacted journal
+        TaskMutation mutation = TaskMutation.ofStatusChange(0, true);
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+        assertEquals(2, Files.readAllLines(getJournalPath(dataFolder)).size());
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, JOURNALLED).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void close_compactionInProgress_reopenedTasksComplete() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        StorageOptions options = JOURNALLED.withCompactionRecordLimit(2);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        new Storage(dataFolder.toString(), FILENAME, options).saveTasks(taskTracker);
+
+        // each session is reopened right after the previous one is closed, while compactions may be running
+        for (int session = 0; session < 20; session++) {
+            Storage storage = new Storage(dataFolder.toString(), FILENAME, options);
+            assertEquals(taskTracker.toString(), storage.loadSavedTasks().toString());
+            for (int i = 0; i < 20; i++) {
+                TaskMutation mutation = i % 3 == 2
+                        ? TaskMutation.ofStatusChange(i % taskTracker.getNumOfTasks(), true)
+                        : TaskMutation.ofAddition(new Todo("task " + session + " " + i));
+                taskTracker = mutation.applyTo(taskTracker);
+                storage.saveMutation(mutation, taskTracker);
+            }
+            storage.close();
+        }
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, options).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void flush_writeBehind_latestTasksSaved() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED.withWriteBehind(true));
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        for (int i = 0; i < 20; i++) {
+            TaskMutation mutation = TaskMutation.ofAddition(new Todo("task " + i));
+            taskTracker = mutation.applyTo(taskTracker);
+            storage.saveMutation(mutation, taskTracker);
+        }
+        storage.flush();
+
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, JOURNALLED).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void flush_writeBehindFailure_exceptionThrown() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED.withWriteBehind(true));
+
+        // task file cannot be written, as a folder is in its place
+        Files.createDirectory(dataFolder.resolve(FILENAME));
+        storage.saveTasks(getInitialTaskTracker());
+        try {
+            storage.flush();
+            fail();
+        } catch (StorageException ex) {
+            assertEquals(true, ex.getMessage().startsWith("Some recent changes could not be saved"));
+        }
+    }
+
+    @Test
+    public void saveMutation_journalWriteFailure_nextChangeSavedInFull() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        TaskMutation mutation = TaskMutation.ofAddition(new Todo("read book"));
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+
+        // journal cannot be written, as a folder is in its place
+        Files.delete(getJournalPath(dataFolder));
+        Files.createDirectory(getJournalPath(dataFolder));
+        mutation = TaskMutation.ofDeletion(0);
+        taskTracker = mutation.applyTo(taskTracker);
+        try {
+            storage.saveMutation(mutation, taskTracker);
+            fail();
+        } catch (StorageException ex) {
+            assertEquals(true, ex.getMessage().startsWith("Something went wrong when saving the tasks"));
+        }
+
+        // change missed by the journal is still saved, along with the next change
+        Files.delete(getJournalPath(dataFolder));
+        mutation = TaskMutation.ofStatusChange(0, true);
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, JOURNALLED).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void saveMutation_syncPolicies_success() throws Exception {
+        List<StorageOptions> optionsList = List.of(JOURNALLED.withSyncPolicy(StorageOptions.SyncPolicy.EVERY_WRITE),
+                JOURNALLED.withSyncInterval(50),
+                StorageOptions.DEFAULT.withSyncPolicy(StorageOptions.SyncPolicy.EVERY_WRITE));
+        for (StorageOptions options : optionsList) {
+            Path dataFolder = Files.createTempDirectory("bingbong");
+            Storage storage = new Storage(dataFolder.toString(), FILENAME, options);
+            TaskTracker taskTracker = getInitialTaskTracker();
+            storage.saveTasks(taskTracker);
+
+            for (int i = 0; i < 5; i++) {
+                TaskMutation mutation = TaskMutation.ofAddition(new Todo("task " + i));
+                taskTracker = mutation.applyTo(taskTracker);
+                storage.saveMutation(mutation, taskTracker);
+            }
+            storage.flush();
+
+            // temporary snapshot has been renamed to the task file
+            assertEquals(false, Files.exists(dataFolder.resolve(FILENAME + ".tmp")));
+            assertEquals(taskTracker.toString(),
+                    new Storage(dataFolder.toString(), FILENAME, options).loadSavedTasks().toString());
+        }
+    }
+
+    @Test
+    public void loadSavedTasks_handWrittenFile_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Files.writeString(dataFolder.resolve(FILENAME), "T | X | read book\r\n"
+                + "D |   | finish ip | 31/2/2026 09:05\n"
+                + "E | X | play basketball | 17/2/2026 15:00 | 17/2/2026 17:00\n");
+
+        // line terminators of both kinds, and days beyond the end of the month
+        assertEquals("[T][X] read book\n"
+                        + "[D][ ] finish ip (by: 28 Feb 2026, 9:05 am)\n"
+                        + "[E][X] play basketball (from: 17 Feb 2026, 3:00 pm to: 17 Feb 2026, 5:00 pm)",
+                new Storage(dataFolder.toString(), FILENAME).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void loadSavedTasks_unusualDates_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME);
+        TaskTracker taskTracker = new TaskTracker(new ArrayList<>(List.of(
+                new Deadline("finish ip", DateCodec.parse("1/1/+10000 10:00")))));
+        storage.saveTasks(taskTracker);
+
+        // a 5-digit year, as saved by the app, is loaded rather than quarantined
+        Storage reloadedStorage = new Storage(dataFolder.toString(), FILENAME);
+        assertEquals(taskTracker.toString(), reloadedStorage.loadSavedTasks().toString());
+        assertEquals(true, reloadedStorage.getLoadWarning().isEmpty());
+
+        // as is the end of a day
+        Files.writeString(dataFolder.resolve(FILENAME), "D |   | finish ip | 31/12/2026 24:00\n");
+        assertEquals("[D][ ] finish ip (by: 1 Jan 2027, 12:00 am)",
+                new Storage(dataFolder.toString(), FILENAME).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void loadSavedTasks_largeFile_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME);
+
+        // large enough for the file to be memory-mapped
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            tasks.add(new Deadline("task " + i, LocalDateTime.of(2026, 1 + i % 12, 1 + i % 28, i % 24, i % 60)));
+        }
+        TaskTracker taskTracker = new TaskTracker(tasks);
+        storage.saveTasks(taskTracker);
+
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void saveTasks_nonAsciiNames_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME);
+
+        // names of varying lengths in bytes, so that tasks straddle the ends of the write buffer
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            tasks.add(new Todo("\u8bfb\u4e66 \uD83D\uDCDA caf\u00e9 " + "\u00e9".repeat(i % 7)));
+        }
+        TaskTracker taskTracker = new TaskTracker(tasks);
+        storage.saveTasks(taskTracker);
+
+        assertEquals(taskTracker.getCombinedSavableTasks(), Files.readString(dataFolder.resolve(FILENAME)));
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void loadSavedTasks_invalidDate_lineQuarantined() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Files.writeString(dataFolder.resolve(FILENAME), "T | X | read book\n"
+                + "D |   | finish ip | 1/13/2026 09:05\n"
+                + "T |   | return book\n");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME);
+
+        // every other line is still loaded
+        assertEquals(2, storage.loadSavedTasks().getNumOfTasks());
+        assertEquals(true, storage.getLoadWarning().orElseThrow().contains("line 2"));
+        assertEquals(true, Files.readString(dataFolder.resolve(FILENAME + ".quarantine"))
+                .contains("D |   | finish ip | 1/13/2026 09:05\n"));
+    }
+
+    @Test
+    public void loadSavedTasks_largeFileInvalidLine_lineQuarantined() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        StringBuilder savedTasks = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            savedTasks.append(i == 76543 ? "Q | X | read book\n" : "T | X | read book\n");
+        }
+        Files.writeString(dataFolder.resolve(FILENAME), savedTasks);
+
+        // line number counts the lines in every chunk before the invalid line
+        Storage storage = new Storage(dataFolder.toString(), FILENAME);
+        assertEquals(99999, storage.loadSavedTasks().getNumOfTasks());
+        assertEquals(true, storage.getLoadWarning().orElseThrow()
+                .contains("line 76544: Invalid task icons in saved task file"));
+    }
+
+    @Test
+    public void loadSavedTasks_damagedBinaryBlock_blockQuarantined() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        StorageOptions options = JOURNALLED.withFormat(StorageOptions.Format.BINARY);
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, options);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            tasks.add(new Todo("read book " + i));
+        }
+        TaskTracker taskTracker = new TaskTracker(tasks);
+        storage.saveTasks(taskTracker);
+        TaskMutation mutation = TaskMutation.ofDeletion(0);
+        storage.saveMutation(mutation, mutation.applyTo(taskTracker));
+
+        // damage a single byte within the second block
+        byte[] savedBytes = Files.readAllBytes(dataFolder.resolve(FILENAME));
+        savedBytes[100000] ^= 1;
+        Files.write(dataFolder.resolve(FILENAME), savedBytes);
+
+        // only the tasks in the damaged block are lost, while the journal is quarantined as well
+        Storage damagedStorage = new Storage(dataFolder.toString(), FILENAME, options);
+        TaskTracker loadedTaskTracker = damagedStorage.loadSavedTasks();
+        assertEquals(true, loadedTaskTracker.getNumOfTasks() > 25000);
+        assertEquals(true, loadedTaskTracker.getNumOfTasks() < 30000);
+        assertEquals("[T][ ] read book 0", loadedTaskTracker.getTask(0).toString());
+        String warning = damagedStorage.getLoadWarning().orElseThrow();
+        assertEquals(true, warning.contains("block 2"));
+        assertEquals(true, warning.contains("Block fails its checksum"));
+        assertEquals(true, Files.readString(dataFolder.resolve(FILENAME + ".quarantine"))
+                .contains("tasks.txt.journal: not replayed"));
+
+        // the next save replaces the damaged file
+        damagedStorage.saveTasks(loadedTaskTracker);
+        Storage savedStorage = new Storage(dataFolder.toString(), FILENAME, options);
+        assertEquals(loadedTaskTracker.toString(), savedStorage.loadSavedTasks().toString());
+        assertEquals(true, savedStorage.getLoadWarning().isEmpty());
+    }
+
+    @Test
+    public void loadSavedTasks_binaryFormat_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        StorageOptions options = JOURNALLED.withFormat(StorageOptions.Format.BINARY);
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, options);
+        TaskTracker taskTracker = getInitialTaskTracker()
+                .addTask(new Event("meet a | b", LocalDateTime.of(2026, 2, 17, 15, 0),
+                        LocalDateTime.of(2026, 2, 17, 17, 0)));
+        storage.saveTasks(taskTracker);
+
+        // names containing the text divider are kept intact, including in the journal
+        TaskMutation mutation = TaskMutation.ofAddition(new Todo("read a | b"));
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+        mutation = TaskMutation.ofStatusChange(2, true);
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, options).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void archiveTasks_doneTasks_searchableButNotLoaded() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        TaskTracker taskTracker = getInitialTaskTracker()
+                .addTask(new Todo(new Todo("read book"), true))
+                .addTask(new Deadline(new Deadline("return book", LocalDateTime.of(2026, 1, 2, 9, 0)), true))
+                .addTask(new Deadline(new Deadline("return book", LocalDateTime.of(2026, 3, 2, 9, 0)), true));
+        storage.saveTasks(taskTracker);
+
+        // archive twice, appending to the same archive
+        LocalDateTime cutoff = LocalDateTime.of(2026, 2, 1, 0, 0);
+        storage.archiveTasks(taskTracker.getDoneTasksBefore(cutoff).deleteTask(1));
+        storage.archiveTasks(taskTracker.getDoneTasksBefore(cutoff).deleteTask(0));
+        taskTracker = taskTracker.deleteDoneTasksBefore(cutoff);
+        storage.saveTasks(taskTracker);
+
+        Storage loadedStorage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        assertEquals(taskTracker.toString(), loadedStorage.loadSavedTasks().toString());
+        assertEquals(3, taskTracker.getNumOfTasks());
+        assertEquals("[T][X] read book\n[D][X] return book (by: 2 Jan 2026, 9:00 am)",
+                loadedStorage.loadArchivedTasks("book").toString());
+        assertEquals("1. [D][X] return book (by: 2 Jan 2026, 9:00 am)",
+                loadedStorage.loadArchivedTasks("return").getMatchingTasks("return").toString());
+    }
+
+    @Test
+    public void writeTaskFile_binaryToText_success() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME,
+                StorageOptions.DEFAULT.withFormat(StorageOptions.Format.BINARY));
+        TaskTracker taskTracker = getInitialTaskTracker();
+        String textPath = dataFolder.resolve("copy.txt").toString();
+        String binaryPath = dataFolder.resolve("copy.bin").toString();
+
+        // write to text, then read it back and write it to binary
+        storage.writeTaskFile(taskTracker, textPath, StorageOptions.Format.TEXT);
+        assertEquals(taskTracker.getCombinedSavableTasks(), Files.readString(Path.of(textPath)));
+        TaskTracker importedTaskTracker = storage.readTaskFile(textPath, StorageOptions.Format.TEXT);
+        storage.writeTaskFile(importedTaskTracker, binaryPath, StorageOptions.Format.BINARY);
+        assertEquals(taskTracker.toString(),
+                storage.readTaskFile(binaryPath, StorageOptions.Format.BINARY).toString());
+    }
+
+    @Test
+    public void readTaskFile_truncatedBinaryFile_exceptionThrown() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME);
+        Path binaryPath = dataFolder.resolve("copy.bin");
+        storage.writeTaskFile(getInitialTaskTracker(), binaryPath.toString(), StorageOptions.Format.BINARY);
+
+        byte[] bytes = Files.readAllBytes(binaryPath);
+        Files.write(binaryPath, Arrays.copyOf(bytes, bytes.length - 3));
+        try {
+            storage.readTaskFile(binaryPath.toString(), StorageOptions.Format.BINARY);
+            fail();
+        } catch (StorageException ex) {
+            assertEquals(true, ex.getMessage().contains("ends unexpectedly"));
+        }
+    }
+
+    @Test
+    public void saveMutation_recordFormat_updatedInPlace() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        StorageOptions options = StorageOptions.DEFAULT.withFormat(StorageOptions.Format.RECORDS)
+                .withCompactionRecordLimit(2);
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, options);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+        long fileSize = Files.size(dataFolder.resolve(FILENAME));
+
+        // status changes only rewrite the status of the record
+        List<TaskMutation> mutations = List.of(TaskMutation.ofStatusChange(1, true),
+                TaskMutation.ofStatusChange(0, true),
+                TaskMutation.ofStatusChange(0, false));
+        for (TaskMutation mutation : mutations) {
+            taskTracker = mutation.applyTo(taskTracker);
+            storage.saveMutation(mutation, taskTracker);
+        }
+        assertEquals(fileSize, Files.size(dataFolder.resolve(FILENAME)));
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, options).loadSavedTasks().toString());
+
+        // new tasks and deletions, beyond the spare room and the limit of deleted records
+        Storage reloadedStorage = new Storage(dataFolder.toString(), FILENAME, options);
+        taskTracker = reloadedStorage.loadSavedTasks();
+        for (int i = 0; i < 100; i++) {
+            TaskMutation mutation = i % 3 == 2
+                    ? TaskMutation.ofDeletion(i % taskTracker.getNumOfTasks())
+                    : TaskMutation.ofAddition(new Deadline("task " + i, LocalDateTime.of(2026, 3, 1, 9, i % 60)));
+            taskTracker = mutation.applyTo(taskTracker);
+            reloadedStorage.saveMutation(mutation, taskTracker);
+        }
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, options).loadSavedTasks().toString());
+        assertEquals(taskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, options.withLazyLoading(true)).loadSavedTasks()
+                        .toString());
+    }
+
+    @Test
+    public void loadSavedTasks_lazyLoading_success() throws Exception {
+        for (StorageOptions.Format format : StorageOptions.Format.values()) {
+            Path dataFolder = Files.createTempDirectory("bingbong");
+            StorageOptions options = JOURNALLED.withFormat(format).withLazyLoading(true);
+            Storage storage = new Storage(dataFolder.toString(), FILENAME, options);
+            ArrayList<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < 50000; i++) {
+                tasks.add(new Event("event " + i, LocalDateTime.of(2026, 2, 1 + i % 28, 15, 0),
+                        LocalDateTime.of(2026, 3, 1 + i % 28, 17, 0)));
+            }
+            storage.saveTasks(new TaskTracker(tasks));
+
+            // tasks are decoded as they are accessed, including by changes and queries
+            TaskTracker taskTracker = new Storage(dataFolder.toString(), FILENAME, options).loadSavedTasks();
+            assertEquals("[E][ ] event 49999 (from: 20 Feb 2026, 3:00 pm to: 20 Mar 2026, 5:00 pm)",
+                    taskTracker.getTask(49999).toString());
+            TaskMutation mutation = TaskMutation.ofStatusChange(1, true);
+            taskTracker = mutation.applyTo(taskTracker);
+            storage.saveMutation(mutation, taskTracker);
+            mutation = TaskMutation.ofDeletion(0);
+            taskTracker = mutation.applyTo(taskTracker);
+            storage.saveMutation(mutation, taskTracker);
+            assertEquals(1785, taskTracker.getTasksBetween(LocalDateTime.of(2026, 2, 28, 0, 0),
+                    LocalDateTime.of(2026, 2, 28, 23, 59)).toString().split("\n").length);
+
+            assertEquals(taskTracker.toString(),
+                    new Storage(dataFolder.toString(), FILENAME, options).loadSavedTasks().toString());
+        }
+    }
+
+    @Test
+    public void loadSavedTasks_lazyLoadingInvalidLine_lineQuarantined() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Files.writeString(dataFolder.resolve(FILENAME), "T | X | read book\n"
+                + "D |   | finish ip | 1/13/2026 09:05\n"
+                + "E |   | play basketball | 17/2/2026 15:00 | 17/2/2026 17:00\n");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME,
+                StorageOptions.DEFAULT.withLazyLoading(true));
+        TaskTracker taskTracker = storage.loadSavedTasks();
+
+        // damaged line is found upfront, as when every task is loaded upfront
+        assertEquals("[T][X] read book\n"
+                        + "[E][ ] play basketball (from: 17 Feb 2026, 3:00 pm to: 17 Feb 2026, 5:00 pm)",
+                taskTracker.toString());
+        assertEquals(true, storage.getLoadWarning().orElseThrow().contains("line 2"));
+        assertEquals(true, Files.readString(dataFolder.resolve(FILENAME + ".quarantine"))
+                .contains("D |   | finish ip | 1/13/2026 09:05\n"));
+    }
+
+    @Test
+    public void reloadChangedTasks_editWithJournalledChange_bothKept() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+        assertEquals(true, storage.reloadChangedTasks(taskTracker) == taskTracker);
+
+        TaskMutation mutation = TaskMutation.ofAddition(new Todo("read book"));
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+
+        // another program marks the first task and inserts a task after it
+        Task markedTask = getInitialTaskTracker().changeTaskStatusAtIndex(0, true);
+        Task insertedTask = new Todo("buy milk");
+        Files.writeString(dataFolder.resolve(FILENAME), markedTask.getSavableString() + "\n"
+                + insertedTask.getSavableString() + "\n"
+                + getInitialTaskTracker().getTask(1).getSavableString() + "\n");
+
+        TaskTracker expectedTaskTracker = taskTracker.editTask(0, markedTask)
+                .replaceTasks(1, 1, List.of(insertedTask));
+        TaskTracker reloadedTaskTracker = storage.reloadChangedTasks(taskTracker);
+        assertEquals(expectedTaskTracker.toString(), reloadedTaskTracker.toString());
+
+        // the journal no longer applies to the edited file, so the reloaded tasks are saved in full
+        assertEquals(reloadedTaskTracker.getCombinedSavableTasks(), Files.readString(dataFolder.resolve(FILENAME)));
+        assertEquals(reloadedTaskTracker.toString(),
+                new Storage(dataFolder.toString(), FILENAME, JOURNALLED).loadSavedTasks().toString());
+    }
+
+    @Test
+    public void reloadChangedTasks_distantEditedLines_changeBetweenKept() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME, JOURNALLED);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        TaskTracker taskTracker = new TaskTracker(tasks);
+        storage.saveTasks(taskTracker);
+
+        // the fifth task is marked in the app, then another program renames the first and last tasks
+        TaskMutation mutation = TaskMutation.ofStatusChange(4, true);
+        taskTracker = mutation.applyTo(taskTracker);
+        storage.saveMutation(mutation, taskTracker);
+        Files.writeString(dataFolder.resolve(FILENAME), new TaskTracker(tasks).getCombinedSavableTasks()
+                .replace("task 10", "last task")
+                .replace("task 1\n", "first task\n"));
+
+        TaskTracker reloadedTaskTracker = storage.reloadChangedTasks(taskTracker);
+        assertEquals(true, reloadedTaskTracker.getTask(0).toString().endsWith("first task"));
+        assertEquals(true, reloadedTaskTracker.getTask(4).toString().startsWith("[T][X]"));
+        assertEquals(true, reloadedTaskTracker.getTask(9).toString().endsWith("last task"));
+        assertEquals(10, reloadedTaskTracker.getNumOfTasks());
+    }
+
+    @Test
+    public void reloadChangedTasks_invalidEditedLine_exceptionThrown() throws Exception {
+        Path dataFolder = Files.createTempDirectory("bingbong");
+        Storage storage = new Storage(dataFolder.toString(), FILENAME);
+        TaskTracker taskTracker = getInitialTaskTracker();
+        storage.saveTasks(taskTracker);
+
+        Files.writeString(dataFolder.resolve(FILENAME), getInitialTaskTracker().getCombinedSavableTasks()
+                + "\nD |   | finish ip | 1/13/2026 09:05");
+        try {
+            storage.reloadChangedTasks(taskTracker);
+            fail();
+        } catch (StorageException ex) {
+            assertEquals(true, ex.getMessage().contains("(line 3)"));
+        }
+    }
+
+    private static Path getJournalPath(Path dataFolder) {
+        return dataFolder.resolve(FILENAME + ".journal");
+    }
+
+    private static void appendToJournal(Path dataFolder, String text) throws IOException {
+        Files.writeString(getJournalPath(dataFolder), text, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+}
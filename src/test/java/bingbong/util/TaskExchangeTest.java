@@ -0,0 +1,101 @@
+package bingbong.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bingbong.task.Deadline;
+import bingbong.task.Event;
+import bingbong.task.TaskTracker;
+import bingbong.task.Todo;
+
+public class TaskExchangeTest {
+    private static TaskTracker getTaskTracker() {
+        return new TaskTracker(new ArrayList<>(List.of(
+                new Todo(new Todo("buy milk, eggs and \"fresh\" bread"), true),
+                new Deadline("finish ip; then rest \\ relax", LocalDateTime.of(2026, 2, 14, 14, 0)),
+                new Event(new Event("chess training " + "x".repeat(100), LocalDateTime.of(2026, 3, 1, 15, 0),
+                        LocalDateTime.of(2026, 3, 1, 18, 0)), true))));
+    }
+
+    @Test
+    public void importTasks_exportedCsv_success() throws Exception {
+        Path path = Files.createTempDirectory("bingbong").resolve("tasks.csv");
+        TaskTracker taskTracker = getTaskTracker();
+        TaskExchange.exportTasks(taskTracker, path.toString(), TaskExchange.Format.CSV);
+
+        assertEquals(taskTracker.toString(), new TaskTracker(TaskExchange.importTasks(path.toString(),
+                TaskExchange.Format.CSV)).toString());
+    }
+
+    @Test
+    public void importTasks_exportedIcs_success() throws Exception {
+        Path path = Files.createTempDirectory("bingbong").resolve("tasks.ics");
+        TaskTracker taskTracker = getTaskTracker();
+        TaskExchange.exportTasks(taskTracker, path.toString(), TaskExchange.Format.ICS);
+
+        // long lines are folded
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            assertEquals(true, line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        assertEquals(taskTracker.toString(), new TaskTracker(TaskExchange.importTasks(path.toString(),
+                TaskExchange.Format.ICS)).toString());
+    }
+
+    @Test
+    public void importTasks_icsFromCalendarApp_success() throws Exception {
+        Path path = Files.createTempDirectory("bingbong").resolve("calendar.ics");
+        Files.writeString(path, String.join("\r\n",
+                "BEGIN:VCALENDAR",
+                "VERSION:2.0",
+                "PRODID:-//Some Calendar//EN",
+                "BEGIN:VEVENT",
+                "UID:1",
+                "DTSTART;TZID=\"Asia/Singapore\":20260301T150000",
+                "DURATION:PT3H",
+                "SUMMARY:chess ",
+                " training",
+                "BEGIN:VALARM",
+                "SUMMARY:reminder",
+                "END:VALARM",
+                "END:VEVENT",
+                "BEGIN:VTODO",
+                "UID:2",
+                "SUMMARY:finish ip",
+                "DUE;VALUE=DATE:20260214",
+                "COMPLETED:20260213T100000Z",
+                "END:VTODO",
+                "BEGIN:VTODO",
+                "SUMMARY:buy milk\\, eggs",
+                "END:VTODO",
+                "END:VCALENDAR",
+                ""), StandardCharsets.UTF_8);
+
+        assertEquals("[E][ ] chess training (from: 1 Mar 2026, 3:00 pm to: 1 Mar 2026, 6:00 pm)\n"
+                        + "[D][X] finish ip (by: 14 Feb 2026, 12:00 am)\n"
+                        + "[T][ ] buy milk, eggs",
+                new TaskTracker(TaskExchange.importTasks(path.toString(), TaskExchange.Format.ICS)).toString());
+    }
+
+    @Test
+    public void importTasks_invalidCsvRow_exceptionThrown() throws Exception {
+        Path path = Files.createTempDirectory("bingbong").resolve("tasks.csv");
+        Files.writeString(path, "name,type,by\nread book,todo,\nfinish ip,deadline,tomorrow\n",
+                StandardCharsets.UTF_8);
+
+        try {
+            TaskExchange.importTasks(path.toString(), TaskExchange.Format.CSV);
+            fail();
+        } catch (StorageException ex) {
+            assertEquals(true, ex.getMessage().endsWith("(row 3)"));
+        }
+    }
+}